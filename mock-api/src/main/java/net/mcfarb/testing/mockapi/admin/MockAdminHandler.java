@@ -0,0 +1,169 @@
+package net.mcfarb.testing.mockapi.admin;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.mcfarb.testing.ddmock.model.MockRestMethodInfo;
+import net.mcfarb.testing.ddmock.service.MockResourceStore;
+import net.mcfarb.testing.mockapi.router.MockApiDispatcher;
+import net.mcfarb.testing.mockapi.router.MockApiLoader;
+import reactor.core.publisher.Mono;
+
+/**
+ * Admin endpoints for runtime mocks and resource state, see
+ * {@link MockAdminRouterConfiguration}.
+ *
+ * Bodies are read with the same ObjectMapper as mock files, so a mock can be
+ * pushed in exactly the format it would have in a file.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MockAdminHandler {
+
+	/**
+	 * A runtime mock as returned by the admin API.
+	 *
+	 * @param routes "METHOD path" of every route the mock answers
+	 */
+	public record RuntimeMockView(String namespace, String id, List<String> routes, Instant expiresAt) {
+
+		static RuntimeMockView of(RuntimeMock mock) {
+			List<String> routes = mock.api().provider().getRestMethods().stream()
+					.map(RuntimeMockView::describe)
+					.toList();
+			return new RuntimeMockView(mock.key().namespace(), mock.key().id(), routes, mock.expiresAt());
+		}
+
+		private static String describe(MockRestMethodInfo method) {
+			return (method.getHttpMethod() != null ? method.getHttpMethod().toUpperCase() : "*") + " "
+					+ method.getPath();
+		}
+	}
+
+	/**
+	 * A resource of a mock file as returned by the admin API.
+	 */
+	public record ResourceView(String api, String name, int size) {
+	}
+
+	private final RuntimeMockRegistry registry;
+	private final MockApiLoader mockApiLoader;
+	private final MockApiDispatcher dispatcher;
+
+	public Mono<ServerResponse> list(ServerRequest request) {
+		List<RuntimeMockView> mocks = registry.list(request.queryParam("namespace").orElse(null)).stream()
+				.map(RuntimeMockView::of)
+				.toList();
+		return ServerResponse.ok().bodyValue(mocks);
+	}
+
+	public Mono<ServerResponse> put(ServerRequest request) {
+		return read(request, RuntimeMockDefinition.class)
+				.map(registry::put)
+				.flatMap(mock -> ServerResponse.status(HttpStatus.CREATED).bodyValue(RuntimeMockView.of(mock)))
+				.onErrorResume(IllegalArgumentException.class, MockAdminHandler::badRequest);
+	}
+
+	public Mono<ServerResponse> batch(ServerRequest request) {
+		return read(request, RuntimeMockBatch.class)
+				.map(registry::apply)
+				.flatMap(mocks -> ServerResponse.ok().bodyValue(mocks.stream().map(RuntimeMockView::of).toList()))
+				.onErrorResume(IllegalArgumentException.class, MockAdminHandler::badRequest);
+	}
+
+	public Mono<ServerResponse> delete(ServerRequest request) {
+		RuntimeMockKey key = new RuntimeMockKey(request.pathVariable("namespace"), request.pathVariable("id"));
+		return registry.remove(key) ? ServerResponse.noContent().build() : ServerResponse.notFound().build();
+	}
+
+	public Mono<ServerResponse> clearNamespace(ServerRequest request) {
+		int removed = registry.clearNamespace(request.pathVariable("namespace"));
+		return ServerResponse.ok().bodyValue(Map.of("removed", removed));
+	}
+
+	public Mono<ServerResponse> listResources(ServerRequest request) {
+		List<ResourceView> resources = new ArrayList<>();
+		dispatcher.getMockApis().forEach(api -> api.provider().getResources().values()
+				.forEach(store -> resources.add(new ResourceView(api.name(), store.getName(), store.size()))));
+		return ServerResponse.ok().bodyValue(resources);
+	}
+
+	public Mono<ServerResponse> resetResources(ServerRequest request) {
+		List<MockResourceStore> stores = resources(null);
+		stores.forEach(MockResourceStore::reset);
+		return ServerResponse.ok().bodyValue(Map.of("reset", stores.size()));
+	}
+
+	public Mono<ServerResponse> resetResource(ServerRequest request) {
+		return withResources(request, store -> {
+			store.reset();
+			return true;
+		});
+	}
+
+	public Mono<ServerResponse> snapshotResource(ServerRequest request) {
+		String snapshot = request.pathVariable("snapshot");
+		return withResources(request, store -> {
+			store.snapshot(snapshot);
+			return true;
+		});
+	}
+
+	public Mono<ServerResponse> restoreResource(ServerRequest request) {
+		String snapshot = request.pathVariable("snapshot");
+		return withResources(request, store -> store.restore(snapshot));
+	}
+
+	/**
+	 * Applies {@code action} to every resource with the request's name, 404 when
+	 * there is none or the action fails for one of them.
+	 */
+	private Mono<ServerResponse> withResources(ServerRequest request, Predicate<MockResourceStore> action) {
+		List<MockResourceStore> stores = resources(request.pathVariable("name"));
+		boolean applied = !stores.isEmpty();
+		for (MockResourceStore store : stores) {
+			applied &= action.test(store);
+		}
+		return applied ? ServerResponse.noContent().build() : ServerResponse.notFound().build();
+	}
+
+	// resources of the mock files, all of them when name is null
+	private List<MockResourceStore> resources(String name) {
+		return dispatcher.getMockApis().stream()
+				.flatMap(api -> api.provider().getResources().values().stream())
+				.filter(store -> name == null || store.getName().equals(name))
+				.toList();
+	}
+
+	private <T> Mono<T> read(ServerRequest request, Class<T> type) {
+		return request.bodyToMono(byte[].class)
+				.switchIfEmpty(Mono.error(new IllegalArgumentException("Request body is required")))
+				.map(body -> {
+					try {
+						return mockApiLoader.getObjectMapper().readValue(body, type);
+					} catch (IOException e) {
+						throw new IllegalArgumentException("Request body is not a valid "
+								+ type.getSimpleName() + ": " + e.getMessage(), e);
+					}
+				});
+	}
+
+	private static Mono<ServerResponse> badRequest(IllegalArgumentException e) {
+		log.warn("Rejected runtime mock change: {}", e.getMessage());
+		return ServerResponse.badRequest().bodyValue(Map.of(
+				"error", "Invalid runtime mock",
+				"message", e.getMessage()));
+	}
+}
@@ -0,0 +1,63 @@
+package net.mcfarb.testing.mockapi.admin;
+
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * Admin API for adding and removing mocks at runtime, and for resetting the
+ * state of resources between tests.
+ *
+ * <pre>
+ * GET    /mock-admin/mocks[?namespace=]          list runtime mocks
+ * POST   /mock-admin/mocks                       add or replace one mock
+ * PUT    /mock-admin/mocks                       same as POST
+ * POST   /mock-admin/batch                       apply many changes atomically
+ * DELETE /mock-admin/mocks/{namespace}/{id}      remove one mock
+ * DELETE /mock-admin/namespaces/{namespace}      remove a namespace's mocks
+ *
+ * GET    /mock-admin/resources                                      list resources
+ * POST   /mock-admin/resources/reset                                reset all to their seed
+ * POST   /mock-admin/resources/{name}/reset                         reset one to its seed
+ * POST   /mock-admin/resources/{name}/snapshots/{snapshot}          save its records
+ * POST   /mock-admin/resources/{name}/snapshots/{snapshot}/restore  restore saved records
+ * </pre>
+ *
+ * Routed ahead of the mocks, so a mock can never shadow the admin API.
+ * Disable with {@code mock.api.admin.enabled=false}. Request and response
+ * bodies are bound with Jackson, so they are registered for reflection in a
+ * native image.
+ */
+@Configuration
+@RegisterReflectionForBinding({ RuntimeMockDefinition.class, RuntimeMockBatch.class,
+		MockAdminHandler.RuntimeMockView.class, MockAdminHandler.ResourceView.class })
+@ConditionalOnProperty(prefix = "mock.api.admin", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class MockAdminRouterConfiguration {
+
+	public static final String ADMIN_PATH = "/mock-admin";
+
+	@Bean
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	public RouterFunction<ServerResponse> mockAdminRoutes(MockAdminHandler handler) {
+		return RouterFunctions.route()
+				.path(ADMIN_PATH, builder -> builder
+						.GET("/mocks", handler::list)
+						.POST("/mocks", handler::put)
+						.PUT("/mocks", handler::put)
+						.POST("/batch", handler::batch)
+						.DELETE("/mocks/{namespace}/{id}", handler::delete)
+						.DELETE("/namespaces/{namespace}", handler::clearNamespace)
+						.GET("/resources", handler::listResources)
+						.POST("/resources/reset", handler::resetResources)
+						.POST("/resources/{name}/reset", handler::resetResource)
+						.POST("/resources/{name}/snapshots/{snapshot}", handler::snapshotResource)
+						.POST("/resources/{name}/snapshots/{snapshot}/restore", handler::restoreResource))
+				.build();
+	}
+}
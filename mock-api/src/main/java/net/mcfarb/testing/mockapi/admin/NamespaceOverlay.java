@@ -0,0 +1,97 @@
+package net.mcfarb.testing.mockapi.admin;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import net.mcfarb.testing.ddmock.service.MockResponseTemplate;
+import net.mcfarb.testing.ddmock.service.MockRouteTable;
+import net.mcfarb.testing.ddmock.service.MockRouteTable.Match;
+import net.mcfarb.testing.ddmock.service.RestMatchListener;
+
+/**
+ * Immutable runtime mocks of one namespace: the mocks by id, their routes
+ * compiled newest first, and the mocks defining each object id, newest first.
+ * Replaced as a whole whenever the namespace changes.
+ *
+ * Expired mocks stay in the overlay until the registry sweeps them, so lookups
+ * pass over them: an expired mock never hides an older one that is still
+ * valid.
+ *
+ * @param nextExpiry earliest expiry of a mock, or null if none expire
+ * @param activity   last use of the namespace, shared by all versions of it
+ */
+public record NamespaceOverlay(String name, Map<String, RuntimeMock> mocks, MockRouteTable<RuntimeMock> routeTable,
+		Map<String, List<RuntimeMock>> objectOwners, Instant nextExpiry, Activity activity) {
+
+	// writes are skipped within this window so busy namespaces do not write on every request
+	private static final long TOUCH_RESOLUTION_MS = 1000;
+
+	/**
+	 * When a namespace was last used, for idle eviction.
+	 */
+	public static final class Activity {
+
+		private volatile long lastAccessMillis;
+
+		Activity(long nowMillis) {
+			this.lastAccessMillis = nowMillis;
+		}
+
+		void touch(long nowMillis) {
+			if (nowMillis - lastAccessMillis >= TOUCH_RESOLUTION_MS) {
+				lastAccessMillis = nowMillis;
+			}
+		}
+
+		long getLastAccessMillis() {
+			return lastAccessMillis;
+		}
+	}
+
+	/**
+	 * Newest unexpired route of this namespace matching the request, or null.
+	 */
+	public Match<RuntimeMock> find(String path, String httpMethod, Map<String, List<String>> queryParams,
+			Function<String, String> headers, byte[] body, Instant now) {
+		if (routeTable.size() == 0) {
+			return null;
+		}
+		return routeTable.find(path, httpMethod, queryParams, headers, body, owner -> !owner.isExpired(now),
+				RestMatchListener.NOOP);
+	}
+
+	/**
+	 * Object with this id from the newest unexpired mock defining it, or null.
+	 */
+	public Object getObject(String id, Instant now) {
+		RuntimeMock owner = objectOwner(id, now);
+		return owner != null ? owner.api().provider().getObjectMap().get(id) : null;
+	}
+
+	/**
+	 * Template of the object with this id from the newest unexpired mock
+	 * defining it, or null when that object is not templated.
+	 */
+	public MockResponseTemplate getTemplate(String id, Instant now) {
+		RuntimeMock owner = objectOwner(id, now);
+		return owner != null ? owner.api().provider().getTemplates().get(id) : null;
+	}
+
+	private RuntimeMock objectOwner(String id, Instant now) {
+		List<RuntimeMock> owners = objectOwners.get(id);
+		if (owners != null) {
+			for (RuntimeMock owner : owners) {
+				if (!owner.isExpired(now)) {
+					return owner;
+				}
+			}
+		}
+		return null;
+	}
+
+	public boolean owns(String path) {
+		return routeTable.size() > 0 && routeTable.findOwner(path) != null;
+	}
+}
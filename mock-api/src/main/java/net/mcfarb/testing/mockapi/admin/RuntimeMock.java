@@ -0,0 +1,20 @@
+package net.mcfarb.testing.mockapi.admin;
+
+import java.time.Instant;
+
+import net.mcfarb.testing.mockapi.router.MockApi;
+
+/**
+ * A mock added at runtime.
+ *
+ * @param key       namespace and id
+ * @param api       built objects and routes
+ * @param expiresAt when the mock stops answering, or null for never
+ * @param sequence  order the mock was put in; later mocks take precedence
+ */
+public record RuntimeMock(RuntimeMockKey key, MockApi api, Instant expiresAt, long sequence) {
+
+	public boolean isExpired(Instant now) {
+		return expiresAt != null && !now.isBefore(expiresAt);
+	}
+}
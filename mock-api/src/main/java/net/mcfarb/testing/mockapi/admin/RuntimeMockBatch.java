@@ -0,0 +1,18 @@
+package net.mcfarb.testing.mockapi.admin;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * Changes applied together by {@link RuntimeMockRegistry#apply(RuntimeMockBatch)}:
+ * namespaces are cleared first, then mocks deleted, then mocks put.
+ */
+@Data
+public class RuntimeMockBatch {
+
+	private List<String> clearNamespaces = new ArrayList<>();
+	private List<RuntimeMockKey> delete = new ArrayList<>();
+	private List<RuntimeMockDefinition> put = new ArrayList<>();
+}
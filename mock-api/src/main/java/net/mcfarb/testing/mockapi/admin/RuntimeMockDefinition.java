@@ -0,0 +1,30 @@
+package net.mcfarb.testing.mockapi.admin;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import net.mcfarb.testing.ddmock.model.MockRestGeneratorInfo;
+
+/**
+ * A mock pushed through the admin API: mockRestApis and mockObjects in the
+ * mock file format, plus where the mock lives and for how long.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class RuntimeMockDefinition extends MockRestGeneratorInfo {
+
+	/**
+	 * Identifies the mock within its namespace. Generated when missing; pushing
+	 * an existing id replaces that mock.
+	 */
+	private String id;
+
+	/**
+	 * Groups mocks, e.g. per test, so they can be listed and removed together.
+	 */
+	private String namespace = RuntimeMockRegistry.DEFAULT_NAMESPACE;
+
+	/**
+	 * Seconds until the mock is removed, or null to keep it until deleted.
+	 */
+	private Long ttlSeconds;
+}
@@ -0,0 +1,7 @@
+package net.mcfarb.testing.mockapi.admin;
+
+/**
+ * Identifies a runtime mock.
+ */
+public record RuntimeMockKey(String namespace, String id) {
+}
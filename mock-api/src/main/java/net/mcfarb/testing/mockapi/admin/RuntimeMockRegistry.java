@@ -0,0 +1,357 @@
+package net.mcfarb.testing.mockapi.admin;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import net.mcfarb.testing.ddmock.service.MockRouteTable;
+import net.mcfarb.testing.mockapi.config.MockApiConfiguration;
+import net.mcfarb.testing.mockapi.router.MockApi;
+import net.mcfarb.testing.mockapi.router.MockApiLoader;
+
+/**
+ * Mocks added while mock-api is running, layered over the mock files.
+ *
+ * Runtime mocks are kept per namespace in an immutable
+ * {@link NamespaceOverlay}. Mocks in the {@value #DEFAULT_NAMESPACE}
+ * namespace apply to every request; mocks in any other namespace only to
+ * requests naming it in the {@value #NAMESPACE_HEADER} header, which see
+ * their namespace over the default one over the mock files. A namespace holds
+ * only its own mocks, so its cost is proportional to what it overrides.
+ *
+ * The overlays sit in an immutable map published through a volatile field.
+ * A change builds the new mocks' objects up front, then copies the map,
+ * recompiles only the namespaces it touched and publishes the copy with a
+ * single write. {@link #resolve(String)} reads the map once with a hash
+ * lookup and never locks, so a request sees either all or none of a change,
+ * which is what makes {@link #apply(RuntimeMockBatch)} atomic.
+ *
+ * Runtime mocks cannot use {@code bodyFile} objects, which only mock files
+ * may declare.
+ *
+ * Expired mocks stop matching immediately. A background sweep drops them, and
+ * evicts namespaces that saw no request or change for
+ * {@code mock.api.namespaces.idle-timeout}.
+ */
+@Slf4j
+@Component
+public class RuntimeMockRegistry {
+
+	public static final String DEFAULT_NAMESPACE = "default";
+
+	public static final String NAMESPACE_HEADER = "X-Mock-Namespace";
+
+	/**
+	 * Name runtime mocks are reported under in metrics.
+	 */
+	public static final String RUNTIME_NAME = "runtime";
+
+	private static final long SWEEP_INTERVAL_MS = 1000;
+
+	private static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(30);
+
+	@Autowired
+	private MockApiLoader mockApiLoader;
+
+	@Autowired(required = false)
+	private MockApiConfiguration mockApiConfiguration;
+
+	@Setter
+	private Clock clock = Clock.systemUTC();
+
+	private final AtomicLong sequence = new AtomicLong();
+
+	private final NamespaceOverlay emptyDefaults = compile(DEFAULT_NAMESPACE, Map.of(), null);
+
+	private volatile Map<String, NamespaceOverlay> namespaces = Map.of();
+
+	private ScheduledExecutorService sweeper;
+
+	@PostConstruct
+	protected void start() {
+		sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "runtime-mock-sweeper");
+			thread.setDaemon(true);
+			return thread;
+		});
+		sweeper.scheduleWithFixedDelay(this::sweep, SWEEP_INTERVAL_MS, SWEEP_INTERVAL_MS, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	protected void stop() {
+		sweeper.shutdownNow();
+	}
+
+	/**
+	 * Runtime mocks a request in {@code namespace} sees. Counts as use of the
+	 * namespace for idle eviction.
+	 *
+	 * @param namespace value of the {@value #NAMESPACE_HEADER} header, may be null
+	 */
+	public RuntimeMocks resolve(String namespace) {
+		Map<String, NamespaceOverlay> current = namespaces;
+		NamespaceOverlay defaults = current.getOrDefault(DEFAULT_NAMESPACE, emptyDefaults);
+		NamespaceOverlay overlay = namespace != null && !namespace.equals(DEFAULT_NAMESPACE)
+				? current.get(namespace)
+				: null;
+		if (overlay != null) {
+			overlay.activity().touch(clock.millis());
+		}
+		return new RuntimeMocks(overlay, defaults, clock);
+	}
+
+	/**
+	 * Adds a mock, or replaces the mock with the same namespace and id.
+	 *
+	 * @throws IllegalArgumentException when the definition is empty or its
+	 *                                  objects fail to build
+	 */
+	public RuntimeMock put(RuntimeMockDefinition definition) {
+		RuntimeMockBatch batch = new RuntimeMockBatch();
+		batch.getPut().add(definition);
+		return apply(batch).get(0);
+	}
+
+	/**
+	 * Removes a mock.
+	 *
+	 * @return false when there was no such mock
+	 */
+	public boolean remove(RuntimeMockKey key) {
+		synchronized (this) {
+			NamespaceOverlay overlay = namespaces.get(key.namespace());
+			if (overlay == null || !overlay.mocks().containsKey(key.id())) {
+				return false;
+			}
+			Map<String, RuntimeMock> mocks = new HashMap<>(overlay.mocks());
+			mocks.remove(key.id());
+			Map<String, Map<String, RuntimeMock>> changes = new HashMap<>();
+			changes.put(key.namespace(), mocks);
+			publish(changes);
+			return true;
+		}
+	}
+
+	/**
+	 * Removes every mock in a namespace.
+	 *
+	 * @return number of mocks removed
+	 */
+	public int clearNamespace(String namespace) {
+		synchronized (this) {
+			NamespaceOverlay overlay = namespaces.get(namespace);
+			if (overlay == null) {
+				return 0;
+			}
+			Map<String, Map<String, RuntimeMock>> changes = new HashMap<>();
+			changes.put(namespace, Map.of());
+			publish(changes);
+			return overlay.mocks().size();
+		}
+	}
+
+	/**
+	 * Applies all changes of a batch as one. If any mock fails to build nothing
+	 * is applied.
+	 *
+	 * @return the mocks put, in batch order
+	 * @throws IllegalArgumentException when a definition is invalid
+	 */
+	public List<RuntimeMock> apply(RuntimeMockBatch batch) {
+		// built before taking the lock, the expensive part of a change
+		Instant now = clock.instant();
+		List<RuntimeMock> added = new ArrayList<>(batch.getPut().size());
+		for (RuntimeMockDefinition definition : batch.getPut()) {
+			added.add(build(definition, now));
+		}
+
+		synchronized (this) {
+			Map<String, Map<String, RuntimeMock>> changes = new HashMap<>();
+			batch.getClearNamespaces().forEach(namespace -> changes.put(namespace, new HashMap<>()));
+			for (RuntimeMockKey key : batch.getDelete()) {
+				mocksOf(key.namespace(), changes).remove(key.id());
+			}
+			for (RuntimeMock mock : added) {
+				mocksOf(mock.key().namespace(), changes).put(mock.key().id(), mock);
+			}
+			publish(changes);
+		}
+		log.info("Applied runtime mock batch: {} namespaces cleared, {} deleted, {} put",
+				batch.getClearNamespaces().size(), batch.getDelete().size(), added.size());
+		return added;
+	}
+
+	/**
+	 * Unexpired mocks, optionally of one namespace, oldest first.
+	 */
+	public List<RuntimeMock> list(String namespace) {
+		Instant now = clock.instant();
+		return namespaces.values().stream()
+				.filter(overlay -> namespace == null || overlay.name().equals(namespace))
+				.flatMap(overlay -> overlay.mocks().values().stream())
+				.filter(mock -> !mock.isExpired(now))
+				.sorted(Comparator.comparingLong(RuntimeMock::sequence))
+				.toList();
+	}
+
+	/**
+	 * Names of the namespaces currently holding mocks.
+	 */
+	public Set<String> getNamespaces() {
+		return namespaces.keySet();
+	}
+
+	/**
+	 * Drops expired mocks and evicts idle namespaces. Runs in the background
+	 * every second.
+	 */
+	void sweep() {
+		Instant now = clock.instant();
+		long idleBefore = now.toEpochMilli() - idleTimeout().toMillis();
+		Map<String, NamespaceOverlay> current = namespaces;
+		Set<String> idle = new HashSet<>();
+		Set<String> expiring = new HashSet<>();
+		current.forEach((name, overlay) -> {
+			if (!name.equals(DEFAULT_NAMESPACE) && overlay.activity().getLastAccessMillis() < idleBefore) {
+				idle.add(name);
+			} else if (overlay.nextExpiry() != null && !now.isBefore(overlay.nextExpiry())) {
+				expiring.add(name);
+			}
+		});
+		if (idle.isEmpty() && expiring.isEmpty()) {
+			return;
+		}
+
+		Set<String> evicted = new HashSet<>();
+		synchronized (this) {
+			Map<String, Map<String, RuntimeMock>> changes = new HashMap<>();
+			for (String name : idle) {
+				// checked again, a change since the scan uses the namespace
+				NamespaceOverlay overlay = namespaces.get(name);
+				if (overlay != null && overlay.activity().getLastAccessMillis() < idleBefore) {
+					changes.put(name, Map.of());
+					evicted.add(name);
+				}
+			}
+			for (String name : expiring) {
+				NamespaceOverlay overlay = namespaces.get(name);
+				if (overlay != null) {
+					Map<String, RuntimeMock> mocks = new HashMap<>(overlay.mocks());
+					mocks.values().removeIf(mock -> mock.isExpired(now));
+					changes.put(name, mocks);
+				}
+			}
+			publish(changes);
+		}
+		if (!evicted.isEmpty()) {
+			log.info("Evicted idle runtime mock namespaces {}", evicted);
+		}
+	}
+
+	// caller holds the lock; copy of a namespace's mocks, created on first change in a batch
+	private Map<String, RuntimeMock> mocksOf(String namespace, Map<String, Map<String, RuntimeMock>> changes) {
+		return changes.computeIfAbsent(namespace, name -> {
+			NamespaceOverlay overlay = namespaces.get(name);
+			return overlay != null ? new HashMap<>(overlay.mocks()) : new HashMap<>();
+		});
+	}
+
+	// caller holds the lock; recompiles the changed namespaces and publishes them together
+	private void publish(Map<String, Map<String, RuntimeMock>> changes) {
+		Map<String, NamespaceOverlay> next = new HashMap<>(namespaces);
+		changes.forEach((name, mocks) -> {
+			if (mocks.isEmpty()) {
+				next.remove(name);
+			} else {
+				NamespaceOverlay previous = next.get(name);
+				next.put(name, compile(name, mocks, previous != null ? previous.activity() : null));
+			}
+		});
+		namespaces = Collections.unmodifiableMap(next);
+	}
+
+	private NamespaceOverlay compile(String name, Map<String, RuntimeMock> mocks, NamespaceOverlay.Activity activity) {
+		List<RuntimeMock> newestFirst = new ArrayList<>(mocks.values());
+		newestFirst.sort(Comparator.comparingLong(RuntimeMock::sequence).reversed());
+
+		MockRouteTable.Builder<RuntimeMock> builder = MockRouteTable.builder();
+		Map<String, List<RuntimeMock>> objectOwners = new HashMap<>();
+		Instant nextExpiry = null;
+		for (RuntimeMock mock : newestFirst) {
+			builder.addProvider(mock, mock.api().provider());
+			mock.api().provider().getObjectMap().keySet()
+					.forEach(id -> objectOwners.computeIfAbsent(id, owners -> new ArrayList<>()).add(mock));
+			if (mock.expiresAt() != null && (nextExpiry == null || mock.expiresAt().isBefore(nextExpiry))) {
+				nextExpiry = mock.expiresAt();
+			}
+		}
+		long now = clock.millis();
+		if (activity == null) {
+			activity = new NamespaceOverlay.Activity(now);
+		} else {
+			// a change counts as use
+			activity.touch(now);
+		}
+		return new NamespaceOverlay(name, Collections.unmodifiableMap(mocks), builder.build(),
+				Collections.unmodifiableMap(objectOwners), nextExpiry, activity);
+	}
+
+	private RuntimeMock build(RuntimeMockDefinition definition, Instant now) {
+		boolean hasRoutes = definition.getMockRestApis() != null && !definition.getMockRestApis().isEmpty();
+		boolean hasObjects = definition.getMockObjects() != null && !definition.getMockObjects().isEmpty();
+		if (!hasRoutes && !hasObjects) {
+			throw new IllegalArgumentException("A runtime mock needs mockRestApis or mockObjects");
+		}
+		// anyone who can reach the admin API could otherwise read files of the host
+		if (hasObjects && definition.getMockObjects().stream().anyMatch(object -> object.getBodyFile() != null)) {
+			throw new IllegalArgumentException("Runtime mocks cannot serve body files, put them in a mock file");
+		}
+		String namespace = Objects.requireNonNullElse(definition.getNamespace(), DEFAULT_NAMESPACE);
+		String id = definition.getId() != null ? definition.getId() : UUID.randomUUID().toString();
+		RuntimeMockKey key = new RuntimeMockKey(namespace, id);
+		Instant expiresAt = definition.getTtlSeconds() != null
+				? now.plus(Duration.ofSeconds(definition.getTtlSeconds()))
+				: null;
+		try {
+			MockApi api = mockApiLoader.build(RUNTIME_NAME, namespace + "/" + id, definition);
+			return new RuntimeMock(key, api, expiresAt, sequence.incrementAndGet());
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException("Runtime mock " + namespace + "/" + id + " is invalid: "
+					+ rootMessage(e), e);
+		}
+	}
+
+	private Duration idleTimeout() {
+		return mockApiConfiguration != null ? mockApiConfiguration.getNamespaces().getIdleTimeout()
+				: DEFAULT_IDLE_TIMEOUT;
+	}
+
+	private static String rootMessage(Throwable e) {
+		Throwable root = e;
+		while (root.getCause() != null && root.getCause() != root) {
+			root = root.getCause();
+		}
+		return String.valueOf(root.getMessage());
+	}
+}
@@ -0,0 +1,79 @@
+package net.mcfarb.testing.mockapi.admin;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import net.mcfarb.testing.ddmock.service.MockResponseTemplate;
+import net.mcfarb.testing.ddmock.service.MockRouteTable.Match;
+
+/**
+ * The runtime mocks one request sees: its own namespace layered over the
+ * default namespace. Resolved once per request by
+ * {@link RuntimeMockRegistry#resolve(String)}, so a concurrent change is seen
+ * entirely or not at all.
+ *
+ * @param namespace the request's namespace, or null when it has none or the
+ *                  namespace has no mocks
+ * @param defaults  the default namespace, which applies to every request
+ */
+public record RuntimeMocks(NamespaceOverlay namespace, NamespaceOverlay defaults, Clock clock) {
+
+	/**
+	 * Route matching the request, from the request's namespace first.
+	 *
+	 * @param queryParams every value of each query parameter
+	 * @param headers     first value of a request header by name
+	 * @param body        JSON request body for routes with body predicates, may
+	 *                    be null
+	 */
+	public Match<RuntimeMock> find(String path, String httpMethod, Map<String, List<String>> queryParams,
+			Function<String, String> headers, byte[] body) {
+		if (namespace == null && defaults.mocks().isEmpty()) {
+			return null;
+		}
+		Match<RuntimeMock> match = namespace != null
+				? namespace.find(path, httpMethod, queryParams, headers, body, clock.instant())
+				: null;
+		return match != null ? match : defaults.find(path, httpMethod, queryParams, headers, body, clock.instant());
+	}
+
+	/**
+	 * True when a route this request could match has body predicates.
+	 */
+	public boolean hasBodyPredicates(String path, String httpMethod) {
+		return (namespace != null && namespace.routeTable().hasBodyPredicates(path, httpMethod))
+				|| defaults.routeTable().hasBodyPredicates(path, httpMethod);
+	}
+
+	public boolean owns(String path) {
+		return (namespace != null && namespace.owns(path)) || defaults.owns(path);
+	}
+
+	/**
+	 * Object overriding {@code id} for this request, or null when no runtime
+	 * mock defines it.
+	 */
+	public Object getObject(String id) {
+		if (id == null || (namespace == null && defaults.objectOwners().isEmpty())) {
+			return null;
+		}
+		Object object = namespace != null ? namespace.getObject(id, clock.instant()) : null;
+		return object != null ? object : defaults.getObject(id, clock.instant());
+	}
+
+	/**
+	 * Template of the object {@link #getObject} returns for {@code id}, or null
+	 * when that object is not templated.
+	 */
+	public MockResponseTemplate getTemplate(String id) {
+		if (id == null) {
+			return null;
+		}
+		Instant now = clock.instant();
+		return namespace != null && namespace.getObject(id, now) != null ? namespace.getTemplate(id, now)
+				: defaults.getTemplate(id, now);
+	}
+}
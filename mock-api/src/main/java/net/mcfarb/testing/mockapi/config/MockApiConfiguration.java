@@ -1,5 +1,6 @@
 package net.mcfarb.testing.mockapi.config;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -14,6 +15,19 @@ import lombok.Data;
  * Configure in application.yml or application.properties:
  * <pre>
  * mock.api:
+ *   mock-directory: /path/to/mocks
+ *   snapshots:
+ *     directory: /path/to/snapshots
+ *   off-heap:
+ *     enabled: true
+ *   reload:
+ *     enabled: true
+ *     debounce-ms: 100
+ *   admin:
+ *     enabled: true
+ *   namespaces:
+ *     header: X-Mock-Namespace
+ *     idle-timeout: 30m
  *   fallback:
  *     enabled: true
  *     base-url: http://localhost:9090
@@ -30,17 +44,118 @@ import lombok.Data;
 @ConfigurationProperties(prefix = "mock.api")
 public class MockApiConfiguration {
 
+	/**
+	 * Directory to load mock files (*.json) from.
+	 * When not set, every mockdata/*.json on the classpath is loaded.
+	 */
+	private String mockDirectory;
+
+	/**
+	 * Binary snapshots of mock files, so unchanged files skip the JSON parse.
+	 */
+	private Snapshots snapshots = new Snapshots();
+
+	/**
+	 * Response bodies of mock files in direct memory.
+	 */
+	private OffHeap offHeap = new OffHeap();
+
+	/**
+	 * Interning of repeated values while loading mock files.
+	 */
+	private Intern intern = new Intern();
+
+	/**
+	 * Hot reload of the mock directory.
+	 */
+	private Reload reload = new Reload();
+
+	/**
+	 * Runtime mock admin API.
+	 */
+	private Admin admin = new Admin();
+
+	/**
+	 * Namespaces of runtime mocks selected per request.
+	 */
+	private Namespaces namespaces = new Namespaces();
+
 	/**
 	 * Fallback configuration for proxying unmocked requests to real endpoints.
 	 */
 	private Fallback fallback = new Fallback();
 
 	/**
-	 * Per-controller configuration overrides.
-	 * Key is the controller name (e.g., "user", "product").
+	 * Per mock file configuration overrides.
+	 * Key is the mock file name without .json (e.g., "user", "product").
 	 */
 	private Map<String, ControllerConfig> controllers = new HashMap<>();
 
+	@Data
+	public static class Snapshots {
+		/**
+		 * Directory holding a binary snapshot of every loaded mock file. A
+		 * snapshot is written the first time a file is loaded and read instead of
+		 * the JSON while the file is unchanged. Snapshots are not used when not set.
+		 */
+		private String directory;
+	}
+
+	@Data
+	public static class OffHeap {
+		/**
+		 * Serialize the response objects of every mock file once, into pooled
+		 * direct memory, and answer requests with slices of those buffers instead
+		 * of serializing the objects per request.
+		 */
+		private boolean enabled = false;
+	}
+
+	@Data
+	public static class Intern {
+		/**
+		 * Distinct strings and small immutable values each mock file can share
+		 * between its objects while it is loaded. 0 disables interning.
+		 */
+		private int capacity = 0;
+	}
+
+	@Data
+	public static class Reload {
+		/**
+		 * Watch mock-directory and reload mock files when they change.
+		 * Has no effect when mock files are loaded from the classpath.
+		 */
+		private boolean enabled = true;
+
+		/**
+		 * Quiet period in milliseconds after a change before reloading, so that
+		 * editors writing a file in several steps cause a single reload.
+		 */
+		private long debounceMs = 100;
+	}
+
+	@Data
+	public static class Admin {
+		/**
+		 * Serve the admin API under /mock-admin for adding and removing mocks at runtime.
+		 */
+		private boolean enabled = true;
+	}
+
+	@Data
+	public static class Namespaces {
+		/**
+		 * Request header naming the namespace whose runtime mocks apply to the request.
+		 */
+		private String header = "X-Mock-Namespace";
+
+		/**
+		 * Namespaces without requests or admin changes for this long are removed with their mocks.
+		 */
+		private Duration idleTimeout = Duration.ofMinutes(30);
+	}
+
 	@Data
 	public static class Fallback {
 		/**
@@ -69,17 +184,17 @@ public class MockApiConfiguration {
 	@Data
 	public static class ControllerConfig {
 		/**
-		 * Controller-specific fallback URL that overrides the global base-url.
+		 * Mock file specific fallback URL that overrides the global base-url.
 		 * Example: "http://localhost:9091" or "https://user-api.example.com"
 		 */
 		private String fallbackUrl;
 	}
 
 	/**
-	 * Gets the fallback URL for a specific controller.
-	 * Returns the controller-specific URL if configured, otherwise the global base URL.
+	 * Gets the fallback URL for a specific mock file.
+	 * Returns the file-specific URL if configured, otherwise the global base URL.
 	 *
-	 * @param controllerName The name of the controller (e.g., "user", "product")
+	 * @param controllerName The mock file name (e.g., "user", "product")
 	 * @return The fallback URL for this controller, or null if not configured
 	 */
 	public String getFallbackUrlForController(String controllerName) {
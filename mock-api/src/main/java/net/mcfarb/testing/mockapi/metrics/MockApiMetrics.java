@@ -0,0 +1,177 @@
+package net.mcfarb.testing.mockapi.metrics;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Micrometer instrumentation for mock request handling.
+ *
+ * Meters are registered once per tag combination and cached, so recording on
+ * the request path is a map lookup plus a histogram update. Client-side
+ * percentiles are backed by Micrometer's HdrHistogram recorders and the
+ * percentile histogram buckets are published for Prometheus.
+ *
+ * Exposed meters:
+ * <pre>
+ * mock.api.requests          timer   controller, route, method, outcome
+ * mock.api.routing           timer   controller, method, matched
+ * mock.api.route.candidates  counter controller
+ * mock.api.reload            timer   outcome
+ * mock.api.off.heap.bytes    gauge
+ * </pre>
+ *
+ * The controller tag is the mock file name without .json (e.g. user). The
+ * route tag is the configured path pattern (e.g. /api/user/{id}), or
+ * {@value #UNMATCHED_ROUTE} for requests that matched no mock, which keeps tag
+ * cardinality bounded by the size of the configuration.
+ */
+@Component
+@RequiredArgsConstructor
+public class MockApiMetrics {
+
+	public static final String REQUESTS = "mock.api.requests";
+	public static final String ROUTING = "mock.api.routing";
+	public static final String ROUTE_CANDIDATES = "mock.api.route.candidates";
+	public static final String RELOAD = "mock.api.reload";
+	public static final String OFF_HEAP_BYTES = "mock.api.off.heap.bytes";
+
+	public static final String UNMATCHED_ROUTE = "UNMATCHED";
+
+	private static final Duration MIN_EXPECTED = Duration.ofNanos(1_000);
+	private static final Duration MAX_EXPECTED = Duration.ofSeconds(60);
+
+	/**
+	 * How a mock request was answered.
+	 */
+	public enum Outcome {
+		MOCK_HIT("mock_hit"),
+		NOT_FOUND("not_found"),
+		FALLBACK("fallback"),
+		FALLBACK_ERROR("fallback_error");
+
+		private final String tagValue;
+
+		Outcome(String tagValue) {
+			this.tagValue = tagValue;
+		}
+
+		public String getTagValue() {
+			return tagValue;
+		}
+	}
+
+	private record RequestKey(String controller, String route, String method, Outcome outcome) {
+	}
+
+	private record RoutingKey(String controller, String method, boolean matched) {
+	}
+
+	private final MeterRegistry registry;
+
+	private final Map<RequestKey, Timer> requestTimers = new ConcurrentHashMap<>();
+	private final Map<RoutingKey, Timer> routingTimers = new ConcurrentHashMap<>();
+	private final Map<String, Counter> candidateCounters = new ConcurrentHashMap<>();
+	private final Map<Boolean, Timer> reloadTimers = new ConcurrentHashMap<>();
+
+	/**
+	 * Records the end-to-end handling time of a request.
+	 *
+	 * @param controller  mock file name (e.g. "user")
+	 * @param route       matched path pattern, or null when nothing matched
+	 * @param method      HTTP method
+	 * @param outcome     how the request was answered
+	 * @param elapsedNanos time since the request reached the dispatcher
+	 */
+	public void recordRequest(String controller, String route, String method, Outcome outcome, long elapsedNanos) {
+		RequestKey key = new RequestKey(controller, route != null ? route : UNMATCHED_ROUTE, method, outcome);
+		requestTimers.computeIfAbsent(key, this::requestTimer).record(elapsedNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Records the time spent inside route lookup alone.
+	 */
+	public void recordRouting(String controller, String method, boolean matched, long elapsedNanos) {
+		RoutingKey key = new RoutingKey(controller, method, matched);
+		routingTimers.computeIfAbsent(key, this::routingTimer).record(elapsedNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Adds the number of configured routes examined by a single lookup.
+	 */
+	public void recordCandidatesExamined(String controller, int candidates) {
+		candidateCounters.computeIfAbsent(controller, this::candidateCounter).increment(candidates);
+	}
+
+	/**
+	 * Records the time from detecting changed mock files to publishing the new
+	 * route table, or to giving up when a file failed to load.
+	 */
+	public void recordReload(boolean success, long elapsedNanos) {
+		reloadTimers.computeIfAbsent(success, this::reloadTimer).record(elapsedNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Publishes the direct memory held by the response arenas of the mock files.
+	 */
+	public void registerOffHeapBytes(Supplier<Number> bytes) {
+		Gauge.builder(OFF_HEAP_BYTES, bytes)
+				.description("Direct memory holding serialized mock response bodies")
+				.baseUnit("bytes")
+				.register(registry);
+	}
+
+	private Timer requestTimer(RequestKey key) {
+		return Timer.builder(REQUESTS)
+				.description("Time to answer a mock request")
+				.tag("controller", key.controller())
+				.tag("route", key.route())
+				.tag("method", key.method())
+				.tag("outcome", key.outcome().getTagValue())
+				.publishPercentiles(0.5, 0.95, 0.99)
+				.publishPercentileHistogram()
+				.minimumExpectedValue(MIN_EXPECTED)
+				.maximumExpectedValue(MAX_EXPECTED)
+				.register(registry);
+	}
+
+	private Timer routingTimer(RoutingKey key) {
+		return Timer.builder(ROUTING)
+				.description("Time spent finding the mock route for a request")
+				.tag("controller", key.controller())
+				.tag("method", key.method())
+				.tag("matched", String.valueOf(key.matched()))
+				.publishPercentiles(0.5, 0.95, 0.99)
+				.publishPercentileHistogram()
+				.minimumExpectedValue(MIN_EXPECTED)
+				.maximumExpectedValue(MAX_EXPECTED)
+				.register(registry);
+	}
+
+	private Timer reloadTimer(boolean success) {
+		return Timer.builder(RELOAD)
+				.description("Time to reload changed mock files")
+				.tag("outcome", success ? "success" : "failure")
+				.publishPercentiles(0.5, 0.95, 0.99)
+				.minimumExpectedValue(MIN_EXPECTED)
+				.maximumExpectedValue(MAX_EXPECTED)
+				.register(registry);
+	}
+
+	private Counter candidateCounter(String controller) {
+		return Counter.builder(ROUTE_CANDIDATES)
+				.description("Configured routes examined while matching requests")
+				.tag("controller", controller)
+				.register(registry);
+	}
+}
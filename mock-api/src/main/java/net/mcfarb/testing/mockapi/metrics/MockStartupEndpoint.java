@@ -0,0 +1,37 @@
+package net.mcfarb.testing.mockapi.metrics;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import net.mcfarb.testing.ddmock.startup.MockLoadReport;
+
+/**
+ * Actuator endpoint exposing the per-file mock startup reports.
+ *
+ * <pre>
+ * GET /actuator/mockstartup          all files, slowest first
+ * GET /actuator/mockstartup/{name}   one mock file
+ * </pre>
+ */
+@Component
+@Endpoint(id = "mockstartup")
+@RequiredArgsConstructor
+public class MockStartupEndpoint {
+
+	private final MockStartupReports reports;
+
+	@ReadOperation
+	public List<MockLoadReport> reports() {
+		return reports.bySlowest();
+	}
+
+	@ReadOperation
+	public MockLoadReport report(@Selector String name) {
+		return reports.get(name);
+	}
+}
@@ -0,0 +1,46 @@
+package net.mcfarb.testing.mockapi.metrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import net.mcfarb.testing.ddmock.startup.MockLoadReport;
+
+/**
+ * Collects the {@link MockLoadReport} of every mock configuration file loaded
+ * by the dispatcher, keyed by file name without .json.
+ */
+@Component
+public class MockStartupReports {
+
+	private final Map<String, MockLoadReport> reports = new ConcurrentHashMap<>();
+
+	public void register(String name, MockLoadReport report) {
+		if (report != null) {
+			reports.put(name, report);
+		}
+	}
+
+	public void remove(String name) {
+		reports.remove(name);
+	}
+
+	public MockLoadReport get(String name) {
+		return reports.get(name);
+	}
+
+	public Map<String, MockLoadReport> getAll() {
+		return Map.copyOf(reports);
+	}
+
+	/**
+	 * All reports, slowest file first.
+	 */
+	public List<MockLoadReport> bySlowest() {
+		return reports.values().stream()
+				.sorted((a, b) -> Long.compare(b.getTotalNanos(), a.getTotalNanos()))
+				.toList();
+	}
+}
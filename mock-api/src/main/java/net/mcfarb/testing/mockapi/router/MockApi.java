@@ -0,0 +1,29 @@
+package net.mcfarb.testing.mockapi.router;
+
+import net.mcfarb.testing.ddmock.service.MockRestProvider;
+
+/**
+ * One loaded mock file.
+ *
+ * @param name     file name without .json, used for metrics, startup reports
+ *                 and mock.api.controllers.{name} configuration
+ * @param source   where the file was loaded from
+ * @param provider provider initialized with the file, holding its objects
+ * @param arena    the file's response bodies in direct memory, null unless
+ *                 mock.api.off-heap.enabled is set
+ */
+public record MockApi(String name, String source, MockRestProvider provider, MockResponseArena arena) {
+
+	public MockApi(String name, String source, MockRestProvider provider) {
+		this(name, source, provider, null);
+	}
+
+	/**
+	 * Releases the arena, if any, once the file is no longer served.
+	 */
+	public void release() {
+		if (arena != null) {
+			arena.release();
+		}
+	}
+}
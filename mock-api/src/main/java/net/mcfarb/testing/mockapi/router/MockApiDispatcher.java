@@ -0,0 +1,540 @@
+package net.mcfarb.testing.mockapi.router;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.BodyExtractors;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.mcfarb.testing.ddmock.model.MockResourceOperation;
+import net.mcfarb.testing.ddmock.model.MockRestMethodInfo;
+import net.mcfarb.testing.ddmock.service.MockBodyFile;
+import net.mcfarb.testing.ddmock.service.MockDataset;
+import net.mcfarb.testing.ddmock.service.MockResourceStore;
+import net.mcfarb.testing.ddmock.service.MockResponseTemplate;
+import net.mcfarb.testing.ddmock.service.MockRouteTable;
+import net.mcfarb.testing.ddmock.service.MockRouteTable.Match;
+import net.mcfarb.testing.ddmock.service.RestMatchListener;
+import net.mcfarb.testing.mockapi.admin.RuntimeMock;
+import net.mcfarb.testing.mockapi.admin.RuntimeMockRegistry;
+import net.mcfarb.testing.mockapi.admin.RuntimeMocks;
+import net.mcfarb.testing.mockapi.config.MockApiConfiguration;
+import net.mcfarb.testing.mockapi.metrics.MockApiMetrics;
+import net.mcfarb.testing.mockapi.metrics.MockApiMetrics.Outcome;
+import reactor.core.publisher.Mono;
+
+/**
+ * Answers every request under a mock file's base paths.
+ *
+ * The routes of all files loaded by {@link MockApiLoader} are compiled into a
+ * single {@link MockRouteTable}, and {@link MockApiRouterConfiguration} routes
+ * requests here directly as a functional endpoint. A request is matched on:
+ * - Request path (supports path parameters like {id})
+ * - HTTP method (GET, POST, PUT, DELETE, etc.)
+ * - Query parameters (optional)
+ * - Request headers, Authorization scheme, Content-Type and Accept (optional)
+ * - JSON body predicates (optional), for which the body is read only when a
+ *   route the path and method lead to has them
+ *
+ * Requests under a base path that match no route are proxied to the owning
+ * file's fallback URL when fallback is enabled, and answered with 404
+ * otherwise. The owner is the file with the longest base path prefix.
+ *
+ * Loaded files and routes are held in an immutable {@link MockApiSnapshot}.
+ * {@link #reload(Set)} rebuilds the changed files off the request path and
+ * publishes a new snapshot with a single volatile write; requests read the
+ * snapshot once and never lock.
+ *
+ * Mocks added through the admin API ({@link RuntimeMockRegistry}) are matched
+ * before the mock files: those of the namespace named in the request's
+ * namespace header first, then those of the default namespace. Objects they
+ * define override objects with the same id in the mock files.
+ *
+ * Routes generated for a file's resources are answered from the resource's
+ * {@link MockResourceStore} by {@link MockResourceResponder}. Resource records
+ * are shared by all namespaces.
+ *
+ * Objects backed by a {@link MockBodyFile} are sent from the file by
+ * {@link MockFileResponder}, datasets are answered by
+ * {@link MockDatasetResponder}.
+ *
+ * Objects of files with a {@link MockResponseArena} are answered with slices of
+ * their serialized bodies. A file's arena is released once a reload has
+ * replaced or removed the file.
+ */
+@Slf4j
+@Component
+public class MockApiDispatcher {
+
+	private static final String OWNER_ATTRIBUTE = MockApiDispatcher.class.getName() + ".owner";
+	private static final String SNAPSHOT_ATTRIBUTE = MockApiDispatcher.class.getName() + ".snapshot";
+	private static final String RUNTIME_ATTRIBUTE = MockApiDispatcher.class.getName() + ".runtime";
+
+	private static final byte[] NO_BODY = new byte[0];
+
+	private static final MediaType TEXT_PLAIN_UTF8 = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+
+	private static final Set<HttpMethod> HANDLED_METHODS = Set.of(HttpMethod.GET, HttpMethod.POST,
+			HttpMethod.PUT, HttpMethod.DELETE, HttpMethod.PATCH);
+
+	// hop-by-hop and encoding headers are recomputed when the response is written
+	private static final Set<String> SKIPPED_RESPONSE_HEADERS = Set.of(HttpHeaders.CONTENT_LENGTH.toLowerCase(),
+			HttpHeaders.TRANSFER_ENCODING.toLowerCase(), HttpHeaders.CONNECTION.toLowerCase(),
+			HttpHeaders.CONTENT_ENCODING.toLowerCase());
+
+	@Autowired
+	private MockApiLoader mockApiLoader;
+
+	@Autowired(required = false)
+	private MockApiConfiguration mockApiConfiguration;
+
+	@Autowired(required = false)
+	private WebClient webClient;
+
+	@Autowired(required = false)
+	private MockApiMetrics metrics;
+
+	@Autowired(required = false)
+	private RuntimeMockRegistry runtimeMocks;
+
+	private volatile MockApiSnapshot snapshot;
+
+	private final MockFileResponder fileResponder = new MockFileResponder();
+	private final MockDatasetResponder datasetResponder = new MockDatasetResponder();
+	private MockResourceResponder resourceResponder;
+
+	/**
+	 * Loads every mock file and compiles the route table.
+	 */
+	@PostConstruct
+	protected void initialize() {
+		resourceResponder = new MockResourceResponder(mockApiLoader.getObjectMapper());
+		List<MockApi> mockApis = mockApiLoader.load();
+		mockApis.forEach(this::validateFallbackUrl);
+		snapshot = MockApiSnapshot.of(mockApis);
+		log.info("Dispatching {} routes from {} mock files", snapshot.routeTable().size(), mockApis.size());
+		if (metrics != null) {
+			metrics.registerOffHeapBytes(this::getOffHeapBytes);
+		}
+	}
+
+	/**
+	 * Releases the response arenas of all mock files.
+	 */
+	@PreDestroy
+	protected synchronized void destroy() {
+		snapshot.apis().values().forEach(MockApi::release);
+	}
+
+	public MockApiSnapshot getSnapshot() {
+		return snapshot;
+	}
+
+	public List<MockApi> getMockApis() {
+		return List.copyOf(snapshot.apis().values());
+	}
+
+	/**
+	 * Direct memory held by the response arenas of the mock files being served.
+	 */
+	public long getOffHeapBytes() {
+		return snapshot.apis().values().stream()
+				.mapToLong(api -> api.arena() != null ? api.arena().getBytes() : 0)
+				.sum();
+	}
+
+	/**
+	 * Reloads the named mock files from the mock directory and publishes a new
+	 * snapshot. Files that no longer exist are dropped, new files are added,
+	 * every other file is reused as is. A file that fails to load keeps its
+	 * previous mocks while the other files are still reloaded. Reloads are
+	 * serialized, requests are not affected.
+	 *
+	 * @param names file names without .json
+	 * @return true if every file was reloaded
+	 */
+	public synchronized boolean reload(Set<String> names) {
+		long startNanos = System.nanoTime();
+		Map<String, MockApi> apis = new TreeMap<>(snapshot.apis());
+		Set<String> failed = new TreeSet<>();
+		List<MockApi> replaced = new ArrayList<>();
+		for (String name : names) {
+			MockApi api = null;
+			try {
+				api = mockApiLoader.load(name);
+				if (api != null) {
+					validateFallbackUrl(api);
+				}
+			} catch (RuntimeException e) {
+				if (api != null) {
+					api.release();
+				}
+				failed.add(name);
+				log.error("Failed to reload {}, keeping its previous mocks", name, e);
+				continue;
+			}
+			MockApi previous = api == null ? apis.remove(name) : apis.put(name, api);
+			if (previous != null) {
+				replaced.add(previous);
+			}
+		}
+		if (failed.size() < names.size()) {
+			snapshot = MockApiSnapshot.of(apis.values());
+		}
+		// requests still on the previous snapshot fall back to serializing on the heap
+		replaced.forEach(MockApi::release);
+
+		long elapsed = System.nanoTime() - startNanos;
+		if (metrics != null) {
+			metrics.recordReload(failed.isEmpty(), elapsed);
+		}
+		MockApiSnapshot current = snapshot;
+		log.info("Reloaded {} in {}ms{}, dispatching {} routes from {} mock files", names,
+				String.format("%.2f", elapsed / 1_000_000.0), failed.isEmpty() ? "" : " (failed: " + failed + ")",
+				current.routeTable().size(), current.apis().size());
+		return failed.isEmpty();
+	}
+
+	/**
+	 * Request predicate: true when the request falls under a mock file's or a
+	 * runtime mock's base path. Remembers the owning file for
+	 * {@link #handle(ServerRequest)}.
+	 */
+	public boolean owns(ServerRequest request) {
+		if (!HANDLED_METHODS.contains(request.method())) {
+			return false;
+		}
+		String path = request.uri().getPath();
+		MockApiSnapshot current = snapshot;
+		MockApi owner = current.routeTable().findOwner(path);
+		RuntimeMocks runtime = resolveRuntimeMocks(request);
+		if (owner == null && (runtime == null || !runtime.owns(path))) {
+			return false;
+		}
+		request.attributes().put(SNAPSHOT_ATTRIBUTE, current);
+		if (owner != null) {
+			request.attributes().put(OWNER_ATTRIBUTE, owner);
+		}
+		if (runtime != null) {
+			request.attributes().put(RUNTIME_ATTRIBUTE, runtime);
+		}
+		return true;
+	}
+
+	public Mono<ServerResponse> handle(ServerRequest request) {
+		long startNanos = System.nanoTime();
+		String requestPath = request.uri().getPath();
+		String httpMethod = request.method().name();
+
+		// stay on the snapshot the predicate saw, even if a reload happened since
+		MockApiSnapshot seen = (MockApiSnapshot) request.attributes().get(SNAPSHOT_ATTRIBUTE);
+		MockApiSnapshot current = seen != null ? seen : snapshot;
+		MockApi owner = seen != null ? (MockApi) request.attributes().get(OWNER_ATTRIBUTE)
+				: current.routeTable().findOwner(requestPath);
+		RuntimeMocks runtime = seen != null ? (RuntimeMocks) request.attributes().get(RUNTIME_ATTRIBUTE)
+				: resolveRuntimeMocks(request);
+
+		// routes with body predicates can only be matched once the body has been read
+		if (current.routeTable().hasBodyPredicates(requestPath, httpMethod)
+				|| (runtime != null && runtime.hasBodyPredicates(requestPath, httpMethod))) {
+			return request.bodyToMono(byte[].class)
+					.defaultIfEmpty(NO_BODY)
+					.flatMap(body -> dispatch(request, current, owner, runtime, body, startNanos));
+		}
+		return dispatch(request, current, owner, runtime, null, startNanos);
+	}
+
+	/**
+	 * @param body the request body when it had to be read for matching, else null
+	 */
+	private Mono<ServerResponse> dispatch(ServerRequest request, MockApiSnapshot current, MockApi owner,
+			RuntimeMocks runtime, byte[] body, long startNanos) {
+		String requestPath = request.uri().getPath();
+		String httpMethod = request.method().name();
+		String ownerName = owner != null ? owner.name() : MockApiMetrics.UNMATCHED_ROUTE;
+
+		log.debug("[{}] Handling request: {} {}", ownerName, httpMethod, requestPath);
+
+		// the route table reads every value of a repeated parameter in place
+		MultiValueMap<String, String> queryParams = request.queryParams();
+		Function<String, String> headers = request.headers()::firstHeader;
+
+		// Runtime mocks shadow the mock files
+		Match<RuntimeMock> runtimeMatch = runtime != null
+				? runtime.find(requestPath, httpMethod, queryParams, headers, body)
+				: null;
+		if (runtimeMatch != null) {
+			if (metrics != null) {
+				metrics.recordRouting(RuntimeMockRegistry.RUNTIME_NAME, httpMethod, true,
+						System.nanoTime() - startNanos);
+			}
+			return respond(request, runtimeMatch.owner().api(), runtimeMatch.method(), runtimeMatch.pathParameters(),
+					queryParams, runtime, body, startNanos);
+		}
+
+		// Find matching method across all mock files
+		Match<MockApi> match = current.routeTable().find(requestPath, httpMethod, queryParams, headers, body,
+				candidateListener(ownerName));
+		if (metrics != null) {
+			metrics.recordRouting(match != null ? match.owner().name() : ownerName, httpMethod, match != null,
+					System.nanoTime() - startNanos);
+		}
+
+		if (match == null) {
+			log.warn("[{}] No mock configuration found for: {} {}", ownerName, httpMethod, requestPath);
+
+			// Try fallback if enabled
+			if (owner != null && isFallbackEnabled(owner)) {
+				return proxyToFallback(request, owner, requestPath, httpMethod, body, startNanos);
+			}
+
+			// No fallback - return 404
+			recordRequest(ownerName, null, httpMethod, Outcome.NOT_FOUND, startNanos);
+			return ServerResponse.status(HttpStatus.NOT_FOUND)
+					.bodyValue(Map.of(
+							"error", "No mock configuration found for this endpoint",
+							"path", requestPath,
+							"method", httpMethod));
+		}
+
+		return respond(request, match.owner(), match.method(), match.pathParameters(), queryParams, runtime, body,
+				startNanos);
+	}
+
+	/**
+	 * Runtime mocks for the request's namespace header, or null when runtime
+	 * mocks are not available.
+	 */
+	private RuntimeMocks resolveRuntimeMocks(ServerRequest request) {
+		if (runtimeMocks == null) {
+			return null;
+		}
+		String header = mockApiConfiguration != null ? mockApiConfiguration.getNamespaces().getHeader()
+				: RuntimeMockRegistry.NAMESPACE_HEADER;
+		return runtimeMocks.resolve(request.headers().firstHeader(header));
+	}
+
+	private Mono<ServerResponse> respond(ServerRequest request, MockApi api, MockRestMethodInfo methodInfo,
+			Map<String, String> pathParameters, MultiValueMap<String, String> queryParams, RuntimeMocks runtime,
+			byte[] body, long startNanos) {
+		String httpMethod = request.method().name();
+		if (!pathParameters.isEmpty()) {
+			log.debug("[{}] Extracted path parameters: {}", api.name(), pathParameters);
+		}
+		if (methodInfo.getResourceOperation() != null) {
+			// the timing covers the lookup only, as body reads complete later
+			recordRequest(api.name(), methodInfo.getPath(), httpMethod, Outcome.MOCK_HIT, startNanos);
+			return resourceResponder.respond(request, methodInfo,
+					pathParameters.get(MockResourceOperation.ID_PARAMETER), queryParams, body);
+		}
+
+		// Objects pushed at runtime override objects with the same id
+		Object responseObject = runtime != null ? runtime.getObject(methodInfo.getReturnId()) : null;
+		MockResponseTemplate template;
+		MockResponseArena arena = null;
+		if (responseObject != null) {
+			template = runtime.getTemplate(methodInfo.getReturnId());
+		} else {
+			responseObject = api.provider().getResponseObject(methodInfo);
+			template = api.provider().getResponseTemplate(methodInfo);
+			arena = api.arena();
+		}
+
+		// Build response with configured status code and headers
+		int statusCode = methodInfo.getStatusCode() != null ? methodInfo.getStatusCode() : HttpStatus.OK.value();
+		ServerResponse.BodyBuilder responseBuilder = ServerResponse.status(statusCode);
+
+		// Routes negotiated on Accept answer with the type they produce
+		if (methodInfo.getRequestConditions() != null && methodInfo.getRequestConditions().getProduces() != null) {
+			responseBuilder.contentType(methodInfo.getRequestConditions().getProduces());
+		}
+
+		// Add custom headers if configured
+		if (methodInfo.getHeaders() != null && !methodInfo.getHeaders().isEmpty()) {
+			methodInfo.getHeaders().forEach(responseBuilder::header);
+		}
+
+		log.debug("[{}] Returning response with status: {}", api.name(), statusCode);
+		recordRequest(api.name(), methodInfo.getPath(), httpMethod, Outcome.MOCK_HIT, startNanos);
+
+		if (template != null) {
+			return respondFromTemplate(request, responseBuilder, methodInfo, template, pathParameters, queryParams,
+					body);
+		}
+		if (responseObject instanceof MockBodyFile file) {
+			return fileResponder.respond(request, responseBuilder, file);
+		}
+		if (responseObject instanceof MockDataset dataset) {
+			return datasetResponder.respond(responseBuilder, methodInfo, dataset, pathParameters, queryParams);
+		}
+		if (arena != null && arena.contains(methodInfo.getReturnId())) {
+			if (!MockResponses.hasContentType(methodInfo)) {
+				responseBuilder.contentType(arena.getContentType(methodInfo.getReturnId()));
+			}
+			return responseBuilder.body(BodyInserters.fromDataBuffers(
+					arena.body(methodInfo.getReturnId(), responseObject)));
+		}
+		return responseObject != null ? responseBuilder.bodyValue(responseObject) : responseBuilder.build();
+	}
+
+	/**
+	 * Renders a templated response object with the request's values, reading
+	 * the body first when the template needs it and matching did not.
+	 */
+	private Mono<ServerResponse> respondFromTemplate(ServerRequest request, ServerResponse.BodyBuilder responseBuilder,
+			MockRestMethodInfo methodInfo, MockResponseTemplate template, Map<String, String> pathParameters,
+			MultiValueMap<String, String> queryParams, byte[] body) {
+		if (!MockResponses.hasContentType(methodInfo)) {
+			responseBuilder.contentType(template.isJson() ? MediaType.APPLICATION_JSON : TEXT_PLAIN_UTF8);
+		}
+		if (template.readsBody() && body == null) {
+			return request.bodyToMono(byte[].class)
+					.defaultIfEmpty(NO_BODY)
+					.flatMap(read -> responseBuilder.bodyValue(template.render(pathParameters, queryParams, read)));
+		}
+		return responseBuilder.bodyValue(template.render(pathParameters, queryParams, body));
+	}
+
+	private RestMatchListener candidateListener(String ownerName) {
+		if (metrics == null) {
+			return RestMatchListener.NOOP;
+		}
+		return (path, method, candidatesExamined, match) -> metrics.recordCandidatesExamined(ownerName,
+				candidatesExamined);
+	}
+
+	/**
+	 * Records the handling time of a request if metrics are available.
+	 */
+	private void recordRequest(String apiName, String route, String httpMethod, Outcome outcome, long startNanos) {
+		if (metrics != null) {
+			metrics.recordRequest(apiName, route, httpMethod, outcome, System.nanoTime() - startNanos);
+		}
+	}
+
+	private void validateFallbackUrl(MockApi api) {
+		if (!isFallbackEnabled(api)) {
+			return;
+		}
+		try {
+			URI fallbackUri = new URI(getFallbackUrl(api));
+			if (fallbackUri.getScheme() == null || fallbackUri.getHost() == null) {
+				throw new IllegalStateException(api.name() + " fallback url must include scheme and host");
+			}
+		} catch (URISyntaxException e) {
+			throw new IllegalStateException(api.name() + " fallback url is invalid: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Checks if fallback is enabled and a fallback URL is configured for the file.
+	 */
+	private boolean isFallbackEnabled(MockApi api) {
+		if (mockApiConfiguration == null || webClient == null) {
+			return false;
+		}
+		String fallbackUrl = getFallbackUrl(api);
+		return mockApiConfiguration.getFallback().isEnabled() && fallbackUrl != null && !fallbackUrl.isEmpty();
+	}
+
+	/**
+	 * mock.api.controllers.{name}.fallback-url, or the global base URL.
+	 */
+	private String getFallbackUrl(MockApi api) {
+		return mockApiConfiguration.getFallbackUrlForController(api.name());
+	}
+
+	/**
+	 * Proxies the request to the fallback endpoint, streaming the request body
+	 * through and relaying the response bytes unchanged.
+	 */
+	private Mono<ServerResponse> proxyToFallback(ServerRequest request, MockApi api, String requestPath,
+			String httpMethod, byte[] body, long startNanos) {
+
+		String fallbackUrl = getFallbackUrl(api);
+		URI fallbackUri = URI.create(fallbackUrl);
+		String scheme = fallbackUri.getScheme();
+		String host = fallbackUri.getHost();
+		String port = fallbackUri.getPort() > 0 ? String.valueOf(fallbackUri.getPort()) : null;
+		MultiValueMap<String, String> queryParams = request.queryParams();
+
+		log.info("[{}] Proxying request to fallback: {} {}{}", api.name(), httpMethod, fallbackUrl, requestPath);
+
+		// Build WebClient request
+		WebClient.RequestBodySpec requestSpec = webClient
+				.method(request.method())
+				.uri(uriBuilder -> {
+					uriBuilder.scheme(scheme).host(host).port(port).path(requestPath);
+					if (!queryParams.isEmpty()) {
+						queryParams.forEach(uriBuilder::queryParam);
+					}
+					return uriBuilder.build();
+				});
+
+		// Forward headers if configured
+		if (mockApiConfiguration.getFallback().isForwardHeaders()) {
+			request.headers().asHttpHeaders().forEach((name, values) -> {
+				// Skip certain headers that should not be forwarded
+				if (!name.equalsIgnoreCase("host") && !name.equalsIgnoreCase("content-length")) {
+					requestSpec.header(name, values.toArray(new String[0]));
+				}
+			});
+		}
+
+		// Stream the request body for non-GET requests, unless it was read for matching
+		if (body != null) {
+			if (body.length > 0) {
+				requestSpec.bodyValue(body);
+			}
+		} else if (!HttpMethod.GET.equals(request.method())) {
+			requestSpec.body(BodyInserters.fromDataBuffers(request.body(BodyExtractors.toDataBuffers())));
+		}
+
+		// Execute request and relay the response
+		return requestSpec
+				.retrieve()
+				.toEntity(byte[].class)
+				.flatMap(response -> {
+					log.debug("[{}] Fallback request succeeded with status: {}", api.name(),
+							response.getStatusCode());
+					recordRequest(api.name(), null, httpMethod, Outcome.FALLBACK, startNanos);
+					ServerResponse.BodyBuilder builder = ServerResponse.status(response.getStatusCode())
+							.headers(headers -> response.getHeaders().forEach((name, values) -> {
+								if (!SKIPPED_RESPONSE_HEADERS.contains(name.toLowerCase())) {
+									headers.addAll(name, values);
+								}
+							}));
+					return response.getBody() != null ? builder.bodyValue(response.getBody()) : builder.build();
+				})
+				.onErrorResume(error -> {
+					log.error("[{}] Error proxying to fallback endpoint: {}", api.name(), error.getMessage());
+					recordRequest(api.name(), null, httpMethod, Outcome.FALLBACK_ERROR, startNanos);
+					return ServerResponse.status(HttpStatus.BAD_GATEWAY)
+							.bodyValue(Map.of(
+									"error", "Fallback endpoint error",
+									"message", String.valueOf(error.getMessage()),
+									"path", requestPath));
+				});
+	}
+}
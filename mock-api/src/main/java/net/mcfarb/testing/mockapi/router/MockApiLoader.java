@@ -0,0 +1,246 @@
+package net.mcfarb.testing.mockapi.router;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+
+import io.netty.buffer.PooledByteBufAllocator;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import net.mcfarb.testing.ddmock.model.MockRestGeneratorInfo;
+import net.mcfarb.testing.ddmock.service.JsonProcessor;
+import net.mcfarb.testing.ddmock.service.MockRestProvider;
+import net.mcfarb.testing.mockapi.config.MockApiConfiguration;
+import net.mcfarb.testing.mockapi.metrics.MockStartupReports;
+
+/**
+ * Discovers and loads mock files.
+ *
+ * Every *.json file in {@code mock.api.mock-directory}, or in mockdata/ on the
+ * classpath when no directory is configured, is loaded into its own
+ * {@link MockRestProvider}. All files share one ObjectMapper and
+ * JsonProcessor. Objects stay scoped to their file, so two files may use the
+ * same object id. Files without mockRestApis are skipped. When
+ * {@code mock.api.snapshots.directory} is set, unchanged files are read from
+ * their binary snapshot there instead of being parsed, see
+ * {@link net.mcfarb.testing.ddmock.service.MockSnapshot}. When
+ * {@code mock.api.off-heap.enabled} is set, every file's response bodies are
+ * also serialized into a {@link MockResponseArena}.
+ *
+ * Files in the mock directory can also be loaded one at a time by name, see
+ * {@link #load(String)}, which is how {@link MockFileWatcher} reloads them.
+ */
+@Slf4j
+@Component
+public class MockApiLoader {
+
+	private static final String CLASSPATH_LOCATION = "classpath*:mockdata/*.json";
+	private static final String SNAPSHOT_SUFFIX = ".snapshot";
+
+	@Autowired
+	private MockApiConfiguration mockApiConfiguration;
+
+	@Autowired(required = false)
+	private MockStartupReports startupReports;
+
+	// writes responses, as opposed to objectMapper which reads mock files
+	@Autowired(required = false)
+	private ObjectMapper responseObjectMapper;
+
+	private final ObjectMapper objectMapper;
+	private final JsonProcessor jsonProcessor;
+
+	public MockApiLoader() {
+		DateFormat dateFormat = new SimpleDateFormat("MM/dd/yyyy, HH:mm:ss");
+		objectMapper = new ObjectMapper();
+		objectMapper.setPropertyNamingStrategy(PropertyNamingStrategies.LOWER_CAMEL_CASE)
+				.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+				.setDateFormat(dateFormat);
+
+		jsonProcessor = new JsonProcessor();
+		jsonProcessor.setObjectMapper(objectMapper);
+	}
+
+	/**
+	 * Resolves relative body files against the mock directory and applies the
+	 * intern capacity.
+	 */
+	@PostConstruct
+	protected void configure() {
+		jsonProcessor.setBaseDirectory(getMockDirectory());
+		jsonProcessor.setInternCapacity(mockApiConfiguration.getIntern().getCapacity());
+	}
+
+	/**
+	 * Loads every mock file, ordered by file name.
+	 */
+	public List<MockApi> load() {
+		List<MockApi> apis = new ArrayList<>();
+		Set<String> names = new HashSet<>();
+		for (Resource resource : findResources()) {
+			String name = nameOf(resource);
+			if (!names.add(name)) {
+				throw new IllegalStateException("More than one mock file is named " + resource.getFilename());
+			}
+			MockApi api = load(name, resource);
+			if (api != null) {
+				apis.add(api);
+			}
+		}
+		return apis;
+	}
+
+	/**
+	 * Loads a single file from the mock directory.
+	 *
+	 * @param name file name without .json
+	 * @return the loaded file, or null when it no longer exists or has no
+	 *         mockRestApis
+	 */
+	public MockApi load(String name) {
+		Path directory = getMockDirectory();
+		if (directory == null) {
+			throw new IllegalStateException("Mock files can only be reloaded from mock.api.mock-directory");
+		}
+		Path file = directory.resolve(name + ".json");
+		if (!Files.isRegularFile(file)) {
+			log.info("[{}] {} was removed", name, file);
+			if (startupReports != null) {
+				startupReports.remove(name);
+			}
+			return null;
+		}
+		return load(name, new FileSystemResource(file));
+	}
+
+	/**
+	 * Builds the objects and routes of an already parsed mock configuration,
+	 * e.g. one pushed through the admin API.
+	 */
+	public MockApi build(String name, String source, MockRestGeneratorInfo mockRestInfo) {
+		MockRestProvider mockRestProvider = new MockRestProvider();
+		mockRestProvider.setJsonProcessor(jsonProcessor);
+		mockRestProvider.initialize(mockRestInfo);
+		return new MockApi(name, source, mockRestProvider);
+	}
+
+	/**
+	 * ObjectMapper mock files are read with.
+	 */
+	public ObjectMapper getObjectMapper() {
+		return objectMapper;
+	}
+
+	/**
+	 * The configured mock directory, or null when loading from the classpath.
+	 */
+	public Path getMockDirectory() {
+		return mockApiConfiguration.getMockDirectory() != null
+				? Path.of(mockApiConfiguration.getMockDirectory()).toAbsolutePath().normalize()
+				: null;
+	}
+
+	private MockApi load(String name, Resource resource) {
+		String source = sourceOf(resource);
+		try {
+			MockRestGeneratorInfo mockRestInfo = jsonProcessor.buildMockRestInfoObjectFromStream(source,
+					resource.getInputStream(), snapshotOf(name));
+			if (mockRestInfo.getMockRestApis() == null || mockRestInfo.getMockRestApis().isEmpty()) {
+				log.info("[{}] No mockRestApis in {}, skipping", name, source);
+				if (startupReports != null) {
+					startupReports.remove(name);
+				}
+				return null;
+			}
+
+			MockApi api = build(name, source, mockRestInfo);
+			MockRestProvider mockRestProvider = api.provider();
+			if (mockApiConfiguration.getOffHeap().isEnabled()) {
+				MockResponseArena arena = MockResponseArena.build(mockRestProvider, getResponseObjectMapper(),
+						PooledByteBufAllocator.DEFAULT);
+				api = new MockApi(name, source, mockRestProvider, arena);
+				log.info("[{}] Placed {} response bodies, {} bytes, in direct memory", name, arena.size(),
+						arena.getBytes());
+			}
+
+			log.info("[{}] Loaded {} routes and {} mock objects from {}", name,
+					mockRestProvider.getRestMethods().size(), mockRestProvider.getObjectMap().size(), source);
+			log.info("[{}] Startup report {}", name, mockRestProvider.getLoadReport().summary());
+			if (startupReports != null) {
+				startupReports.register(name, mockRestProvider.getLoadReport());
+			}
+			return api;
+		} catch (Exception e) {
+			log.error("[{}] Failed to load mock file {}", name, source, e);
+			throw new RuntimeException("Failed to load mock file " + source, e);
+		}
+	}
+
+	private ObjectMapper getResponseObjectMapper() {
+		return responseObjectMapper != null ? responseObjectMapper : Jackson2ObjectMapperBuilder.json().build();
+	}
+
+	// snapshot file of a mock file, or null when snapshots are not configured
+	private Path snapshotOf(String name) {
+		String directory = mockApiConfiguration.getSnapshots().getDirectory();
+		return directory != null ? Path.of(directory).resolve(name + SNAPSHOT_SUFFIX) : null;
+	}
+
+	private List<Resource> findResources() {
+		String location = locationOf(getMockDirectory());
+		try {
+			Resource[] resources = new PathMatchingResourcePatternResolver().getResources(location);
+			log.info("Found {} mock files in {}", resources.length, location);
+			return Arrays.stream(resources)
+					.sorted(Comparator.comparing(MockApiLoader::nameOf))
+					.toList();
+		} catch (IOException e) {
+			throw new RuntimeException("Failed to list mock files in " + location, e);
+		}
+	}
+
+	/**
+	 * Resource pattern of the mock files in a directory, or on the classpath
+	 * when the directory is null.
+	 */
+	static String locationOf(Path directory) {
+		return directory != null ? "file:" + directory + "/*.json" : CLASSPATH_LOCATION;
+	}
+
+	private String sourceOf(Resource resource) {
+		if (mockApiConfiguration.getMockDirectory() != null) {
+			return Path.of(mockApiConfiguration.getMockDirectory(), resource.getFilename()).toString();
+		}
+		return "mockdata/" + nameOf(resource);
+	}
+
+	private static String nameOf(Resource resource) {
+		return nameOf(resource.getFilename());
+	}
+
+	/**
+	 * Mock file name without .json.
+	 */
+	static String nameOf(String filename) {
+		return filename.endsWith(".json") ? filename.substring(0, filename.length() - ".json".length()) : filename;
+	}
+}
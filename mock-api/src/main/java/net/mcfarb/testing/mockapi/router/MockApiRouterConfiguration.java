@@ -0,0 +1,21 @@
+package net.mcfarb.testing.mockapi.router;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * Routes every request under a mock file's base path to
+ * {@link MockApiDispatcher} as a functional endpoint, ahead of annotated
+ * controllers. Other paths fall through to the rest of the application.
+ */
+@Configuration
+public class MockApiRouterConfiguration {
+
+	@Bean
+	public RouterFunction<ServerResponse> mockApiRoutes(MockApiDispatcher mockApiDispatcher) {
+		return RouterFunctions.route(mockApiDispatcher::owns, mockApiDispatcher::handle);
+	}
+}
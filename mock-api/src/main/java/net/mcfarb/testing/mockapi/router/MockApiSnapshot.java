@@ -0,0 +1,32 @@
+package net.mcfarb.testing.mockapi.router;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.mcfarb.testing.ddmock.service.MockRouteTable;
+
+/**
+ * Immutable view of every loaded mock file and the route table compiled from
+ * them. {@link MockApiDispatcher} publishes a new snapshot on reload and each
+ * request reads exactly one, so a request never sees a half-applied reload.
+ *
+ * @param apis       loaded files by name, in name order
+ * @param routeTable routes of all files, earlier file names first
+ */
+public record MockApiSnapshot(Map<String, MockApi> apis, MockRouteTable<MockApi> routeTable) {
+
+	public static MockApiSnapshot of(Collection<MockApi> mockApis) {
+		List<MockApi> sorted = mockApis.stream().sorted(Comparator.comparing(MockApi::name)).toList();
+		Map<String, MockApi> apis = new LinkedHashMap<>();
+		MockRouteTable.Builder<MockApi> builder = MockRouteTable.builder();
+		for (MockApi api : sorted) {
+			apis.put(api.name(), api);
+			builder.addProvider(api, api.provider());
+		}
+		return new MockApiSnapshot(Collections.unmodifiableMap(apis), builder.build());
+	}
+}
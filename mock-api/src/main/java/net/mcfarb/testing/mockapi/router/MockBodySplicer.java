@@ -0,0 +1,262 @@
+package net.mcfarb.testing.mockapi.router;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsonFormatVisitors.JsonFormatVisitorWrapper;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.type.ArrayType;
+import com.fasterxml.jackson.databind.type.CollectionLikeType;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import com.fasterxml.jackson.databind.type.MapLikeType;
+import com.fasterxml.jackson.databind.type.MapType;
+import com.fasterxml.jackson.databind.util.NameTransformer;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
+
+/**
+ * Serializes response bodies that share instances through {@code $ref}, see
+ * {@code MockRestProvider#getSharedObjects()}, writing each shared instance
+ * once.
+ *
+ * A shared instance is serialized into its own direct buffer. Where another
+ * body contains it, the bytes written so far are cut off and the shared buffer
+ * is spliced in, so the body is a {@link CompositeByteBuf} of its own bytes and
+ * duplicates of the shared buffers. Direct memory then grows with the unique
+ * content of a file rather than with every place it is used. Scalars are
+ * written in place, splicing them would save nothing.
+ *
+ * Not for indented output, a spliced body keeps the indentation it was
+ * serialized with.
+ */
+final class MockBodySplicer {
+
+	private record Splice(int offset, Object shared) {
+	}
+
+	// where the body being written is cut, read by SplicingSerializer through the writer's attributes
+	private record Body(Object root, Set<Object> shared, ByteArrayOutputStream out, List<Splice> splices) {
+	}
+
+	private final ObjectWriter writer;
+	private final Set<Object> shared;
+	private final ByteBufAllocator allocator;
+	private final Map<Object, ByteBuf> sharedBuffers = new IdentityHashMap<>();
+	private long bytes;
+
+	MockBodySplicer(ObjectMapper objectMapper, Set<Object> shared, ByteBufAllocator allocator) {
+		this.writer = objectMapper.copy().registerModule(module()).writer();
+		this.shared = shared;
+		this.allocator = allocator;
+	}
+
+	/**
+	 * The body of an object, owned by the caller.
+	 */
+	ByteBuf serialize(Object object) throws IOException {
+		return shared.contains(object) ? shared(object).retainedDuplicate() : write(object);
+	}
+
+	/**
+	 * Direct bytes written, each shared instance counted once.
+	 */
+	long getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * Buffers of the shared instances, owned by the caller once the bodies
+	 * are written. Each body holds its own reference to those it contains.
+	 */
+	List<ByteBuf> getSharedBuffers() {
+		return List.copyOf(sharedBuffers.values());
+	}
+
+	private ByteBuf shared(Object object) throws IOException {
+		ByteBuf buffer = sharedBuffers.get(object);
+		if (buffer == null) {
+			buffer = write(object);
+			sharedBuffers.put(object, buffer);
+		}
+		return buffer;
+	}
+
+	private ByteBuf write(Object root) throws IOException {
+		Body body = new Body(root, shared, new ByteArrayOutputStream(), new ArrayList<>());
+		writer.withAttribute(Body.class, body).writeValue(body.out(), root);
+		byte[] serialized = body.out().toByteArray();
+		if (body.splices().isEmpty()) {
+			return direct(serialized, 0, serialized.length);
+		}
+		CompositeByteBuf composite = allocator.compositeDirectBuffer(body.splices().size() * 2 + 1);
+		try {
+			int from = 0;
+			for (Splice splice : body.splices()) {
+				composite.addComponent(true, direct(serialized, from, splice.offset()));
+				composite.addComponent(true, shared(splice.shared()).retainedDuplicate());
+				from = splice.offset();
+			}
+			composite.addComponent(true, direct(serialized, from, serialized.length));
+			return composite;
+		} catch (IOException | RuntimeException e) {
+			composite.release();
+			throw e;
+		}
+	}
+
+	private ByteBuf direct(byte[] serialized, int from, int to) {
+		bytes += to - from;
+		return allocator.directBuffer(to - from, to - from).writeBytes(serialized, from, to - from);
+	}
+
+	private static boolean spliceable(Object value) {
+		return !(value instanceof CharSequence || value instanceof Number || value instanceof Boolean
+				|| value instanceof Character || value instanceof Enum<?>);
+	}
+
+	private static SimpleModule module() {
+		SimpleModule module = new SimpleModule("MockBodySplicer");
+		module.setSerializerModifier(new BeanSerializerModifier() {
+			@Override
+			public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription beanDesc,
+					JsonSerializer<?> serializer) {
+				return new SplicingSerializer(serializer);
+			}
+
+			@Override
+			public JsonSerializer<?> modifyCollectionSerializer(SerializationConfig config, CollectionType valueType,
+					BeanDescription beanDesc, JsonSerializer<?> serializer) {
+				return new SplicingSerializer(serializer);
+			}
+
+			@Override
+			public JsonSerializer<?> modifyCollectionLikeSerializer(SerializationConfig config,
+					CollectionLikeType valueType, BeanDescription beanDesc, JsonSerializer<?> serializer) {
+				return new SplicingSerializer(serializer);
+			}
+
+			@Override
+			public JsonSerializer<?> modifyMapSerializer(SerializationConfig config, MapType valueType,
+					BeanDescription beanDesc, JsonSerializer<?> serializer) {
+				return new SplicingSerializer(serializer);
+			}
+
+			@Override
+			public JsonSerializer<?> modifyMapLikeSerializer(SerializationConfig config, MapLikeType valueType,
+					BeanDescription beanDesc, JsonSerializer<?> serializer) {
+				return new SplicingSerializer(serializer);
+			}
+
+			@Override
+			public JsonSerializer<?> modifyArraySerializer(SerializationConfig config, ArrayType valueType,
+					BeanDescription beanDesc, JsonSerializer<?> serializer) {
+				return new SplicingSerializer(serializer);
+			}
+		});
+		return module;
+	}
+
+	/**
+	 * Writes nothing for a shared instance but remembers where its bytes go.
+	 * Type information and unwrapping are left to the wrapped serializer, as
+	 * the shared bytes have neither.
+	 */
+	private static final class SplicingSerializer extends JsonSerializer<Object>
+			implements ContextualSerializer, ResolvableSerializer {
+
+		private final JsonSerializer<Object> delegate;
+
+		@SuppressWarnings("unchecked")
+		private SplicingSerializer(JsonSerializer<?> delegate) {
+			this.delegate = (JsonSerializer<Object>) delegate;
+		}
+
+		@Override
+		public void serialize(Object value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+			Body body = (Body) serializers.getAttribute(Body.class);
+			if (body != null && value != body.root() && body.shared().contains(value) && spliceable(value)) {
+				// an empty raw value still writes the separator before it
+				gen.writeRawValue("");
+				gen.flush();
+				body.splices().add(new Splice(body.out().size(), value));
+				return;
+			}
+			delegate.serialize(value, gen, serializers);
+		}
+
+		@Override
+		public void serializeWithType(Object value, JsonGenerator gen, SerializerProvider serializers,
+				TypeSerializer typeSer) throws IOException {
+			delegate.serializeWithType(value, gen, serializers, typeSer);
+		}
+
+		@Override
+		public JsonSerializer<?> createContextual(SerializerProvider prov, BeanProperty property)
+				throws JsonMappingException {
+			if (delegate instanceof ContextualSerializer contextual) {
+				JsonSerializer<?> contextualized = contextual.createContextual(prov, property);
+				return contextualized == delegate ? this : new SplicingSerializer(contextualized);
+			}
+			return this;
+		}
+
+		@Override
+		public void resolve(SerializerProvider provider) throws JsonMappingException {
+			if (delegate instanceof ResolvableSerializer resolvable) {
+				resolvable.resolve(provider);
+			}
+		}
+
+		@Override
+		public JsonSerializer<Object> unwrappingSerializer(NameTransformer unwrapper) {
+			return delegate.unwrappingSerializer(unwrapper);
+		}
+
+		@Override
+		public boolean isEmpty(SerializerProvider provider, Object value) {
+			return delegate.isEmpty(provider, value);
+		}
+
+		@Override
+		public boolean usesObjectId() {
+			return delegate.usesObjectId();
+		}
+
+		@Override
+		public Class<Object> handledType() {
+			return delegate.handledType();
+		}
+
+		@Override
+		public JsonSerializer<?> getDelegatee() {
+			return delegate;
+		}
+
+		@Override
+		public void acceptJsonFormatVisitor(JsonFormatVisitorWrapper visitor, JavaType type)
+				throws JsonMappingException {
+			delegate.acceptJsonFormatVisitor(visitor, type);
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package net.mcfarb.testing.mockapi.router;
+
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import net.mcfarb.testing.ddmock.model.MockRestMethodInfo;
+import net.mcfarb.testing.ddmock.service.MockDataset;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Answers objects that are a {@link MockDataset}.
+ *
+ * A request with the dataset's index path parameter gets the record at that
+ * index. Any other request streams the records from the offset query
+ * parameter on, at most limit of them, generating each as it is written.
+ */
+final class MockDatasetResponder {
+
+	Mono<ServerResponse> respond(ServerResponse.BodyBuilder responseBuilder, MockRestMethodInfo methodInfo,
+			MockDataset dataset, Map<String, String> pathParameters, MultiValueMap<String, String> queryParams) {
+		String index = pathParameters.get(dataset.getIndexParameter());
+		if (index != null) {
+			Object item = dataset.item(index);
+			return item != null ? responseBuilder.bodyValue(item)
+					: MockResponses.error(HttpStatus.NOT_FOUND, "No record at index " + index);
+		}
+		int offset;
+		int limit;
+		try {
+			offset = queryInt(queryParams, "offset", 0);
+			limit = queryInt(queryParams, "limit", dataset.size());
+		} catch (NumberFormatException e) {
+			return MockResponses.error(HttpStatus.BAD_REQUEST, "offset and limit must be non-negative integers");
+		}
+		int from = Math.min(offset, dataset.size());
+		int count = Math.min(limit, dataset.size() - from);
+		if (!MockResponses.hasContentType(methodInfo)) {
+			responseBuilder.contentType(MediaType.APPLICATION_JSON);
+		}
+		return responseBuilder.body(Flux.range(from, count).map(dataset::get), Object.class);
+	}
+
+	private static int queryInt(MultiValueMap<String, String> queryParams, String name, int defaultValue) {
+		String value = queryParams.getFirst(name);
+		if (value == null) {
+			return defaultValue;
+		}
+		int parsed = Integer.parseInt(value);
+		if (parsed < 0) {
+			throw new NumberFormatException(name + " is negative");
+		}
+		return parsed;
+	}
+}
@@ -0,0 +1,95 @@
+package net.mcfarb.testing.mockapi.router;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.util.ClassUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+import net.mcfarb.testing.ddmock.model.MockRestGeneratorInfo;
+
+/**
+ * Registers the native image hints the mock files need, when the application
+ * is processed ahead of time.
+ *
+ * Mock objects name the classes they are bound to, which Jackson creates and
+ * populates reflectively. The mock files mock-api would load, from
+ * {@code mock.api.mock-directory} or {@code mockdata/} on the classpath, are
+ * read at build time and every class they name is registered for binding,
+ * along with the mock file model itself and the classpath mock files as
+ * resources. Classes only named by files added after the image was built are
+ * not registered, build the image again with those files in place.
+ */
+@Slf4j
+public class MockFileAotProcessor implements BeanFactoryInitializationAotProcessor {
+
+	private static final String CLASSPATH_RESOURCES = "mockdata/*.json";
+	private static final String[] CLASS_FIELDS = { "class", "genericClass", "keyClass", "valueClass" };
+
+	@Override
+	public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
+		String directory = beanFactory.getBean(Environment.class).getProperty("mock.api.mock-directory");
+		ClassLoader classLoader = beanFactory.getBeanClassLoader();
+		return (generationContext, code) -> registerHints(generationContext.getRuntimeHints(),
+				directory != null ? Path.of(directory).toAbsolutePath().normalize() : null, classLoader);
+	}
+
+	/**
+	 * Registers the hints for the mock files in a directory, or on the
+	 * classpath when the directory is null.
+	 */
+	static void registerHints(RuntimeHints hints, Path directory, ClassLoader classLoader) {
+		hints.resources().registerPattern(CLASSPATH_RESOURCES);
+		BindingReflectionHintsRegistrar registrar = new BindingReflectionHintsRegistrar();
+		// the mock file model, the rest of it is reached through its properties
+		registrar.registerReflectionHints(hints.reflection(), MockRestGeneratorInfo.class);
+
+		for (String className : classNames(directory, classLoader)) {
+			try {
+				registrar.registerReflectionHints(hints.reflection(), ClassUtils.forName(className, classLoader));
+			} catch (ClassNotFoundException | LinkageError e) {
+				// still registered, so a class added to the image later can be loaded by name
+				log.warn("Mock class {} is not on the build classpath", className);
+				hints.reflection().registerType(TypeReference.of(className));
+			}
+		}
+	}
+
+	private static Set<String> classNames(Path directory, ClassLoader classLoader) {
+		String location = MockApiLoader.locationOf(directory);
+		ObjectMapper objectMapper = new ObjectMapper();
+		Set<String> classNames = new TreeSet<>();
+		try {
+			for (Resource resource : new PathMatchingResourcePatternResolver(classLoader).getResources(location)) {
+				try (InputStream stream = resource.getInputStream()) {
+					for (JsonNode mockObject : objectMapper.readTree(stream).path("mockObjects")) {
+						for (String field : CLASS_FIELDS) {
+							if (mockObject.path(field).isTextual()) {
+								classNames.add(mockObject.get(field).asText());
+							}
+						}
+					}
+				}
+			}
+		} catch (IOException e) {
+			throw new RuntimeException("Failed to read mock files in " + location, e);
+		}
+		log.info("Registering {} mock classes from {}", classNames.size(), location);
+		return classNames;
+	}
+}
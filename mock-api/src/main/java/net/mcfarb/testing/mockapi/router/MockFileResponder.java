@@ -0,0 +1,107 @@
+package net.mcfarb.testing.mockapi.router;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ReactiveHttpOutputMessage;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import lombok.extern.slf4j.Slf4j;
+import net.mcfarb.testing.ddmock.service.MockBodyFile;
+import reactor.core.publisher.Mono;
+
+/**
+ * Answers objects backed by a {@link MockBodyFile} from the file.
+ *
+ * The file is sent without reading it into memory, with zero-copy transfer
+ * where the server supports it. Validators come from the file's size and
+ * modification time. Byte ranges are honored unless If-Range names another
+ * version of the file.
+ */
+@Slf4j
+final class MockFileResponder {
+
+	Mono<ServerResponse> respond(ServerRequest request, ServerResponse.BodyBuilder responseBuilder,
+			MockBodyFile file) {
+		MockBodyFile.Version version;
+		try {
+			version = file.version();
+		} catch (IOException e) {
+			log.error("Body file {} can no longer be read", file, e);
+			return MockResponses.error(HttpStatus.INTERNAL_SERVER_ERROR, "Body file can no longer be read");
+		}
+		String eTag = version.eTag();
+		Instant lastModified = version.lastModified();
+		FileSystemResource resource = new FileSystemResource(file.getPath());
+		HttpHeaders headers = request.headers().asHttpHeaders();
+		boolean ranged = headers.containsKey(HttpHeaders.RANGE) && ifRangeMatches(headers, eTag, lastModified);
+		if (ranged && !isSatisfiable(headers, resource)) {
+			return ServerResponse.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+					.header(HttpHeaders.CONTENT_RANGE, "bytes */" + version.size())
+					.build();
+		}
+		BodyInserter<FileSystemResource, ReactiveHttpOutputMessage> body = BodyInserters.fromResource(resource);
+		return request.checkNotModified(lastModified, eTag)
+				.switchIfEmpty(Mono.defer(() -> responseBuilder.eTag(eTag).lastModified(lastModified)
+						.body(ranged ? body : withoutRange(body))));
+	}
+
+	// If-Range holds a strong entity tag or the exact Last-Modified date of the version it has
+	private static boolean ifRangeMatches(HttpHeaders headers, String eTag, Instant lastModified) {
+		String ifRange = headers.getFirst(HttpHeaders.IF_RANGE);
+		if (ifRange == null) {
+			return true;
+		}
+		if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+			return ifRange.equals(eTag);
+		}
+		try {
+			return headers.getFirstDate(HttpHeaders.IF_RANGE) == lastModified.getEpochSecond() * 1000;
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+	}
+
+	private static boolean isSatisfiable(HttpHeaders headers, FileSystemResource resource) {
+		try {
+			HttpRange.toResourceRegions(headers.getRange(), resource);
+			return true;
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+	}
+
+	// the resource writer answers Range headers, hide the header to send the whole file
+	private static <T> BodyInserter<T, ReactiveHttpOutputMessage> withoutRange(
+			BodyInserter<T, ReactiveHttpOutputMessage> inserter) {
+		return (message, context) -> inserter.insert(message, new BodyInserter.Context() {
+			@Override
+			public List<HttpMessageWriter<?>> messageWriters() {
+				return context.messageWriters();
+			}
+
+			@Override
+			public Optional<ServerHttpRequest> serverRequest() {
+				return context.serverRequest()
+						.map(serverRequest -> serverRequest.mutate().headers(h -> h.remove(HttpHeaders.RANGE)).build());
+			}
+
+			@Override
+			public Map<String, Object> hints() {
+				return context.hints();
+			}
+		});
+	}
+}
@@ -0,0 +1,149 @@
+package net.mcfarb.testing.mockapi.router;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.mcfarb.testing.mockapi.config.MockApiConfiguration;
+
+/**
+ * Reloads mock files when they change in {@code mock.api.mock-directory}.
+ *
+ * A daemon thread waits on a {@link WatchService} for *.json files being
+ * created, modified or deleted. Events arriving within
+ * {@code mock.api.reload.debounce-ms} of each other are coalesced, then the
+ * affected files are passed to {@link MockApiDispatcher#reload(Set)}. Only
+ * those files are rebuilt; requests keep being served from the previous
+ * snapshot until the new one is published. A reload that fails is logged and
+ * the watcher keeps going.
+ *
+ * Does nothing when mock files come from the classpath or when
+ * {@code mock.api.reload.enabled} is false.
+ */
+@Slf4j
+@Component
+public class MockFileWatcher {
+
+	private static final String MOCK_FILE_SUFFIX = ".json";
+
+	@Autowired
+	private MockApiConfiguration mockApiConfiguration;
+
+	@Autowired
+	private MockApiLoader mockApiLoader;
+
+	@Autowired
+	private MockApiDispatcher dispatcher;
+
+	private WatchService watchService;
+	private Thread watchThread;
+
+	@PostConstruct
+	protected void start() {
+		Path directory = mockApiLoader.getMockDirectory();
+		if (directory == null || !mockApiConfiguration.getReload().isEnabled()) {
+			return;
+		}
+		try {
+			watchService = directory.getFileSystem().newWatchService();
+			directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+		} catch (IOException e) {
+			throw new RuntimeException("Failed to watch mock directory " + directory, e);
+		}
+		watchThread = new Thread(() -> watch(directory), "mock-file-watcher");
+		watchThread.setDaemon(true);
+		watchThread.start();
+		log.info("Watching {} for mock file changes", directory);
+	}
+
+	@PreDestroy
+	protected void stop() throws IOException {
+		if (watchService != null) {
+			watchService.close();
+			watchThread.interrupt();
+		}
+	}
+
+	public boolean isWatching() {
+		return watchThread != null && watchThread.isAlive();
+	}
+
+	private void watch(Path directory) {
+		long debounceMs = mockApiConfiguration.getReload().getDebounceMs();
+		try {
+			while (true) {
+				Set<String> changed = new TreeSet<>();
+				WatchKey key = watchService.take();
+				try {
+					collect(key, directory, changed);
+					WatchKey next;
+					while ((next = watchService.poll(debounceMs, TimeUnit.MILLISECONDS)) != null) {
+						collect(next, directory, changed);
+					}
+					if (!changed.isEmpty()) {
+						dispatcher.reload(changed);
+					}
+				} catch (ClosedWatchServiceException e) {
+					throw e;
+				} catch (RuntimeException e) {
+					// a bad mock file must not stop hot reload for the files saved after it
+					log.error("Failed to reload {}, still watching {}", changed, directory, e);
+				}
+			}
+		} catch (InterruptedException | ClosedWatchServiceException e) {
+			log.debug("Stopped watching {}", directory);
+		}
+	}
+
+	private void collect(WatchKey key, Path directory, Set<String> changed) {
+		try {
+			for (WatchEvent<?> event : key.pollEvents()) {
+				if (event.kind() == OVERFLOW) {
+					// events were lost, reload everything that exists now or existed before
+					log.warn("Missed change events in {}, reloading all mock files", directory);
+					changed.addAll(dispatcher.getSnapshot().apis().keySet());
+					changed.addAll(listMockFiles(directory));
+					continue;
+				}
+				String filename = event.context().toString();
+				if (filename.endsWith(MOCK_FILE_SUFFIX)) {
+					changed.add(MockApiLoader.nameOf(filename));
+				}
+			}
+		} finally {
+			// a key that is not reset is never signalled again
+			key.reset();
+		}
+	}
+
+	private static Set<String> listMockFiles(Path directory) {
+		try (Stream<Path> files = Files.list(directory)) {
+			Set<String> names = new TreeSet<>();
+			files.map(file -> file.getFileName().toString())
+					.filter(filename -> filename.endsWith(MOCK_FILE_SUFFIX))
+					.forEach(filename -> names.add(MockApiLoader.nameOf(filename)));
+			return names;
+		} catch (IOException e) {
+			throw new RuntimeException("Failed to list mock files in " + directory, e);
+		}
+	}
+}
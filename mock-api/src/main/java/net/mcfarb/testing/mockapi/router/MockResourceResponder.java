@@ -0,0 +1,90 @@
+package net.mcfarb.testing.mockapi.router;
+
+import java.io.IOException;
+import java.util.function.Function;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import net.mcfarb.testing.ddmock.model.MockRestMethodInfo;
+import net.mcfarb.testing.ddmock.service.MockResourceStore;
+import reactor.core.publisher.Mono;
+
+/**
+ * Answers the routes generated for a resource from the resource's
+ * {@link MockResourceStore}.
+ */
+final class MockResourceResponder {
+
+	private final ObjectMapper objectMapper;
+
+	/**
+	 * @param objectMapper ObjectMapper request bodies read for matching are parsed with
+	 */
+	MockResourceResponder(ObjectMapper objectMapper) {
+		this.objectMapper = objectMapper;
+	}
+
+	/**
+	 * @param id   the record id path parameter, null for LIST and CREATE
+	 * @param body the request body when it was read for matching, else null
+	 */
+	Mono<ServerResponse> respond(ServerRequest request, MockRestMethodInfo methodInfo, String id,
+			MultiValueMap<String, String> queryParams, byte[] body) {
+		MockResourceStore store = methodInfo.getResourceStore();
+		return switch (methodInfo.getResourceOperation()) {
+			case LIST -> ServerResponse.ok().bodyValue(store.query(queryParams));
+			case GET -> resourceResponse(store, id, store.get(id), HttpStatus.OK);
+			case DELETE -> store.delete(id) ? ServerResponse.noContent().build() : resourceNotFound(store, id);
+			case CREATE -> withBody(request, body, store, json -> {
+				ObjectNode created = store.create(json);
+				return created != null ? ServerResponse.status(HttpStatus.CREATED).bodyValue(created)
+						: MockResponses.error(HttpStatus.CONFLICT,
+								store.getName() + " record with this id already exists");
+			});
+			case REPLACE -> withBody(request, body, store, json -> resourceResponse(store, id, store.replace(id, json),
+					HttpStatus.OK));
+			case UPDATE -> withBody(request, body, store, json -> resourceResponse(store, id, store.update(id, json),
+					HttpStatus.OK));
+		};
+	}
+
+	private Mono<ServerResponse> withBody(ServerRequest request, byte[] body, MockResourceStore store,
+			Function<JsonNode, Mono<ServerResponse>> write) {
+		Mono<JsonNode> json = body != null
+				? Mono.fromCallable(() -> body.length > 0 ? readTree(body) : null)
+				: request.bodyToMono(JsonNode.class);
+		return json
+				.flatMap(write)
+				.switchIfEmpty(Mono.defer(() -> MockResponses.error(HttpStatus.BAD_REQUEST,
+						store.getName() + " requests need a JSON object body")))
+				.onErrorResume(IllegalArgumentException.class,
+						error -> MockResponses.error(HttpStatus.BAD_REQUEST, error.getMessage()))
+				.onErrorResume(ServerWebInputException.class,
+						error -> MockResponses.error(HttpStatus.BAD_REQUEST, "Invalid JSON body"));
+	}
+
+	private JsonNode readTree(byte[] body) {
+		try {
+			return objectMapper.readTree(body);
+		} catch (IOException e) {
+			throw new ServerWebInputException("Invalid JSON body");
+		}
+	}
+
+	private static Mono<ServerResponse> resourceResponse(MockResourceStore store, String id, ObjectNode record,
+			HttpStatus status) {
+		return record != null ? ServerResponse.status(status).bodyValue(record) : resourceNotFound(store, id);
+	}
+
+	private static Mono<ServerResponse> resourceNotFound(MockResourceStore store, String id) {
+		return MockResponses.error(HttpStatus.NOT_FOUND, store.getName() + " " + id + " not found");
+	}
+}
@@ -0,0 +1,193 @@
+package net.mcfarb.testing.mockapi.router;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import net.mcfarb.testing.ddmock.service.MockBodyFile;
+import net.mcfarb.testing.ddmock.service.MockDataset;
+import net.mcfarb.testing.ddmock.service.MockRestProvider;
+import reactor.core.publisher.Mono;
+
+/**
+ * Response bodies of one mock file, serialized once into pooled direct memory.
+ *
+ * Every object of the file that is answered as is (not a template or a
+ * dataset) is written to a direct {@link ByteBuf} when the file is loaded.
+ * Each response is a retained slice of that buffer, wrapped as a
+ * {@link DataBuffer}, so answering a request neither serializes nor copies
+ * the body on the heap. Strings are answered as UTF-8 text, everything else
+ * as JSON. Instances that several objects share through {@code $ref} are
+ * serialized once and spliced into each body containing them, see
+ * {@link MockBodySplicer}.
+ *
+ * The arena holds one reference to its buffers, given up with
+ * {@link #release()} when its file is reloaded or removed. Responses hold their
+ * own reference through their slice, so buffers are returned to the pool only
+ * once the last response using them has been written. A response that starts
+ * after the arena was released serializes its object on the heap instead.
+ */
+public final class MockResponseArena {
+
+	private static final MediaType TEXT_PLAIN_UTF8 = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+
+	private record Body(ByteBuf buffer, MediaType contentType) {
+	}
+
+	private final Map<String, Body> bodies;
+	// buffers of instances several bodies contain, see MockBodySplicer
+	private final List<ByteBuf> shared;
+	private final long bytes;
+	private final ObjectMapper objectMapper;
+	private final NettyDataBufferFactory bufferFactory;
+	// the arena's own reference plus one per slice being taken
+	private final AtomicInteger references = new AtomicInteger(1);
+	private final AtomicBoolean released = new AtomicBoolean();
+
+	private MockResponseArena(Map<String, Body> bodies, List<ByteBuf> shared, long bytes,
+			ObjectMapper objectMapper, ByteBufAllocator allocator) {
+		this.bodies = bodies;
+		this.shared = shared;
+		this.bytes = bytes;
+		this.objectMapper = objectMapper;
+		this.bufferFactory = new NettyDataBufferFactory(allocator);
+	}
+
+	/**
+	 * Serializes the provider's objects into direct buffers.
+	 *
+	 * @param objectMapper ObjectMapper responses are written with
+	 */
+	public static MockResponseArena build(MockRestProvider provider, ObjectMapper objectMapper,
+			ByteBufAllocator allocator) {
+		Map<String, Body> bodies = new HashMap<>();
+		long bytes = 0;
+		// indented bodies cannot be spliced, each one is indented from its own root
+		MockBodySplicer splicer = provider.getSharedObjects().isEmpty()
+				|| objectMapper.isEnabled(SerializationFeature.INDENT_OUTPUT) ? null
+						: new MockBodySplicer(objectMapper, provider.getSharedObjects(), allocator);
+		try {
+			for (Map.Entry<String, Object> entry : provider.getObjectMap().entrySet()) {
+				Object object = entry.getValue();
+				// byte arrays are answered as they are, not as JSON, body files are sent from disk
+				if (object == null || object instanceof MockDataset || object instanceof byte[]
+						|| object instanceof MockBodyFile
+						|| provider.getTemplates().containsKey(entry.getKey())) {
+					continue;
+				}
+				if (splicer != null && !(object instanceof String)) {
+					bodies.put(entry.getKey(), new Body(splicer.serialize(object), contentTypeOf(object)));
+					continue;
+				}
+				byte[] serialized = serialize(objectMapper, object);
+				ByteBuf buffer = allocator.directBuffer(serialized.length, serialized.length);
+				bodies.put(entry.getKey(), new Body(buffer.writeBytes(serialized), contentTypeOf(object)));
+				bytes += serialized.length;
+			}
+		} catch (IOException | RuntimeException e) {
+			bodies.values().forEach(body -> body.buffer().release());
+			if (splicer != null) {
+				splicer.getSharedBuffers().forEach(ByteBuf::release);
+			}
+			throw new IllegalStateException("Failed to serialize response bodies", e);
+		}
+		List<ByteBuf> shared = splicer != null ? splicer.getSharedBuffers() : List.of();
+		return new MockResponseArena(bodies, shared, bytes + (splicer != null ? splicer.getBytes() : 0),
+				objectMapper, allocator);
+	}
+
+	public boolean contains(String id) {
+		return bodies.containsKey(id);
+	}
+
+	public MediaType getContentType(String id) {
+		Body body = bodies.get(id);
+		return body != null ? body.contentType() : null;
+	}
+
+	public int size() {
+		return bodies.size();
+	}
+
+	/**
+	 * Off-heap bytes of this arena.
+	 */
+	public long getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * The body of an object. The slice is taken when the body is subscribed
+	 * to and released by the server once written.
+	 *
+	 * @param id     id of an object in this arena
+	 * @param object the object itself, serialized on the heap when the arena
+	 *               has been released since
+	 */
+	public Mono<DataBuffer> body(String id, Object object) {
+		return Mono.fromCallable(() -> {
+			DataBuffer slice = slice(id);
+			return slice != null ? slice : DefaultDataBufferFactory.sharedInstance.wrap(serialize(objectMapper, object));
+		});
+	}
+
+	/**
+	 * Gives up the arena's reference to its buffers. Further calls do nothing.
+	 */
+	public void release() {
+		if (released.compareAndSet(false, true)) {
+			unreference();
+		}
+	}
+
+	public boolean isReleased() {
+		return references.get() == 0;
+	}
+
+	// null when the arena has been released
+	private DataBuffer slice(String id) {
+		int current;
+		do {
+			current = references.get();
+			if (current == 0) {
+				return null;
+			}
+		} while (!references.compareAndSet(current, current + 1));
+		try {
+			return bufferFactory.wrap(bodies.get(id).buffer().retainedSlice());
+		} finally {
+			unreference();
+		}
+	}
+
+	private void unreference() {
+		if (references.decrementAndGet() == 0) {
+			bodies.values().forEach(body -> body.buffer().release());
+			shared.forEach(ByteBuf::release);
+		}
+	}
+
+	private static byte[] serialize(ObjectMapper objectMapper, Object object) throws JsonProcessingException {
+		return object instanceof String text ? text.getBytes(StandardCharsets.UTF_8)
+				: objectMapper.writeValueAsBytes(object);
+	}
+
+	private static MediaType contentTypeOf(Object object) {
+		return object instanceof String ? TEXT_PLAIN_UTF8 : MediaType.APPLICATION_JSON;
+	}
+}
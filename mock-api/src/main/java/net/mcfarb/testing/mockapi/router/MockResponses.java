@@ -0,0 +1,38 @@
+package net.mcfarb.testing.mockapi.router;
+
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import net.mcfarb.testing.ddmock.model.MockRestMethodInfo;
+import reactor.core.publisher.Mono;
+
+/**
+ * Helpers shared by the dispatcher and its responders.
+ */
+final class MockResponses {
+
+	private MockResponses() {
+	}
+
+	/**
+	 * An error response with the status' reason phrase and a message.
+	 */
+	static Mono<ServerResponse> error(HttpStatus status, String message) {
+		return ServerResponse.status(status).bodyValue(Map.of("error", status.getReasonPhrase(), "message", message));
+	}
+
+	/**
+	 * True when the route sets the response's Content-Type itself, through
+	 * Accept negotiation or its configured headers.
+	 */
+	static boolean hasContentType(MockRestMethodInfo methodInfo) {
+		if (methodInfo.getRequestConditions() != null && methodInfo.getRequestConditions().getProduces() != null) {
+			return true;
+		}
+		return methodInfo.getHeaders() != null
+				&& methodInfo.getHeaders().keySet().stream().anyMatch(HttpHeaders.CONTENT_TYPE::equalsIgnoreCase);
+	}
+}
@@ -0,0 +1,213 @@
+package net.mcfarb.testing.mockapi.admin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * Pushes mocks through the admin API and checks they shadow the mock files,
+ * expire, and are applied all-or-nothing in batches.
+ */
+@SpringBootTest(properties = "mock.api.fallback.enabled=false")
+@AutoConfigureWebTestClient
+public class MockAdminApiTest {
+
+	private static final String USER_DOWN = """
+			{
+			  "id": "user-down",
+			  "namespace": "%s",
+			  "ttlSeconds": %s,
+			  "mockRestApis": [
+			    { "basePath": "/api/user",
+			      "methods": [ { "path": "/{id}", "httpMethod": "GET", "returnId": "unavailable", "statusCode": 503 } ] }
+			  ],
+			  "mockObjects": [
+			    { "id": "unavailable", "class": "java.util.Map", "version": "2.0", "keyClass": "java.lang.String",
+			      "valueClass": "java.lang.Object", "objectValue": { "error": "user service down" } }
+			  ]
+			}
+			""";
+
+	private static final String USER_SLOW = """
+			{
+			  "id": "user-slow",
+			  "ttlSeconds": 300,
+			  "mockRestApis": [
+			    { "basePath": "/api/user",
+			      "methods": [ { "path": "/{id}", "httpMethod": "GET", "returnId": "unavailable", "statusCode": 504 } ] }
+			  ],
+			  "mockObjects": [
+			    { "id": "unavailable", "class": "java.util.Map", "version": "2.0", "keyClass": "java.lang.String",
+			      "valueClass": "java.lang.Object", "objectValue": { "error": "user service slow" } }
+			  ]
+			}
+			""";
+
+	private static final String PING = """
+			{
+			  "id": "ping",
+			  "namespace": "checkout",
+			  "mockRestApis": [
+			    { "basePath": "/runtime",
+			      "methods": [ { "path": "/ping", "httpMethod": "GET", "returnId": "pong", "statusCode": 200 } ] }
+			  ],
+			  "mockObjects": [ { "id": "pong", "class": "java.lang.String", "stringValue": "pong" } ]
+			}
+			""";
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Autowired
+	private RuntimeMockRegistry registry;
+
+	@AfterEach
+	public void cleanup() {
+		registry.setClock(Clock.systemUTC());
+		registry.list(null).forEach(mock -> registry.remove(mock.key()));
+	}
+
+	@Test
+	public void testRuntimeMockShadowsMockFileUntilDeleted() {
+		push(USER_DOWN.formatted("default", "null")).expectStatus().isCreated()
+				.expectBody().jsonPath("$.routes[0]").isEqualTo("GET /api/user/{id}");
+
+		webTestClient.get().uri("/api/user/1").exchange()
+				.expectStatus().isEqualTo(503)
+				.expectBody().jsonPath("$.error").isEqualTo("user service down");
+		// other routes of the file are untouched
+		webTestClient.get().uri("/api/user").exchange().expectStatus().isOk();
+
+		webTestClient.delete().uri("/mock-admin/mocks/default/user-down").exchange().expectStatus().isNoContent();
+		webTestClient.get().uri("/api/user/1").exchange()
+				.expectStatus().isOk()
+				.expectBody().jsonPath("$.name").isEqualTo("John Doe");
+	}
+
+	@Test
+	public void testRuntimeMockCanAddNewPaths() {
+		push(PING).expectStatus().isCreated();
+
+		webTestClient.get().uri("/runtime/ping").header(RuntimeMockRegistry.NAMESPACE_HEADER, "checkout").exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class).isEqualTo("pong");
+		webTestClient.get().uri("/runtime/other").header(RuntimeMockRegistry.NAMESPACE_HEADER, "checkout").exchange()
+				.expectStatus().isNotFound();
+	}
+
+	@Test
+	public void testTtlExpiresMock() {
+		Instant start = Instant.now();
+		registry.setClock(Clock.fixed(start, ZoneOffset.UTC));
+		push(USER_DOWN.formatted("default", "30")).expectStatus().isCreated();
+		webTestClient.get().uri("/api/user/1").exchange().expectStatus().isEqualTo(503);
+
+		registry.setClock(Clock.fixed(start.plus(Duration.ofSeconds(30)), ZoneOffset.UTC));
+		webTestClient.get().uri("/api/user/1").exchange().expectStatus().isOk();
+		webTestClient.get().uri("/mock-admin/mocks").exchange()
+				.expectStatus().isOk()
+				.expectBody().jsonPath("$.length()").isEqualTo(0);
+	}
+
+	@Test
+	public void testExpiredMockDoesNotHideOlderMock() {
+		Instant start = Instant.now();
+		registry.setClock(Clock.fixed(start, ZoneOffset.UTC));
+		push(USER_SLOW).expectStatus().isCreated();
+		push(USER_DOWN.formatted("default", "30")).expectStatus().isCreated();
+		webTestClient.get().uri("/api/user/1").exchange()
+				.expectStatus().isEqualTo(503)
+				.expectBody().jsonPath("$.error").isEqualTo("user service down");
+
+		// the newer mock has expired but has not been swept yet
+		registry.setClock(Clock.fixed(start.plus(Duration.ofSeconds(30)), ZoneOffset.UTC));
+		webTestClient.get().uri("/api/user/1").exchange()
+				.expectStatus().isEqualTo(504)
+				.expectBody().jsonPath("$.error").isEqualTo("user service slow");
+	}
+
+	@Test
+	public void testNamespacesAreClearedTogether() {
+		push(USER_DOWN.formatted("checkout", "null")).expectStatus().isCreated();
+		push(PING).expectStatus().isCreated();
+		push(USER_DOWN.formatted("search", "null")).expectStatus().isCreated();
+
+		webTestClient.get().uri("/mock-admin/mocks?namespace=checkout").exchange()
+				.expectBody().jsonPath("$.length()").isEqualTo(2);
+		webTestClient.delete().uri("/mock-admin/namespaces/checkout").exchange()
+				.expectStatus().isOk()
+				.expectBody().jsonPath("$.removed").isEqualTo(2);
+
+		// search still overrides the user route
+		webTestClient.get().uri("/api/user/1").header(RuntimeMockRegistry.NAMESPACE_HEADER, "search").exchange()
+				.expectStatus().isEqualTo(503);
+		webTestClient.get().uri("/api/user/1").header(RuntimeMockRegistry.NAMESPACE_HEADER, "checkout").exchange()
+				.expectStatus().isOk();
+		webTestClient.get().uri("/runtime/ping").header(RuntimeMockRegistry.NAMESPACE_HEADER, "checkout").exchange()
+				.expectStatus().isNotFound();
+	}
+
+	@Test
+	public void testBatchIsAllOrNothing() {
+		String invalid = """
+				{ "id": "broken", "mockRestApis": [ { "basePath": "/broken", "methods": [] } ],
+				  "mockObjects": [ { "id": "x", "class": "java.lang.Integer", "objectValue": { "not": "a number" } } ] }
+				""";
+		webTestClient.post().uri("/mock-admin/batch").contentType(MediaType.APPLICATION_JSON)
+				.bodyValue("{ \"put\": [ " + PING + ", " + invalid + " ] }")
+				.exchange()
+				.expectStatus().isBadRequest()
+				.expectBody().jsonPath("$.message").value(message -> assertTrue(message.toString().contains("broken")));
+		assertEquals(0, registry.list(null).size());
+
+		StringBuilder batch = new StringBuilder("{ \"put\": [ ").append(PING);
+		for (int i = 0; i < 200; i++) {
+			batch.append(", ").append(PING.replace("\"ping\"", "\"ping" + i + "\"")
+					.replace("/ping", "/ping" + i));
+		}
+		batch.append(" ] }");
+		webTestClient.post().uri("/mock-admin/batch").contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(batch.toString())
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody().jsonPath("$.length()").isEqualTo(201);
+		webTestClient.get().uri("/runtime/ping199").header(RuntimeMockRegistry.NAMESPACE_HEADER, "checkout").exchange()
+				.expectStatus().isOk();
+	}
+
+	@Test
+	public void testInvalidBodyIsRejected() {
+		push("{ \"mockRestApis\": [], \"mockObjects\": [] }").expectStatus().isBadRequest();
+		push("not json").expectStatus().isBadRequest();
+	}
+
+	@Test
+	public void testBodyFilesAreRejected() {
+		for (String bodyFile : new String[] { "/etc/passwd", "../../secret", "files/report.csv" }) {
+			push(PING.replace("\"stringValue\": \"pong\"", "\"bodyFile\": \"" + bodyFile + "\"")
+					.replace("java.lang.String", "java.lang.Object"))
+					.expectStatus().isBadRequest()
+					.expectBody().jsonPath("$.message").value(message -> assertTrue(message.toString()
+							.contains("body files")));
+		}
+		assertEquals(0, registry.list(null).size());
+	}
+
+	private WebTestClient.ResponseSpec push(String body) {
+		return webTestClient.post().uri("/mock-admin/mocks").contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(body)
+				.exchange();
+	}
+}
@@ -0,0 +1,154 @@
+package net.mcfarb.testing.mockapi.admin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Checks that runtime mocks of a namespace only apply to requests naming it,
+ * layer over the default namespace and mock files, and are evicted when idle
+ * but not when changed while the sweep runs.
+ */
+@SpringBootTest(properties = { "mock.api.fallback.enabled=false", "mock.api.namespaces.idle-timeout=30m" })
+@AutoConfigureWebTestClient
+public class RuntimeMockNamespaceTest {
+
+	private static final String USER_STATUS = """
+			{
+			  "id": "user-status",
+			  "namespace": "%s",
+			  "mockRestApis": [
+			    { "basePath": "/api/user", "methods": [ { "path": "/{id}", "httpMethod": "GET", "statusCode": %d } ] }
+			  ]
+			}
+			""";
+
+	private static final String OTHER_USER = """
+			{
+			  "id": "other-user",
+			  "namespace": "tenant-a",
+			  "mockObjects": [
+			    { "id": "singleUser", "class": "java.util.Map", "version": "2.0", "keyClass": "java.lang.String",
+			      "valueClass": "java.lang.Object", "objectValue": { "id": "1", "name": "Tenant A User" } }
+			  ]
+			}
+			""";
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Autowired
+	private RuntimeMockRegistry registry;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@AfterEach
+	public void cleanup() {
+		registry.setClock(Clock.systemUTC());
+		registry.getNamespaces().forEach(registry::clearNamespace);
+	}
+
+	@Test
+	public void testNamespacesAreIsolated() {
+		push(USER_STATUS.formatted("tenant-a", 503));
+
+		getUser("tenant-a").expectStatus().isEqualTo(503);
+		getUser("tenant-b").expectStatus().isOk();
+		getUser(null).expectStatus().isOk();
+	}
+
+	@Test
+	public void testNamespaceLayersOverDefault() {
+		push(USER_STATUS.formatted(RuntimeMockRegistry.DEFAULT_NAMESPACE, 500));
+		push(USER_STATUS.formatted("tenant-a", 503));
+
+		getUser("tenant-a").expectStatus().isEqualTo(503);
+		getUser("tenant-b").expectStatus().isEqualTo(500);
+		getUser(null).expectStatus().isEqualTo(500);
+	}
+
+	@Test
+	public void testObjectsOverrideMockFileObjects() {
+		push(OTHER_USER);
+
+		getUser("tenant-a").expectStatus().isOk()
+				.expectBody().jsonPath("$.name").isEqualTo("Tenant A User");
+		getUser(null).expectStatus().isOk()
+				.expectBody().jsonPath("$.name").isEqualTo("John Doe");
+	}
+
+	@Test
+	public void testIdleNamespacesAreEvicted() {
+		Instant start = Instant.now();
+		registry.setClock(Clock.fixed(start, ZoneOffset.UTC));
+		push(USER_STATUS.formatted(RuntimeMockRegistry.DEFAULT_NAMESPACE, 500));
+		push(USER_STATUS.formatted("idle", 503));
+		push(USER_STATUS.formatted("busy", 503));
+
+		registry.setClock(Clock.fixed(start.plus(Duration.ofMinutes(20)), ZoneOffset.UTC));
+		getUser("busy").expectStatus().isEqualTo(503);
+
+		registry.setClock(Clock.fixed(start.plus(Duration.ofMinutes(31)), ZoneOffset.UTC));
+		registry.sweep();
+
+		assertFalse(registry.getNamespaces().contains("idle"));
+		assertTrue(registry.getNamespaces().contains("busy"));
+		// the default namespace is never evicted
+		assertTrue(registry.getNamespaces().contains(RuntimeMockRegistry.DEFAULT_NAMESPACE));
+		getUser("idle").expectStatus().isEqualTo(500);
+		assertEquals(2, registry.list(null).size());
+	}
+
+	@Test
+	public void testNamespaceChangedDuringSweepIsKept() throws Exception {
+		Instant start = Instant.now();
+		registry.setClock(Clock.fixed(start, ZoneOffset.UTC));
+		push(USER_STATUS.formatted("late", 503));
+		registry.setClock(Clock.fixed(start.plus(Duration.ofMinutes(31)), ZoneOffset.UTC));
+
+		Thread sweep = new Thread(registry::sweep);
+		synchronized (registry) {
+			// the sweep has found the namespace idle and waits for the lock
+			sweep.start();
+			while (sweep.getState() != Thread.State.BLOCKED) {
+				Thread.sleep(1);
+			}
+			registry.put(objectMapper.readValue(USER_STATUS.formatted("late", 504), RuntimeMockDefinition.class));
+		}
+		sweep.join();
+
+		assertTrue(registry.getNamespaces().contains("late"));
+		getUser("late").expectStatus().isEqualTo(504);
+	}
+
+	private void push(String body) {
+		webTestClient.post().uri("/mock-admin/mocks").contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(body)
+				.exchange()
+				.expectStatus().isCreated();
+	}
+
+	private WebTestClient.ResponseSpec getUser(String namespace) {
+		WebTestClient.RequestHeadersSpec<?> request = webTestClient.get().uri("/api/user/1");
+		if (namespace != null) {
+			request = request.header(RuntimeMockRegistry.NAMESPACE_HEADER, namespace);
+		}
+		return request.exchange();
+	}
+}
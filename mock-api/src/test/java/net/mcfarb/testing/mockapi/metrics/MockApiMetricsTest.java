@@ -0,0 +1,103 @@
+package net.mcfarb.testing.mockapi.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Verifies that controller requests are timed and exposed through the
+ * Prometheus actuator endpoint, and that startup reports are published.
+ */
+@AutoConfigureObservability
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "mock.api.fallback.enabled=false")
+public class MockApiMetricsTest {
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	public void testMockHitIsTimedByRoute() {
+		webTestClient.get().uri("/api/user/42").accept(MediaType.APPLICATION_JSON)
+				.exchange().expectStatus().isOk();
+
+		Timer timer = meterRegistry.find(MockApiMetrics.REQUESTS)
+				.tag("controller", "user")
+				.tag("route", "/api/user/{id}")
+				.tag("method", "GET")
+				.tag("outcome", "mock_hit")
+				.timer();
+		assertNotNull(timer);
+		assertTrue(timer.count() >= 1);
+
+		assertNotNull(meterRegistry.find(MockApiMetrics.ROUTING).tag("controller", "user").tag("matched", "true")
+				.timer());
+		assertTrue(meterRegistry.find(MockApiMetrics.ROUTE_CANDIDATES).tag("controller", "user").counter()
+				.count() >= 1);
+	}
+
+	@Test
+	public void testNotFoundIsTaggedUnmatched() {
+		webTestClient.get().uri("/api/product/a/b/c/d").accept(MediaType.APPLICATION_JSON)
+				.exchange().expectStatus().isNotFound();
+
+		Timer timer = meterRegistry.find(MockApiMetrics.REQUESTS)
+				.tag("controller", "product")
+				.tag("route", MockApiMetrics.UNMATCHED_ROUTE)
+				.tag("outcome", "not_found")
+				.timer();
+		assertNotNull(timer);
+		assertEquals(1, timer.count());
+	}
+
+	@Test
+	public void testPrometheusEndpointExposesHistograms() {
+		webTestClient.get().uri("/api/product/101").exchange().expectStatus().isOk();
+
+		String scrape = webTestClient.get().uri("/actuator/prometheus")
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class)
+				.returnResult()
+				.getResponseBody();
+
+		assertNotNull(scrape);
+		assertTrue(scrape.contains("mock_api_requests_seconds_bucket"));
+		assertTrue(scrape.contains("route=\"/api/product/{id}\""));
+		assertTrue(scrape.contains("mock_api_route_candidates_total"));
+	}
+
+	@Test
+	public void testStartupReportEndpoint() {
+		webTestClient.get().uri("/actuator/mockstartup/tracker")
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.source").isEqualTo("mockdata/tracker")
+				.jsonPath("$.objectCount").isEqualTo(4)
+				.jsonPath("$.routeCount").isEqualTo(4)
+				.jsonPath("$.slowestObjects.length()").isEqualTo(4)
+				.jsonPath("$.slowestObjects[0].id").exists()
+				.jsonPath("$.retainedBytes").isNumber();
+
+		// user, product and tracker, plus UserServiceTest from the test classpath
+		webTestClient.get().uri("/actuator/mockstartup")
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.length()").isEqualTo(4);
+	}
+}
@@ -1,4 +1,4 @@
-package net.mcfarb.testing.mockapi.controller;
+package net.mcfarb.testing.mockapi.router;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -7,18 +7,17 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
 /**
- * Integration test that starts the full Spring Boot application context.
- * This tests all controllers together in a more realistic environment.
+ * Integration test that starts the full Spring Boot application on a random
+ * port. This tests all mock files together through a real HTTP server.
  *
- * Use @SpringBootTest when you want to:
+ * Use RANDOM_PORT when you want to:
  * - Test the entire application context
- * - Test multiple controllers together
- * - Test with all beans and configurations loaded
+ * - Test several mock files together
+ * - Go through the real server instead of the mock exchange
  *
- * Use @WebFluxTest when you want to:
- * - Test a single controller in isolation
+ * Use @AutoConfigureWebTestClient without a port (see UserApiTest) when you want to:
  * - Faster test execution
- * - More focused unit testing
+ * - More focused testing of one mock file
  */
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 public class IntegrationTest {
@@ -0,0 +1,115 @@
+package net.mcfarb.testing.mockapi.router;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Loads mock files from a directory and checks that files are routed and
+ * fall back independently of each other.
+ */
+@SpringBootTest
+@AutoConfigureWebTestClient
+public class MockApiDispatcherTest {
+
+	private static final String ORDERS = """
+			{
+			  "mockRestApis": [
+			    { "basePath": "/shop/orders",
+			      "methods": [ { "path": "/{id}", "httpMethod": "GET", "returnId": "item", "statusCode": 200 } ] }
+			  ],
+			  "mockObjects": [
+			    { "id": "item", "class": "java.lang.String", "stringValue": "order" }
+			  ]
+			}
+			""";
+
+	private static final String CUSTOMERS = """
+			{
+			  "mockRestApis": [
+			    { "basePath": "/shop/customers",
+			      "methods": [ { "path": "/{id}", "httpMethod": "GET", "returnId": "item", "statusCode": 200 } ] }
+			  ],
+			  "mockObjects": [
+			    { "id": "item", "class": "java.lang.String", "stringValue": "customer" }
+			  ]
+			}
+			""";
+
+	private static DisposableServer fallbackStub;
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Autowired
+	private MockApiDispatcher mockApiDispatcher;
+
+	@DynamicPropertySource
+	static void mockDirectory(DynamicPropertyRegistry registry) throws IOException {
+		Path directory = Files.createTempDirectory("mock-api-dispatcher");
+		Files.writeString(directory.resolve("orders.json"), ORDERS);
+		Files.writeString(directory.resolve("customers.json"), CUSTOMERS);
+		fallbackStub = HttpServer.create()
+				.host("localhost")
+				.port(0)
+				.route(routes -> routes.get("/shop/orders/unmocked/{x}", (request, response) -> response
+						.header("Content-Type", "application/json")
+						.sendString(Mono.just("{\"source\":\"stub\"}"))))
+				.bindNow();
+
+		registry.add("mock.api.mock-directory", directory::toString);
+		registry.add("mock.api.fallback.enabled", () -> "true");
+		registry.add("mock.api.fallback.base-url", () -> "");
+		registry.add("mock.api.controllers.orders.fallback-url", () -> "http://localhost:" + fallbackStub.port());
+	}
+
+	@AfterAll
+	static void stopStub() {
+		fallbackStub.disposeNow();
+	}
+
+	@Test
+	public void testLoadsOnlyConfiguredDirectory() {
+		assertEquals(2, mockApiDispatcher.getMockApis().size());
+		assertEquals("customers", mockApiDispatcher.getMockApis().get(0).name());
+
+		webTestClient.get().uri("/api/user/1").exchange().expectStatus().isNotFound();
+	}
+
+	@Test
+	public void testObjectIdsAreScopedToTheirFile() {
+		webTestClient.get().uri("/shop/orders/1").exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class).isEqualTo("order");
+		webTestClient.get().uri("/shop/customers/1").exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class).isEqualTo("customer");
+	}
+
+	@Test
+	public void testFallbackIsPerFile() {
+		webTestClient.get().uri("/shop/orders/unmocked/1").accept(MediaType.APPLICATION_JSON).exchange()
+				.expectStatus().isOk()
+				.expectBody().jsonPath("$.source").isEqualTo("stub");
+
+		webTestClient.get().uri("/shop/customers/unmocked/1").accept(MediaType.APPLICATION_JSON).exchange()
+				.expectStatus().isNotFound()
+				.expectBody().jsonPath("$.error").isEqualTo("No mock configuration found for this endpoint");
+	}
+}
@@ -0,0 +1,149 @@
+package net.mcfarb.testing.mockapi.router;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.mcfarb.testing.mockapi.metrics.MockApiMetrics;
+
+/**
+ * Changes files in a watched mock directory and checks that only the changed
+ * file is rebuilt and that a broken file never replaces working mocks or
+ * holds back other files.
+ */
+@SpringBootTest(properties = { "mock.api.fallback.enabled=false", "mock.api.reload.debounce-ms=50" })
+@AutoConfigureWebTestClient
+public class MockApiReloadTest {
+
+	private static final long TIMEOUT_MS = 10_000;
+
+	private static Path directory;
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Autowired
+	private MockApiDispatcher mockApiDispatcher;
+
+	@Autowired
+	private MockFileWatcher mockFileWatcher;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@DynamicPropertySource
+	static void mockDirectory(DynamicPropertyRegistry registry) throws IOException {
+		directory = Files.createTempDirectory("mock-api-reload");
+		Files.writeString(directory.resolve("stable.json"), mockFile("/stable", "stable"));
+		Files.writeString(directory.resolve("edited.json"), mockFile("/edited", "before"));
+		Files.writeString(directory.resolve("broken.json"), mockFile("/broken", "working"));
+		Files.writeString(directory.resolve("sibling.json"), mockFile("/sibling", "before"));
+		Files.writeString(directory.resolve("removed.json"), mockFile("/removed", "removed"));
+		registry.add("mock.api.mock-directory", directory::toString);
+	}
+
+	@Test
+	public void testReloadsEditedFileOnly() throws Exception {
+		assertTrue(mockFileWatcher.isWatching());
+		MockApi stable = mockApiDispatcher.getSnapshot().apis().get("stable");
+
+		Files.writeString(directory.resolve("edited.json"), mockFile("/edited", "after"));
+		awaitBody("/edited/1", "after");
+
+		// untouched files keep their provider instance
+		assertSame(stable, mockApiDispatcher.getSnapshot().apis().get("stable"));
+		assertNotNull(meterRegistry.find(MockApiMetrics.RELOAD).tag("outcome", "success").timer());
+	}
+
+	@Test
+	public void testAddsAndRemovesFiles() throws Exception {
+		Files.writeString(directory.resolve("added.json"), mockFile("/added", "added"));
+		awaitBody("/added/1", "added");
+
+		Files.delete(directory.resolve("removed.json"));
+		await(() -> !mockApiDispatcher.getSnapshot().apis().containsKey("removed"));
+		webTestClient.get().uri("/removed/1").exchange().expectStatus().isNotFound();
+	}
+
+	@Test
+	public void testBrokenFileKeepsPreviousMocks() throws Exception {
+		MockApiSnapshot before = mockApiDispatcher.getSnapshot();
+		Files.writeString(directory.resolve("broken.json"), "{ \"mockRestApis\": [ ");
+		Files.writeString(directory.resolve("sibling.json"), mockFile("/sibling", "after"));
+
+		assertFalse(mockApiDispatcher.reload(Set.of("broken", "sibling")));
+		assertSame(before.apis().get("broken"), mockApiDispatcher.getSnapshot().apis().get("broken"));
+		webTestClient.get().uri("/broken/1").exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class).isEqualTo("working");
+		// files changed together with the broken one are still reloaded
+		webTestClient.get().uri("/sibling/1").exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class).isEqualTo("after");
+	}
+
+	@Test
+	public void testKeepsWatchingAfterBrokenSave() throws Exception {
+		Files.writeString(directory.resolve("resaved.json"), mockFile("/resaved", "before"));
+		awaitBody("/resaved/1", "before");
+
+		long failures = failedReloads();
+		Files.writeString(directory.resolve("resaved.json"), "{ \"mockRestApis\": [ ");
+		await(() -> failedReloads() > failures);
+		Files.writeString(directory.resolve("resaved.json"), mockFile("/resaved", "after"));
+		awaitBody("/resaved/1", "after");
+		assertTrue(mockFileWatcher.isWatching());
+	}
+
+	private long failedReloads() {
+		Timer timer = meterRegistry.find(MockApiMetrics.RELOAD).tag("outcome", "failure").timer();
+		return timer != null ? timer.count() : 0;
+	}
+
+	private void awaitBody(String uri, String expected) throws InterruptedException {
+		await(() -> expected.equals(webTestClient.get().uri(uri).exchange()
+				.returnResult(String.class).getResponseBody().blockFirst()));
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+		while (!condition.getAsBoolean()) {
+			if (System.currentTimeMillis() > deadline) {
+				throw new AssertionError("Mock files were not reloaded within " + TIMEOUT_MS + "ms");
+			}
+			Thread.sleep(50);
+		}
+	}
+
+	private static String mockFile(String basePath, String value) {
+		return """
+				{
+				  "mockRestApis": [
+				    { "basePath": "%s",
+				      "methods": [ { "path": "/{id}", "httpMethod": "GET", "returnId": "item", "statusCode": 200 } ] }
+				  ],
+				  "mockObjects": [
+				    { "id": "item", "class": "java.lang.String", "stringValue": "%s" }
+				  ]
+				}
+				""".formatted(basePath, value);
+	}
+}
@@ -0,0 +1,66 @@
+package net.mcfarb.testing.mockapi.router;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+/**
+ * Sends body files with validators and byte ranges.
+ */
+public class MockBodyFileApiTest extends SharedMockFilesTest {
+
+	private static String report;
+
+	@BeforeAll
+	static void readReport() throws IOException {
+		report = Files.readString(MockDirectories.shared().resolve("files/report.csv"));
+	}
+
+	@Test
+	public void testSendsFileWithValidators() {
+		String eTag = webTestClient.get().uri("/exports/report").exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith(MediaType.parseMediaType("text/csv"))
+				.expectHeader().contentLength(report.length())
+				.expectHeader().valueEquals(HttpHeaders.ACCEPT_RANGES, "bytes")
+				.expectHeader().exists(HttpHeaders.LAST_MODIFIED)
+				.expectBody(String.class).isEqualTo(report)
+				.returnResult().getResponseHeaders().getETag();
+
+		webTestClient.get().uri("/exports/report").header(HttpHeaders.IF_NONE_MATCH, eTag).exchange()
+				.expectStatus().isNotModified()
+				.expectBody().isEmpty();
+	}
+
+	@Test
+	public void testSendsRanges() {
+		String eTag = webTestClient.get().uri("/exports/report").exchange()
+				.expectStatus().isOk()
+				.returnResult(String.class).getResponseHeaders().getETag();
+
+		webTestClient.get().uri("/exports/report").header(HttpHeaders.RANGE, "bytes=10-19").exchange()
+				.expectStatus().isEqualTo(HttpStatus.PARTIAL_CONTENT)
+				.expectHeader().valueEquals(HttpHeaders.CONTENT_RANGE, "bytes 10-19/" + report.length())
+				.expectBody(String.class).isEqualTo(report.substring(10, 20));
+
+		webTestClient.get().uri("/exports/report").header(HttpHeaders.RANGE, "bytes=-5")
+				.header(HttpHeaders.IF_RANGE, eTag).exchange()
+				.expectStatus().isEqualTo(HttpStatus.PARTIAL_CONTENT)
+				.expectBody(String.class).isEqualTo(report.substring(report.length() - 5));
+
+		// a changed file is sent whole
+		webTestClient.get().uri("/exports/report").header(HttpHeaders.RANGE, "bytes=10-19")
+				.header(HttpHeaders.IF_RANGE, "\"stale\"").exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class).isEqualTo(report);
+
+		webTestClient.get().uri("/exports/report").header(HttpHeaders.RANGE, "bytes=100000-").exchange()
+				.expectStatus().isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+				.expectHeader().valueEquals(HttpHeaders.CONTENT_RANGE, "bytes */" + report.length());
+	}
+}
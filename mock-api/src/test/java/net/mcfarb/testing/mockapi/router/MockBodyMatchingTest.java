@@ -0,0 +1,96 @@
+package net.mcfarb.testing.mockapi.router;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Routes POST requests on their JSON body, and checks that a body read for
+ * matching still reaches the fallback.
+ */
+@SpringBootTest
+@AutoConfigureWebTestClient
+public class MockBodyMatchingTest {
+
+	private static final String PAYMENTS = """
+			{
+			  "mockRestApis": [
+			    { "basePath": "/pay",
+			      "methods": [
+			        { "path": "/charges", "httpMethod": "POST", "returnId": "declined", "statusCode": 402,
+			          "bodyPredicates": [ { "path": "$.card.number", "matches": "4000.*" } ] },
+			        { "path": "/charges", "httpMethod": "POST", "returnId": "approved", "statusCode": 201,
+			          "bodyPredicates": [ { "path": "$.amount", "equalTo": 10 }, { "path": "$.card", "present": true } ] },
+			        { "path": "/refunds", "httpMethod": "POST", "returnId": "approved", "statusCode": 201,
+			          "bodyPredicates": [ { "path": "$.reason", "equalTo": "duplicate" } ] }
+			      ] }
+			  ],
+			  "mockObjects": [
+			    { "id": "declined", "class": "java.lang.String", "stringValue": "declined" },
+			    { "id": "approved", "class": "java.lang.String", "stringValue": "approved" }
+			  ]
+			}
+			""";
+
+	private static DisposableServer fallbackStub;
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@DynamicPropertySource
+	static void mockDirectory(DynamicPropertyRegistry registry) {
+		MockDirectories.register(registry, "body", Map.of("payments.json", PAYMENTS));
+		fallbackStub = HttpServer.create()
+				.host("localhost")
+				.port(0)
+				.route(routes -> routes.post("/pay/{operation}", (request, response) -> response
+						.header("Content-Type", "application/json")
+						.send(request.receive().retain())))
+				.bindNow();
+
+		registry.add("mock.api.fallback.enabled", () -> "true");
+		registry.add("mock.api.fallback.base-url", () -> "http://localhost:" + fallbackStub.port());
+	}
+
+	@AfterAll
+	static void stopStub() {
+		fallbackStub.disposeNow();
+	}
+
+	@Test
+	public void testRoutesOnBody() {
+		post("/pay/charges", "{\"amount\": 10.0, \"card\": {\"number\": \"4000111\"}}")
+				.expectStatus().isEqualTo(402)
+				.expectBody(String.class).isEqualTo("declined");
+		post("/pay/charges", "{\"card\": {\"number\": \"4242\"}, \"amount\": 10}")
+				.expectStatus().isCreated()
+				.expectBody(String.class).isEqualTo("approved");
+		post("/pay/refunds", "{\"reason\": \"duplicate\"}")
+				.expectStatus().isCreated();
+	}
+
+	@Test
+	public void testUnmatchedBodyIsForwardedToFallback() {
+		post("/pay/refunds", "{\"reason\": \"fraud\"}")
+				.expectStatus().isOk()
+				.expectBody().jsonPath("$.reason").isEqualTo("fraud");
+		post("/pay/charges", "{\"amount\": 10}")
+				.expectStatus().isOk()
+				.expectBody().jsonPath("$.amount").isEqualTo(10);
+	}
+
+	private WebTestClient.ResponseSpec post(String uri, String body) {
+		return webTestClient.post().uri(uri).contentType(MediaType.APPLICATION_JSON).bodyValue(body).exchange();
+	}
+}
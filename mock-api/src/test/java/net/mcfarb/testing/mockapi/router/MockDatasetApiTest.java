@@ -0,0 +1,37 @@
+package net.mcfarb.testing.mockapi.router;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+/**
+ * Serves a generated dataset as a streamed list and as single records.
+ */
+public class MockDatasetApiTest extends SharedMockFilesTest {
+
+	@Test
+	public void testStreamsPages() {
+		webTestClient.get().uri("/customers?offset=999998&limit=10").exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentType(MediaType.APPLICATION_JSON)
+				.expectBody()
+				.jsonPath("$.length()").isEqualTo(2)
+				.jsonPath("$[0].id").isEqualTo(999999)
+				.jsonPath("$[1].name").isEqualTo("Customer 999999");
+		webTestClient.get().uri("/customers?limit=0").exchange()
+				.expectStatus().isOk()
+				.expectBody().json("[]");
+		webTestClient.get().uri("/customers?limit=many").exchange()
+				.expectStatus().isBadRequest();
+	}
+
+	@Test
+	public void testServesRecordsByIndex() {
+		webTestClient.get().uri("/customers/41").exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.id").isEqualTo(42)
+				.jsonPath("$.name").isEqualTo("Customer 41");
+		webTestClient.get().uri("/customers/1000000").exchange()
+				.expectStatus().isNotFound();
+	}
+}
@@ -0,0 +1,54 @@
+package net.mcfarb.testing.mockapi.router;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+/**
+ * Mock directories for tests. Tests that only read their mock files use the
+ * shared directory, mockfiles/ on the test classpath, through
+ * {@link SharedMockFilesTest} so they run in one Spring context. Tests that
+ * change their files or need other settings get a directory of their own.
+ */
+final class MockDirectories {
+
+	private MockDirectories() {
+	}
+
+	/**
+	 * The shared mock directory.
+	 */
+	static Path shared() {
+		try {
+			return Path.of(MockDirectories.class.getResource("/mockfiles").toURI());
+		} catch (URISyntaxException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Writes the files, by path relative to a new temporary directory, and
+	 * sets it as {@code mock.api.mock-directory}.
+	 *
+	 * @return the directory
+	 */
+	static Path register(DynamicPropertyRegistry registry, String prefix, Map<String, String> files) {
+		try {
+			Path directory = Files.createTempDirectory("mock-api-" + prefix);
+			for (Map.Entry<String, String> file : files.entrySet()) {
+				Path path = directory.resolve(file.getKey());
+				Files.createDirectories(path.getParent());
+				Files.writeString(path, file.getValue());
+			}
+			registry.add("mock.api.mock-directory", directory::toString);
+			return directory;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package net.mcfarb.testing.mockapi.router;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import net.mcfarb.testing.ddmock.model.MockDatasetInfo;
+import net.mcfarb.testing.ddmock.model.MockObject;
+import net.mcfarb.testing.mockapi.model.User;
+
+/**
+ * Derives native image hints from the classes mock files name.
+ */
+public class MockFileAotProcessorTest {
+
+	private static final String USERS = """
+			{
+			  "mockRestApis": [],
+			  "mockObjects": [
+			    { "id": "user", "class": "net.mcfarb.testing.mockapi.model.User", "objectValue": { "id": 1 } },
+			    { "id": "users", "class": "java.util.List", "genericClass": "net.mcfarb.testing.mockapi.model.User" },
+			    { "id": "legacy", "class": "com.example.LegacyAccount" }
+			  ]
+			}
+			""";
+
+	@TempDir
+	Path directory;
+
+	@Test
+	public void testRegistersClassesOfMockDirectory() throws Exception {
+		Files.writeString(directory.resolve("users.json"), USERS);
+		RuntimeHints hints = new RuntimeHints();
+
+		MockFileAotProcessor.registerHints(hints, directory, getClass().getClassLoader());
+
+		assertTrue(RuntimeHintsPredicates.reflection().onType(User.class)
+				.withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+		assertTrue(RuntimeHintsPredicates.reflection().onMethod(User.class, "setName").invoke().test(hints));
+		// not on the build classpath, registered by name only
+		assertTrue(RuntimeHintsPredicates.reflection().onType(TypeReference.of("com.example.LegacyAccount"))
+				.test(hints));
+		// the mock file model
+		assertTrue(RuntimeHintsPredicates.reflection().onMethod(MockObject.class, "setFakeClass").invoke()
+				.test(hints));
+		assertTrue(RuntimeHintsPredicates.reflection().onType(MockDatasetInfo.class).test(hints));
+	}
+
+	@Test
+	public void testRegistersClasspathMockFiles() {
+		RuntimeHints hints = new RuntimeHints();
+
+		MockFileAotProcessor.registerHints(hints, null, getClass().getClassLoader());
+
+		assertTrue(RuntimeHintsPredicates.resource().forResource("mockdata/user.json").test(hints));
+		// named by the test mock files on the classpath
+		assertTrue(RuntimeHintsPredicates.reflection().onType(User.class).test(hints));
+		assertFalse(RuntimeHintsPredicates.reflection().onType(TypeReference.of("com.example.LegacyAccount"))
+				.test(hints));
+	}
+}
@@ -0,0 +1,43 @@
+package net.mcfarb.testing.mockapi.router;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+/**
+ * Chooses among variants of one route by request headers and content
+ * negotiation.
+ */
+public class MockHeaderMatchingTest extends SharedMockFilesTest {
+
+	@Test
+	public void testRequestHeaderVariants() {
+		webTestClient.get().uri("/reports/1").header("X-Api-Version", "2").exchange()
+				.expectStatus().isOk()
+				.expectBody().jsonPath("$.version").isEqualTo("2");
+		webTestClient.get().uri("/reports/1").header("Authorization", "Bearer token").exchange()
+				.expectStatus().isOk()
+				.expectBody().jsonPath("$.view").isEqualTo("admin");
+	}
+
+	@Test
+	public void testContentNegotiation() {
+		webTestClient.get().uri("/reports/1").accept(MediaType.APPLICATION_JSON).exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentType(MediaType.APPLICATION_JSON)
+				.expectBody().jsonPath("$.view").isEqualTo("public");
+		webTestClient.get().uri("/reports/1").accept(MediaType.valueOf("text/csv")).exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentType("text/csv")
+				.expectBody(String.class).isEqualTo("id,total");
+		webTestClient.get().uri("/reports/1").accept(MediaType.APPLICATION_XML).exchange()
+				.expectStatus().isNotFound();
+	}
+
+	@Test
+	public void testConsumes() {
+		webTestClient.post().uri("/reports").contentType(MediaType.valueOf("text/csv")).bodyValue("id\n1").exchange()
+				.expectStatus().isCreated();
+		webTestClient.post().uri("/reports").contentType(MediaType.APPLICATION_JSON).bodyValue("{}").exchange()
+				.expectStatus().isNotFound();
+	}
+}
@@ -0,0 +1,108 @@
+package net.mcfarb.testing.mockapi.router;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+/**
+ * Serves a resource declared in a mock file and resets its state through the
+ * admin API.
+ */
+public class MockResourceApiTest extends SharedMockFilesTest {
+
+	@BeforeEach
+	public void reset() {
+		webTestClient.post().uri("/mock-admin/resources/books/reset").exchange().expectStatus().isNoContent();
+	}
+
+	@Test
+	public void testCrud() {
+		webTestClient.get().uri("/shop/books").exchange()
+				.expectStatus().isOk()
+				.expectBody().jsonPath("$.length()").isEqualTo(2);
+		webTestClient.get().uri("/shop/books?genre=scifi").exchange()
+				.expectStatus().isOk()
+				.expectBody().jsonPath("$[0].title").isEqualTo("Dune").jsonPath("$.length()").isEqualTo(1);
+
+		webTestClient.post().uri("/shop/books").contentType(MediaType.APPLICATION_JSON)
+				.bodyValue("{\"title\":\"Solaris\",\"genre\":\"scifi\"}").exchange()
+				.expectStatus().isCreated()
+				.expectBody().jsonPath("$.id").isEqualTo(3);
+		webTestClient.post().uri("/shop/books").contentType(MediaType.APPLICATION_JSON)
+				.bodyValue("{\"id\":3}").exchange()
+				.expectStatus().isEqualTo(409);
+
+		webTestClient.patch().uri("/shop/books/3").contentType(MediaType.APPLICATION_JSON)
+				.bodyValue("{\"genre\":\"classic\"}").exchange()
+				.expectStatus().isOk()
+				.expectBody().jsonPath("$.title").isEqualTo("Solaris").jsonPath("$.genre").isEqualTo("classic");
+		webTestClient.put().uri("/shop/books/3").contentType(MediaType.APPLICATION_JSON)
+				.bodyValue("{\"title\":\"Solaris\"}").exchange()
+				.expectStatus().isOk()
+				.expectBody().jsonPath("$.id").isEqualTo(3).jsonPath("$.genre").doesNotExist();
+		webTestClient.get().uri("/shop/books/3").exchange()
+				.expectStatus().isOk()
+				.expectBody().jsonPath("$.title").isEqualTo("Solaris");
+
+		webTestClient.delete().uri("/shop/books/3").exchange().expectStatus().isNoContent();
+		webTestClient.delete().uri("/shop/books/3").exchange().expectStatus().isNotFound();
+		webTestClient.get().uri("/shop/books/3").exchange().expectStatus().isNotFound();
+	}
+
+	@Test
+	public void testListIgnoresParametersThatAreNotFields() {
+		webTestClient.get().uri("/shop/books?genre=scifi&page=1&_=1712345678").exchange()
+				.expectStatus().isOk()
+				.expectBody().jsonPath("$[0].title").isEqualTo("Dune").jsonPath("$.length()").isEqualTo(1);
+		webTestClient.get().uri("/shop/books?genre=scifi&genre=classic").exchange()
+				.expectStatus().isOk()
+				.expectBody().jsonPath("$.length()").isEqualTo(2);
+	}
+
+	@Test
+	public void testExplicitMethodsTakePrecedence() {
+		webTestClient.get().uri("/shop/books/featured").exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class).isEqualTo("featured");
+	}
+
+	@Test
+	public void testRejectsBodiesThatAreNotObjects() {
+		webTestClient.post().uri("/shop/books").contentType(MediaType.APPLICATION_JSON)
+				.bodyValue("[1, 2]").exchange()
+				.expectStatus().isBadRequest();
+		webTestClient.post().uri("/shop/books").contentType(MediaType.APPLICATION_JSON)
+				.bodyValue("{not json").exchange()
+				.expectStatus().isBadRequest();
+		webTestClient.patch().uri("/shop/books/1").contentType(MediaType.APPLICATION_JSON).exchange()
+				.expectStatus().isBadRequest();
+	}
+
+	@Test
+	public void testSnapshotAndReset() {
+		webTestClient.post().uri("/mock-admin/resources/books/snapshots/before").exchange()
+				.expectStatus().isNoContent();
+		webTestClient.delete().uri("/shop/books/1").exchange().expectStatus().isNoContent();
+		webTestClient.get().uri("/mock-admin/resources").exchange()
+				.expectStatus().isOk()
+				.expectBody().jsonPath("$[0].name").isEqualTo("books").jsonPath("$[0].size").isEqualTo(1);
+
+		webTestClient.post().uri("/mock-admin/resources/books/snapshots/before/restore").exchange()
+				.expectStatus().isNoContent();
+		webTestClient.get().uri("/shop/books/1").exchange().expectStatus().isOk();
+
+		webTestClient.post().uri("/shop/books").contentType(MediaType.APPLICATION_JSON)
+				.bodyValue("{\"title\":\"Solaris\"}").exchange()
+				.expectStatus().isCreated();
+		webTestClient.post().uri("/mock-admin/resources/reset").exchange()
+				.expectStatus().isOk()
+				.expectBody().jsonPath("$.reset").isEqualTo(1);
+		webTestClient.get().uri("/shop/books").exchange()
+				.expectBody().jsonPath("$.length()").isEqualTo(2);
+
+		webTestClient.post().uri("/mock-admin/resources/books/snapshots/missing/restore").exchange()
+				.expectStatus().isNotFound();
+		webTestClient.post().uri("/mock-admin/resources/movies/reset").exchange()
+				.expectStatus().isNotFound();
+	}
+}
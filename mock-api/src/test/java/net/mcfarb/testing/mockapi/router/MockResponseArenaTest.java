@@ -0,0 +1,169 @@
+package net.mcfarb.testing.mockapi.router;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.buffer.ByteBuf;
+import net.mcfarb.testing.mockapi.metrics.MockApiMetrics;
+
+/**
+ * Answers mock file objects from direct memory and releases the buffers of
+ * reloaded files once their last response is written.
+ */
+@SpringBootTest(properties = { "mock.api.fallback.enabled=false", "mock.api.reload.enabled=false",
+		"mock.api.off-heap.enabled=true" })
+@AutoConfigureWebTestClient
+public class MockResponseArenaTest {
+
+	private static final String PETS = """
+			{
+			  "mockRestApis": [
+			    { "basePath": "/pets",
+			      "methods": [
+			        { "path": "/{id}", "httpMethod": "GET", "returnId": "pet" },
+			        { "path": "/{id}/name", "httpMethod": "GET", "returnId": "name" },
+			        { "path": "/{id}/greeting", "httpMethod": "GET", "returnId": "greeting" }
+			      ] }
+			  ],
+			  "mockObjects": [
+			    { "id": "pet", "class": "java.util.Map", "keyClass": "java.lang.String",
+			      "valueClass": "java.lang.Object", "version": "2.0",
+			      "objectValue": { "name": "Rex", "tags": ["good", "dog"] } },
+			    { "id": "name", "class": "java.lang.String", "stringValue": "Rex" },
+			    { "id": "greeting", "class": "java.lang.String", "template": true, "stringValue": "Hi {{path.id}}" }
+			  ]
+			}
+			""";
+
+	private static final String SHELTER = """
+			{
+			  "mockRestApis": [
+			    { "basePath": "/shelter",
+			      "methods": [
+			        { "path": "/dog", "httpMethod": "GET", "returnId": "dog" },
+			        { "path": "/pets", "httpMethod": "GET", "returnId": "pets" },
+			        { "path": "/first", "httpMethod": "GET", "returnId": "first" }
+			      ] }
+			  ],
+			  "mockObjects": [
+			    { "id": "pets", "class": "java.util.List", "genericClass": "java.lang.Object",
+			      "objectValue": [ { "$ref": "dog" }, { "name": "Tom" }, { "$ref": "dog" } ] },
+			    { "id": "first", "class": "java.util.Map", "keyClass": "java.lang.String",
+			      "valueClass": "java.lang.Object", "version": "2.0", "objectValue": { "$ref": "pets#/0" } },
+			    { "id": "dog", "class": "java.util.Map", "keyClass": "java.lang.String",
+			      "valueClass": "java.lang.Object", "version": "2.0",
+			      "objectValue": { "name": "Rex", "tags": ["good", "dog"] } }
+			  ]
+			}
+			""";
+
+	private static Path directory;
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Autowired
+	private MockApiDispatcher mockApiDispatcher;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@DynamicPropertySource
+	static void mockDirectory(DynamicPropertyRegistry registry) {
+		directory = MockDirectories.register(registry, "arena", Map.of("pets.json", PETS, "shelter.json", SHELTER));
+	}
+
+	@Test
+	public void testAnswersFromArena() {
+		MockResponseArena arena = mockApiDispatcher.getSnapshot().apis().get("pets").arena();
+		// templates are rendered per request
+		assertEquals(2, arena.size());
+		assertTrue(mockApiDispatcher.getOffHeapBytes() > 0);
+		assertEquals(mockApiDispatcher.getOffHeapBytes(),
+				meterRegistry.find(MockApiMetrics.OFF_HEAP_BYTES).gauge().value());
+
+		for (int i = 0; i < 3; i++) {
+			webTestClient.get().uri("/pets/1").exchange()
+					.expectStatus().isOk()
+					.expectHeader().contentType(MediaType.APPLICATION_JSON)
+					.expectBody().json("{\"name\": \"Rex\", \"tags\": [\"good\", \"dog\"]}");
+		}
+		webTestClient.get().uri("/pets/1/name").exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith(MediaType.TEXT_PLAIN)
+				.expectBody(String.class).isEqualTo("Rex");
+		webTestClient.get().uri("/pets/7/greeting").exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class).isEqualTo("Hi 7");
+	}
+
+	@Test
+	public void testSplicesSharedObjects() {
+		MockResponseArena arena = mockApiDispatcher.getSnapshot().apis().get("shelter").arena();
+		String dog = "{\"name\":\"Rex\",\"tags\":[\"good\",\"dog\"]}";
+		String tom = "{\"name\":\"Tom\"}";
+		// the dog is written once, not once per body containing it
+		assertEquals(dog.length() + "[,,]".length() + tom.length(), arena.getBytes());
+
+		webTestClient.get().uri("/shelter/pets").exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class).isEqualTo("[" + dog + "," + tom + "," + dog + "]");
+		webTestClient.get().uri("/shelter/first").exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class).isEqualTo(dog);
+		webTestClient.get().uri("/shelter/dog").exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class).isEqualTo(dog);
+	}
+
+	@Test
+	public void testReleasesReplacedArenas() throws IOException {
+		MockResponseArena previous = mockApiDispatcher.getSnapshot().apis().get("pets").arena();
+		DataBuffer inFlight = previous.body("pet", null).block();
+		ByteBuf buffer = assertInstanceOf(NettyDataBuffer.class, inFlight).getNativeBuffer().unwrap();
+
+		Files.writeString(directory.resolve("pets.json"), PETS.replace("Rex", "Max"));
+		assertTrue(mockApiDispatcher.reload(Set.of("pets")));
+
+		assertTrue(previous.isReleased());
+		assertFalse(mockApiDispatcher.getSnapshot().apis().get("pets").arena().isReleased());
+		// the response still being written keeps its slice
+		assertEquals(1, buffer.refCnt());
+		assertTrue(inFlight.toString(StandardCharsets.UTF_8).contains("Rex"));
+		DataBufferUtils.release(inFlight);
+		assertEquals(0, buffer.refCnt());
+
+		// responses starting after the release serialize on the heap
+		DataBuffer late = previous.body("name", "Rex").block();
+		assertFalse(late instanceof NettyDataBuffer);
+		assertEquals("Rex", late.toString(StandardCharsets.UTF_8));
+
+		webTestClient.get().uri("/pets/1/name").exchange()
+				.expectBody(String.class).isEqualTo("Max");
+
+		Files.writeString(directory.resolve("pets.json"), PETS);
+		assertTrue(mockApiDispatcher.reload(Set.of("pets")));
+	}
+}
@@ -0,0 +1,70 @@
+package net.mcfarb.testing.mockapi.router;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * Writes binary snapshots of mock files on startup and reads them while the
+ * files are unchanged.
+ */
+@SpringBootTest(properties = { "mock.api.fallback.enabled=false", "mock.api.reload.enabled=false" })
+@AutoConfigureWebTestClient
+public class MockSnapshotLoadTest {
+
+	private static final String PETS = """
+			{
+			  "mockRestApis": [
+			    { "basePath": "/pets",
+			      "methods": [ { "path": "/{id}", "httpMethod": "GET", "returnId": "pet" } ] }
+			  ],
+			  "mockObjects": [
+			    { "id": "pet", "class": "java.util.Map", "keyClass": "java.lang.String",
+			      "valueClass": "java.lang.String", "version": "2.0", "objectValue": { "name": "Rex" } }
+			  ]
+			}
+			""";
+
+	private static Path mockDirectory;
+	private static Path snapshotDirectory;
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Autowired
+	private MockApiLoader mockApiLoader;
+
+	@DynamicPropertySource
+	static void directories(DynamicPropertyRegistry registry) throws IOException {
+		mockDirectory = MockDirectories.register(registry, "snapshot-mocks", Map.of("pets.json", PETS));
+		snapshotDirectory = Files.createTempDirectory("mock-api-snapshots").resolve("nested");
+		registry.add("mock.api.snapshots.directory", snapshotDirectory::toString);
+	}
+
+	@Test
+	public void testLoadsUnchangedFilesFromSnapshot() throws IOException {
+		assertTrue(Files.isRegularFile(snapshotDirectory.resolve("pets.snapshot")));
+		webTestClient.get().uri("/pets/1").exchange()
+				.expectStatus().isOk()
+				.expectBody().jsonPath("$.name").isEqualTo("Rex");
+
+		assertTrue(mockApiLoader.load("pets").provider().getLoadReport().isFromSnapshot());
+
+		Files.writeString(mockDirectory.resolve("pets.json"), PETS.replace("Rex", "Max"));
+		MockApi changed = mockApiLoader.load("pets");
+		assertFalse(changed.provider().getLoadReport().isFromSnapshot());
+		assertTrue(mockApiLoader.load("pets").provider().getLoadReport().isFromSnapshot());
+	}
+}
@@ -0,0 +1,37 @@
+package net.mcfarb.testing.mockapi.router;
+
+import static org.hamcrest.Matchers.startsWith;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+/**
+ * Renders templated response objects with values of the request.
+ */
+public class MockTemplateTest extends SharedMockFilesTest {
+
+	@Test
+	public void testRendersPathAndQuery() {
+		webTestClient.get().uri("/orders/42?page=3").exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentType(MediaType.APPLICATION_JSON)
+				.expectBody()
+				.jsonPath("$.id").isEqualTo("42")
+				.jsonPath("$.page").isEqualTo("3")
+				.jsonPath("$.total").isEqualTo(10);
+		webTestClient.get().uri("/orders/7/label").exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith(MediaType.TEXT_PLAIN)
+				.expectBody(String.class).isEqualTo("Order 7");
+	}
+
+	@Test
+	public void testRendersBody() {
+		webTestClient.post().uri("/orders").contentType(MediaType.APPLICATION_JSON)
+				.bodyValue("{\"customer\": {\"name\": \"Ada\"}}").exchange()
+				.expectStatus().isCreated()
+				.expectBody()
+				.jsonPath("$.id").value(startsWith("order-"))
+				.jsonPath("$.customer").isEqualTo("Ada");
+	}
+}
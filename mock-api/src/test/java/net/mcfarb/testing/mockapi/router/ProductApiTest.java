@@ -1,17 +1,20 @@
-package net.mcfarb.testing.mockapi.controller;
+package net.mcfarb.testing.mockapi.router;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
 /**
- * Test class for ProductController that simulates API calls to a running controller.
- * Uses WebTestClient to test reactive endpoints without starting a full server.
+ * Simulates API calls to /api/product, configured in mockdata/product.json.
+ * Uses WebTestClient against the application context without starting a server.
+ * Fallback is disabled so unmocked endpoints answer 404.
  */
-@WebFluxTest(ProductController.class)
-public class ProductControllerTest {
+@SpringBootTest(properties = "mock.api.fallback.enabled=false")
+@AutoConfigureWebTestClient
+public class ProductApiTest {
 
 	@Autowired
 	private WebTestClient webTestClient;
@@ -0,0 +1,27 @@
+package net.mcfarb.testing.mockapi.router;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * Base of the tests served from the shared mock directory, see
+ * {@link MockDirectories#shared()}. They share one Spring context, so they
+ * must not change the mock files or any setting, and each uses base paths of
+ * its own.
+ */
+@SpringBootTest(properties = { "mock.api.fallback.enabled=false", "mock.api.reload.enabled=false" })
+@AutoConfigureWebTestClient
+abstract class SharedMockFilesTest {
+
+	@Autowired
+	protected WebTestClient webTestClient;
+
+	@DynamicPropertySource
+	static void mockDirectory(DynamicPropertyRegistry registry) {
+		registry.add("mock.api.mock-directory", () -> MockDirectories.shared().toString());
+	}
+}
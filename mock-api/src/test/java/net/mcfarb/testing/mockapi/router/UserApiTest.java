@@ -1,24 +1,23 @@
-package net.mcfarb.testing.mockapi.controller;
+package net.mcfarb.testing.mockapi.router;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
-import org.springframework.context.annotation.Import;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
-import net.mcfarb.testing.mockapi.controller.UserController;
-
-
 import java.util.List;
 import java.util.Map;
 
 /**
- * Test class for UserController that simulates API calls to a running controller.
- * Uses WebTestClient to test reactive endpoints without starting a full server.
+ * Simulates API calls to /api/user, configured in mockdata/user.json.
+ * Uses WebTestClient against the application context without starting a server.
+ * Fallback is disabled so unmocked endpoints answer 404.
  */
-@WebFluxTest(UserController.class)
-public class UserControllerTest {
+@SpringBootTest(properties = "mock.api.fallback.enabled=false")
+@AutoConfigureWebTestClient
+public class UserApiTest {
 
 	@Autowired
 	private WebTestClient webTestClient;
@@ -67,8 +66,23 @@ public class UserControllerTest {
 				.exchange()
 				.expectStatus().isOk()
 				.expectBody()
-				.jsonPath("$").isArray();
-				// The response will contain users with status=active based on configuration
+				.jsonPath("$").isArray()
+				// the status=active route is more specific than the unfiltered list declared before it
+				.jsonPath("$.length()").isEqualTo(2)
+				.jsonPath("$[1].name").isEqualTo("Charlie Brown");
+	}
+
+	@Test
+	public void testRepeatedQueryParameter() {
+		webTestClient
+				.get()
+				.uri("/api/user?status=inactive&status=active")
+				.accept(MediaType.APPLICATION_JSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.length()").isEqualTo(2)
+				.jsonPath("$[0].status").isEqualTo("active");
 	}
 
 	@Test
@@ -0,0 +1,85 @@
+package net.mcfarb.testing.mockload;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Open-model load generator: requests are scheduled at a fixed rate whether
+ * or not earlier requests have completed, and round-robin over the scenarios.
+ *
+ * Each request's latency is measured from its scheduled send time (see
+ * {@link ScenarioResult}), so queueing inside the client or the server shows
+ * up in the percentiles instead of silently lowering the request rate.
+ */
+public class FixedRateLoadGenerator implements AutoCloseable {
+
+	private static final int MAX_IN_FLIGHT = 4096;
+
+	private final ConnectionProvider connectionProvider;
+	private final HttpClient client;
+
+	public FixedRateLoadGenerator(String baseUrl) {
+		this.connectionProvider = ConnectionProvider.builder("load-harness")
+				.maxConnections(512)
+				.pendingAcquireMaxCount(-1)
+				.build();
+		this.client = HttpClient.create(connectionProvider).baseUrl(baseUrl);
+	}
+
+	/**
+	 * Sends {@code ratePerSecond * duration} requests spread evenly over
+	 * {@code duration} and waits for all of them to complete.
+	 */
+	public Map<String, ScenarioResult> run(List<LoadScenario> scenarios, double ratePerSecond, Duration duration) {
+		Map<String, ScenarioResult> results = new LinkedHashMap<>();
+		scenarios.forEach(s -> results.put(s.name(), new ScenarioResult(s)));
+		ScenarioResult[] byIndex = results.values().toArray(new ScenarioResult[0]);
+
+		long periodNanos = (long) (1_000_000_000L / ratePerSecond);
+		long total = (long) (ratePerSecond * duration.toMillis() / 1000.0);
+		long[] start = new long[1];
+
+		Flux.interval(Duration.ofNanos(periodNanos))
+				.take(total)
+				.doOnSubscribe(s -> start[0] = System.nanoTime())
+				.onBackpressureBuffer()
+				.flatMap(i -> {
+					ScenarioResult result = byIndex[(int) (i % byIndex.length)];
+					// interval emits its first tick one period after subscription
+					long intended = start[0] + (i + 1) * periodNanos;
+					return send(result, i, intended);
+				}, MAX_IN_FLIGHT)
+				.blockLast(duration.plusSeconds(60));
+
+		return results;
+	}
+
+	private Mono<Void> send(ScenarioResult result, long sequence, long intendedNanos) {
+		LoadScenario scenario = result.getScenario();
+		return Mono.defer(() -> {
+			long sent = System.nanoTime();
+			return client.request(scenario.method())
+					.uri(scenario.uri().apply(sequence))
+					.responseSingle((response, body) -> body.asByteArray()
+							.then(Mono.just(response.status().code())))
+					.doOnNext(status -> result.record(intendedNanos, sent, System.nanoTime(), status));
+		})
+				.onErrorResume(e -> {
+					result.recordError(intendedNanos, System.nanoTime());
+					return Mono.empty();
+				})
+				.then();
+	}
+
+	@Override
+	public void close() {
+		connectionProvider.disposeLater().block(Duration.ofSeconds(10));
+	}
+}
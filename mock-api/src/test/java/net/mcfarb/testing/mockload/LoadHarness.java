@@ -0,0 +1,202 @@
+package net.mcfarb.testing.mockload;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.handler.codec.http.HttpMethod;
+import net.mcfarb.testing.mockapi.MockApiApplication;
+import net.mcfarb.testing.mockapi.metrics.MockApiMetrics;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Self-contained end-to-end load harness for mock-api.
+ *
+ * Starts a local stub server to act as the fallback endpoint, starts mock-api
+ * on a random port with generated mock files in a temporary mock directory
+ * (see {@link LoadHarnessConfig}), and drives it at a fixed
+ * request rate with a mix of:
+ * <ul>
+ * <li>mocked - literal route on the last generated resource</li>
+ * <li>parameterised - {id} route with a different id each request</li>
+ * <li>notFound - unmocked path in a mock file without fallback</li>
+ * <li>fallback - unmocked path proxied to the local stub</li>
+ * </ul>
+ * Everything binds to localhost, no network access is needed.
+ *
+ * Optionally the generated mock file is rewritten at a fixed interval during
+ * the measured run, so the report shows request latency while mock-api is
+ * hot reloading, next to the reload latency itself.
+ *
+ * Run from the IDE with {@link #main(String[])}, or as a regression gate with
+ * {@code mvn test -Pload-test} (see {@link LoadHarnessTest}).
+ */
+public class LoadHarness implements AutoCloseable {
+
+	private final int resources;
+	private final Path mockDirectory;
+	private final DisposableServer stubServer;
+	private final ConfigurableApplicationContext context;
+	private final int port;
+
+	private LoadHarness(int resources) {
+		this.resources = resources;
+		try {
+			this.mockDirectory = Files.createTempDirectory("mock-load");
+			LoadHarnessConfig.writeTo(mockDirectory, resources);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		this.stubServer = HttpServer.create()
+				.host("localhost")
+				.port(0)
+				.route(routes -> routes.route(request -> true, (request, response) -> response
+						.header("Content-Type", "application/json")
+						.sendString(Mono.just("{\"source\":\"fallback-stub\"}"))))
+				.bindNow();
+
+		// command line arguments so they take precedence over application.properties
+		this.context = new SpringApplicationBuilder(MockApiApplication.class)
+				.run(
+						"--server.port=0",
+						"--mock.api.mock-directory=" + mockDirectory,
+						"--mock.api.fallback.enabled=true",
+						// only the harness file falls back, everything else answers 404
+						"--mock.api.fallback.base-url=",
+						"--mock.api.controllers." + LoadHarnessConfig.CONTROLLER_NAME + ".fallback-url=http://localhost:"
+								+ stubServer.port(),
+						"--logging.level.net.mcfarb.testing=ERROR");
+		this.port = ((WebServerApplicationContext) context).getWebServer().getPort();
+	}
+
+	/**
+	 * Starts the stub server and mock-api with {@code resources} generated
+	 * resources (three routes each).
+	 */
+	public static LoadHarness start(int resources) {
+		return new LoadHarness(resources);
+	}
+
+	public int getPort() {
+		return port;
+	}
+
+	public List<LoadScenario> scenarios() {
+		int last = resources - 1;
+		return List.of(
+				new LoadScenario("mocked", HttpMethod.GET, i -> "/load/r" + last + "/items", 200),
+				new LoadScenario("parameterised", HttpMethod.GET, i -> "/load/r" + (i % resources) + "/items/" + i,
+						200),
+				new LoadScenario("notFound", HttpMethod.GET, i -> "/" + LoadHarnessConfig.STRICT_NAME + "/missing/" + i,
+						404),
+				new LoadScenario("fallback", HttpMethod.GET, i -> "/load/unmocked/" + i, 200));
+	}
+
+	/**
+	 * Runs an unrecorded warmup followed by the measured run.
+	 */
+	public LoadReport run(double ratePerSecond, Duration duration, Duration warmup) {
+		return run(ratePerSecond, duration, warmup, Duration.ZERO);
+	}
+
+	/**
+	 * Runs an unrecorded warmup followed by the measured run, rewriting the
+	 * generated mock file every {@code reloadInterval} during the measured run.
+	 * A zero interval disables reloading.
+	 */
+	public LoadReport run(double ratePerSecond, Duration duration, Duration warmup, Duration reloadInterval) {
+		try (FixedRateLoadGenerator generator = new FixedRateLoadGenerator("http://localhost:" + port)) {
+			if (!warmup.isZero()) {
+				generator.run(scenarios(), ratePerSecond, warmup);
+			}
+			if (reloadInterval.isZero()) {
+				Map<String, ScenarioResult> results = generator.run(scenarios(), ratePerSecond, duration);
+				return LoadReport.from(results, ratePerSecond, duration, null);
+			}
+
+			long successBefore = reloadCount("success");
+			double totalBefore = reloadTotalMillis();
+			long failuresBefore = reloadCount("failure");
+			Disposable touching = Flux.interval(reloadInterval, Schedulers.boundedElastic())
+					.subscribe(tick -> touchMockFile());
+			try {
+				Map<String, ScenarioResult> results = generator.run(scenarios(), ratePerSecond, duration);
+				touching.dispose();
+				long reloads = reloadCount("success") - successBefore;
+				Timer success = reloadTimer("success");
+				LoadReport.Reloads reloadStats = new LoadReport.Reloads(reloads, reloadCount("failure") - failuresBefore,
+						reloads > 0 ? (reloadTotalMillis() - totalBefore) / reloads : 0,
+						success != null ? success.max(TimeUnit.MILLISECONDS) : 0);
+				return LoadReport.from(results, ratePerSecond, duration, reloadStats);
+			} finally {
+				touching.dispose();
+			}
+		}
+	}
+
+	// registered by mock-api on the first reload, so may not exist yet
+	private Timer reloadTimer(String outcome) {
+		return context.getBean(MeterRegistry.class).find(MockApiMetrics.RELOAD).tag("outcome", outcome).timer();
+	}
+
+	private long reloadCount(String outcome) {
+		Timer timer = reloadTimer(outcome);
+		return timer != null ? timer.count() : 0;
+	}
+
+	private double reloadTotalMillis() {
+		Timer timer = reloadTimer("success");
+		return timer != null ? timer.totalTime(TimeUnit.MILLISECONDS) : 0;
+	}
+
+	private void touchMockFile() {
+		try {
+			LoadHarnessConfig.touch(mockDirectory, resources);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void close() {
+		context.close();
+		stubServer.disposeNow();
+		try {
+			FileSystemUtils.deleteRecursively(mockDirectory);
+		} catch (IOException e) {
+			// temporary directory, nothing to do
+		}
+	}
+
+	/**
+	 * Arguments: [rate per second] [duration seconds] [resources] [reload interval millis]
+	 */
+	public static void main(String[] args) throws Exception {
+		double rate = args.length > 0 ? Double.parseDouble(args[0]) : 1000;
+		Duration duration = Duration.ofSeconds(args.length > 1 ? Long.parseLong(args[1]) : 30);
+		int resources = args.length > 2 ? Integer.parseInt(args[2]) : LoadHarnessConfig.DEFAULT_RESOURCES;
+		Duration reloadInterval = Duration.ofMillis(args.length > 3 ? Long.parseLong(args[3]) : 0);
+		try (LoadHarness harness = LoadHarness.start(resources)) {
+			LoadReport report = harness.run(rate, duration, Duration.ofSeconds(5), reloadInterval);
+			report.print(System.out);
+			report.write(Path.of("target", "load-report.json"));
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package net.mcfarb.testing.mockload;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Generates the mock files {@link LoadHarness} serves from a temporary mock
+ * directory.
+ *
+ * {@value #CONTROLLER_NAME}.json holds the generated resources; resource
+ * {@code r} exposes
+ * <pre>
+ * GET /load/r{r}/items
+ * GET /load/r{r}/items?status=active
+ * GET /load/r{r}/items/{id}
+ * </pre>
+ * Anything else under /load is unmocked and goes to the fallback stub.
+ * {@value #STRICT_NAME}.json has a single route under /{@value #STRICT_NAME}
+ * and no fallback, so anything else under it answers 404.
+ */
+public final class LoadHarnessConfig {
+
+	public static final String BASE_PATH = "load";
+	public static final String CONTROLLER_NAME = "loadharness";
+	public static final String STRICT_NAME = "strict";
+	public static final int DEFAULT_RESOURCES = 100;
+
+	private LoadHarnessConfig() {
+	}
+
+	/**
+	 * Writes both mock files into {@code directory}.
+	 */
+	public static void writeTo(Path directory, int resources) throws IOException {
+		ObjectMapper objectMapper = new ObjectMapper();
+		write(objectMapper, directory.resolve(CONTROLLER_NAME + ".json"), generate(objectMapper, resources));
+		write(objectMapper, directory.resolve(STRICT_NAME + ".json"), strict(objectMapper));
+	}
+
+	/**
+	 * Rewrites {@value #CONTROLLER_NAME}.json with the same content, which makes
+	 * a watching mock-api reload it.
+	 */
+	public static void touch(Path directory, int resources) throws IOException {
+		ObjectMapper objectMapper = new ObjectMapper();
+		write(objectMapper, directory.resolve(CONTROLLER_NAME + ".json"), generate(objectMapper, resources));
+	}
+
+	// written next to the target and moved into place, so a reload never sees a partial file
+	private static void write(ObjectMapper objectMapper, Path file, ObjectNode content) throws IOException {
+		Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+		objectMapper.writeValue(temporary.toFile(), content);
+		Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	public static ObjectNode generate(ObjectMapper objectMapper, int resources) {
+		ObjectNode root = objectMapper.createObjectNode();
+		ArrayNode apis = root.putArray("mockRestApis");
+		ArrayNode objects = root.putArray("mockObjects");
+
+		// claims /load so unmocked paths under it fall back
+		apis.addObject().put("basePath", "/" + BASE_PATH).putArray("methods");
+
+		for (int r = 0; r < resources; r++) {
+			ObjectNode api = apis.addObject();
+			api.put("basePath", "/" + BASE_PATH + "/r" + r);
+			ArrayNode methods = api.putArray("methods");
+			route(methods.addObject(), "/items", "list" + r);
+			route(methods.addObject(), "/items", "active" + r).putObject("queryParameters").put("status", "active");
+			route(methods.addObject(), "/items/{id}", "item" + r);
+
+			objects.add(listObject(objectMapper, "list" + r, r, 20));
+			objects.add(listObject(objectMapper, "active" + r, r, 5));
+			ObjectNode item = objects.addObject();
+			item.put("id", "item" + r);
+			item.put("class", "java.util.Map");
+			item.put("version", "2.0");
+			item.put("keyClass", "java.lang.String");
+			item.put("valueClass", "java.lang.Object");
+			item.set("objectValue", record(objectMapper, r));
+		}
+		return root;
+	}
+
+	private static ObjectNode strict(ObjectMapper objectMapper) {
+		ObjectNode root = objectMapper.createObjectNode();
+		ObjectNode api = root.putArray("mockRestApis").addObject();
+		api.put("basePath", "/" + STRICT_NAME);
+		route(api.putArray("methods").addObject(), "/items", "item");
+		ObjectNode item = root.putArray("mockObjects").addObject();
+		item.put("id", "item");
+		item.put("class", "java.lang.String");
+		item.put("stringValue", "strict");
+		return root;
+	}
+
+	private static ObjectNode route(ObjectNode method, String path, String returnId) {
+		method.put("path", path);
+		method.put("httpMethod", "GET");
+		method.put("returnId", returnId);
+		method.put("statusCode", 200);
+		return method;
+	}
+
+	private static ObjectNode listObject(ObjectMapper objectMapper, String id, int seed, int size) {
+		ObjectNode object = objectMapper.createObjectNode();
+		object.put("id", id);
+		object.put("class", "java.util.List");
+		object.put("genericClass", "java.util.Map");
+		ArrayNode values = object.putArray("objectValue");
+		for (int i = 0; i < size; i++) {
+			values.add(record(objectMapper, seed * 1000 + i));
+		}
+		return object;
+	}
+
+	private static ObjectNode record(ObjectMapper objectMapper, int seed) {
+		ObjectNode record = objectMapper.createObjectNode();
+		record.put("id", seed);
+		record.put("name", "record-" + seed);
+		record.put("status", seed % 2 == 0 ? "active" : "inactive");
+		record.put("amount", seed * 1.5);
+		return record;
+	}
+}
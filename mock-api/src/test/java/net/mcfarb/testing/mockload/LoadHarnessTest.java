@@ -0,0 +1,67 @@
+package net.mcfarb.testing.mockload;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Load regression gate. Excluded from the default build, run with
+ * <pre>
+ * mvn test -Pload-test [-Dload.rate=200] [-Dload.durationSeconds=10] [-Dload.maxP99Millis=250]
+ *     [-Dload.reloadIntervalMillis=1000]
+ * </pre>
+ * Fails if any scenario sees an unexpected status or error, or if its
+ * coordinated-omission corrected p99 exceeds {@code load.maxP99Millis}.
+ * The second run repeats this while the mock file is rewritten every
+ * {@code load.reloadIntervalMillis}, and also fails if a reload fails.
+ * Reports are written to target/load-report.json and
+ * target/load-report-reload.json.
+ */
+@Tag("load")
+public class LoadHarnessTest {
+
+	private final double rate = Double.parseDouble(System.getProperty("load.rate", "200"));
+	private final Duration duration = Duration.ofSeconds(Long.getLong("load.durationSeconds", 10));
+	private final Duration warmup = Duration.ofSeconds(Long.getLong("load.warmupSeconds", 3));
+	private final double maxP99Millis = Double.parseDouble(System.getProperty("load.maxP99Millis", "250"));
+	private final int resources = Integer.getInteger("load.resources", LoadHarnessConfig.DEFAULT_RESOURCES);
+
+	@Test
+	public void testFixedRateLoad() throws Exception {
+		try (LoadHarness harness = LoadHarness.start(resources)) {
+			LoadReport report = harness.run(rate, duration, warmup);
+			report.print(System.out);
+			report.write(Path.of("target", "load-report.json"));
+			assertScenarios(report);
+		}
+	}
+
+	@Test
+	public void testFixedRateLoadDuringReload() throws Exception {
+		Duration reloadInterval = Duration.ofMillis(Long.getLong("load.reloadIntervalMillis", 1000));
+		try (LoadHarness harness = LoadHarness.start(resources)) {
+			LoadReport report = harness.run(rate, duration, warmup, reloadInterval);
+			report.print(System.out);
+			report.write(Path.of("target", "load-report-reload.json"));
+			assertScenarios(report);
+			assertTrue(report.reloads().count() > 0, "mock file was never reloaded");
+			assertEquals(0, report.reloads().failures(), "mock file reloads failed");
+		}
+	}
+
+	private void assertScenarios(LoadReport report) {
+		for (LoadReport.Summary scenario : report.scenarios()) {
+			assertTrue(scenario.requests() > 0, scenario.name() + " sent no requests");
+			assertEquals(0, scenario.errors(), scenario.name() + " had request errors");
+			assertEquals(0, scenario.unexpectedStatus(), scenario.name() + " had unexpected statuses");
+			assertTrue(scenario.p99Millis() <= maxP99Millis,
+					String.format("%s p99 %.3fms exceeds %.3fms", scenario.name(), scenario.p99Millis(),
+							maxP99Millis));
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package net.mcfarb.testing.mockload;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Summary of a load harness run, printable as a table and writable as JSON.
+ * Latencies are in milliseconds and coordinated-omission corrected unless
+ * named {@code serviceTime...}.
+ */
+public record LoadReport(double targetRatePerSecond, long durationMillis, List<Summary> scenarios, Reloads reloads) {
+
+	public record Summary(String name, long requests, long unexpectedStatus, long errors,
+			Map<Integer, Long> statusCounts, double throughputPerSecond, double p50Millis, double p90Millis, double p99Millis, double p999Millis,
+			double maxMillis, double serviceTimeP99Millis) {
+	}
+
+	/**
+	 * Mock file reloads that happened during the measured run, as reported by
+	 * mock-api's mock.api.reload timer.
+	 */
+	public record Reloads(long count, long failures, double meanMillis, double maxMillis) {
+	}
+
+	public static LoadReport from(Map<String, ScenarioResult> results, double rate, Duration duration,
+			Reloads reloads) {
+		List<Summary> summaries = results.values().stream().map(r -> summarize(r, duration)).toList();
+		return new LoadReport(rate, duration.toMillis(), summaries, reloads);
+	}
+
+	private static Summary summarize(ScenarioResult result, Duration duration) {
+		Histogram latency = result.getLatency();
+		long requests = latency.getTotalCount();
+		return new Summary(result.getScenario().name(), requests, result.getUnexpectedStatus(), result.getErrors(),
+				result.getStatusCounts(), requests * 1000.0 / duration.toMillis(),
+				millis(latency.getValueAtPercentile(50)),
+				millis(latency.getValueAtPercentile(90)),
+				millis(latency.getValueAtPercentile(99)),
+				millis(latency.getValueAtPercentile(99.9)),
+				millis(latency.getMaxValue()),
+				millis(result.getServiceTime().getValueAtPercentile(99)));
+	}
+
+	private static double millis(long nanos) {
+		return nanos / 1_000_000.0;
+	}
+
+	public Summary scenario(String name) {
+		return scenarios.stream().filter(s -> s.name().equals(name)).findFirst().orElse(null);
+	}
+
+	public void print(PrintStream out) {
+		out.printf("Load harness: %.0f req/s for %d ms%n", targetRatePerSecond, durationMillis);
+		out.printf("%-14s %9s %6s %6s %10s %9s %9s %9s %9s %9s %12s  %s%n", "scenario", "requests", "unexp",
+				"errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "svc p99 ms", "statuses");
+		for (Summary s : scenarios) {
+			out.printf("%-14s %9d %6d %6d %10.1f %9.3f %9.3f %9.3f %9.3f %9.3f %12.3f  %s%n", s.name(), s.requests(),
+					s.unexpectedStatus(), s.errors(), s.throughputPerSecond(), s.p50Millis(), s.p90Millis(),
+					s.p99Millis(), s.p999Millis(), s.maxMillis(), s.serviceTimeP99Millis(), s.statusCounts());
+		}
+		if (reloads != null) {
+			out.printf("reloads: %d (%d failed), mean %.3f ms, max %.3f ms%n", reloads.count(), reloads.failures(),
+					reloads.meanMillis(), reloads.maxMillis());
+		}
+	}
+
+	public void write(Path path) throws IOException {
+		Files.createDirectories(path.toAbsolutePath().getParent());
+		new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), this);
+	}
+}
@@ -0,0 +1,17 @@
+package net.mcfarb.testing.mockload;
+
+import java.util.function.LongFunction;
+
+import io.netty.handler.codec.http.HttpMethod;
+
+/**
+ * One kind of request in the load mix.
+ *
+ * @param name           name used in the report
+ * @param method         HTTP method
+ * @param uri            request URI for the n-th request of the run
+ * @param expectedStatus status every response must have, anything else counts
+ *                       as unexpected
+ */
+public record LoadScenario(String name, HttpMethod method, LongFunction<String> uri, int expectedStatus) {
+}
@@ -0,0 +1,78 @@
+package net.mcfarb.testing.mockload;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency and status counts recorded for one {@link LoadScenario}.
+ *
+ * Two histograms are kept. {@code latency} is measured from the time the
+ * request was scheduled to be sent, so a stalled server is charged for every
+ * request that should have gone out during the stall (coordinated omission
+ * corrected). {@code serviceTime} is measured from the time the request was
+ * actually sent, which is what a naive client would report.
+ */
+public class ScenarioResult {
+
+	private static final long HIGHEST_TRACKABLE = TimeUnit.SECONDS.toNanos(60);
+
+	private final LoadScenario scenario;
+	private final Histogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE, 3);
+	private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE, 3);
+	private final LongAdder unexpectedStatus = new LongAdder();
+	private final LongAdder errors = new LongAdder();
+	private final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+
+	public ScenarioResult(LoadScenario scenario) {
+		this.scenario = scenario;
+	}
+
+	void record(long intendedNanos, long sentNanos, long completedNanos, int status) {
+		latency.recordValue(Math.min(HIGHEST_TRACKABLE, completedNanos - intendedNanos));
+		serviceTime.recordValue(Math.min(HIGHEST_TRACKABLE, completedNanos - sentNanos));
+		statusCounts.computeIfAbsent(status, s -> new LongAdder()).increment();
+		if (status != scenario.expectedStatus()) {
+			unexpectedStatus.increment();
+		}
+	}
+
+	void recordError(long intendedNanos, long completedNanos) {
+		latency.recordValue(Math.min(HIGHEST_TRACKABLE, completedNanos - intendedNanos));
+		errors.increment();
+	}
+
+	public LoadScenario getScenario() {
+		return scenario;
+	}
+
+	public Histogram getLatency() {
+		return latency;
+	}
+
+	public Histogram getServiceTime() {
+		return serviceTime;
+	}
+
+	public long getUnexpectedStatus() {
+		return unexpectedStatus.sum();
+	}
+
+	public long getErrors() {
+		return errors.sum();
+	}
+
+	/**
+	 * Response count per HTTP status, in status order.
+	 */
+	public Map<Integer, Long> getStatusCounts() {
+		Map<Integer, Long> counts = new TreeMap<>();
+		statusCounts.forEach((status, count) -> counts.put(status, count.sum()));
+		return counts;
+	}
+}
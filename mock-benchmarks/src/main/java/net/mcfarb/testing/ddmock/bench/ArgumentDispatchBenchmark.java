@@ -0,0 +1,81 @@
+package net.mcfarb.testing.ddmock.bench;
+
+import static org.mockito.ArgumentMatchers.eq;
+
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.mcfarb.testing.TestParent;
+import net.mcfarb.testing.ddmock.service.MockProviderImpl;
+
+/**
+ * Per call cost of a method answering by argument value: a
+ * {@link MockProviderImpl} mock with an argumentReturns table against a plain
+ * Mockito mock with one {@code when(...).thenReturn(...)} stubbing per value,
+ * which Mockito matches one by one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArgumentDispatchBenchmark {
+
+	@Param({ "10", "1000", "10000" })
+	int rows;
+
+	BenchService table;
+	BenchService stubbings;
+	Long id;
+	Long missingId;
+
+	@Setup
+	public void setup() {
+		MockProviderImpl<TestParent, Object> provider = new MockProviderImpl<>();
+		provider.setJsonProcessor(SyntheticMockConfigs.jsonProcessor());
+		provider.initialize(SyntheticMockConfigs.argumentServiceConfig(rows));
+		table = (BenchService) provider.getBean("benchService");
+
+		stubbings = Mockito.mock(BenchService.class);
+		for (long i = 0; i < rows; i++) {
+			BenchRecord record = new BenchRecord();
+			record.setId(i);
+			Mockito.when(stubbings.findRecord(eq(i))).thenReturn(record);
+		}
+		id = (long) rows / 2;
+		missingId = (long) rows;
+	}
+
+	@Benchmark
+	public BenchRecord tableHit() {
+		return table.findRecord(id);
+	}
+
+	@Benchmark
+	public BenchRecord tableMiss() {
+		return table.findRecord(missingId);
+	}
+
+	@Benchmark
+	public BenchRecord mockitoHit() {
+		return stubbings.findRecord(id);
+	}
+
+	@Benchmark
+	public BenchRecord mockitoMiss() {
+		return stubbings.findRecord(missingId);
+	}
+}
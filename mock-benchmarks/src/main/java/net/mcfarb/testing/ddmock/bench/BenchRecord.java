@@ -0,0 +1,19 @@
+package net.mcfarb.testing.ddmock.bench;
+
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * POJO bound by the synthetic mock objects.
+ */
+@Data
+public class BenchRecord {
+
+	private Long id;
+	private String name;
+	private String status;
+	private Double amount;
+	private List<String> tags;
+
+}
@@ -0,0 +1,16 @@
+package net.mcfarb.testing.ddmock.bench;
+
+import java.util.List;
+
+/**
+ * Service interface mocked by the provider benchmarks.
+ */
+public interface BenchService {
+
+	BenchRecord findRecord(Long id);
+
+	List<BenchRecord> listRecords(int page);
+
+	String describe();
+
+}
@@ -0,0 +1,40 @@
+package net.mcfarb.testing.ddmock.bench;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar. Accepts the usual JMH command line, but
+ * writes results as JSON to {@value #DEFAULT_RESULT} unless {@code -rf}/{@code -rff}
+ * say otherwise, so runs can be compared without extra flags.
+ */
+public final class BenchmarkRunner {
+
+	static final String DEFAULT_RESULT = "jmh-result.json";
+
+	private BenchmarkRunner() {
+	}
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+		if (commandLine.shouldHelp() || commandLine.shouldList()) {
+			org.openjdk.jmh.Main.main(args);
+			return;
+		}
+		ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+		if (!commandLine.getResultFormat().hasValue()) {
+			options.resultFormat(ResultFormatType.JSON);
+		}
+		if (!commandLine.getResult().hasValue()) {
+			options.result(DEFAULT_RESULT);
+		}
+		new Runner(options.build()).run();
+	}
+}
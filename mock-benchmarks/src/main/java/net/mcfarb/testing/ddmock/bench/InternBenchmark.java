@@ -0,0 +1,56 @@
+package net.mcfarb.testing.ddmock.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.mcfarb.testing.ddmock.model.MockGeneratorInfo;
+import net.mcfarb.testing.ddmock.service.JsonProcessor;
+import net.mcfarb.testing.ddmock.service.MockInternTable;
+import net.mcfarb.testing.ddmock.service.MockPlan;
+
+/**
+ * Load time added by interning the values of a config, see
+ * {@link MockInternTable}, with {@code internCapacity} 0 as the baseline. The
+ * heap it saves is in the plan's startup report, as interned and retained
+ * bytes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InternBenchmark {
+
+	@Param({ "100", "1000" })
+	int objects;
+
+	@Param({ "0", "65536" })
+	int internCapacity;
+
+	JsonProcessor jsonProcessor;
+	MockGeneratorInfo serviceConfig;
+
+	@Setup
+	public void setup() throws Exception {
+		jsonProcessor = SyntheticMockConfigs.jsonProcessor();
+		jsonProcessor.setInternCapacity(internCapacity);
+		serviceConfig = SyntheticMockConfigs.serviceConfig(objects);
+	}
+
+	@Benchmark
+	public MockPlan compile() throws Exception {
+		return MockPlan.compile(serviceConfig, jsonProcessor);
+	}
+}
@@ -0,0 +1,81 @@
+package net.mcfarb.testing.ddmock.bench;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import net.mcfarb.testing.ddmock.bench.SyntheticMockConfigs.ObjectKind;
+import net.mcfarb.testing.ddmock.model.MockObject;
+import net.mcfarb.testing.ddmock.service.MockObjectCopier;
+import net.mcfarb.testing.ddmock.service.MockReadOnlyView;
+
+/**
+ * Cost of isolating a built mock object per object kind and size: a
+ * {@link MockObjectCopier} copy, paid on every return with COPY isolation,
+ * against the Jackson round trip it replaces, and building a
+ * {@link MockReadOnlyView}, paid once with READ_ONLY isolation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IsolationBenchmark {
+
+	@Param({ "POJO", "LIST", "MAP" })
+	ObjectKind kind;
+
+	@Param({ "10", "1000" })
+	int size;
+
+	ObjectMapper objectMapper;
+	Object object;
+	JavaType type;
+
+	@Setup
+	public void setup() throws Exception {
+		MockObject mockObject = SyntheticMockConfigs.mockObject(kind, size);
+		object = SyntheticMockConfigs.jsonProcessor().buildObject(mockObject, mockObject.getFakeClass(),
+				mockObject.getGenericClass(), mockObject.getKeyClass(), mockObject.getValueClass(),
+				mockObject.getVersion());
+		objectMapper = SyntheticMockConfigs.objectMapper();
+		type = switch (kind) {
+			case LIST -> objectMapper.getTypeFactory().constructCollectionType(List.class, BenchRecord.class);
+			case MAP -> objectMapper.getTypeFactory().constructMapType(HashMap.class, Long.class,
+					BenchRecord.class);
+			default -> objectMapper.constructType(object.getClass());
+		};
+	}
+
+	@Benchmark
+	public Object copy() {
+		return MockObjectCopier.copy(object);
+	}
+
+	@Benchmark
+	public Object jacksonRoundTrip() throws IOException {
+		return objectMapper.readValue(objectMapper.writeValueAsBytes(object), type);
+	}
+
+	@Benchmark
+	public Object readOnlyView() {
+		return MockReadOnlyView.of(object);
+	}
+}
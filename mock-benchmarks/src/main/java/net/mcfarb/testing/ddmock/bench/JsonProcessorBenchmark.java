@@ -0,0 +1,53 @@
+package net.mcfarb.testing.ddmock.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.mcfarb.testing.ddmock.aspects.MockBuilderException;
+import net.mcfarb.testing.ddmock.bench.SyntheticMockConfigs.ObjectKind;
+import net.mcfarb.testing.ddmock.model.MockObject;
+import net.mcfarb.testing.ddmock.service.JsonProcessor;
+
+/**
+ * Cost of {@link JsonProcessor#buildObject} per object kind and size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonProcessorBenchmark {
+
+	@Param({ "POJO", "LIST", "MAP", "OBJECT_NODE" })
+	ObjectKind kind;
+
+	@Param({ "10", "1000" })
+	int size;
+
+	JsonProcessor jsonProcessor;
+	MockObject mockObject;
+
+	@Setup
+	public void setup() {
+		jsonProcessor = SyntheticMockConfigs.jsonProcessor();
+		mockObject = SyntheticMockConfigs.mockObject(kind, size);
+	}
+
+	@Benchmark
+	public Object buildObject() throws MockBuilderException {
+		return jsonProcessor.buildObject(mockObject, mockObject.getFakeClass(), mockObject.getGenericClass(),
+				mockObject.getKeyClass(), mockObject.getValueClass(), mockObject.getVersion());
+	}
+}
@@ -0,0 +1,60 @@
+package net.mcfarb.testing.ddmock.bench;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.mcfarb.testing.ddmock.service.MockRestProvider;
+
+/**
+ * Cost of {@link MockRestProvider#extractPathParameters} for literal,
+ * single-parameter and multi-parameter patterns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathParameterBenchmark {
+
+	MockRestProvider provider;
+
+	@Setup
+	public void setup() {
+		provider = new MockRestProvider();
+		provider.setJsonProcessor(SyntheticMockConfigs.jsonProcessor());
+		provider.initialize(SyntheticMockConfigs.restConfig(SyntheticMockConfigs.ROUTES_PER_RESOURCE));
+	}
+
+	@Benchmark
+	public Map<String, String> literal() {
+		return provider.extractPathParameters("/api/v1/users/list", "/api/v1/users/list");
+	}
+
+	@Benchmark
+	public Map<String, String> singleParameter() {
+		return provider.extractPathParameters("/api/v1/users/{userId}", "/api/v1/users/123");
+	}
+
+	@Benchmark
+	public Map<String, String> threeParameters() {
+		return provider.extractPathParameters("/api/{version}/users/{userId}/posts/{postId}",
+				"/api/v2/users/123/posts/456");
+	}
+
+	@Benchmark
+	public Map<String, String> mismatch() {
+		return provider.extractPathParameters("/api/v1/users/{userId}", "/api/v1/orders/123/items");
+	}
+}
@@ -0,0 +1,76 @@
+package net.mcfarb.testing.ddmock.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.mcfarb.testing.TestParent;
+import net.mcfarb.testing.ddmock.model.MockGeneratorInfo;
+import net.mcfarb.testing.ddmock.model.MockRestGeneratorInfo;
+import net.mcfarb.testing.ddmock.service.JsonProcessor;
+import net.mcfarb.testing.ddmock.service.MockPlan;
+import net.mcfarb.testing.ddmock.service.MockProviderImpl;
+import net.mcfarb.testing.ddmock.service.MockRestProvider;
+
+/**
+ * Cost of initializing a provider from an already parsed config, which is
+ * what every test pays when it builds its mocks, and from a {@link MockPlan}
+ * compiled once, which is what tests sharing a cached plan pay.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProviderInitializeBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	int objects;
+
+	JsonProcessor jsonProcessor;
+	MockGeneratorInfo serviceConfig;
+	MockRestGeneratorInfo restConfig;
+	MockPlan plan;
+
+	@Setup
+	public void setup() throws Exception {
+		jsonProcessor = SyntheticMockConfigs.jsonProcessor();
+		serviceConfig = SyntheticMockConfigs.serviceConfig(objects);
+		restConfig = SyntheticMockConfigs.restConfig(objects);
+		plan = MockPlan.compile(serviceConfig, jsonProcessor);
+	}
+
+	@Benchmark
+	public MockProviderImpl<TestParent, Object> mockProviderInitialize() {
+		MockProviderImpl<TestParent, Object> provider = new MockProviderImpl<>();
+		provider.setJsonProcessor(jsonProcessor);
+		provider.initialize(serviceConfig);
+		return provider;
+	}
+
+	@Benchmark
+	public MockProviderImpl<TestParent, Object> mockPlanInitialize() {
+		MockProviderImpl<TestParent, Object> provider = new MockProviderImpl<>();
+		provider.initialize(plan);
+		return provider;
+	}
+
+	@Benchmark
+	public MockRestProvider restProviderInitialize() {
+		MockRestProvider provider = new MockRestProvider();
+		provider.setJsonProcessor(jsonProcessor);
+		provider.initialize(restConfig);
+		return provider;
+	}
+}
@@ -0,0 +1,100 @@
+package net.mcfarb.testing.ddmock.bench;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.mcfarb.testing.ddmock.model.MockRestMethodInfo;
+import net.mcfarb.testing.ddmock.service.MockRestProvider;
+import net.mcfarb.testing.ddmock.service.MockRouteTable;
+
+/**
+ * Cost of {@link MockRestProvider#findRestMethod} as the route table grows,
+ * against the compiled {@link MockRouteTable} mock-api dispatches with.
+ *
+ * Each case is a lookup against a synthetic config of {@code routes} routes:
+ * a hit on the first resource, a hit on the last resource, a query parameter
+ * match and a miss, which has to rule out every route. The {@code table*}
+ * cases repeat them against the route table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RestRoutingBenchmark {
+
+	@Param({ "10", "1000", "10000" })
+	int routes;
+
+	MockRestProvider provider;
+	MockRouteTable<String> table;
+
+	String lastResourcePath;
+	String lastResourceList;
+	Map<String, String> activeQuery = Map.of("status", "active");
+
+	@Setup
+	public void setup() {
+		provider = new MockRestProvider();
+		provider.setJsonProcessor(SyntheticMockConfigs.jsonProcessor());
+		provider.initialize(SyntheticMockConfigs.restConfig(routes));
+		table = MockRouteTable.<String>builder().addProvider("bench", provider).build();
+
+		int lastResource = Math.max(1, routes / SyntheticMockConfigs.ROUTES_PER_RESOURCE) - 1;
+		lastResourcePath = "/api/r" + lastResource + "/items/42";
+		lastResourceList = "/api/r" + lastResource + "/items";
+	}
+
+	@Benchmark
+	public MockRestMethodInfo hitFirstResource() {
+		return provider.findRestMethod("/api/r0/items/42", "GET", null);
+	}
+
+	@Benchmark
+	public MockRestMethodInfo hitLastResource() {
+		return provider.findRestMethod(lastResourcePath, "GET", null);
+	}
+
+	@Benchmark
+	public MockRestMethodInfo hitQueryParameters() {
+		return provider.findRestMethod(lastResourceList, "GET", activeQuery);
+	}
+
+	@Benchmark
+	public MockRestMethodInfo miss() {
+		return provider.findRestMethod("/api/unknown/items/42", "GET", null);
+	}
+
+	@Benchmark
+	public MockRouteTable.Match<String> tableHitFirstResource() {
+		return table.find("/api/r0/items/42", "GET", null);
+	}
+
+	@Benchmark
+	public MockRouteTable.Match<String> tableHitLastResource() {
+		return table.find(lastResourcePath, "GET", null);
+	}
+
+	@Benchmark
+	public MockRouteTable.Match<String> tableHitQueryParameters() {
+		return table.find(lastResourceList, "GET", activeQuery);
+	}
+
+	@Benchmark
+	public MockRouteTable.Match<String> tableMiss() {
+		return table.find("/api/unknown/items/42", "GET", null);
+	}
+}
@@ -0,0 +1,77 @@
+package net.mcfarb.testing.ddmock.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.mcfarb.testing.ddmock.model.MockRestGeneratorInfo;
+import net.mcfarb.testing.ddmock.service.JsonProcessor;
+
+/**
+ * Cost of reading a mock file by parsing its JSON versus reading its binary
+ * snapshot, see {@link net.mcfarb.testing.ddmock.service.MockSnapshot}. The
+ * snapshot read includes checksumming the JSON and mapping the snapshot file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SnapshotLoadBenchmark {
+
+	@Param({ "100", "1000", "10000" })
+	int routes;
+
+	JsonProcessor jsonProcessor;
+	byte[] json;
+	Path directory;
+	Path snapshot;
+
+	@Setup
+	public void setup() throws IOException {
+		jsonProcessor = SyntheticMockConfigs.jsonProcessor();
+		json = jsonProcessor.getObjectMapper().writeValueAsBytes(SyntheticMockConfigs.restConfig(routes));
+		directory = Files.createTempDirectory("snapshot-bench");
+		snapshot = directory.resolve("bench.snapshot");
+		load(snapshot);
+		if (!load(snapshot).getLoadReport().isFromSnapshot()) {
+			throw new IllegalStateException("Snapshot " + snapshot + " was not read");
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(snapshot);
+		Files.deleteIfExists(directory);
+	}
+
+	@Benchmark
+	public MockRestGeneratorInfo parseJson() throws IOException {
+		return load(null);
+	}
+
+	@Benchmark
+	public MockRestGeneratorInfo readSnapshot() throws IOException {
+		return load(snapshot);
+	}
+
+	private MockRestGeneratorInfo load(Path snapshotFile) throws IOException {
+		return jsonProcessor.buildMockRestInfoObjectFromStream("bench", new ByteArrayInputStream(json), snapshotFile);
+	}
+}
@@ -0,0 +1,57 @@
+package net.mcfarb.testing.ddmock.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.mcfarb.testing.TestParent;
+import net.mcfarb.testing.ddmock.service.MockProviderImpl;
+
+/**
+ * Per call cost of a service mock built by {@link MockProviderImpl}, i.e. what
+ * code under test pays each time it calls a mocked dependency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StubInvocationBenchmark {
+
+	BenchService service;
+	Long id = 42L;
+
+	@Setup
+	public void setup() {
+		MockProviderImpl<TestParent, Object> provider = new MockProviderImpl<>();
+		provider.setJsonProcessor(SyntheticMockConfigs.jsonProcessor());
+		provider.initialize(SyntheticMockConfigs.serviceConfig(10));
+		service = (BenchService) provider.getBean("benchService");
+	}
+
+	@Benchmark
+	public BenchRecord objectArgument() {
+		return service.findRecord(id);
+	}
+
+	@Benchmark
+	public List<BenchRecord> primitiveArgument() {
+		return service.listRecords(3);
+	}
+
+	@Benchmark
+	public String noArguments() {
+		return service.describe();
+	}
+}
@@ -0,0 +1,229 @@
+package net.mcfarb.testing.ddmock.bench;
+
+import java.text.SimpleDateFormat;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import net.mcfarb.testing.ddmock.model.MockGeneratorInfo;
+import net.mcfarb.testing.ddmock.model.MockObject;
+import net.mcfarb.testing.ddmock.model.MockRestGeneratorInfo;
+import net.mcfarb.testing.ddmock.service.JsonProcessor;
+
+/**
+ * Generates mock configurations of a given size for the benchmarks.
+ *
+ * Configs are built as JSON trees and bound through the same ObjectMapper
+ * settings mock-api uses, so the benchmarked objects look exactly like ones
+ * loaded from a mockdata file. Generation is deterministic for a given size.
+ */
+public final class SyntheticMockConfigs {
+
+	/** Number of resources each REST api exposes, see {@link #restConfig(int)}. */
+	public static final int ROUTES_PER_RESOURCE = 4;
+
+	private SyntheticMockConfigs() {
+	}
+
+	/**
+	 * ObjectMapper configured like mock-api's controllers.
+	 */
+	public static ObjectMapper objectMapper() {
+		ObjectMapper objectMapper = new ObjectMapper();
+		objectMapper.setPropertyNamingStrategy(PropertyNamingStrategies.LOWER_CAMEL_CASE)
+				.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+				.setDateFormat(new SimpleDateFormat("MM/dd/yyyy, HH:mm:ss"));
+		return objectMapper;
+	}
+
+	public static JsonProcessor jsonProcessor() {
+		JsonProcessor jsonProcessor = new JsonProcessor();
+		jsonProcessor.setObjectMapper(objectMapper());
+		return jsonProcessor;
+	}
+
+	/**
+	 * A REST config with {@code routes} routes spread over
+	 * {@code routes / ROUTES_PER_RESOURCE} resources. Resource {@code r} exposes
+	 * <pre>
+	 * GET    /api/r{r}/items
+	 * GET    /api/r{r}/items?status=active
+	 * GET    /api/r{r}/items/{id}
+	 * DELETE /api/r{r}/items/*
+	 * </pre>
+	 * and every route returns a small record.
+	 */
+	public static MockRestGeneratorInfo restConfig(int routes) {
+		ObjectMapper objectMapper = objectMapper();
+		ObjectNode root = objectMapper.createObjectNode();
+		ArrayNode apis = root.putArray("mockRestApis");
+		ArrayNode objects = root.putArray("mockObjects");
+
+		int resources = Math.max(1, routes / ROUTES_PER_RESOURCE);
+		for (int r = 0; r < resources; r++) {
+			ObjectNode api = apis.addObject();
+			api.put("basePath", "/api/r" + r);
+			ArrayNode methods = api.putArray("methods");
+			addRoute(methods, "/items", "GET", "list" + r, null);
+			addRoute(methods, "/items", "GET", "active" + r, "active");
+			addRoute(methods, "/items/{id}", "GET", "item" + r, null);
+			addRoute(methods, "/items/*", "DELETE", "item" + r, null);
+
+			objects.add(recordObject(objectMapper, "list" + r, r));
+			objects.add(recordObject(objectMapper, "active" + r, r));
+			objects.add(recordObject(objectMapper, "item" + r, r));
+		}
+		return objectMapper.convertValue(root, MockRestGeneratorInfo.class);
+	}
+
+	/**
+	 * A service config with {@code objects} record objects and a mocked
+	 * {@link BenchService} returning them.
+	 */
+	public static MockGeneratorInfo serviceConfig(int objects) {
+		ObjectMapper objectMapper = objectMapper();
+		ObjectNode root = objectMapper.createObjectNode();
+		ArrayNode mockObjects = root.putArray("mockObjects");
+		for (int i = 0; i < objects; i++) {
+			mockObjects.add(recordObject(objectMapper, "record" + i, i));
+		}
+		ObjectNode list = mockObjects.addObject();
+		list.put("id", "recordList");
+		list.put("class", "java.util.List");
+		list.put("genericClass", BenchRecord.class.getName());
+		list.set("objectValue", recordArray(objectMapper, 10));
+		ObjectNode description = mockObjects.addObject();
+		description.put("id", "description");
+		description.put("class", "java.lang.String");
+		description.put("stringValue", "synthetic bench service");
+
+		ObjectNode service = root.putArray("mockServices").addObject();
+		service.put("serviceClass", BenchService.class.getName());
+		ArrayNode methods = service.putArray("methods");
+		ObjectNode find = methods.addObject();
+		find.put("methodName", "findRecord");
+		find.putArray("methodArguments").add("java.lang.Long");
+		find.put("returnId", "record0");
+		ObjectNode listMethod = methods.addObject();
+		listMethod.put("methodName", "listRecords");
+		listMethod.putArray("methodArguments").add("int");
+		listMethod.put("returnId", "recordList");
+		ObjectNode describe = methods.addObject();
+		describe.put("methodName", "describe");
+		describe.put("returnId", "description");
+
+		return objectMapper.convertValue(root, MockGeneratorInfo.class);
+	}
+
+	/**
+	 * A service config whose {@link BenchService#findRecord(Long)} returns
+	 * record {@code i} for id {@code i}, from an argument table of {@code rows}
+	 * rows, and record 0 for any other id.
+	 */
+	public static MockGeneratorInfo argumentServiceConfig(int rows) {
+		ObjectMapper objectMapper = objectMapper();
+		ObjectNode root = objectMapper.createObjectNode();
+		ArrayNode mockObjects = root.putArray("mockObjects");
+		ObjectNode find = root.putArray("mockServices").addObject()
+				.put("serviceClass", BenchService.class.getName())
+				.putArray("methods").addObject();
+		find.put("methodName", "findRecord");
+		find.putArray("methodArguments").add("java.lang.Long");
+		find.put("returnId", "record0");
+		ArrayNode argumentReturns = find.putArray("argumentReturns");
+		for (int i = 0; i < rows; i++) {
+			mockObjects.add(recordObject(objectMapper, "record" + i, i));
+			ObjectNode row = argumentReturns.addObject();
+			row.putArray("arguments").add(i);
+			row.put("returnId", "record" + i);
+		}
+
+		return objectMapper.convertValue(root, MockGeneratorInfo.class);
+	}
+
+	/**
+	 * A single MockObject of the given kind holding {@code size} elements
+	 * (records for LIST, entries for MAP, array items for OBJECT_NODE).
+	 */
+	public static MockObject mockObject(ObjectKind kind, int size) {
+		ObjectMapper objectMapper = objectMapper();
+		ObjectNode node = objectMapper.createObjectNode();
+		node.put("id", kind.name().toLowerCase());
+		switch (kind) {
+			case POJO -> {
+				node.put("class", BenchRecord.class.getName());
+				ObjectNode value = record(objectMapper, 1);
+				ArrayNode tags = value.putArray("tags");
+				for (int i = 0; i < size; i++) {
+					tags.add("tag" + i);
+				}
+				node.set("objectValue", value);
+			}
+			case LIST -> {
+				node.put("class", "java.util.List");
+				node.put("genericClass", BenchRecord.class.getName());
+				node.set("objectValue", recordArray(objectMapper, size));
+			}
+			case MAP -> {
+				node.put("class", "java.util.Map");
+				node.put("version", "2.0");
+				node.put("keyClass", "java.lang.Long");
+				node.put("valueClass", BenchRecord.class.getName());
+				ObjectNode value = node.putObject("objectValue");
+				for (int i = 0; i < size; i++) {
+					value.set(String.valueOf(i), record(objectMapper, i));
+				}
+			}
+			case OBJECT_NODE -> {
+				node.put("class", ObjectNode.class.getName());
+				node.putObject("objectValue").set("items", recordArray(objectMapper, size));
+			}
+		}
+		return objectMapper.convertValue(node, MockObject.class);
+	}
+
+	public enum ObjectKind {
+		POJO, LIST, MAP, OBJECT_NODE
+	}
+
+	private static void addRoute(ArrayNode methods, String path, String httpMethod, String returnId,
+			String statusQuery) {
+		ObjectNode method = methods.addObject();
+		method.put("path", path);
+		method.put("httpMethod", httpMethod);
+		method.put("returnId", returnId);
+		method.put("statusCode", 200);
+		if (statusQuery != null) {
+			method.putObject("queryParameters").put("status", statusQuery);
+		}
+	}
+
+	private static ObjectNode recordObject(ObjectMapper objectMapper, String id, int seed) {
+		ObjectNode object = objectMapper.createObjectNode();
+		object.put("id", id);
+		object.put("class", BenchRecord.class.getName());
+		object.set("objectValue", record(objectMapper, seed));
+		return object;
+	}
+
+	private static ArrayNode recordArray(ObjectMapper objectMapper, int size) {
+		ArrayNode array = objectMapper.createArrayNode();
+		for (int i = 0; i < size; i++) {
+			array.add(record(objectMapper, i));
+		}
+		return array;
+	}
+
+	private static ObjectNode record(ObjectMapper objectMapper, int seed) {
+		ObjectNode record = objectMapper.createObjectNode();
+		record.put("id", seed);
+		record.put("name", "record-" + seed);
+		record.put("status", seed % 3 == 0 ? "inactive" : "active");
+		record.put("amount", seed * 1.25);
+		record.putArray("tags").add("t" + (seed % 7)).add("t" + (seed % 11));
+		return record;
+	}
+}
@@ -0,0 +1,32 @@
+package net.mcfarb.testing.ddmock.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * One row of a method's argument table: the objects returned when a stubbed
+ * method is called with these argument values. Values are given as JSON and
+ * converted to the method's parameter types.
+ */
+public class MockArgumentReturn {
+
+	private List<JsonNode> arguments;
+	private String returnId;
+
+	public List<JsonNode> getArguments() {
+		return arguments;
+	}
+
+	public void setArguments(List<JsonNode> arguments) {
+		this.arguments = arguments;
+	}
+
+	public String getReturnId() {
+		return returnId;
+	}
+
+	public void setReturnId(String returnId) {
+		this.returnId = returnId;
+	}
+}
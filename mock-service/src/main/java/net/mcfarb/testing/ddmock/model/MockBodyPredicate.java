@@ -0,0 +1,36 @@
+package net.mcfarb.testing.ddmock.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import lombok.Data;
+
+/**
+ * A condition on the JSON request body of a REST route. Exactly one of
+ * {@code equalTo}, {@code matches} and {@code present} is set.
+ */
+@Data
+public class MockBodyPredicate {
+
+	/**
+	 * JSONPath of the value, limited to fields and array indexes, e.g.
+	 * $.order.items[0].sku or $['content-type'].
+	 */
+	private String path;
+
+	/**
+	 * The value must equal this JSON value. Numbers compare by value, so 1
+	 * equals 1.0.
+	 */
+	private JsonNode equalTo;
+
+	/**
+	 * The value must be a string, number or boolean whose text fully matches
+	 * this regular expression.
+	 */
+	private String matches;
+
+	/**
+	 * True if the value must exist (it may be null), false if it must not.
+	 */
+	private Boolean present;
+}
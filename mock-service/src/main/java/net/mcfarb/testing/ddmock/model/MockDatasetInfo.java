@@ -0,0 +1,37 @@
+package net.mcfarb.testing.ddmock.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.Data;
+
+/**
+ * Declares a MockObject whose value is a list of generated records instead of
+ * a literal objectValue. Records are generated on demand from the seed and
+ * their index, so the same configuration always yields the same records and
+ * the list is never held in memory.
+ */
+@Data
+public class MockDatasetInfo {
+
+	/**
+	 * Number of records in the list.
+	 */
+	private int count;
+
+	/**
+	 * Seed of every generated value.
+	 */
+	private long seed;
+
+	/**
+	 * Generator of each record field, in the order the fields are written.
+	 */
+	private Map<String, MockFieldGenerator> fields = new LinkedHashMap<>();
+
+	/**
+	 * Path parameter that selects a single record by its index, on REST routes
+	 * returning the dataset.
+	 */
+	private String indexParameter = "index";
+}
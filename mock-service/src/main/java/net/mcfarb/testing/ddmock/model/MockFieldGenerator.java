@@ -0,0 +1,45 @@
+package net.mcfarb.testing.ddmock.model;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * Generates one field of the records of a {@link MockDatasetInfo}. The type
+ * decides which of the other properties apply:
+ * <pre>
+ * sequence  start + record index, start defaults to 1
+ * integer   between min and max inclusive, defaults 0 and 1000
+ * decimal   between min and max with scale decimals, defaults 0, 1000 and 2
+ * boolean   true or false
+ * oneOf     one of values
+ * text      pattern with {index} replaced by the record index, or length
+ *           random lower case letters, length defaults to 8
+ * uuid      a random UUID
+ * date      an ISO date between from and to inclusive
+ * </pre>
+ */
+@Data
+public class MockFieldGenerator {
+
+	private String type;
+
+	private Long start;
+
+	private BigDecimal min;
+
+	private BigDecimal max;
+
+	private Integer scale;
+
+	private List<Object> values;
+
+	private String pattern;
+
+	private Integer length;
+
+	private String from;
+
+	private String to;
+}
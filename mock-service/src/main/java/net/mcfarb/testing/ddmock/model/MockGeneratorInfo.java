@@ -6,11 +6,17 @@ import java.util.Optional;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import net.mcfarb.testing.ddmock.startup.MockLoadReport;
+
 public class MockGeneratorInfo {
 
     private List<MockServiceInfo<? extends Object>> mockServices = new ArrayList<>();
     private List<MockObject> mockObjects = new ArrayList<>();
 
+    // populated while loading, not part of the file format
+    @JsonIgnore
+    private MockLoadReport loadReport;
+
     public List<MockServiceInfo<?>> getMockServices() {
         return mockServices;
     }
@@ -27,6 +33,16 @@ public class MockGeneratorInfo {
         this.mockObjects = mockObjects;
     }
 
+    @JsonIgnore
+    public MockLoadReport getLoadReport() {
+        return loadReport;
+    }
+
+    @JsonIgnore
+    public void setLoadReport(MockLoadReport loadReport) {
+        this.loadReport = loadReport;
+    }
+
     @JsonIgnore
     public MockObject getMockObjectById(String id) {
         Optional<MockObject> mockObject = mockObjects.stream().filter(mo -> id.equals(mo.getId())).findFirst();
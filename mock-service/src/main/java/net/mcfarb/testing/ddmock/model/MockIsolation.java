@@ -0,0 +1,26 @@
+package net.mcfarb.testing.ddmock.model;
+
+/**
+ * How a mock object is protected against callers modifying it, see
+ * {@link MockObject#getIsolation()}.
+ */
+public enum MockIsolation {
+
+	/**
+	 * The built object itself is returned, so changes are seen by every later
+	 * caller. The default.
+	 */
+	SHARED,
+
+	/**
+	 * Every return is a deep copy of the built object, see
+	 * net.mcfarb.testing.ddmock.service.MockObjectCopier.
+	 */
+	COPY,
+
+	/**
+	 * A read-only view of the built object is created once and returned to
+	 * every caller, see net.mcfarb.testing.ddmock.service.MockReadOnlyView.
+	 */
+	READ_ONLY
+}
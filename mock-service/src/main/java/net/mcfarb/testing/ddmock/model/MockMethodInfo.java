@@ -1,10 +1,21 @@
 package net.mcfarb.testing.ddmock.model;
 
+import java.util.List;
+
 public class MockMethodInfo {
 
 	private String methodName;
 	private Class<?>[] methodArguments;
 	private String returnId;
+	// returnIds by argument values, returnId answers any other arguments
+	private List<MockArgumentReturn> argumentReturns;
+	// Mono, Flux and CompletableFuture returns only: delay before the first signal, and between Flux elements
+	private Long delayMillis;
+	private Long elementDelayMillis;
+	// signalled by Flux returns after their objects and by Mono and CompletableFuture returns instead of one,
+	// thrown by other methods
+	private Class<? extends Throwable> errorClass;
+	private String errorMessage;
 
 	public String getMethodName() {
 		return methodName;
@@ -29,4 +40,44 @@ public class MockMethodInfo {
 	public void setReturnId(String returnId) {
 		this.returnId = returnId;
 	}
+
+	public List<MockArgumentReturn> getArgumentReturns() {
+		return argumentReturns;
+	}
+
+	public void setArgumentReturns(List<MockArgumentReturn> argumentReturns) {
+		this.argumentReturns = argumentReturns;
+	}
+
+	public Long getDelayMillis() {
+		return delayMillis;
+	}
+
+	public void setDelayMillis(Long delayMillis) {
+		this.delayMillis = delayMillis;
+	}
+
+	public Long getElementDelayMillis() {
+		return elementDelayMillis;
+	}
+
+	public void setElementDelayMillis(Long elementDelayMillis) {
+		this.elementDelayMillis = elementDelayMillis;
+	}
+
+	public Class<? extends Throwable> getErrorClass() {
+		return errorClass;
+	}
+
+	public void setErrorClass(Class<? extends Throwable> errorClass) {
+		this.errorClass = errorClass;
+	}
+
+	public String getErrorMessage() {
+		return errorMessage;
+	}
+
+	public void setErrorMessage(String errorMessage) {
+		this.errorMessage = errorMessage;
+	}
 }
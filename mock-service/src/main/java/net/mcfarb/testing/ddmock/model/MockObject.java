@@ -32,6 +32,31 @@ public class MockObject {
      */
     private String version;
 
+    /**
+     * When true, placeholders such as {{path.id}} in the value are filled in
+     * for every REST response, see MockResponseTemplate.
+     */
+    private boolean template;
+
+    /**
+     * Generates the value as a list of records instead of reading objectValue,
+     * see MockDataset.
+     */
+    private MockDatasetInfo dataset;
+
+    /**
+     * Path of a file to answer REST requests with as it is, instead of
+     * objectValue, see MockBodyFile. Relative paths are resolved against
+     * JsonProcessor's base directory.
+     */
+    private String bodyFile;
+
+    /**
+     * How the built object is protected against callers modifying it, shared
+     * as it is when not set.
+     */
+    private MockIsolation isolation;
+
     public String getId() {
         return id;
     }
@@ -101,4 +126,36 @@ public class MockObject {
         this.version = version;
     }
 
+    public boolean isTemplate() {
+        return template;
+    }
+
+    public void setTemplate(boolean template) {
+        this.template = template;
+    }
+
+    public MockDatasetInfo getDataset() {
+        return dataset;
+    }
+
+    public void setDataset(MockDatasetInfo dataset) {
+        this.dataset = dataset;
+    }
+
+    public String getBodyFile() {
+        return bodyFile;
+    }
+
+    public void setBodyFile(String bodyFile) {
+        this.bodyFile = bodyFile;
+    }
+
+    public MockIsolation getIsolation() {
+        return isolation;
+    }
+
+    public void setIsolation(MockIsolation isolation) {
+        this.isolation = isolation;
+    }
+
 }
@@ -0,0 +1,45 @@
+package net.mcfarb.testing.ddmock.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * Declares a stateful CRUD resource on a REST api. The api's base path then
+ * answers
+ * <pre>
+ * GET    {basePath}           list, query parameters filter on record fields
+ * GET    {basePath}/{id}      get
+ * POST   {basePath}           create, assigns an id when the body has none
+ * PUT    {basePath}/{id}      replace
+ * PATCH  {basePath}/{id}      update the given fields
+ * DELETE {basePath}/{id}      delete
+ * </pre>
+ * in addition to any explicitly configured methods, which take precedence.
+ */
+@Data
+public class MockResourceInfo {
+
+	/**
+	 * Name of the resource, e.g. for resetting it. Defaults to the last
+	 * segment of the base path.
+	 */
+	private String name;
+
+	/**
+	 * Field holding the id of each record.
+	 */
+	private String idField = "id";
+
+	/**
+	 * Id of a MockObject holding the initial records, a list of objects.
+	 */
+	private String seedId;
+
+	/**
+	 * Fields to index for list filters. Nested fields use dots, e.g.
+	 * address.city.
+	 */
+	private List<String> indexes = new ArrayList<>();
+}
@@ -0,0 +1,38 @@
+package net.mcfarb.testing.ddmock.model;
+
+/**
+ * Routes generated for a {@link MockResourceInfo}.
+ */
+public enum MockResourceOperation {
+
+	LIST("GET", ""),
+	GET("GET", "/{id}"),
+	CREATE("POST", ""),
+	REPLACE("PUT", "/{id}"),
+	UPDATE("PATCH", "/{id}"),
+	DELETE("DELETE", "/{id}");
+
+	/**
+	 * Path parameter holding the record id.
+	 */
+	public static final String ID_PARAMETER = "id";
+
+	private final String httpMethod;
+	private final String path;
+
+	MockResourceOperation(String httpMethod, String path) {
+		this.httpMethod = httpMethod;
+		this.path = path;
+	}
+
+	public String getHttpMethod() {
+		return httpMethod;
+	}
+
+	/**
+	 * Path relative to the resource's base path.
+	 */
+	public String getPath() {
+		return path;
+	}
+}
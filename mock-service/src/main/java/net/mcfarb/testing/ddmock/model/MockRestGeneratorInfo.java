@@ -7,6 +7,7 @@ import java.util.Optional;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import lombok.Data;
+import net.mcfarb.testing.ddmock.startup.MockLoadReport;
 
 @Data
 public class MockRestGeneratorInfo {
@@ -14,6 +15,10 @@ public class MockRestGeneratorInfo {
 	private List<MockRestInfo> mockRestApis = new ArrayList<>();
 	private List<MockObject> mockObjects = new ArrayList<>();
 
+	// populated while loading, not part of the file format
+	@JsonIgnore
+	private MockLoadReport loadReport;
+
 	@JsonIgnore
 	public MockObject getMockObjectById(String id) {
 		Optional<MockObject> mockObject = mockObjects.stream().filter(mo -> id.equals(mo.getId())).findFirst();
@@ -9,5 +9,6 @@ public class MockRestInfo {
 
 	private String basePath;
 	private List<MockRestMethodInfo> methods;
+	private MockResourceInfo resource;
 
 }
@@ -1,8 +1,16 @@
 package net.mcfarb.testing.ddmock.model;
 
+import java.util.List;
 import java.util.Map;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import net.mcfarb.testing.ddmock.service.MockBodyMatcher;
+import net.mcfarb.testing.ddmock.service.MockRequestConditions;
+import net.mcfarb.testing.ddmock.service.MockResourceStore;
 
 @Data
 public class MockRestMethodInfo {
@@ -11,7 +19,39 @@ public class MockRestMethodInfo {
 	private String httpMethod;
 	private String returnId;
 	private Integer statusCode;
+	// response headers
 	private Map<String, String> headers;
 	private Map<String, String> queryParameters;
+	private List<MockBodyPredicate> bodyPredicates;
+
+	// request headers that must have exactly these values
+	private Map<String, String> requestHeaders;
+	// scheme the Authorization header must use, e.g. Bearer or Basic
+	private String authorizationScheme;
+	// media type the request's Content-Type must have
+	private String consumes;
+	// media type the request's Accept must allow, also sent as the response Content-Type
+	private String produces;
+
+	// requestHeaders, authorizationScheme, consumes and produces compiled when the route is loaded
+	@JsonIgnore
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	private MockRequestConditions requestConditions;
+
+	// bodyPredicates compiled when the route is loaded
+	@JsonIgnore
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	private MockBodyMatcher bodyMatcher;
+
+	// set on routes generated for a resource, not part of the file format
+	@JsonIgnore
+	private MockResourceOperation resourceOperation;
+
+	@JsonIgnore
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	private MockResourceStore resourceStore;
 
 }
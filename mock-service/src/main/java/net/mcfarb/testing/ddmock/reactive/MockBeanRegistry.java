@@ -0,0 +1,79 @@
+package net.mcfarb.testing.ddmock.reactive;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Resolves beans by name through a chain of lookups, for example the mock
+ * provider first and the Spring context second, and remembers the outcome.
+ *
+ * Each name is resolved once, on the first subscription to its Mono. Later
+ * subscribers get the same bean, or the same empty result when no lookup had
+ * it, without running the lookups again. Errors are not remembered, so a
+ * failed lookup is retried by the next subscriber. Lookups run lazily, a
+ * registry can be built before the providers behind it are initialized, as
+ * long as nothing subscribes before then, see {@link #clear()}.
+ *
+ * @param <S> bean type
+ */
+public class MockBeanRegistry<S> {
+
+	// Reactor's own sentinel for a cache entry that never expires
+	private static final Duration FOREVER = Duration.ofMillis(Long.MAX_VALUE);
+
+	private final List<Function<String, Mono<S>>> lookups;
+	private final Map<String, Mono<S>> beans = new ConcurrentHashMap<>();
+
+	/**
+	 * @param lookups tried in order until one emits a bean, each returning an
+	 *                empty Mono for names it does not know
+	 */
+	public MockBeanRegistry(List<Function<String, Mono<S>>> lookups) {
+		this.lookups = List.copyOf(lookups);
+	}
+
+	/**
+	 * The bean with this name, empty when no lookup has it.
+	 */
+	public Mono<S> resolve(String beanName) {
+		return beans.computeIfAbsent(beanName, this::lookup);
+	}
+
+	/**
+	 * Resolves many beans at once, each on its own boundedElastic worker as
+	 * Spring lookups may create beans. Names no lookup has are left out of
+	 * the map.
+	 */
+	public Mono<Map<String, S>> resolveAll(Collection<String> beanNames) {
+		return Flux.fromIterable(beanNames)
+				.distinct()
+				.flatMap(beanName -> resolve(beanName)
+						.subscribeOn(Schedulers.boundedElastic())
+						.map(bean -> Map.entry(beanName, bean)))
+				.collectMap(Map.Entry::getKey, Map.Entry::getValue);
+	}
+
+	/**
+	 * Forgets every resolved bean, e.g. after the providers behind the
+	 * lookups are initialized again.
+	 */
+	public void clear() {
+		beans.clear();
+	}
+
+	private Mono<S> lookup(String beanName) {
+		Mono<S> bean = Mono.empty();
+		for (Function<String, Mono<S>> lookup : lookups) {
+			bean = bean.switchIfEmpty(Mono.defer(() -> lookup.apply(beanName)));
+		}
+		return bean.cache(value -> FOREVER, error -> Duration.ZERO, () -> FOREVER);
+	}
+}
@@ -1,9 +1,10 @@
 package net.mcfarb.testing.ddmock.reactive;
 
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 
-import lombok.Setter;
 import net.mcfarb.testing.TestParent;
 import net.mcfarb.testing.ddmock.model.MockGeneratorInfo;
 import net.mcfarb.testing.ddmock.service.BeanProvider;
@@ -11,7 +12,6 @@ import reactor.core.publisher.Mono;
 
 public class MockGenerator<T extends TestParent, S> {
 
-    @Setter
     MockGeneratorInfo mockGeneratorInfo;
 
     @Autowired
@@ -22,19 +22,32 @@ public class MockGenerator<T extends TestParent, S> {
     @Qualifier("springBeanProvider")
     BeanProvider<T, S> springBeanProvider;
 
+    private final MockBeanRegistry<S> beans = new MockBeanRegistry<S>(
+            List.of(this::generateMonoMock, this::generateMonoBean));
+
+    /**
+     * The mock with this name, or else the Spring bean, resolved once per name.
+     * The mock provider is initialized with {@link #setMockGeneratorInfo} on
+     * the first subscription, not when this method is called.
+     */
     public Mono<S> generateMockBean(String beanName, MockGeneratorInfo mockGeneratorInfo) {
-        return Mono.just(mockProvider.getBean(beanName))
-                .switchIfEmpty(generateMonoMock(beanName))
-                .switchIfEmpty(generateMonoBean(beanName));
+        return beans.resolve(beanName);
     }
 
     public Mono<S> generateMonoMock(String beanName) {
-        mockProvider.initialize(mockGeneratorInfo);
-        return Mono.just(mockProvider.getBean(beanName));
+        return Mono.fromCallable(() -> {
+            mockProvider.initialize(mockGeneratorInfo);
+            return mockProvider.getBean(beanName);
+        });
     }
 
     public Mono<S> generateMonoBean(String beanName) {
-        return Mono.just(springBeanProvider.getBean(beanName));
+        return Mono.fromCallable(() -> springBeanProvider.getBean(beanName));
+    }
+
+    public void setMockGeneratorInfo(MockGeneratorInfo mockGeneratorInfo) {
+        this.mockGeneratorInfo = mockGeneratorInfo;
+        beans.clear();
     }
 
-}
\ No newline at end of file
+}
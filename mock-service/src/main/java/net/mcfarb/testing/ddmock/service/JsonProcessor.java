@@ -4,32 +4,92 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URISyntaxException;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
+import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import net.mcfarb.testing.ddmock.aspects.MockBuilderException;
 import net.mcfarb.testing.ddmock.model.MockGeneratorInfo;
+import net.mcfarb.testing.ddmock.model.MockIsolation;
 import net.mcfarb.testing.ddmock.model.MockObject;
 import net.mcfarb.testing.ddmock.model.MockRestGeneratorInfo;
+import net.mcfarb.testing.ddmock.startup.MockLoadReport;
 
 @Slf4j
 public class JsonProcessor {
 
+    @Getter
     @Setter
     private ObjectMapper objectMapper;
 
+    /**
+     * Directory relative body files are resolved against, the working
+     * directory when null.
+     */
+    @Getter
+    @Setter
+    private Path baseDirectory;
+
+    /**
+     * Size of the table strings and small immutable values read while loading
+     * a mock file are interned in, see {@link MockInternTable}. 0, the
+     * default, disables interning.
+     */
+    @Getter
+    @Setter
+    private int internCapacity;
+
     private static final String VERSION = "2.0";
 
+    // built from objectMapper on first use
+    private volatile MockSnapshot snapshot;
+    private volatile ObjectMapper snapshotMapper;
+
+    // objectMapper with MockRefDeserializer and interning, built on first use
+    private volatile ObjectMapper graphMapper;
+    private volatile ObjectMapper graphSourceMapper;
+
     public Object buildObject(MockObject jsonReturnObject, Class<?> returnType, Class<?> genericClass,
             Class<?> keyClass, Class<?> valueClass, String version)
             throws MockBuilderException {
+        return buildObject(jsonReturnObject, returnType, genericClass, keyClass, valueClass, version, null);
+    }
+
+    /**
+     * Builds an object whose objectValue may contain {@code {"$ref": "id"}}
+     * values, resolved to the instances of the graph, see
+     * {@link MockObjectGraph}. Without a graph references are rejected. Values
+     * are interned in the graph's intern table, if it has one.
+     */
+    public Object buildObject(MockObject jsonReturnObject, Class<?> returnType, Class<?> genericClass,
+            Class<?> keyClass, Class<?> valueClass, String version, MockObjectGraph graph)
+            throws MockBuilderException {
+        MockIsolation isolation = jsonReturnObject.getIsolation() != null ? jsonReturnObject.getIsolation()
+                : MockIsolation.SHARED;
+        if ((jsonReturnObject.getDataset() != null || jsonReturnObject.getBodyFile() != null)
+                && isolation != MockIsolation.SHARED) {
+            throw new MockBuilderException("Object Id = %s: isolation only applies to objectValue and stringValue",
+                    jsonReturnObject.getId());
+        }
+        if (jsonReturnObject.getDataset() != null) {
+            return buildDataset(jsonReturnObject, returnType, genericClass);
+        }
+        if (jsonReturnObject.getBodyFile() != null) {
+            return buildBodyFile(jsonReturnObject, returnType);
+        }
         Object returnObject;
         try {
             if (returnType.isAssignableFrom(String.class)) {
@@ -40,23 +100,27 @@ public class JsonProcessor {
                         throw new NullPointerException(
                                 "For List Types genericClass must not be null object Id = " + jsonReturnObject.getId());
                     }
-                    returnObject = objectMapper.readValue(jsonReturnObject.getObjectValue().toString(),
-                            objectMapper.getTypeFactory().constructParametricType(returnType, genericClass));
+                    returnObject = readValue(jsonReturnObject,
+                            objectMapper.getTypeFactory().constructParametricType(returnType, genericClass), graph);
                 } else if (Map.class.isAssignableFrom(returnType) && VERSION.equals(version)) {
                     if (keyClass == null || valueClass == null) {
                         throw new NullPointerException(
                                 "For Map Types, the keyClass and valueClass must not be null and version must be 2.0, object Id = "
                                         + jsonReturnObject.getId());
                     }
-                    returnObject = objectMapper.readValue(jsonReturnObject.getObjectValue().toString(),
-                            objectMapper.getTypeFactory().constructMapType(HashMap.class, keyClass, valueClass));
+                    returnObject = readValue(jsonReturnObject,
+                            objectMapper.getTypeFactory().constructMapType(HashMap.class, keyClass, valueClass), graph);
                 } else if (returnType.isAssignableFrom(ObjectNode.class)) {
-                    returnObject = objectMapper.readTree(jsonReturnObject.getObjectValue().toString());
+                    returnObject = hasReferences(jsonReturnObject)
+                            ? substitute(jsonReturnObject, jsonReturnObject.getObjectValue().deepCopy(), graph)
+                            : objectMapper.readTree(jsonReturnObject.getObjectValue().toString());
                 } else {
-                    returnObject = objectMapper.readValue(jsonReturnObject.getObjectValue().toString(), returnType);
+                    returnObject = readValue(jsonReturnObject, objectMapper.constructType(returnType), graph);
                 }
             }
-            return returnObject;
+            return isolate(jsonReturnObject, returnObject, isolation);
+        } catch (MockBuilderException e) {
+            throw e;
         } catch (
 
         JsonProcessingException e) {
@@ -64,21 +128,279 @@ public class JsonProcessor {
         }
     }
 
+    private Object readValue(MockObject jsonReturnObject, JavaType type, MockObjectGraph graph)
+            throws JsonProcessingException {
+        boolean interning = graph != null && graph.getInternTable() != null;
+        if (!interning && !hasReferences(jsonReturnObject)) {
+            return objectMapper.readValue(jsonReturnObject.getObjectValue().toString(), type);
+        }
+        requireGraph(jsonReturnObject, graph);
+        try {
+            ObjectReader reader = getGraphMapper().readerFor(type).withAttribute(MockObjectGraph.class, graph);
+            if (interning) {
+                reader = reader.withAttribute(MockInternTable.class, graph.getInternTable());
+            }
+            return reader.readValue(jsonReturnObject.getObjectValue());
+        } catch (JsonMappingException e) {
+            // a reference that failed to build, reported as is rather than with the path Jackson wraps it in
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof MockBuilderException problem) {
+                    throw problem;
+                }
+            }
+            throw e;
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new MockBuilderException("Error building objects ", e);
+        }
+    }
+
+    private static boolean hasReferences(MockObject jsonReturnObject) {
+        return jsonReturnObject.getObjectValue() != null
+                && jsonReturnObject.getObjectValue().findValue(MockObjectGraph.REF) != null;
+    }
+
+    private static void requireGraph(MockObject jsonReturnObject, MockObjectGraph graph) throws MockBuilderException {
+        if (graph == null) {
+            throw new MockBuilderException("Object Id = %s uses %s, which needs the other objects of its config",
+                    jsonReturnObject.getId(), MockObjectGraph.REF);
+        }
+    }
+
+    // replaces references in a tree with the referenced objects as shared nodes
+    private JsonNode substitute(MockObject jsonReturnObject, JsonNode node, MockObjectGraph graph)
+            throws MockBuilderException {
+        requireGraph(jsonReturnObject, graph);
+        if (node.isObject() && node.size() == 1 && node.path(MockObjectGraph.REF).isTextual()) {
+            return (JsonNode) graph.resolve(node.get(MockObjectGraph.REF).asText(),
+                    objectMapper.constructType(JsonNode.class));
+        }
+        if (node.isObject()) {
+            ObjectNode object = (ObjectNode) node;
+            for (Map.Entry<String, JsonNode> field : object.properties()) {
+                field.setValue(substitute(jsonReturnObject, field.getValue(), graph));
+            }
+        } else if (node.isArray()) {
+            ArrayNode array = (ArrayNode) node;
+            for (int i = 0; i < array.size(); i++) {
+                array.set(i, substitute(jsonReturnObject, array.get(i), graph));
+            }
+        }
+        return node;
+    }
+
+    private ObjectMapper getGraphMapper() {
+        ObjectMapper current = graphMapper;
+        if (current == null || graphSourceMapper != objectMapper) {
+            current = objectMapper.copy()
+                    .registerModule(MockRefDeserializer.module())
+                    .registerModule(MockInternTable.module());
+            graphMapper = current;
+            graphSourceMapper = objectMapper;
+        }
+        return current;
+    }
+
+    /**
+     * Applies the object's isolation: READ_ONLY objects are replaced by their
+     * view, COPY objects are copied once so a class that cannot be copied is
+     * reported now rather than on first use.
+     */
+    private Object isolate(MockObject jsonReturnObject, Object returnObject, MockIsolation isolation)
+            throws MockBuilderException {
+        try {
+            switch (isolation) {
+                case READ_ONLY:
+                    return MockReadOnlyView.of(returnObject);
+                case COPY:
+                    MockObjectCopier.copy(returnObject);
+                    return returnObject;
+                default:
+                    return returnObject;
+            }
+        } catch (IllegalArgumentException e) {
+            throw new MockBuilderException("Object Id = " + jsonReturnObject.getId() + " cannot be isolated with "
+                    + isolation, e);
+        }
+    }
+
+    /**
+     * Compiles a generated list of records. The class must accept a List, and
+     * genericClass is the class of each record, maps when omitted.
+     */
+    private MockDataset buildDataset(MockObject jsonReturnObject, Class<?> returnType, Class<?> genericClass)
+            throws MockBuilderException {
+        if (!returnType.isAssignableFrom(List.class)) {
+            throw new MockBuilderException("Dataset object Id = %s must have a List class, not %s",
+                    jsonReturnObject.getId(), returnType.getName());
+        }
+        try {
+            return MockDataset.compile(jsonReturnObject.getDataset(), genericClass, objectMapper);
+        } catch (IllegalArgumentException e) {
+            throw new MockBuilderException("Invalid dataset object Id = " + jsonReturnObject.getId(), e);
+        }
+    }
+
+    /**
+     * Checks that a body file can be served. The class must accept a
+     * MockBodyFile, e.g. java.lang.Object, and the path must be relative and
+     * stay inside {@link #baseDirectory}, after resolving "..", and symbolic
+     * links, so that a mock cannot serve arbitrary files.
+     */
+    private MockBodyFile buildBodyFile(MockObject jsonReturnObject, Class<?> returnType) throws MockBuilderException {
+        if (!returnType.isAssignableFrom(MockBodyFile.class)) {
+            throw new MockBuilderException("Body file object Id = %s must have class java.lang.Object, not %s",
+                    jsonReturnObject.getId(), returnType.getName());
+        }
+        Path base = (baseDirectory != null ? baseDirectory : Path.of("")).toAbsolutePath().normalize();
+        Path path;
+        MockBodyFile file;
+        try {
+            path = Path.of(jsonReturnObject.getBodyFile());
+            if (path.isAbsolute() || path.getRoot() != null) {
+                throw new MockBuilderException("Body file object Id = %s must be relative to %s, not %s",
+                        jsonReturnObject.getId(), base, path);
+            }
+            if (!base.resolve(path).normalize().startsWith(base)) {
+                throw new MockBuilderException("Body file object Id = %s is outside %s: %s",
+                        jsonReturnObject.getId(), base, path);
+            }
+            file = MockBodyFile.of(base.resolve(path));
+        } catch (IllegalArgumentException e) {
+            throw new MockBuilderException("Invalid body file object Id = " + jsonReturnObject.getId(), e);
+        }
+        if (!isInside(file.getPath(), base)) {
+            throw new MockBuilderException("Body file object Id = %s links outside %s: %s",
+                    jsonReturnObject.getId(), base, path);
+        }
+        return file;
+    }
+
+    // compares real paths, a symbolic link inside the directory may point anywhere
+    private static boolean isInside(Path file, Path directory) {
+        try {
+            return file.toRealPath().startsWith(directory.toRealPath());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
     public MockGeneratorInfo buildMockInfoObjectFromJson(String filename) throws IOException, URISyntaxException {
         log.info("building MockInfoGenerator from file {} ", filename);
-        InputStream stream = getClass().getClassLoader().getResourceAsStream(filename + ".json");
-        if (stream == null) {
-            throw new FileNotFoundException("Could not find file " + filename + ".json");
-        }
-        return objectMapper.readValue(stream, MockGeneratorInfo.class);
+        MockLoadReport report = new MockLoadReport(filename);
+        byte[] content = readResource(filename, report);
+        long start = System.nanoTime();
+        MockGeneratorInfo info = objectMapper.readValue(content, MockGeneratorInfo.class);
+        report.setParseNanos(System.nanoTime() - start);
+        info.setLoadReport(report);
+        return info;
     }
 
     public MockRestGeneratorInfo buildMockRestInfoObjectFromJson(String filename) throws IOException, URISyntaxException {
         log.info("building MockRestGeneratorInfo from file {} ", filename);
-        InputStream stream = getClass().getClassLoader().getResourceAsStream(filename + ".json");
-        if (stream == null) {
-            throw new FileNotFoundException("Could not find file " + filename + ".json");
+        MockLoadReport report = new MockLoadReport(filename);
+        byte[] content = readResource(filename, report);
+        long start = System.nanoTime();
+        MockRestGeneratorInfo info = objectMapper.readValue(content, MockRestGeneratorInfo.class);
+        report.setParseNanos(System.nanoTime() - start);
+        info.setLoadReport(report);
+        return info;
+    }
+
+    /**
+     * Reads a MockRestGeneratorInfo from a stream, e.g. a file outside the
+     * classpath. The stream is read fully and closed.
+     *
+     * @param source name reported in the load report
+     */
+    public MockRestGeneratorInfo buildMockRestInfoObjectFromStream(String source, InputStream stream)
+            throws IOException {
+        return buildMockRestInfoObjectFromStream(source, stream, null);
+    }
+
+    /**
+     * Reads a MockRestGeneratorInfo from a stream like
+     * {@link #buildMockRestInfoObjectFromStream(String, InputStream)}, using a
+     * binary snapshot of it when possible. When the snapshot was written for
+     * the same content it is read instead of parsing the JSON, otherwise the
+     * JSON is parsed and the snapshot rewritten for the next load.
+     *
+     * @param snapshot snapshot file of this stream, see {@link MockSnapshot},
+     *                 null to always parse the JSON
+     */
+    public MockRestGeneratorInfo buildMockRestInfoObjectFromStream(String source, InputStream stream, Path snapshot)
+            throws IOException {
+        log.info("building MockRestGeneratorInfo from {} ", source);
+        MockLoadReport report = new MockLoadReport(source);
+        long start = System.nanoTime();
+        byte[] content;
+        try (stream) {
+            content = readAll(stream, report, start);
+        }
+        start = System.nanoTime();
+        MockRestGeneratorInfo info = snapshot != null ? readSnapshot(source, snapshot, content) : null;
+        report.setFromSnapshot(info != null);
+        if (info == null) {
+            info = objectMapper.readValue(content, MockRestGeneratorInfo.class);
+        }
+        report.setParseNanos(System.nanoTime() - start);
+        if (snapshot != null && !report.isFromSnapshot()) {
+            writeSnapshot(source, snapshot, content, info);
         }
-        return objectMapper.readValue(stream, MockRestGeneratorInfo.class);
+        info.setLoadReport(report);
+        return info;
+    }
+
+    // an unreadable snapshot is treated like a stale one
+    private MockRestGeneratorInfo readSnapshot(String source, Path snapshot, byte[] content) {
+        try {
+            MockRestGeneratorInfo info = getSnapshot().read(snapshot, content);
+            if (info == null) {
+                log.info("No current snapshot of {} in {}", source, snapshot);
+            }
+            return info;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable snapshot {} of {}", snapshot, source, e);
+            return null;
+        }
+    }
+
+    // a failed write only costs the next load a JSON parse
+    private void writeSnapshot(String source, Path snapshot, byte[] content, MockRestGeneratorInfo info) {
+        try {
+            getSnapshot().write(snapshot, content, info);
+            log.info("Wrote snapshot of {} to {}", source, snapshot);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to write snapshot {} of {}", snapshot, source, e);
+        }
+    }
+
+    private MockSnapshot getSnapshot() {
+        MockSnapshot current = snapshot;
+        if (current == null || snapshotMapper != objectMapper) {
+            current = new MockSnapshot(objectMapper);
+            snapshot = current;
+            snapshotMapper = objectMapper;
+        }
+        return current;
+    }
+
+    // reads the whole file up front so read and parse time can be reported separately
+    private byte[] readResource(String filename, MockLoadReport report) throws IOException {
+        long start = System.nanoTime();
+        try (InputStream stream = getClass().getClassLoader().getResourceAsStream(filename + ".json")) {
+            if (stream == null) {
+                throw new FileNotFoundException("Could not find file " + filename + ".json");
+            }
+            return readAll(stream, report, start);
+        }
+    }
+
+    private byte[] readAll(InputStream stream, MockLoadReport report, long start) throws IOException {
+        byte[] content = stream.readAllBytes();
+        report.setReadNanos(System.nanoTime() - start);
+        report.setSourceBytes(content.length);
+        return content;
     }
 }
@@ -0,0 +1,70 @@
+package net.mcfarb.testing.ddmock.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+
+/**
+ * A file answered as a REST response body as it is, see
+ * {@link net.mcfarb.testing.ddmock.model.MockObject#getBodyFile()}.
+ *
+ * Only the path is kept, the content is never read into memory. The file is
+ * checked when the mock is loaded, its size and modification time are read
+ * again for every response with {@link #version()}, so a file replaced in
+ * place is served with matching validators.
+ */
+public final class MockBodyFile {
+
+	/**
+	 * Size and modification time of the file at one point in time.
+	 */
+	public record Version(long size, Instant lastModified) {
+
+		/**
+		 * Strong entity tag derived from the size and modification time.
+		 */
+		public String eTag() {
+			return "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified.toEpochMilli()) + "\"";
+		}
+	}
+
+	private final Path path;
+
+	private MockBodyFile(Path path) {
+		this.path = path;
+	}
+
+	/**
+	 * @throws IllegalArgumentException when the path is not a readable regular
+	 *                                  file
+	 */
+	public static MockBodyFile of(Path path) {
+		Path absolute = path.toAbsolutePath().normalize();
+		if (!Files.isRegularFile(absolute)) {
+			throw new IllegalArgumentException("Body file " + absolute + " does not exist or is not a file");
+		}
+		if (!Files.isReadable(absolute)) {
+			throw new IllegalArgumentException("Body file " + absolute + " is not readable");
+		}
+		return new MockBodyFile(absolute);
+	}
+
+	public Path getPath() {
+		return path;
+	}
+
+	/**
+	 * Reads the current size and modification time.
+	 */
+	public Version version() throws IOException {
+		BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+		return new Version(attributes.size(), attributes.lastModifiedTime().toInstant());
+	}
+
+	@Override
+	public String toString() {
+		return path.toString();
+	}
+}
@@ -0,0 +1,251 @@
+package net.mcfarb.testing.ddmock.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+
+import net.mcfarb.testing.ddmock.model.MockBodyPredicate;
+
+/**
+ * The {@link MockBodyPredicate}s of a route, compiled when the route is loaded.
+ *
+ * Predicate paths are compiled into a tree of field names and array indexes.
+ * A body is checked in one pass of a streaming parser: subtrees that no
+ * predicate looks into are skipped without building any objects, only the
+ * values a predicate compares are read, and the pass stops at the first value
+ * that fails a predicate or as soon as every predicate has passed. A value
+ * that is missing is decided when its enclosing object or array ends.
+ *
+ * A missing, empty or malformed body fails every predicate except
+ * {@code present: false}.
+ */
+public final class MockBodyMatcher {
+
+	private static final ObjectMapper VALUE_READER = new ObjectMapper();
+
+	private static final Comparator<JsonNode> NUMBERS_BY_VALUE = (a, b) -> {
+		if (a.isNumber() && b.isNumber()) {
+			return a.decimalValue().compareTo(b.decimalValue());
+		}
+		return a.equals(b) ? 0 : 1;
+	};
+
+	private record Predicate(int index, JsonNode equalTo, Pattern matches, Boolean present) {
+
+		// value is null when missing
+		boolean test(JsonNode value) {
+			if (present != null) {
+				return present == (value != null);
+			}
+			if (value == null) {
+				return false;
+			}
+			if (matches != null) {
+				return value.isValueNode() && !value.isNull() && matches.matcher(value.asText()).matches();
+			}
+			return equalTo.equals(NUMBERS_BY_VALUE, value);
+		}
+	}
+
+	private static final class PathNode {
+		private final Map<String, PathNode> fields = new HashMap<>();
+		private final Map<Integer, PathNode> indexes = new HashMap<>();
+		private final List<Predicate> predicates = new ArrayList<>();
+		// predicates on this node and below
+		private final List<Predicate> subtree = new ArrayList<>();
+		// a predicate here compares the value rather than checking presence
+		private boolean readsValue;
+	}
+
+	private static final class Evaluation {
+		private final boolean[] decided;
+		private int remaining;
+		private boolean failed;
+
+		Evaluation(int predicateCount) {
+			decided = new boolean[predicateCount];
+			remaining = predicateCount;
+		}
+
+		boolean finished() {
+			return failed || remaining == 0;
+		}
+
+		void decide(Predicate predicate, JsonNode value) {
+			if (decided[predicate.index()]) {
+				return;
+			}
+			decided[predicate.index()] = true;
+			remaining--;
+			failed |= !predicate.test(value);
+		}
+
+		void decideTree(PathNode node, JsonNode value) {
+			node.predicates.forEach(predicate -> decide(predicate, value));
+			node.fields.forEach((name, child) -> decideTree(child,
+					value != null && value.isObject() ? value.get(name) : null));
+			node.indexes.forEach((index, child) -> decideTree(child,
+					value != null && value.isArray() ? value.get(index) : null));
+		}
+
+		void decideMissing(PathNode node) {
+			node.subtree.forEach(predicate -> decide(predicate, null));
+		}
+	}
+
+	private final PathNode root;
+	private final int predicateCount;
+
+	private MockBodyMatcher(PathNode root, int predicateCount) {
+		this.root = root;
+		this.predicateCount = predicateCount;
+	}
+
+	/**
+	 * @return the compiled predicates, or null when there are none
+	 * @throws IllegalArgumentException when a predicate is invalid
+	 */
+	public static MockBodyMatcher compile(List<MockBodyPredicate> predicates) {
+		if (predicates == null || predicates.isEmpty()) {
+			return null;
+		}
+		PathNode root = new PathNode();
+		for (int i = 0; i < predicates.size(); i++) {
+			MockBodyPredicate definition = predicates.get(i);
+			Predicate predicate = compile(i, definition);
+			PathNode node = root;
+			node.subtree.add(predicate);
+			for (Object step : parsePath(definition.getPath())) {
+				node = step instanceof Integer index ? node.indexes.computeIfAbsent(index, k -> new PathNode())
+						: node.fields.computeIfAbsent((String) step, k -> new PathNode());
+				node.subtree.add(predicate);
+			}
+			node.predicates.add(predicate);
+			node.readsValue |= predicate.present() == null;
+		}
+		return new MockBodyMatcher(root, predicates.size());
+	}
+
+	/**
+	 * True when the JSON {@code body} satisfies every predicate.
+	 */
+	public boolean matches(byte[] body) {
+		Evaluation evaluation = new Evaluation(predicateCount);
+		if (body != null && body.length > 0) {
+			try (JsonParser parser = VALUE_READER.createParser(body)) {
+				if (parser.nextToken() != null) {
+					visit(parser, root, evaluation);
+				}
+			} catch (IOException e) {
+				return false;
+			}
+		}
+		evaluation.decideMissing(root);
+		return !evaluation.failed;
+	}
+
+	// the parser is on the first token of the node's value
+	private static void visit(JsonParser parser, PathNode node, Evaluation evaluation) throws IOException {
+		JsonToken token = parser.currentToken();
+		if (!token.isStructStart() || node.readsValue) {
+			evaluation.decideTree(node, VALUE_READER.readTree(parser));
+			return;
+		}
+		// only presence predicates here, so the container need not be read
+		node.predicates.forEach(predicate -> evaluation.decide(predicate, NullNode.instance));
+
+		if (token == JsonToken.START_OBJECT) {
+			while (!evaluation.finished() && parser.nextToken() == JsonToken.FIELD_NAME) {
+				PathNode child = node.fields.get(parser.currentName());
+				parser.nextToken();
+				if (child != null) {
+					visit(parser, child, evaluation);
+				} else {
+					parser.skipChildren();
+				}
+			}
+		} else {
+			int index = 0;
+			JsonToken next;
+			while (!evaluation.finished() && (next = parser.nextToken()) != JsonToken.END_ARRAY && next != null) {
+				PathNode child = node.indexes.get(index++);
+				if (child != null) {
+					visit(parser, child, evaluation);
+				} else {
+					parser.skipChildren();
+				}
+			}
+		}
+		evaluation.decideMissing(node);
+	}
+
+	private static Predicate compile(int index, MockBodyPredicate definition) {
+		int conditions = (definition.getEqualTo() != null ? 1 : 0) + (definition.getMatches() != null ? 1 : 0)
+				+ (definition.getPresent() != null ? 1 : 0);
+		if (conditions != 1) {
+			throw new IllegalArgumentException("Body predicate on " + definition.getPath()
+					+ " must set exactly one of equalTo, matches and present");
+		}
+		Pattern pattern = definition.getMatches() != null ? Pattern.compile(definition.getMatches()) : null;
+		return new Predicate(index, definition.getEqualTo(), pattern, definition.getPresent());
+	}
+
+	/**
+	 * Splits a JSONPath into field names (String) and array indexes (Integer).
+	 */
+	static List<Object> parsePath(String path) {
+		if (path == null || !path.startsWith("$")) {
+			throw unsupported(path);
+		}
+		List<Object> steps = new ArrayList<>();
+		int i = 1;
+		while (i < path.length()) {
+			char c = path.charAt(i);
+			if (c == '.') {
+				int end = i + 1;
+				while (end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[') {
+					end++;
+				}
+				String name = path.substring(i + 1, end);
+				if (name.isEmpty() || name.equals("*")) {
+					throw unsupported(path);
+				}
+				steps.add(name);
+				i = end;
+			} else if (c == '[') {
+				int end = path.indexOf(']', i);
+				if (end < 0) {
+					throw unsupported(path);
+				}
+				String inner = path.substring(i + 1, end).trim();
+				if (inner.length() >= 2 && (inner.charAt(0) == '\'' || inner.charAt(0) == '"')
+						&& inner.charAt(inner.length() - 1) == inner.charAt(0)) {
+					steps.add(inner.substring(1, inner.length() - 1));
+				} else if (!inner.isEmpty() && inner.chars().allMatch(Character::isDigit)) {
+					steps.add(Integer.valueOf(inner));
+				} else {
+					throw unsupported(path);
+				}
+				i = end + 1;
+			} else {
+				throw unsupported(path);
+			}
+		}
+		return steps;
+	}
+
+	private static IllegalArgumentException unsupported(String path) {
+		return new IllegalArgumentException("Unsupported body predicate path " + path
+				+ ", expected $ followed by .field, ['field'] or [index] steps");
+	}
+}
@@ -0,0 +1,257 @@
+package net.mcfarb.testing.ddmock.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.UUID;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import net.mcfarb.testing.ddmock.model.MockDatasetInfo;
+import net.mcfarb.testing.ddmock.model.MockFieldGenerator;
+
+/**
+ * A list of generated records, compiled from a {@link MockDatasetInfo}.
+ *
+ * No record is stored: {@link #get(int)} generates the record at an index
+ * from the seed, the field name and the index alone, so any record can be read
+ * in constant time, in any order, by any thread, and always has the same
+ * values. A field's values do not change when other fields are added or
+ * removed.
+ *
+ * Records are maps from field name to value in declaration order, or
+ * converted to the record class when one is given.
+ *
+ * Datasets are equal when they were compiled from equal configurations for
+ * the same record class, and {@link #toString()} describes the configuration,
+ * so neither generates a record.
+ */
+public final class MockDataset extends AbstractList<Object> implements RandomAccess {
+
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	@FunctionalInterface
+	private interface Field {
+		Object value(long index, long random);
+	}
+
+	private final int size;
+	private final String indexParameter;
+	private final String[] names;
+	private final long[] fieldSeeds;
+	private final Field[] fields;
+	private final Class<?> recordClass;
+	private final ObjectMapper objectMapper;
+	// the configuration compiled, copied so later changes to it do not show in equals
+	private final MockDatasetInfo info;
+
+	private MockDataset(MockDatasetInfo info, Class<?> recordClass, ObjectMapper objectMapper) {
+		this.info = objectMapper.convertValue(info, MockDatasetInfo.class);
+		this.size = info.getCount();
+		this.indexParameter = info.getIndexParameter();
+		this.recordClass = recordClass;
+		this.objectMapper = objectMapper;
+		this.names = info.getFields().keySet().toArray(String[]::new);
+		this.fieldSeeds = new long[names.length];
+		this.fields = new Field[names.length];
+		for (int i = 0; i < names.length; i++) {
+			fieldSeeds[i] = mix(info.getSeed() ^ mix(names[i].hashCode()));
+			fields[i] = compile(names[i], info.getFields().get(names[i]));
+		}
+	}
+
+	/**
+	 * @param recordClass  class of each record, null or a Map for maps
+	 * @param objectMapper converts records to {@code recordClass}
+	 * @throws IllegalArgumentException when a generator is invalid
+	 */
+	public static MockDataset compile(MockDatasetInfo info, Class<?> recordClass, ObjectMapper objectMapper) {
+		if (info.getCount() < 0) {
+			throw new IllegalArgumentException("Dataset count must not be negative");
+		}
+		if (info.getFields() == null || info.getFields().isEmpty()) {
+			throw new IllegalArgumentException("Dataset needs at least one field");
+		}
+		boolean maps = recordClass == null || Map.class.isAssignableFrom(recordClass);
+		return new MockDataset(info, maps ? null : recordClass, objectMapper);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public Object get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of dataset of " + size);
+		}
+		Map<String, Object> record = new LinkedHashMap<>(names.length * 2);
+		for (int i = 0; i < names.length; i++) {
+			record.put(names[i], fields[i].value(index, mix(fieldSeeds[i] + index * GOLDEN_GAMMA)));
+		}
+		return recordClass != null ? objectMapper.convertValue(record, recordClass) : record;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return other == this || (other instanceof MockDataset dataset && info.equals(dataset.info)
+				&& Objects.equals(recordClass, dataset.recordClass));
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * info.hashCode() + Objects.hashCode(recordClass);
+	}
+
+	@Override
+	public String toString() {
+		return "MockDataset[count=" + size + ", seed=" + info.getSeed() + ", fields=" + Arrays.toString(names)
+				+ (recordClass != null ? ", recordClass=" + recordClass.getName() : "") + "]";
+	}
+
+	/**
+	 * Path parameter that selects a single record on REST routes.
+	 */
+	public String getIndexParameter() {
+		return indexParameter;
+	}
+
+	/**
+	 * The record at a path parameter value, or null when it is not an index of
+	 * this dataset.
+	 */
+	public Object item(String index) {
+		try {
+			int position = Integer.parseInt(index);
+			return position >= 0 && position < size ? get(position) : null;
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	// compiles one generator, the random argument of the result is a uniformly distributed long
+	private static Field compile(String name, MockFieldGenerator generator) {
+		if (generator == null || generator.getType() == null) {
+			throw new IllegalArgumentException("Field " + name + " needs a generator type");
+		}
+		switch (generator.getType()) {
+			case "sequence": {
+				long start = generator.getStart() != null ? generator.getStart() : 1;
+				return (index, random) -> start + index;
+			}
+			case "integer": {
+				long min = generator.getMin() != null ? whole(name, generator.getMin()) : 0;
+				long max = generator.getMax() != null ? whole(name, generator.getMax()) : 1000;
+				long span = range(name, min, max);
+				return (index, random) -> min + Math.floorMod(random, span);
+			}
+			case "decimal": {
+				BigDecimal min = generator.getMin() != null ? generator.getMin() : BigDecimal.ZERO;
+				BigDecimal max = generator.getMax() != null ? generator.getMax() : BigDecimal.valueOf(1000);
+				int scale = generator.getScale() != null ? generator.getScale() : 2;
+				if (min.compareTo(max) > 0) {
+					throw new IllegalArgumentException("Field " + name + " has min greater than max");
+				}
+				double low = min.doubleValue();
+				double width = max.doubleValue() - low;
+				return (index, random) -> BigDecimal.valueOf(low + unit(random) * width)
+						.setScale(scale, RoundingMode.HALF_UP);
+			}
+			case "boolean":
+				return (index, random) -> random < 0;
+			case "oneOf": {
+				if (generator.getValues() == null || generator.getValues().isEmpty()) {
+					throw new IllegalArgumentException("Field " + name + " needs values to pick from");
+				}
+				List<Object> values = new ArrayList<>(generator.getValues());
+				return (index, random) -> values.get((int) Math.floorMod(random, (long) values.size()));
+			}
+			case "text":
+				return text(generator);
+			case "uuid":
+				return (index, random) -> {
+					// version 4 and IETF variant bits, as in UUID.randomUUID()
+					long most = (random & ~0xF000L) | 0x4000L;
+					long least = (mix(random) & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+					return new UUID(most, least).toString();
+				};
+			case "date": {
+				long from = epochDay(name, generator.getFrom(), LocalDate.of(2000, 1, 1));
+				long to = epochDay(name, generator.getTo(), LocalDate.of(2030, 12, 31));
+				long span = range(name, from, to);
+				return (index, random) -> LocalDate.ofEpochDay(from + Math.floorMod(random, span)).toString();
+			}
+			default:
+				throw new IllegalArgumentException("Field " + name + " has unknown generator type "
+						+ generator.getType());
+		}
+	}
+
+	private static Field text(MockFieldGenerator generator) {
+		if (generator.getPattern() != null) {
+			String[] parts = generator.getPattern().split("\\{index\\}", -1);
+			return (index, random) -> String.join(String.valueOf(index), parts);
+		}
+		int length = generator.getLength() != null ? generator.getLength() : 8;
+		return (index, random) -> {
+			char[] letters = new char[length];
+			long bits = random;
+			for (int i = 0; i < length; i++) {
+				if (i > 0 && i % 12 == 0) {
+					bits = mix(bits);
+				}
+				letters[i] = (char) ('a' + Math.floorMod(bits >>> (5 * (i % 12)), 26L));
+			}
+			return new String(letters);
+		};
+	}
+
+	private static long range(String name, long min, long max) {
+		if (min > max) {
+			throw new IllegalArgumentException("Field " + name + " has min greater than max");
+		}
+		try {
+			return Math.addExact(Math.subtractExact(max, min), 1);
+		} catch (ArithmeticException e) {
+			throw new IllegalArgumentException("Field " + name + " spans more values than a long can count", e);
+		}
+	}
+
+	private static long whole(String name, BigDecimal value) {
+		try {
+			return value.longValueExact();
+		} catch (ArithmeticException e) {
+			throw new IllegalArgumentException("Field " + name + " needs whole numbers for min and max", e);
+		}
+	}
+
+	private static long epochDay(String name, String date, LocalDate defaultDate) {
+		try {
+			return (date != null ? LocalDate.parse(date) : defaultDate).toEpochDay();
+		} catch (DateTimeParseException e) {
+			throw new IllegalArgumentException("Field " + name + " has invalid date " + date, e);
+		}
+	}
+
+	// uniform double in [0, 1) from the upper 53 bits
+	private static double unit(long random) {
+		return (random >>> 11) * 0x1.0p-53;
+	}
+
+	// SplitMix64 finalizer, turns consecutive inputs into uncorrelated outputs
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
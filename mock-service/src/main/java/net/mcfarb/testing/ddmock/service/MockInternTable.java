@@ -0,0 +1,148 @@
+package net.mcfarb.testing.ddmock.service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.std.DelegatingDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+import net.mcfarb.testing.ddmock.startup.ObjectSizeEstimator;
+
+/**
+ * Canonical instances of the strings and small immutable values read while
+ * building the objects of one mock file.
+ *
+ * Mock files repeat the same values, status names, dates, amounts, in many
+ * objects, and Jackson creates a new instance for every occurrence. With an
+ * intern table every equal value read during the load is replaced by the
+ * first instance read, so the objects share it. The table holds at most
+ * {@code capacity} values, values read once it is full are kept as they are.
+ * Only immutable values are interned: strings, boxed numbers, BigInteger and
+ * BigDecimal, UUIDs and the java.time dates. java.util.Date and Calendar are
+ * mutable and left alone.
+ *
+ * A table belongs to one load and is not thread safe.
+ */
+public final class MockInternTable {
+
+	private static final Set<Class<?>> INTERNED = Set.of(String.class, Integer.class, Long.class, Short.class,
+			Byte.class, Double.class, Float.class, Character.class, BigInteger.class, BigDecimal.class, UUID.class,
+			LocalDate.class, LocalDateTime.class, LocalTime.class, Instant.class, OffsetDateTime.class,
+			ZonedDateTime.class);
+
+	private final int capacity;
+	private final Map<Object, Object> values = new HashMap<>();
+	private long hits;
+	private long bytesSaved;
+
+	public MockInternTable(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Intern table capacity must be positive, not " + capacity);
+		}
+		this.capacity = capacity;
+	}
+
+	/**
+	 * The canonical instance of a value, the value itself when it is the
+	 * first of its kind, not interned or the table is full.
+	 */
+	public Object intern(Object value) {
+		if (value == null || !INTERNED.contains(value.getClass())) {
+			return value;
+		}
+		Object canonical = values.get(value);
+		if (canonical == null) {
+			if (values.size() < capacity) {
+				values.put(value, value);
+			}
+			return value;
+		}
+		if (canonical != value) {
+			hits++;
+			bytesSaved += ObjectSizeEstimator.estimate(value);
+		}
+		return canonical;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Distinct values in the table.
+	 */
+	public int size() {
+		return values.size();
+	}
+
+	/**
+	 * Values replaced by their canonical instance.
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Estimated heap of the replaced instances, see {@link ObjectSizeEstimator}.
+	 */
+	public long getBytesSaved() {
+		return bytesSaved;
+	}
+
+	/**
+	 * Module interning the values read by a mapper, through the
+	 * {@link MockInternTable} attribute of the reader. Untyped maps and lists
+	 * pick up the wrapped String and Number deserializers as well.
+	 */
+	static SimpleModule module() {
+		SimpleModule module = new SimpleModule("MockInternModule");
+		module.setDeserializerModifier(new BeanDeserializerModifier() {
+			@Override
+			public JsonDeserializer<?> modifyDeserializer(DeserializationConfig config, BeanDescription beanDesc,
+					JsonDeserializer<?> deserializer) {
+				Class<?> type = deserializer.handledType();
+				return INTERNED.contains(type) || type == Number.class ? new InterningDeserializer(deserializer)
+						: deserializer;
+			}
+		});
+		return module;
+	}
+
+	private static final class InterningDeserializer extends DelegatingDeserializer {
+
+		private static final long serialVersionUID = 1L;
+
+		private InterningDeserializer(JsonDeserializer<?> delegate) {
+			super(delegate);
+		}
+
+		@Override
+		protected JsonDeserializer<?> newDelegatingInstance(JsonDeserializer<?> newDelegatee) {
+			return new InterningDeserializer(newDelegatee);
+		}
+
+		@Override
+		public Object deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+			Object value = _delegatee.deserialize(p, ctxt);
+			MockInternTable table = (MockInternTable) ctxt.getAttribute(MockInternTable.class);
+			return table != null ? table.intern(value) : value;
+		}
+	}
+}
@@ -0,0 +1,423 @@
+package net.mcfarb.testing.ddmock.service;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InaccessibleObjectException;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.UUID;
+import java.util.function.UnaryOperator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Deep copies mock objects field by field, for objects with
+ * {@link net.mcfarb.testing.ddmock.model.MockIsolation#COPY}.
+ *
+ * A copier is generated once per class from method handles over its
+ * constructor and fields, so a copy costs the allocations and field writes
+ * without going through Jackson. Strings, boxed primitives, enums, java.time
+ * values and other immutable values are shared. Arrays are copied element by
+ * element. Collections and maps are copied element by element into a new
+ * instance of their own class, created through its constructor without
+ * arguments, or the one taking the comparator of a sorted collection with a
+ * comparator, so unmodifiable JDK collections such as {@code List.of} cannot be
+ * copied. Records are rebuilt through their canonical constructor. An object
+ * referenced more than once in the graph, including through a cycle, is
+ * copied once. A cycle leading back to a record cannot be copied, as the
+ * record only exists once its components are.
+ *
+ * Other classes need a constructor without arguments, of any visibility. JDK
+ * classes not listed above are shared as they are.
+ */
+public final class MockObjectCopier {
+
+	private enum Kind {
+		SHARED, PRIMITIVE_ARRAY, ARRAY, LEAF, COLLECTION, MAP, RECORD, BEAN
+	}
+
+	// copies one field from source to target, children through the given function
+	@FunctionalInterface
+	private interface FieldCopy {
+		void copy(Object source, Object target, UnaryOperator<Object> child) throws Throwable;
+	}
+
+	private record Shape(MethodHandle constructor, FieldCopy[] fields, MethodHandle[] accessors) {
+	}
+
+	// constructors of a collection or map class, without arguments and taking a Comparator, null when missing
+	private record Container(MethodHandle empty, MethodHandle ordered) {
+	}
+
+	private static final Set<Class<?>> IMMUTABLE = Set.of(String.class, Boolean.class, Character.class, Byte.class,
+			Short.class, Integer.class, Long.class, Float.class, Double.class, BigDecimal.class, BigInteger.class,
+			UUID.class, URI.class, Locale.class, Class.class);
+
+	private static final ClassValue<Kind> KINDS = new ClassValue<>() {
+		@Override
+		protected Kind computeValue(Class<?> type) {
+			return kindOf(type);
+		}
+	};
+
+	private static final ClassValue<Shape> SHAPES = new ClassValue<>() {
+		@Override
+		protected Shape computeValue(Class<?> type) {
+			return type.isRecord() ? recordShape(type) : beanShape(type);
+		}
+	};
+
+	private static final ClassValue<Container> CONTAINERS = new ClassValue<>() {
+		@Override
+		protected Container computeValue(Class<?> type) {
+			return new Container(constructor(type, MethodType.methodType(Object.class)),
+					constructor(type, MethodType.methodType(Object.class, Comparator.class)));
+		}
+	};
+
+	private MockObjectCopier() {
+	}
+
+	/**
+	 * A deep copy of the object.
+	 *
+	 * @throws IllegalArgumentException when a class in the graph cannot be
+	 *                                  copied
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T copy(T object) {
+		return (T) new DeepCopy().apply(object);
+	}
+
+	/**
+	 * Whether values of the class are immutable or otherwise returned as they
+	 * are.
+	 */
+	static boolean isShared(Class<?> type) {
+		return KINDS.get(type) == Kind.SHARED;
+	}
+
+	/**
+	 * Whether the class is a mutable value with no structure of its own to
+	 * protect, i.e. an array, a JsonNode or a mutable JDK value such as Date.
+	 */
+	static boolean isLeaf(Class<?> type) {
+		Kind kind = KINDS.get(type);
+		return kind == Kind.LEAF || kind == Kind.PRIMITIVE_ARRAY || kind == Kind.ARRAY;
+	}
+
+	/**
+	 * Copies every instance field of source to target, an instance of the
+	 * same class, passing the mutable values through child.
+	 */
+	static void copyFields(Object source, Object target, UnaryOperator<Object> child) {
+		for (FieldCopy field : SHAPES.get(source.getClass()).fields()) {
+			try {
+				field.copy(source, target, child);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new IllegalStateException("Failed to copy " + source.getClass().getName(), e);
+			}
+		}
+	}
+
+	/**
+	 * A new record with the components of source, passed through child.
+	 */
+	static Object copyRecord(Object source, UnaryOperator<Object> child) {
+		Shape shape = SHAPES.get(source.getClass());
+		Object[] components = new Object[shape.accessors().length];
+		try {
+			for (int i = 0; i < components.length; i++) {
+				components[i] = child.apply((Object) shape.accessors()[i].invokeExact(source));
+			}
+			return (Object) shape.constructor().invokeExact(components);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException("Failed to copy " + source.getClass().getName(), e);
+		}
+	}
+
+	private static Kind kindOf(Class<?> type) {
+		if (isImmutable(type)) {
+			return Kind.SHARED;
+		}
+		if (type.isArray()) {
+			return type.getComponentType().isPrimitive() ? Kind.PRIMITIVE_ARRAY : Kind.ARRAY;
+		}
+		if (Date.class.isAssignableFrom(type) || Calendar.class.isAssignableFrom(type)
+				|| JsonNode.class.isAssignableFrom(type)) {
+			return Kind.LEAF;
+		}
+		if (Collection.class.isAssignableFrom(type)) {
+			return Kind.COLLECTION;
+		}
+		if (Map.class.isAssignableFrom(type)) {
+			return Kind.MAP;
+		}
+		if (type.isRecord()) {
+			return Kind.RECORD;
+		}
+		return isJdk(type) ? Kind.SHARED : Kind.BEAN;
+	}
+
+	// immutable whatever the subclass, so also usable for declared field types
+	private static boolean isImmutable(Class<?> type) {
+		return type.isPrimitive() || IMMUTABLE.contains(type) || Enum.class.isAssignableFrom(type)
+				|| type.getPackageName().equals("java.time");
+	}
+
+	private static boolean isJdk(Class<?> type) {
+		String name = type.getName();
+		return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.")
+				|| name.startsWith("sun.") || name.startsWith("com.sun.");
+	}
+
+	private static Shape beanShape(Class<?> type) {
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		MethodHandle constructor = null;
+		try {
+			Constructor<?> declared = type.getDeclaredConstructor();
+			declared.setAccessible(true);
+			constructor = lookup.unreflectConstructor(declared).asType(MethodType.methodType(Object.class));
+		} catch (NoSuchMethodException e) {
+			// read-only views are created by Mockito, so only copies need one
+		} catch (IllegalAccessException | InaccessibleObjectException e) {
+			throw new IllegalArgumentException("Constructor of " + type.getName() + " is not accessible", e);
+		}
+
+		List<FieldCopy> fields = new ArrayList<>();
+		for (Class<?> declaring = type; declaring != Object.class; declaring = declaring.getSuperclass()) {
+			for (Field field : declaring.getDeclaredFields()) {
+				if (!Modifier.isStatic(field.getModifiers())) {
+					fields.add(fieldCopy(lookup, type, field));
+				}
+			}
+		}
+		return new Shape(constructor, fields.toArray(FieldCopy[]::new), null);
+	}
+
+	private static MethodHandle constructor(Class<?> type, MethodType methodType) {
+		try {
+			Constructor<?> declared = type.getDeclaredConstructor(methodType.parameterArray());
+			declared.setAccessible(true);
+			return MethodHandles.lookup().unreflectConstructor(declared).asType(methodType);
+		} catch (NoSuchMethodException | IllegalAccessException | InaccessibleObjectException e) {
+			// e.g. the private classes of List.of and Collections.unmodifiableList
+			return null;
+		}
+	}
+
+	// an empty instance of the class of source, ordered by comparator when there is one
+	private static Object newContainer(Object source, Comparator<?> comparator) {
+		Container container = CONTAINERS.get(source.getClass());
+		MethodHandle constructor = comparator != null ? container.ordered() : container.empty();
+		if (constructor == null) {
+			throw new IllegalArgumentException(source.getClass().getName() + " has no constructor "
+					+ (comparator != null ? "taking its Comparator" : "without arguments") + ", it cannot be copied");
+		}
+		try {
+			if (comparator != null) {
+				return (Object) constructor.invokeExact(comparator);
+			}
+			return (Object) constructor.invokeExact();
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException("Failed to copy " + source.getClass().getName(), e);
+		}
+	}
+
+	private static FieldCopy fieldCopy(MethodHandles.Lookup lookup, Class<?> type, Field field) {
+		MethodHandle getter;
+		MethodHandle setter;
+		try {
+			field.setAccessible(true);
+			getter = lookup.unreflectGetter(field);
+			setter = lookup.unreflectSetter(field);
+		} catch (IllegalAccessException | InaccessibleObjectException e) {
+			throw new IllegalArgumentException("Field " + field.getName() + " of " + type.getName()
+					+ " is not accessible, the class cannot be copied", e);
+		}
+		// synthetic fields such as an inner class's outer instance are shared, not copied
+		if (isImmutable(field.getType()) || field.isSynthetic()) {
+			// target, source -> target.field = source.field
+			MethodHandle direct = MethodHandles.filterArguments(setter, 1, getter)
+					.asType(MethodType.methodType(void.class, Object.class, Object.class));
+			return (source, target, child) -> {
+				direct.invokeExact(target, source);
+			};
+		}
+		MethodHandle get = getter.asType(MethodType.methodType(Object.class, Object.class));
+		MethodHandle set = setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+		return (source, target, child) -> {
+			set.invokeExact(target, child.apply((Object) get.invokeExact(source)));
+		};
+	}
+
+	private static Shape recordShape(Class<?> type) {
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		RecordComponent[] components = type.getRecordComponents();
+		MethodHandle[] accessors = new MethodHandle[components.length];
+		Class<?>[] componentTypes = new Class<?>[components.length];
+		try {
+			for (int i = 0; i < components.length; i++) {
+				components[i].getAccessor().setAccessible(true);
+				accessors[i] = lookup.unreflect(components[i].getAccessor())
+						.asType(MethodType.methodType(Object.class, Object.class));
+				componentTypes[i] = components[i].getType();
+			}
+			Constructor<?> canonical = type.getDeclaredConstructor(componentTypes);
+			canonical.setAccessible(true);
+			MethodHandle constructor = lookup.unreflectConstructor(canonical)
+					.asSpreader(Object[].class, components.length)
+					.asType(MethodType.methodType(Object.class, Object[].class));
+			return new Shape(constructor, null, accessors);
+		} catch (NoSuchMethodException | IllegalAccessException | InaccessibleObjectException e) {
+			throw new IllegalArgumentException("Record " + type.getName() + " is not accessible", e);
+		}
+	}
+
+	private static final class DeepCopy implements UnaryOperator<Object> {
+
+		// stands for a record whose components are being copied, it has no instance yet
+		private static final Object BUILDING = new Object();
+
+		private final IdentityHashMap<Object, Object> copies = new IdentityHashMap<>();
+
+		@Override
+		public Object apply(Object value) {
+			if (value == null) {
+				return null;
+			}
+			Kind kind = KINDS.get(value.getClass());
+			if (kind == Kind.SHARED) {
+				return value;
+			}
+			Object copy = copies.get(value);
+			if (copy == BUILDING) {
+				throw new IllegalArgumentException("Record " + value.getClass().getName()
+						+ " is part of a cycle, it cannot be copied");
+			}
+			return copy != null ? copy : copyOf(kind, value);
+		}
+
+		private Object copyOf(Kind kind, Object value) {
+			switch (kind) {
+				case PRIMITIVE_ARRAY: {
+					int length = Array.getLength(value);
+					Object copy = Array.newInstance(value.getClass().getComponentType(), length);
+					System.arraycopy(value, 0, copy, 0, length);
+					copies.put(value, copy);
+					return copy;
+				}
+				case ARRAY: {
+					Object[] source = (Object[]) value;
+					Object[] copy = (Object[]) Array.newInstance(value.getClass().getComponentType(), source.length);
+					copies.put(value, copy);
+					for (int i = 0; i < source.length; i++) {
+						copy[i] = apply(source[i]);
+					}
+					return copy;
+				}
+				case LEAF: {
+					Object copy;
+					if (value instanceof JsonNode node) {
+						copy = node.deepCopy();
+					} else {
+						copy = value instanceof Date date ? date.clone() : ((Calendar) value).clone();
+					}
+					copies.put(value, copy);
+					return copy;
+				}
+				case COLLECTION:
+					return copyCollection((Collection<?>) value);
+				case MAP:
+					return copyMap((Map<?, ?>) value);
+				case RECORD: {
+					// a record is created from its copied components, so it must not be reached again before that
+					copies.put(value, BUILDING);
+					Object copy = copyRecord(value, this);
+					copies.put(value, copy);
+					return copy;
+				}
+				default:
+					return copyBean(value);
+			}
+		}
+
+		private Object copyBean(Object value) {
+			MethodHandle constructor = SHAPES.get(value.getClass()).constructor();
+			if (constructor == null) {
+				throw new IllegalArgumentException(value.getClass().getName()
+						+ " has no constructor without arguments, it cannot be copied");
+			}
+			Object copy;
+			try {
+				copy = (Object) constructor.invokeExact();
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new IllegalStateException("Failed to copy " + value.getClass().getName(), e);
+			}
+			copies.put(value, copy);
+			copyFields(value, copy, this);
+			return copy;
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private Collection<Object> copyCollection(Collection<?> source) {
+			if (source instanceof EnumSet<?> enumSet) {
+				// enum constants are shared anyway
+				return (Collection) enumSet.clone();
+			}
+			Collection<Object> copy = (Collection<Object>) newContainer(source,
+					source instanceof SortedSet<?> sorted ? sorted.comparator() : null);
+			copies.put(source, copy);
+			for (Object element : source) {
+				copy.add(apply(element));
+			}
+			return copy;
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private Map<Object, Object> copyMap(Map<?, ?> source) {
+			Map<Object, Object> copy;
+			if (source instanceof EnumMap<?, ?> enumMap) {
+				copy = new EnumMap(enumMap);
+				copy.clear();
+			} else {
+				copy = (Map<Object, Object>) newContainer(source,
+						source instanceof SortedMap<?, ?> sorted ? sorted.comparator() : null);
+			}
+			copies.put(source, copy);
+			for (Map.Entry<?, ?> entry : source.entrySet()) {
+				copy.put(apply(entry.getKey()), apply(entry.getValue()));
+			}
+			return copy;
+		}
+	}
+}
@@ -0,0 +1,209 @@
+package net.mcfarb.testing.ddmock.service;
+
+import java.lang.reflect.Array;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.util.ClassUtil;
+
+import net.mcfarb.testing.ddmock.aspects.MockBuilderException;
+import net.mcfarb.testing.ddmock.model.MockObject;
+import net.mcfarb.testing.ddmock.startup.MockLoadReport;
+
+/**
+ * The mock objects of one config, built so that {@code $ref} values share
+ * instances.
+ *
+ * Anywhere in an objectValue, {@code {"$ref": "otherId"}} stands for the
+ * object with that id, and {@code {"$ref": "otherId#/targets/0"}} for a part
+ * of it selected by a JSON pointer. A reference is resolved to the built
+ * instance itself, so content repeated across objects is parsed, bound and
+ * held once. When the referenced instance is not of the type expected where
+ * the reference is, it is converted once per type and that conversion is
+ * shared instead. Referenced objects are built first, whatever their order in
+ * the config, and references that lead back to the object being built are
+ * reported as cycles.
+ *
+ * A graph belongs to one load and is not thread safe.
+ */
+public final class MockObjectGraph {
+
+	/** Field of an object standing for another object. */
+	public static final String REF = "$ref";
+
+	private final JsonProcessor jsonProcessor;
+	private final Map<String, MockObject> definitions = new HashMap<>();
+	private final Map<MockObject, Object> built = new IdentityHashMap<>();
+	// ids being built, innermost last
+	private final Deque<String> building = new ArrayDeque<>();
+	private final Map<String, Object> parts = new HashMap<>();
+	// conversions of a referenced instance, by target type
+	private final Map<Object, Map<JavaType, Object>> conversions = new IdentityHashMap<>();
+	private final Set<Object> shared = Collections.newSetFromMap(new IdentityHashMap<>());
+	private final MockInternTable internTable;
+
+	public MockObjectGraph(Collection<MockObject> mockObjects, JsonProcessor jsonProcessor) {
+		this.jsonProcessor = jsonProcessor;
+		this.internTable = jsonProcessor.getInternCapacity() > 0
+				? new MockInternTable(jsonProcessor.getInternCapacity())
+				: null;
+		// the last definition of an id wins, as in the providers' object maps
+		mockObjects.forEach(mockObject -> definitions.put(mockObject.getId(), mockObject));
+	}
+
+	/**
+	 * Builds a mock object, or returns it when it was already built as the
+	 * target of a reference.
+	 */
+	public Object build(MockObject mockObject) throws MockBuilderException {
+		if (built.containsKey(mockObject)) {
+			return built.get(mockObject);
+		}
+		if (building.contains(mockObject.getId())) {
+			throw new MockBuilderException("Cyclic $ref: %s -> %s",
+					building.stream().collect(Collectors.joining(" -> ")), mockObject.getId());
+		}
+		if (mockObject.getFakeClass() == null) {
+			throw new MockBuilderException("Mock Object with id %s has no associated class", mockObject.getId());
+		}
+		building.addLast(mockObject.getId());
+		try {
+			Object object = jsonProcessor.buildObject(mockObject, mockObject.getFakeClass(),
+					mockObject.getGenericClass(), mockObject.getKeyClass(), mockObject.getValueClass(),
+					mockObject.getVersion(), this);
+			built.put(mockObject, object);
+			return object;
+		} finally {
+			building.removeLast();
+		}
+	}
+
+	/**
+	 * Instances references resolved to, compared by identity, e.g. to
+	 * serialize each of them once. The set does not hold on to the graph, so
+	 * it can be kept after the load.
+	 */
+	public Set<Object> getSharedObjects() {
+		return Collections.unmodifiableSet(shared);
+	}
+
+	/**
+	 * Values interned while building the objects, null unless the
+	 * JsonProcessor has an intern capacity.
+	 */
+	public MockInternTable getInternTable() {
+		return internTable;
+	}
+
+	/**
+	 * Adds the intern table's savings to the load report of the file.
+	 */
+	void recordInterning(MockLoadReport loadReport) {
+		if (internTable != null) {
+			loadReport.setInternedValues(internTable.getHits());
+			loadReport.setInternedBytes(internTable.getBytesSaved());
+		}
+	}
+
+	/**
+	 * The instance a reference stands for where a value of the given type is
+	 * expected.
+	 */
+	Object resolve(String ref, JavaType type) throws MockBuilderException {
+		int hash = ref.indexOf('#');
+		String id = hash < 0 ? ref : ref.substring(0, hash);
+		MockObject target = definitions.get(id);
+		if (target == null) {
+			throw new MockBuilderException("$ref %s: no mock object with id %s", ref, id);
+		}
+		Object object = build(target);
+		if (hash >= 0) {
+			if (!parts.containsKey(ref)) {
+				parts.put(ref, part(ref, object, JsonPointer.compile(ref.substring(hash + 1))));
+			}
+			object = parts.get(ref);
+		}
+		Class<?> raw = type.isPrimitive() ? ClassUtil.wrapperType(type.getRawClass()) : type.getRawClass();
+		if (object != null && !raw.isInstance(object)) {
+			object = convert(ref, object, type);
+		}
+		if (object != null) {
+			shared.add(object);
+		}
+		return object;
+	}
+
+	private Object convert(String ref, Object object, JavaType type) throws MockBuilderException {
+		Map<JavaType, Object> byType = conversions.computeIfAbsent(object, source -> new HashMap<>());
+		if (byType.containsKey(type)) {
+			return byType.get(type);
+		}
+		try {
+			Object converted = jsonProcessor.getObjectMapper().convertValue(object, type);
+			byType.put(type, converted);
+			return converted;
+		} catch (IllegalArgumentException e) {
+			throw new MockBuilderException("$ref " + ref + " is a " + object.getClass().getName()
+					+ " and cannot be used as " + type, e);
+		}
+	}
+
+	// follows a JSON pointer through maps, lists, arrays, JsonNodes and bean properties
+	private Object part(String ref, Object object, JsonPointer pointer) throws MockBuilderException {
+		ObjectMapper objectMapper = jsonProcessor.getObjectMapper();
+		Object current = object;
+		for (JsonPointer segment = pointer; !segment.matches(); segment = segment.tail()) {
+			String name = segment.getMatchingProperty();
+			int index = segment.getMatchingIndex();
+			if (current instanceof JsonNode node) {
+				current = node.isArray() ? node.get(index) : node.get(name);
+			} else if (current instanceof Map<?, ?> map) {
+				current = map.containsKey(name) ? map.get(name) : entry(map, name);
+			} else if (current instanceof List<?> list) {
+				current = index >= 0 && index < list.size() ? list.get(index) : null;
+			} else if (current != null && current.getClass().isArray()) {
+				current = index >= 0 && index < Array.getLength(current) ? Array.get(current, index) : null;
+			} else if (current != null) {
+				current = property(objectMapper, current, name);
+			}
+			if (current == null) {
+				throw new MockBuilderException("$ref %s: nothing at %s", ref, pointer);
+			}
+		}
+		return current;
+	}
+
+	// keys of typed maps, e.g. Long, are matched by their text
+	private static Object entry(Map<?, ?> map, String name) {
+		for (Map.Entry<?, ?> entry : map.entrySet()) {
+			if (String.valueOf(entry.getKey()).equals(name)) {
+				return entry.getValue();
+			}
+		}
+		return null;
+	}
+
+	private static Object property(ObjectMapper objectMapper, Object bean, String name) {
+		for (BeanPropertyDefinition property : objectMapper.getSerializationConfig()
+				.introspect(objectMapper.constructType(bean.getClass())).findProperties()) {
+			if (property.getName().equals(name) && property.getAccessor() != null) {
+				property.getAccessor().fixAccess(true);
+				return property.getAccessor().getValue(bean);
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,435 @@
+package net.mcfarb.testing.ddmock.service;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import net.mcfarb.testing.ddmock.aspects.MockBuilderException;
+import net.mcfarb.testing.ddmock.functionext.FunctionUtils;
+import net.mcfarb.testing.ddmock.model.MockArgumentReturn;
+import net.mcfarb.testing.ddmock.model.MockGeneratorInfo;
+import net.mcfarb.testing.ddmock.model.MockIsolation;
+import net.mcfarb.testing.ddmock.model.MockMethodInfo;
+import net.mcfarb.testing.ddmock.model.MockObject;
+import net.mcfarb.testing.ddmock.model.MockServiceInfo;
+import net.mcfarb.testing.ddmock.startup.MockLoadReport;
+
+/**
+ * A validated, immutable form of a {@link MockGeneratorInfo}, compiled once and
+ * turned into ready service mocks any number of times.
+ *
+ * Compiling builds the mock objects, resolves every stubbed {@link Method} and
+ * checks its return objects. Every problem of the config is collected rather
+ * than stopping at the first. {@link #newServices()} then only creates the
+ * Mockito mocks. Each one answers its stubbed methods from a table keyed by
+ * method, so no reflection or Mockito stubbing happens per provider.
+ *
+ * Methods with {@link MockMethodInfo#getArgumentReturns() argumentReturns}
+ * also get a hash table keyed by their argument values, so a call costs the
+ * same with one row or thousands, where equivalent Mockito stubbings are
+ * matched one by one. Calls matching no row get the method's returnId, or
+ * Mockito's defaults when it has none.
+ *
+ * Methods returning Mono, Flux or CompletableFuture may return plain objects,
+ * which are wrapped for every call, optionally delayed or followed by an
+ * error, see {@link MockReturnWrapper}.
+ *
+ * Plans are thread safe. Mock objects are built once and shared by every
+ * provider made from the same plan, so tests must not modify them unless they
+ * are isolated, see {@link MockIsolation}.
+ * {@link #cached(String, JsonProcessor)} keeps one plan per mock file and
+ * JsonProcessor for the lifetime of the JVM.
+ */
+public final class MockPlan {
+
+	private static final Map<CacheKey, MockPlan> CACHE = new ConcurrentHashMap<>();
+	private static final FunctionUtils UTILS = new FunctionUtils();
+
+	// the processor is compared by identity, its mapper and settings decide what the file builds
+	private record CacheKey(String mockFile, JsonProcessor jsonProcessor) {
+	}
+
+	// return objects of a method or argument row, and which of them are copied for every call
+	private record Returns(Object[] objects, boolean[] copied) {
+	}
+
+	// returns by argument values, for any other arguments when there is a returnId, and how they are returned
+	private record Stub(Map<List<Object>, Returns> byArguments, Returns fallback, MockReturnWrapper wrapper) {
+	}
+
+	// state of one compile shared by its steps
+	private record Compilation(Map<String, Object> objects, Set<String> failed, Set<String> copied,
+			List<MockBuilderException> problems, ObjectMapper objectMapper) {
+	}
+
+	private record Service(String beanName, Class<?> serviceClass, Map<Method, Stub> stubs) {
+	}
+
+	private final Map<String, Object> objects;
+	private final List<Service> services;
+	private final MockLoadReport loadReport;
+	private final ObjectMapper objectMapper;
+
+	private MockPlan(Map<String, Object> objects, List<Service> services, MockLoadReport loadReport,
+			ObjectMapper objectMapper) {
+		this.objects = objects;
+		this.services = services;
+		this.loadReport = loadReport;
+		this.objectMapper = objectMapper;
+	}
+
+	/**
+	 * Validates a config and builds its objects.
+	 *
+	 * @throws MockBuilderException listing every problem of the config, each
+	 *                              one also attached as a suppressed exception
+	 */
+	public static MockPlan compile(MockGeneratorInfo mockGeneratorInfo, JsonProcessor jsonProcessor)
+			throws MockBuilderException {
+		if (mockGeneratorInfo == null) {
+			throw new IllegalArgumentException("MockGeneratorInfo cannot be null");
+		}
+		MockLoadReport loadReport = mockGeneratorInfo.getLoadReport() != null ? mockGeneratorInfo.getLoadReport()
+				: new MockLoadReport("inline");
+		List<MockBuilderException> problems = new ArrayList<>();
+		Map<String, Object> objects = new HashMap<>();
+		// objects that failed to build, so methods returning them are not reported again
+		Set<String> failed = new HashSet<>();
+		Set<String> copied = new HashSet<>();
+		MockObjectGraph graph = new MockObjectGraph(mockGeneratorInfo.getMockObjects(), jsonProcessor);
+		for (MockObject mockObject : mockGeneratorInfo.getMockObjects()) {
+			loadReport.buildObject(mockObject, object -> {
+				try {
+					objects.put(object.getId(), buildObject(object, graph));
+					if (object.getIsolation() == MockIsolation.COPY) {
+						copied.add(object.getId());
+					}
+				} catch (MockBuilderException e) {
+					failed.add(object.getId());
+					problems.add(e);
+				}
+			}, objects);
+		}
+		graph.recordInterning(loadReport);
+
+		Compilation compilation = new Compilation(objects, failed, copied, problems,
+				jsonProcessor.getObjectMapper());
+		Map<String, Map<Method, Stub>> stubs = new LinkedHashMap<>();
+		Map<String, Class<?>> serviceClasses = new HashMap<>();
+		loadReport.buildStubs(() -> {
+			for (MockServiceInfo<?> serviceInfo : mockGeneratorInfo.getMockServices()) {
+				if (serviceInfo.getServiceClass() == null) {
+					problems.add(new MockBuilderException("Mock service %s has no serviceClass",
+							serviceInfo.getBeanName()));
+					continue;
+				}
+				String beanName = UTILS.createBeanName.apply(serviceInfo);
+				serviceClasses.putIfAbsent(beanName, serviceInfo.getServiceClass());
+				Map<Method, Stub> serviceStubs = stubs.computeIfAbsent(beanName, name -> new HashMap<>());
+				for (MockMethodInfo methodInfo : serviceInfo.getMethods() != null ? serviceInfo.getMethods()
+						: List.<MockMethodInfo>of()) {
+					addStub(beanName, serviceClasses.get(beanName), methodInfo, compilation, serviceStubs);
+				}
+			}
+		});
+		loadReport.setServiceCount(mockGeneratorInfo.getMockServices().size());
+
+		if (!problems.isEmpty()) {
+			MockBuilderException failure = new MockBuilderException("%d problem(s) in mock config %s:%n  %s",
+					problems.size(), loadReport.getSource(), problems.stream().map(MockPlan::describe)
+							.collect(Collectors.joining(System.lineSeparator() + "  ")));
+			problems.forEach(failure::addSuppressed);
+			throw failure;
+		}
+		loadReport.commit();
+
+		List<Service> services = stubs.entrySet().stream()
+				.map(entry -> new Service(entry.getKey(), serviceClasses.get(entry.getKey()),
+						Map.copyOf(entry.getValue())))
+				.toList();
+		return new MockPlan(Collections.unmodifiableMap(objects), services, loadReport,
+				jsonProcessor.getObjectMapper());
+	}
+
+	/**
+	 * The plan of a mock file, compiled by the first caller and shared for the
+	 * lifetime of the JVM. Plans are kept per JsonProcessor instance, as its
+	 * mapper, base directory and intern capacity change what the file builds,
+	 * so suites sharing a plan must share the processor as well. Failures are
+	 * not cached.
+	 *
+	 * @param mockFile      mock file as passed to
+	 *                      {@link JsonProcessor#buildMockInfoObjectFromJson(String)}
+	 * @param jsonProcessor compiles the plan when it is not cached yet
+	 */
+	public static MockPlan cached(String mockFile, JsonProcessor jsonProcessor)
+			throws IOException, URISyntaxException {
+		CacheKey key = new CacheKey(mockFile, jsonProcessor);
+		MockPlan plan = CACHE.get(key);
+		if (plan == null) {
+			plan = compile(jsonProcessor.buildMockInfoObjectFromJson(mockFile), jsonProcessor);
+			MockPlan raced = CACHE.putIfAbsent(key, plan);
+			plan = raced != null ? raced : plan;
+		}
+		return plan;
+	}
+
+	/**
+	 * New service mocks, by bean name. Each call returns mocks of their own,
+	 * with their own invocation history.
+	 */
+	public Map<String, Object> newServices() {
+		Map<String, Object> serviceMap = new HashMap<>();
+		for (Service service : services) {
+			serviceMap.put(service.beanName(), Mockito.mock(service.serviceClass(),
+					Mockito.withSettings().defaultAnswer(new StubAnswer(service.stubs(), objectMapper))));
+		}
+		return serviceMap;
+	}
+
+	/**
+	 * Mock objects by id, shared by every provider made from this plan.
+	 */
+	public Map<String, Object> getObjects() {
+		return objects;
+	}
+
+	public MockLoadReport getLoadReport() {
+		return loadReport;
+	}
+
+	// the problem and its cause, as builders often wrap the actual reason
+	private static String describe(MockBuilderException problem) {
+		String description = problem.getOriginalMessage().trim();
+		return problem.getCause() != null ? description + ": " + problem.getCause().getMessage() : description;
+	}
+
+	private static Object buildObject(MockObject mockObject, MockObjectGraph graph) throws MockBuilderException {
+		if (mockObject.getFakeClass() == null) {
+			throw new MockBuilderException(
+					" Class name must be specified when defining MockObjects. Mock Object with id %s has no associated class.",
+					mockObject.getId());
+		}
+		try {
+			return graph.build(mockObject);
+		} catch (RuntimeException e) {
+			throw new MockBuilderException("Mock Object with id " + mockObject.getId() + " could not be built", e);
+		}
+	}
+
+	private static void addStub(String beanName, Class<?> serviceClass, MockMethodInfo methodInfo,
+			Compilation compilation, Map<Method, Stub> stubs) {
+		List<MockBuilderException> problems = compilation.problems();
+		if (methodInfo.getMethodName() == null) {
+			problems.add(new MockBuilderException("A method of service %s has no methodName", beanName));
+			return;
+		}
+		Method method;
+		try {
+			method = serviceClass.getMethod(methodInfo.getMethodName(), methodInfo.getMethodArguments());
+		} catch (NoSuchMethodException e) {
+			problems.add(new MockBuilderException("Method %s(%s) not found on service %s", methodInfo.getMethodName(),
+					methodInfo.getMethodArguments() != null
+							? Arrays.stream(methodInfo.getMethodArguments()).map(Class::getName)
+									.collect(Collectors.joining(", "))
+							: "",
+					beanName));
+			return;
+		}
+		MockReturnWrapper wrapper;
+		try {
+			wrapper = MockReturnWrapper.of(method, methodInfo, beanName);
+		} catch (MockBuilderException e) {
+			problems.add(e);
+			return;
+		}
+		List<MockArgumentReturn> rows = methodInfo.getArgumentReturns() != null ? methodInfo.getArgumentReturns()
+				: List.of();
+		if (methodInfo.getReturnId() == null && rows.isEmpty() && !wrapper.signalsError()) {
+			problems.add(new MockBuilderException("Method %s of service %s has no returnId", method.getName(),
+					beanName));
+			return;
+		}
+		Returns fallback = methodInfo.getReturnId() != null
+				? returns(methodInfo.getReturnId(), beanName, method, wrapper, compilation)
+				: null;
+		boolean valid = methodInfo.getReturnId() == null || fallback != null;
+		Map<List<Object>, Returns> byArguments = new HashMap<>();
+		for (MockArgumentReturn row : rows) {
+			List<Object> key = argumentKey(row, beanName, method, compilation);
+			Returns returns = null;
+			if (row.getReturnId() == null) {
+				problems.add(new MockBuilderException("Arguments %s of method %s on service %s have no returnId",
+						row.getArguments(), method.getName(), beanName));
+			} else {
+				returns = returns(row.getReturnId(), beanName, method, wrapper, compilation);
+			}
+			if (key == null || returns == null) {
+				valid = false;
+			} else if (byArguments.putIfAbsent(key, returns) != null) {
+				problems.add(new MockBuilderException("Arguments %s of method %s on service %s are listed twice",
+						row.getArguments(), method.getName(), beanName));
+				valid = false;
+			}
+		}
+		if (valid) {
+			stubs.put(method, new Stub(Map.copyOf(byArguments), fallback, wrapper));
+		}
+	}
+
+	// the objects of a comma separated returnId, or null when any of them is missing or of the wrong type
+	private static Returns returns(String returnId, String beanName, Method method, MockReturnWrapper wrapper,
+			Compilation compilation) {
+		String[] returnIds = returnId.split(",");
+		Object[] returns = new Object[returnIds.length];
+		boolean[] copies = new boolean[returnIds.length];
+		boolean valid = true;
+		for (int i = 0; i < returnIds.length; i++) {
+			returns[i] = compilation.objects().get(returnIds[i]);
+			copies[i] = compilation.copied().contains(returnIds[i]);
+			if (compilation.failed().contains(returnIds[i])) {
+				valid = false;
+			} else if (!compilation.objects().containsKey(returnIds[i])) {
+				compilation.problems().add(new MockBuilderException(
+						" Object with name %s Not Found when processing service %s and method %s", returnIds[i],
+						beanName, method.getName()));
+				valid = false;
+			} else if (!wrapper.accepts(returns[i])) {
+				compilation.problems().add(new MockBuilderException(
+						"Wrong Object Definition, Class of type %s expecting %s from Method %s ",
+						returns[i] != null ? returns[i].getClass().getName() : null, wrapper.expected(),
+						method.getName()));
+				valid = false;
+			}
+		}
+		return valid ? new Returns(returns, copies) : null;
+	}
+
+	// the table key of an argument row, its JSON values converted to the parameter types first
+	private static List<Object> argumentKey(MockArgumentReturn row, String beanName, Method method,
+			Compilation compilation) {
+		List<JsonNode> arguments = row.getArguments() != null ? row.getArguments() : List.of();
+		if (arguments.size() != method.getParameterCount()) {
+			compilation.problems().add(new MockBuilderException(
+					"Arguments %s of method %s on service %s have %d values, expecting %d", arguments,
+					method.getName(), beanName, arguments.size(), method.getParameterCount()));
+			return null;
+		}
+		ObjectMapper objectMapper = compilation.objectMapper();
+		Object[] values = new Object[arguments.size()];
+		try {
+			for (int i = 0; i < values.length; i++) {
+				values[i] = objectMapper.convertValue(arguments.get(i),
+						objectMapper.constructType(method.getGenericParameterTypes()[i]));
+			}
+			return argumentKey(values, objectMapper);
+		} catch (IllegalArgumentException e) {
+			compilation.problems().add(new MockBuilderException(String.format(
+					"Arguments %s of method %s on service %s do not match its parameter types", arguments,
+					method.getName(), beanName), e));
+			return null;
+		}
+	}
+
+	/*
+	 * Argument values as compared by the table: integral numbers as long and
+	 * floating point numbers as double, so a row written for an Object parameter
+	 * matches either, and anything but a plain JDK value by its JSON tree, so
+	 * beans without equals still match.
+	 */
+	private static List<Object> argumentKey(Object[] values, ObjectMapper objectMapper) {
+		Object[] key = new Object[values.length];
+		for (int i = 0; i < values.length; i++) {
+			key[i] = normalise(values[i], objectMapper);
+		}
+		return Arrays.asList(key);
+	}
+
+	private static Object normalise(Object value, ObjectMapper objectMapper) {
+		if (value == null || value instanceof String || value instanceof Boolean || value instanceof Character
+				|| value instanceof Enum) {
+			return value;
+		}
+		if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+			return ((Number) value).longValue();
+		}
+		if (value instanceof Double || value instanceof Float) {
+			return ((Number) value).doubleValue();
+		}
+		if (value instanceof BigDecimal decimal) {
+			return decimal.stripTrailingZeros();
+		}
+		if (!value.getClass().isArray() && !(value instanceof Collection) && !(value instanceof Map)
+				&& value.getClass().getName().startsWith("java.")) {
+			return value;
+		}
+		return objectMapper.valueToTree(value);
+	}
+
+	/**
+	 * Answers stubbed methods with their return objects in order, repeating the
+	 * last one, like {@code thenReturn}, and copies COPY objects for every call.
+	 * Each argument row keeps its own order. Objects are wrapped for reactive
+	 * methods. Other methods get Mockito's defaults.
+	 */
+	private static final class StubAnswer implements Answer<Object> {
+
+		private final Map<Method, Stub> stubs;
+		private final ObjectMapper objectMapper;
+		// calls of returnIds with more than one return object
+		private final Map<Returns, AtomicInteger> calls = new ConcurrentHashMap<>();
+
+		private StubAnswer(Map<Method, Stub> stubs, ObjectMapper objectMapper) {
+			this.stubs = stubs;
+			this.objectMapper = objectMapper;
+		}
+
+		@Override
+		public Object answer(InvocationOnMock invocation) throws Throwable {
+			Stub stub = stubs.get(invocation.getMethod());
+			Returns returns = stub != null ? stub.fallback() : null;
+			if (stub != null && !stub.byArguments().isEmpty()) {
+				Returns row = null;
+				try {
+					// raw arguments, so varargs are a single array as in the rows
+					row = stub.byArguments().get(argumentKey(invocation.getRawArguments(), objectMapper));
+				} catch (IllegalArgumentException e) {
+					// an argument Jackson cannot serialize matches no row
+				}
+				returns = row != null ? row : returns;
+			}
+			if (returns == null) {
+				return stub != null && stub.wrapper().signalsError() ? stub.wrapper().wrap(null)
+						: Mockito.RETURNS_DEFAULTS.answer(invocation);
+			}
+			int index = 0;
+			if (returns.objects().length > 1) {
+				int call = calls.computeIfAbsent(returns, key -> new AtomicInteger()).getAndIncrement();
+				index = Math.min(call, returns.objects().length - 1);
+			}
+			return stub.wrapper().wrap(returns.copied()[index] ? MockObjectCopier.copy(returns.objects()[index])
+					: returns.objects()[index]);
+		}
+	}
+}
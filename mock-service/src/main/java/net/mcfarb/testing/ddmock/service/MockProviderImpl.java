@@ -27,6 +27,7 @@ import net.mcfarb.testing.ddmock.model.MockGeneratorInfo;
 import net.mcfarb.testing.ddmock.model.MockMethodInfo;
 import net.mcfarb.testing.ddmock.model.MockObject;
 import net.mcfarb.testing.ddmock.model.MockServiceInfo;
+import net.mcfarb.testing.ddmock.startup.MockLoadReport;
 import reactor.core.publisher.Mono;
 
 @Slf4j
@@ -45,6 +46,8 @@ public class MockProviderImpl<T extends TestParent, S> implements BeanProvider<T
 
     boolean initialized = false;
 
+    MockLoadReport loadReport;
+
     public S getBean(String beanName) {
         if (!initialized) {
             throw new BeanInitializationException(
@@ -57,6 +60,10 @@ public class MockProviderImpl<T extends TestParent, S> implements BeanProvider<T
         return bean;
     }
 
+    /**
+     * Compiles the config into a {@link MockPlan} and creates its mocks. Every
+     * problem of the config is reported at once.
+     */
     public void initialize(MockGeneratorInfo mockGeneratorInfo) throws BeanInitializationException {
         if (initialized) {
             log.warn("MockProviderImpl is already initialized. Skipping initialization.");
@@ -65,14 +72,40 @@ public class MockProviderImpl<T extends TestParent, S> implements BeanProvider<T
         if (mockGeneratorInfo == null) {
             throw new BeanInitializationException("MockGeneratorInfo cannot be null");
         }
-        // build objects from MockObject definitions
-        mockGeneratorInfo.getMockObjects().stream().forEach(buildObject);
-        // build services from MockServiceInfo definitions
-        mockGeneratorInfo.getMockServices().stream().forEach(buildMock);
+        try {
+            initialize(MockPlan.compile(mockGeneratorInfo, jsonProcessor));
+            log.debug("Mock load report {}", loadReport.summary());
+        } catch (MockBuilderException e) {
+            throw new BeanInitializationException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Creates the mocks of an already compiled plan, e.g. one shared by a test
+     * suite through {@link MockPlan#cached(String, JsonProcessor)}. The plan's
+     * objects are shared, not copied.
+     */
+    @SuppressWarnings("unchecked")
+    public void initialize(MockPlan plan) {
+        if (initialized) {
+            log.warn("MockProviderImpl is already initialized. Skipping initialization.");
+            return;
+        }
+        objectMap = plan.getObjects();
+        serviceMap = (Map<String, S>) plan.newServices();
+        loadReport = plan.getLoadReport();
 
         initialized = true;
     }
 
+    /**
+     * Startup timings for the configuration this provider was initialized with,
+     * or null before initialization.
+     */
+    public MockLoadReport getLoadReport() {
+        return loadReport;
+    }
+
     // build objects from MockObject definitions
     public Consumer<MockObject> buildObject = (mockObject) -> {
         try {
@@ -93,6 +126,12 @@ public class MockProviderImpl<T extends TestParent, S> implements BeanProvider<T
 
     public BiConsumer<String, MockMethodInfo> mockMethods = (beanName, mockMethod) -> {
         try {
+            if (mockMethod.getArgumentReturns() != null && !mockMethod.getArgumentReturns().isEmpty()) {
+                // Mockito stubbing here matches any arguments, only MockPlan has argument tables
+                throw new MockBuilderException(
+                        "argumentReturns of method %s are not supported by %s, use MockProviderImpl.initialize",
+                        mockMethod.getMethodName(), "mockMethods");
+            }
             S mockedService = serviceMap.get(beanName);
             Class<?>[] arguments = mockMethod.getMethodArguments();
             Method method = mockedService.getClass().getMethod(mockMethod.getMethodName(), arguments);
@@ -0,0 +1,134 @@
+package net.mcfarb.testing.ddmock.service;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.UnaryOperator;
+
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Read-only views of mock objects, for objects with
+ * {@link net.mcfarb.testing.ddmock.model.MockIsolation#READ_ONLY}.
+ *
+ * A view is built once, when the object is loaded, and returned to every
+ * caller, so it costs nothing per return. Collections and maps become
+ * unmodifiable collections of views. Records are rebuilt with views as their
+ * components. Any other object becomes a Mockito proxy of its own class that
+ * holds views as its field values. Its setters and other void methods throw
+ * UnsupportedOperationException, and its other methods run as usual.
+ * Arrays, dates and JsonNodes returned by its methods are copied on every
+ * call.
+ *
+ * Public fields can still be assigned, and arrays or dates held directly in
+ * a collection are not protected, use COPY for such objects.
+ */
+public final class MockReadOnlyView {
+
+	private static final Answer<Object> READ_ONLY = MockReadOnlyView::answer;
+
+	private MockReadOnlyView() {
+	}
+
+	/**
+	 * A read-only view of the object. The object itself is left as it is.
+	 *
+	 * @throws IllegalArgumentException when the object is an array, date or
+	 *                                  JsonNode, which have no view
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T of(T object) {
+		if (object != null && MockObjectCopier.isLeaf(object.getClass())) {
+			throw new IllegalArgumentException(object.getClass().getName()
+					+ " cannot be made read-only, use COPY isolation instead");
+		}
+		return (T) new Views().apply(object);
+	}
+
+	private static Object answer(InvocationOnMock invocation) throws Throwable {
+		Method method = invocation.getMethod();
+		if (method.getReturnType() == void.class
+				|| (method.getName().startsWith("set") && method.getParameterCount() > 0)) {
+			throw new UnsupportedOperationException(method.getDeclaringClass().getSimpleName() + "."
+					+ method.getName() + " is not allowed on a read-only mock object, use COPY isolation instead");
+		}
+		Object result = invocation.callRealMethod();
+		return result != null && MockObjectCopier.isLeaf(result.getClass()) ? MockObjectCopier.copy(result)
+				: result;
+	}
+
+	private static final class Views implements UnaryOperator<Object> {
+
+		private final IdentityHashMap<Object, Object> views = new IdentityHashMap<>();
+
+		@Override
+		public Object apply(Object value) {
+			if (value == null || MockObjectCopier.isShared(value.getClass())) {
+				return value;
+			}
+			// held by a proxy, which copies them again for every caller
+			if (MockObjectCopier.isLeaf(value.getClass())) {
+				return MockObjectCopier.copy(value);
+			}
+			Object view = views.get(value);
+			return view != null ? view : viewOf(value);
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private Object viewOf(Object value) {
+			if (value instanceof List<?> list) {
+				List<Object> elements = new ArrayList<>(list.size());
+				list.forEach(element -> elements.add(apply(element)));
+				return Collections.unmodifiableList(elements);
+			}
+			if (value instanceof SortedSet<?> set) {
+				SortedSet<Object> elements = new TreeSet<>((Comparator<Object>) set.comparator());
+				set.forEach(element -> elements.add(apply(element)));
+				return Collections.unmodifiableSortedSet(elements);
+			}
+			if (value instanceof Set<?> set) {
+				Set<Object> elements = new LinkedHashSet<>();
+				set.forEach(element -> elements.add(apply(element)));
+				return Collections.unmodifiableSet(elements);
+			}
+			if (value instanceof Collection<?> collection) {
+				List<Object> elements = new ArrayList<>(collection.size());
+				collection.forEach(element -> elements.add(apply(element)));
+				return Collections.unmodifiableCollection(elements);
+			}
+			if (value instanceof SortedMap<?, ?> map) {
+				SortedMap<Object, Object> entries = new TreeMap<>((Comparator<Object>) map.comparator());
+				map.forEach((key, entry) -> entries.put(apply(key), apply(entry)));
+				return Collections.unmodifiableSortedMap(entries);
+			}
+			if (value instanceof Map<?, ?> map) {
+				Map<Object, Object> entries = new LinkedHashMap<>();
+				map.forEach((key, entry) -> entries.put(apply(key), apply(entry)));
+				return Collections.unmodifiableMap(entries);
+			}
+			if (value.getClass().isRecord()) {
+				return MockObjectCopier.copyRecord(value, this);
+			}
+			Object proxy = Mockito.mock((Class) value.getClass(),
+					Mockito.withSettings().defaultAnswer(READ_ONLY).stubOnly());
+			// registered before its fields, so cycles end at the proxy
+			views.put(value, proxy);
+			MockObjectCopier.copyFields(value, proxy, this);
+			return proxy;
+		}
+	}
+}
@@ -0,0 +1,161 @@
+package net.mcfarb.testing.ddmock.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.std.DelegatingDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.type.ArrayType;
+import com.fasterxml.jackson.databind.type.CollectionLikeType;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import com.fasterxml.jackson.databind.type.MapLikeType;
+import com.fasterxml.jackson.databind.type.MapType;
+import com.fasterxml.jackson.databind.type.ReferenceType;
+
+/**
+ * Replaces {@code {"$ref": "id"}} values with the instances of a
+ * {@link MockObjectGraph} while binding an objectValue.
+ *
+ * Every deserializer is wrapped, so a reference can stand for any value: a
+ * bean, a property, a list element, a map value or the whole object. The graph
+ * is passed as the {@link MockObjectGraph} attribute of the reader. An object
+ * is a reference when its first field is {@code $ref}, in which case it must
+ * be its only field.
+ */
+final class MockRefDeserializer extends DelegatingDeserializer {
+
+	private static final long serialVersionUID = 1L;
+
+	private final JavaType type;
+
+	private MockRefDeserializer(JsonDeserializer<?> delegate, JavaType type) {
+		super(delegate);
+		this.type = type;
+	}
+
+	/**
+	 * Module wrapping the deserializers of a mapper.
+	 */
+	static SimpleModule module() {
+		SimpleModule module = new SimpleModule("MockRefModule");
+		module.setDeserializerModifier(new BeanDeserializerModifier() {
+			@Override
+			public JsonDeserializer<?> modifyDeserializer(DeserializationConfig config, BeanDescription beanDesc,
+					JsonDeserializer<?> deserializer) {
+				return new MockRefDeserializer(deserializer, beanDesc.getType());
+			}
+
+			@Override
+			public JsonDeserializer<?> modifyCollectionDeserializer(DeserializationConfig config,
+					CollectionType type, BeanDescription beanDesc, JsonDeserializer<?> deserializer) {
+				return new MockRefDeserializer(deserializer, type);
+			}
+
+			@Override
+			public JsonDeserializer<?> modifyCollectionLikeDeserializer(DeserializationConfig config,
+					CollectionLikeType type, BeanDescription beanDesc, JsonDeserializer<?> deserializer) {
+				return new MockRefDeserializer(deserializer, type);
+			}
+
+			@Override
+			public JsonDeserializer<?> modifyMapDeserializer(DeserializationConfig config, MapType type,
+					BeanDescription beanDesc, JsonDeserializer<?> deserializer) {
+				return new MockRefDeserializer(deserializer, type);
+			}
+
+			@Override
+			public JsonDeserializer<?> modifyMapLikeDeserializer(DeserializationConfig config, MapLikeType type,
+					BeanDescription beanDesc, JsonDeserializer<?> deserializer) {
+				return new MockRefDeserializer(deserializer, type);
+			}
+
+			@Override
+			public JsonDeserializer<?> modifyArrayDeserializer(DeserializationConfig config, ArrayType type,
+					BeanDescription beanDesc, JsonDeserializer<?> deserializer) {
+				return new MockRefDeserializer(deserializer, type);
+			}
+
+			@Override
+			public JsonDeserializer<?> modifyReferenceDeserializer(DeserializationConfig config,
+					ReferenceType type, BeanDescription beanDesc, JsonDeserializer<?> deserializer) {
+				return new MockRefDeserializer(deserializer, type);
+			}
+		});
+		return module;
+	}
+
+	@Override
+	protected JsonDeserializer<?> newDelegatingInstance(JsonDeserializer<?> newDelegatee) {
+		return new MockRefDeserializer(newDelegatee, type);
+	}
+
+	@Override
+	public Object deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+		MockObjectGraph graph = (MockObjectGraph) ctxt.getAttribute(MockObjectGraph.class);
+		if (graph == null) {
+			return _delegatee.deserialize(p, ctxt);
+		}
+		if (p.isExpectedStartObjectToken()) {
+			if (MockObjectGraph.REF.equals(p.nextFieldName())) {
+				return reference(p, ctxt, graph);
+			}
+			// deserializers accept starting at the first field name, or at the end of an empty object
+		}
+		if (type.hasRawClass(Object.class)) {
+			// untyped maps and lists read nested values themselves, without going through this wrapper
+			return untyped(p, ctxt, graph);
+		}
+		return _delegatee.deserialize(p, ctxt);
+	}
+
+	private Object reference(JsonParser p, DeserializationContext ctxt, MockObjectGraph graph) throws IOException {
+		if (p.nextToken() != JsonToken.VALUE_STRING) {
+			return ctxt.reportInputMismatch(this, "%s must be a string, the id of a mock object", MockObjectGraph.REF);
+		}
+		String ref = p.getText();
+		if (p.nextToken() != JsonToken.END_OBJECT) {
+			return ctxt.reportInputMismatch(this, "%s %s must be the only field of its object", MockObjectGraph.REF,
+					ref);
+		}
+		return graph.resolve(ref, type);
+	}
+
+	// the maps, lists and scalars the untyped deserializer would produce, with references resolved
+	private Object untyped(JsonParser p, DeserializationContext ctxt, MockObjectGraph graph) throws IOException {
+		JsonToken token = p.currentToken();
+		if (token == JsonToken.START_OBJECT) {
+			token = p.nextToken();
+			if (token == JsonToken.FIELD_NAME && MockObjectGraph.REF.equals(p.currentName())) {
+				return reference(p, ctxt, graph);
+			}
+		}
+		if (token == JsonToken.FIELD_NAME || token == JsonToken.END_OBJECT) {
+			Map<String, Object> map = new LinkedHashMap<>();
+			for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+				String name = p.currentName();
+				p.nextToken();
+				map.put(name, untyped(p, ctxt, graph));
+			}
+			return map;
+		}
+		if (token == JsonToken.START_ARRAY) {
+			List<Object> list = new ArrayList<>();
+			while (p.nextToken() != JsonToken.END_ARRAY) {
+				list.add(untyped(p, ctxt, graph));
+			}
+			return list;
+		}
+		return _delegatee.deserialize(p, ctxt);
+	}
+}
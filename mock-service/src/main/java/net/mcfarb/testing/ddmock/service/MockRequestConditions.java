@@ -0,0 +1,192 @@
+package net.mcfarb.testing.ddmock.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import net.mcfarb.testing.ddmock.model.MockRestMethodInfo;
+
+/**
+ * The request header conditions of a route, compiled when the route is loaded
+ * from its requestHeaders, authorizationScheme, consumes and produces.
+ *
+ * Every condition is a key and a normalized value, which the request's value
+ * for that key must equal. {@link MockRouteTable} indexes the variants of a
+ * route by their first condition, so choosing among them takes one hash
+ * lookup of the request's value per key. Produces comes last, as an Accept
+ * header with wildcards cannot be looked up by hash.
+ *
+ * Headers are read through a function from header name to the first value of
+ * that header, which must ignore the case of the name.
+ */
+public final class MockRequestConditions {
+
+	public static final String CONSUMES = "content-type";
+	public static final String PRODUCES = "accept";
+	public static final String AUTHORIZATION_SCHEME = "authorization-scheme";
+	private static final String HEADER_PREFIX = "header:";
+
+	private static final List<MediaType> ANY = List.of(MediaType.ALL);
+
+	/**
+	 * @param key   {@link #CONSUMES}, {@link #PRODUCES},
+	 *              {@link #AUTHORIZATION_SCHEME} or header:{lower case name}
+	 * @param value required value; media types and schemes in lower case,
+	 *              header values as configured
+	 */
+	public record Condition(String key, String value) {
+	}
+
+	private final List<Condition> conditions;
+	private final MediaType produces;
+
+	private MockRequestConditions(List<Condition> conditions, MediaType produces) {
+		this.conditions = conditions;
+		this.produces = produces;
+	}
+
+	/**
+	 * @return the route's conditions, or null when it has none
+	 * @throws IllegalArgumentException when a media type is invalid or not
+	 *                                  concrete
+	 */
+	public static MockRequestConditions compile(MockRestMethodInfo method) {
+		List<Condition> conditions = new ArrayList<>();
+		if (method.getRequestHeaders() != null) {
+			for (Map.Entry<String, String> header : method.getRequestHeaders().entrySet()) {
+				conditions.add(new Condition(HEADER_PREFIX + header.getKey().toLowerCase(Locale.ROOT),
+						header.getValue()));
+			}
+		}
+		if (method.getAuthorizationScheme() != null) {
+			conditions.add(new Condition(AUTHORIZATION_SCHEME,
+					method.getAuthorizationScheme().toLowerCase(Locale.ROOT)));
+		}
+		if (method.getConsumes() != null) {
+			conditions.add(new Condition(CONSUMES, typeAndSubtype(concrete(method.getConsumes()))));
+		}
+		MediaType produces = null;
+		if (method.getProduces() != null) {
+			produces = concrete(method.getProduces());
+			conditions.add(new Condition(PRODUCES, typeAndSubtype(produces)));
+		}
+		return conditions.isEmpty() ? null : new MockRequestConditions(List.copyOf(conditions), produces);
+	}
+
+	public List<Condition> getConditions() {
+		return conditions;
+	}
+
+	/**
+	 * The condition routes are indexed by.
+	 */
+	public Condition getIndexCondition() {
+		return conditions.get(0);
+	}
+
+	/**
+	 * Media type the route produces, or null.
+	 */
+	public MediaType getProduces() {
+		return produces;
+	}
+
+	public boolean matches(Function<String, String> headers) {
+		return matches(headers, produces != null ? acceptedTypes(headers) : ANY);
+	}
+
+	/**
+	 * @param accepted the request's {@link #acceptedTypes}, parsed once per
+	 *                 request by callers checking many routes
+	 */
+	public boolean matches(Function<String, String> headers, List<MediaType> accepted) {
+		for (Condition condition : conditions) {
+			boolean matches = PRODUCES.equals(condition.key()) ? accepts(accepted, produces)
+					: condition.value().equals(requestValue(condition.key(), headers));
+			if (!matches) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * True when a range includes {@code mediaType} and no range with quality 0
+	 * excludes it.
+	 */
+	public static boolean accepts(List<MediaType> accepted, MediaType mediaType) {
+		boolean included = false;
+		for (MediaType range : accepted) {
+			if (range.includes(mediaType)) {
+				if (range.getQualityValue() == 0) {
+					return false;
+				}
+				included = true;
+			}
+		}
+		return included;
+	}
+
+	/**
+	 * The request's value for a condition key other than {@link #PRODUCES}, in
+	 * the form of {@link Condition#value()}, or null when the request has none.
+	 */
+	public static String requestValue(String key, Function<String, String> headers) {
+		if (headers == null) {
+			return null;
+		}
+		if (key.startsWith(HEADER_PREFIX)) {
+			return headers.apply(key.substring(HEADER_PREFIX.length()));
+		}
+		if (AUTHORIZATION_SCHEME.equals(key)) {
+			String authorization = headers.apply("Authorization");
+			if (authorization == null) {
+				return null;
+			}
+			int space = authorization.indexOf(' ');
+			return (space < 0 ? authorization : authorization.substring(0, space)).toLowerCase(Locale.ROOT);
+		}
+		if (CONSUMES.equals(key)) {
+			String contentType = headers.apply("Content-Type");
+			try {
+				return contentType != null ? typeAndSubtype(MediaType.parseMediaType(contentType)) : null;
+			} catch (InvalidMediaTypeException e) {
+				return null;
+			}
+		}
+		throw new IllegalArgumentException("Unknown request condition " + key);
+	}
+
+	/**
+	 * Media ranges of the request's Accept header, any type when it has none or
+	 * it cannot be parsed.
+	 */
+	public static List<MediaType> acceptedTypes(Function<String, String> headers) {
+		String accept = headers != null ? headers.apply("Accept") : null;
+		if (accept == null || accept.isBlank()) {
+			return ANY;
+		}
+		try {
+			return MediaType.parseMediaTypes(accept);
+		} catch (InvalidMediaTypeException e) {
+			return ANY;
+		}
+	}
+
+	public static String typeAndSubtype(MediaType mediaType) {
+		return (mediaType.getType() + "/" + mediaType.getSubtype()).toLowerCase(Locale.ROOT);
+	}
+
+	private static MediaType concrete(String mediaType) {
+		MediaType parsed = MediaType.parseMediaType(mediaType);
+		if (!parsed.isConcrete()) {
+			throw new IllegalArgumentException("Media type " + mediaType + " must not contain wildcards");
+		}
+		return parsed;
+	}
+}
@@ -0,0 +1,370 @@
+package net.mcfarb.testing.ddmock.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import net.mcfarb.testing.ddmock.model.MockResourceInfo;
+
+/**
+ * In-memory records behind a {@link MockResourceInfo} resource.
+ *
+ * Records are JSON objects keyed by their id field in a ConcurrentHashMap.
+ * Every write goes through {@code compute} on its own key, so writers to
+ * different records never contend on a shared lock, and the secondary indexes
+ * (field value to ids, one concurrent map per indexed field) are updated
+ * under the same per-key lock as the record, each index entry changing
+ * atomically through {@code compute}. Readers never lock. An index may
+ * briefly list an id whose record is changing, so filtered lists re-check
+ * every candidate against the record itself.
+ *
+ * Stored records are never modified, writes replace them, so records returned
+ * here must not be modified either.
+ */
+public class MockResourceStore {
+
+	private record Entry(long sequence, ObjectNode record) {
+	}
+
+	private final String name;
+	private final String idField;
+	private final List<ObjectNode> seed;
+	private final Map<String, JsonPointer> indexedFields = new HashMap<>();
+
+	private final ConcurrentHashMap<String, Entry> records = new ConcurrentHashMap<>();
+	private final Map<String, ConcurrentHashMap<String, Set<String>>> indexes = new HashMap<>();
+	private final Map<String, List<ObjectNode>> snapshots = new ConcurrentHashMap<>();
+	private final AtomicLong nextId = new AtomicLong();
+	private final AtomicLong sequence = new AtomicLong();
+
+	/**
+	 * @param seed initial records, each converted to a JSON object
+	 */
+	public MockResourceStore(String name, MockResourceInfo info, Collection<?> seed, ObjectMapper objectMapper) {
+		this.name = name;
+		this.idField = info.getIdField();
+		for (String field : info.getIndexes()) {
+			indexedFields.put(field, pointer(field));
+			indexes.put(field, new ConcurrentHashMap<>());
+		}
+		List<ObjectNode> records = new ArrayList<>();
+		if (seed != null) {
+			for (Object value : seed) {
+				records.add(toRecord(objectMapper.valueToTree(value)));
+			}
+		}
+		this.seed = List.copyOf(records);
+		load(this.seed);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int size() {
+		return records.size();
+	}
+
+	/**
+	 * Records whose fields equal every filter value, in creation order. Indexed
+	 * fields are looked up, others are compared record by record.
+	 *
+	 * @param filters field (dotted for nested fields) to expected value
+	 */
+	public List<ObjectNode> list(Map<String, String> filters) {
+		Map<String, List<String>> allOf = new HashMap<>();
+		if (filters != null) {
+			filters.forEach((field, value) -> allOf.put(field, List.of(value)));
+		}
+		return filter(allOf);
+	}
+
+	/**
+	 * Records matching a request's query parameters, in creation order.
+	 * Parameters that name a field no record has, e.g. paging or cache busting
+	 * parameters, are ignored. A repeated parameter matches any of its values.
+	 *
+	 * @param parameters every value of each query parameter, may be null
+	 */
+	public List<ObjectNode> query(Map<String, List<String>> parameters) {
+		Map<String, List<String>> filters = new HashMap<>();
+		if (parameters != null) {
+			parameters.forEach((field, values) -> {
+				if (values != null && !values.isEmpty() && isField(field)) {
+					filters.put(field, values);
+				}
+			});
+		}
+		return filter(filters);
+	}
+
+	private List<ObjectNode> filter(Map<String, List<String>> filters) {
+		Collection<String> candidates = null;
+		for (Map.Entry<String, List<String>> filter : filters.entrySet()) {
+			ConcurrentHashMap<String, Set<String>> index = indexes.get(filter.getKey());
+			if (index != null) {
+				Collection<String> ids = indexed(index, filter.getValue());
+				if (candidates == null || ids.size() < candidates.size()) {
+					candidates = ids;
+				}
+			}
+		}
+
+		List<Entry> matches = new ArrayList<>();
+		if (candidates == null) {
+			records.values().forEach(entry -> addIfMatches(entry, filters, matches));
+		} else {
+			for (String id : candidates) {
+				Entry entry = records.get(id);
+				if (entry != null) {
+					addIfMatches(entry, filters, matches);
+				}
+			}
+		}
+		matches.sort(Comparator.comparingLong(Entry::sequence));
+		return matches.stream().map(Entry::record).toList();
+	}
+
+	private static Collection<String> indexed(ConcurrentHashMap<String, Set<String>> index, List<String> values) {
+		if (values.size() == 1) {
+			return index.getOrDefault(values.get(0), Set.of());
+		}
+		Set<String> ids = new HashSet<>();
+		values.forEach(value -> ids.addAll(index.getOrDefault(value, Set.of())));
+		return ids;
+	}
+
+	// true when some record has a value at the field
+	private boolean isField(String field) {
+		ConcurrentHashMap<String, Set<String>> index = indexes.get(field);
+		if (index != null) {
+			return !index.isEmpty();
+		}
+		JsonPointer pointer = pointer(field);
+		return records.values().stream().anyMatch(entry -> valueAt(entry.record(), pointer) != null);
+	}
+
+	public ObjectNode get(String id) {
+		Entry entry = id != null ? records.get(id) : null;
+		return entry != null ? entry.record() : null;
+	}
+
+	/**
+	 * Adds a record. A record without an id gets the next free numeric id.
+	 *
+	 * @return the stored record, or null when a record with its id exists
+	 * @throws IllegalArgumentException when the body is not a JSON object
+	 */
+	public ObjectNode create(JsonNode body) {
+		ObjectNode record = toRecord(body);
+		String id = idOf(record);
+		Entry[] created = new Entry[1];
+		records.compute(id, (key, existing) -> {
+			if (existing != null) {
+				return existing;
+			}
+			created[0] = new Entry(sequence.incrementAndGet(), record);
+			index(key, null, record);
+			return created[0];
+		});
+		return created[0] != null ? record : null;
+	}
+
+	/**
+	 * Replaces a record. The id in the path wins over one in the body.
+	 *
+	 * @return the stored record, or null when there is no such record
+	 */
+	public ObjectNode replace(String id, JsonNode body) {
+		ObjectNode replacement = toObject(body);
+		return write(id, existing -> {
+			ObjectNode record = replacement.deepCopy();
+			record.set(idField, existing.get(idField));
+			return record;
+		});
+	}
+
+	/**
+	 * Sets the fields present in {@code body} on a record, leaving others as
+	 * they are.
+	 *
+	 * @return the stored record, or null when there is no such record
+	 */
+	public ObjectNode update(String id, JsonNode body) {
+		ObjectNode changes = toObject(body);
+		return write(id, existing -> {
+			ObjectNode record = existing.deepCopy();
+			changes.properties().forEach(field -> {
+				if (!field.getKey().equals(idField)) {
+					record.set(field.getKey(), field.getValue().deepCopy());
+				}
+			});
+			return record;
+		});
+	}
+
+	/**
+	 * @return false when there was no such record
+	 */
+	public boolean delete(String id) {
+		if (id == null) {
+			return false;
+		}
+		boolean[] deleted = new boolean[1];
+		records.computeIfPresent(id, (key, existing) -> {
+			index(key, existing.record(), null);
+			deleted[0] = true;
+			return null;
+		});
+		return deleted[0];
+	}
+
+	/**
+	 * Puts the records back to the seed.
+	 */
+	public void reset() {
+		load(seed);
+	}
+
+	/**
+	 * Saves the current records under {@code snapshotName}, replacing an earlier
+	 * snapshot with that name.
+	 */
+	public void snapshot(String snapshotName) {
+		snapshots.put(snapshotName, list(null));
+	}
+
+	/**
+	 * Puts the records back to a saved snapshot.
+	 *
+	 * @return false when there is no such snapshot
+	 */
+	public boolean restore(String snapshotName) {
+		List<ObjectNode> snapshot = snapshots.get(snapshotName);
+		if (snapshot == null) {
+			return false;
+		}
+		load(snapshot);
+		return true;
+	}
+
+	// meant to run between tests, concurrent writes may survive it
+	private void load(List<ObjectNode> content) {
+		for (String id : records.keySet()) {
+			delete(id);
+		}
+		long maxId = 0;
+		for (ObjectNode record : content) {
+			String id = idOf(record);
+			records.compute(id, (key, existing) -> {
+				index(key, existing != null ? existing.record() : null, record);
+				return new Entry(sequence.incrementAndGet(), record);
+			});
+			maxId = Math.max(maxId, numericId(id));
+		}
+		nextId.set(maxId);
+	}
+
+	private ObjectNode write(String id, UnaryOperator<ObjectNode> change) {
+		if (id == null) {
+			return null;
+		}
+		Entry updated = records.computeIfPresent(id, (key, existing) -> {
+			ObjectNode record = change.apply(existing.record());
+			index(key, existing.record(), record);
+			return new Entry(existing.sequence(), record);
+		});
+		return updated != null ? updated.record() : null;
+	}
+
+	// caller holds the record's lock
+	private void index(String id, ObjectNode before, ObjectNode after) {
+		indexedFields.forEach((field, pointer) -> {
+			String oldValue = before != null ? valueAt(before, pointer) : null;
+			String newValue = after != null ? valueAt(after, pointer) : null;
+			if (Objects.equals(oldValue, newValue)) {
+				return;
+			}
+			ConcurrentHashMap<String, Set<String>> index = indexes.get(field);
+			if (oldValue != null) {
+				index.computeIfPresent(oldValue, (value, ids) -> {
+					ids.remove(id);
+					return ids.isEmpty() ? null : ids;
+				});
+			}
+			if (newValue != null) {
+				// added inside compute, a set emptied and removed concurrently could otherwise swallow the id
+				index.compute(newValue, (value, ids) -> {
+					ids = ids != null ? ids : ConcurrentHashMap.newKeySet();
+					ids.add(id);
+					return ids;
+				});
+			}
+		});
+	}
+
+	private void addIfMatches(Entry entry, Map<String, List<String>> filters, List<Entry> matches) {
+		for (Map.Entry<String, List<String>> filter : filters.entrySet()) {
+			JsonPointer pointer = indexedFields.getOrDefault(filter.getKey(), pointer(filter.getKey()));
+			String value = valueAt(entry.record(), pointer);
+			if (value == null || !filter.getValue().contains(value)) {
+				return;
+			}
+		}
+		matches.add(entry);
+	}
+
+	private ObjectNode toRecord(JsonNode body) {
+		ObjectNode record = toObject(body).deepCopy();
+		JsonNode id = record.get(idField);
+		if (id == null || id.isNull()) {
+			record.put(idField, nextId.incrementAndGet());
+		} else {
+			// keep generated ids clear of explicit numeric ones
+			nextId.accumulateAndGet(numericId(id.asText()), Math::max);
+		}
+		return record;
+	}
+
+	private ObjectNode toObject(JsonNode body) {
+		if (body == null || !body.isObject()) {
+			throw new IllegalArgumentException(name + " records must be JSON objects");
+		}
+		return (ObjectNode) body;
+	}
+
+	private String idOf(ObjectNode record) {
+		return record.get(idField).asText();
+	}
+
+	private static long numericId(String id) {
+		try {
+			return Long.parseLong(id);
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	private static String valueAt(JsonNode record, JsonPointer pointer) {
+		JsonNode value = record.at(pointer);
+		return value.isMissingNode() || value.isNull() ? null : value.asText();
+	}
+
+	private static JsonPointer pointer(String field) {
+		return JsonPointer.compile("/" + field.replace('.', '/'));
+	}
+}
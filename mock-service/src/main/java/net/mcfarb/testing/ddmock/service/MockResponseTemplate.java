@@ -0,0 +1,217 @@
+package net.mcfarb.testing.ddmock.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * A templated response body, compiled when its mock object is loaded.
+ *
+ * The body text is split at its placeholders into literal chunks, encoded to
+ * UTF-8 once, and slots that each produce one placeholder's value. Rendering
+ * writes the chunks and the values of the current request in turn into a
+ * buffer reused by the rendering thread, so no JSON tree is built or
+ * serialized per request. In JSON bodies placeholders can only appear in
+ * strings, and their values are escaped as JSON string content.
+ *
+ * Placeholders:
+ * - {{path.name}}: the {name} segment of the request path
+ * - {{query.name}}: first value of a query parameter
+ * - {{body.a.b}}: a field of the JSON request body, array elements by index
+ *   as in {{body.items.0.sku}}, objects and arrays as JSON text
+ * - {{now}}: the current instant in ISO-8601
+ * - {{seq}}: a counter of this template's renders, starting at 1
+ *
+ * Values the request does not have render as an empty string.
+ */
+public final class MockResponseTemplate {
+
+	private static final ObjectMapper BODY_READER = new ObjectMapper();
+
+	private static final String OPEN = "{{";
+	private static final String CLOSE = "}}";
+
+	// buffers growing past this are not kept for the next render
+	private static final int MAX_POOLED_SIZE = 256 * 1024;
+
+	private static final ThreadLocal<Buffer> BUFFERS = ThreadLocal.withInitial(Buffer::new);
+
+	// the values one render reads
+	private final class Request {
+		private final Map<String, String> pathParameters;
+		private final Map<String, List<String>> queryParams;
+		private final JsonNode body;
+		private String seq;
+
+		Request(Map<String, String> pathParameters, Map<String, List<String>> queryParams, JsonNode body) {
+			this.pathParameters = pathParameters;
+			this.queryParams = queryParams;
+			this.body = body;
+		}
+
+		// every {{seq}} of one render has the same value
+		String seq() {
+			if (seq == null) {
+				seq = String.valueOf(sequence.incrementAndGet());
+			}
+			return seq;
+		}
+	}
+
+	@FunctionalInterface
+	private interface Slot {
+		// null when the request has no value
+		String value(Request request);
+	}
+
+	private static final class Buffer {
+		private byte[] bytes = new byte[1024];
+		private int length;
+
+		void write(byte[] chunk) {
+			if (length + chunk.length > bytes.length) {
+				bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + chunk.length));
+			}
+			System.arraycopy(chunk, 0, bytes, length, chunk.length);
+			length += chunk.length;
+		}
+	}
+
+	// literals has one more element than slots, written around them
+	private final byte[][] literals;
+	private final Slot[] slots;
+	private final boolean json;
+	private final boolean readsBody;
+	private final AtomicLong sequence = new AtomicLong();
+
+	private MockResponseTemplate(byte[][] literals, Slot[] slots, boolean json, boolean readsBody) {
+		this.literals = literals;
+		this.slots = slots;
+		this.json = json;
+		this.readsBody = readsBody;
+	}
+
+	/**
+	 * @param text body text with placeholders
+	 * @param json true when {@code text} is JSON, whose placeholder values must
+	 *             be escaped
+	 * @throws IllegalArgumentException when a placeholder is unknown or not
+	 *                                  closed
+	 */
+	public static MockResponseTemplate compile(String text, boolean json) {
+		List<byte[]> literals = new ArrayList<>();
+		List<Slot> slots = new ArrayList<>();
+		boolean readsBody = false;
+		int position = 0;
+		int open;
+		while ((open = text.indexOf(OPEN, position)) >= 0) {
+			int close = text.indexOf(CLOSE, open + OPEN.length());
+			if (close < 0) {
+				throw new IllegalArgumentException("Placeholder at " + open + " is not closed with " + CLOSE);
+			}
+			String name = text.substring(open + OPEN.length(), close).trim();
+			literals.add(text.substring(position, open).getBytes(StandardCharsets.UTF_8));
+			slots.add(slot(name));
+			readsBody |= name.startsWith("body.");
+			position = close + CLOSE.length();
+		}
+		literals.add(text.substring(position).getBytes(StandardCharsets.UTF_8));
+		return new MockResponseTemplate(literals.toArray(byte[][]::new), slots.toArray(Slot[]::new), json,
+				readsBody);
+	}
+
+	private static Slot slot(String name) {
+		if ("now".equals(name)) {
+			return request -> Instant.now().toString();
+		}
+		if ("seq".equals(name)) {
+			return Request::seq;
+		}
+		if (name.startsWith("path.") && name.length() > 5) {
+			String parameter = name.substring(5);
+			return request -> request.pathParameters != null ? request.pathParameters.get(parameter) : null;
+		}
+		if (name.startsWith("query.") && name.length() > 6) {
+			String parameter = name.substring(6);
+			return request -> {
+				List<String> values = request.queryParams != null ? request.queryParams.get(parameter) : null;
+				return values != null && !values.isEmpty() ? values.get(0) : null;
+			};
+		}
+		if (name.startsWith("body.") && name.length() > 5) {
+			JsonPointer pointer = JsonPointer.compile("/" + name.substring(5).replace("~", "~0").replace("/", "~1")
+					.replace('.', '/'));
+			return request -> {
+				JsonNode value = request.body != null ? request.body.at(pointer) : null;
+				if (value == null || value.isMissingNode() || value.isNull()) {
+					return null;
+				}
+				return value.isValueNode() ? value.asText() : value.toString();
+			};
+		}
+		throw new IllegalArgumentException("Unknown placeholder {{" + name + "}}");
+	}
+
+	/**
+	 * True when a placeholder reads the request body, which callers then need
+	 * to pass to {@link #render}.
+	 */
+	public boolean readsBody() {
+		return readsBody;
+	}
+
+	/**
+	 * True when the body is JSON, false for plain text.
+	 */
+	public boolean isJson() {
+		return json;
+	}
+
+	/**
+	 * @param pathParameters values of the {param} segments in the request path
+	 * @param queryParams    every value of each query parameter, may be null
+	 * @param body           the request body, only read when
+	 *                       {@link #readsBody()}, may be null
+	 * @return the rendered body, UTF-8 encoded
+	 */
+	public byte[] render(Map<String, String> pathParameters, Map<String, List<String>> queryParams, byte[] body) {
+		Request request = new Request(pathParameters, queryParams, readsBody ? readBody(body) : null);
+		Buffer buffer = BUFFERS.get();
+		buffer.length = 0;
+		buffer.write(literals[0]);
+		for (int i = 0; i < slots.length; i++) {
+			String value = slots[i].value(request);
+			if (value != null) {
+				buffer.write(json ? JsonStringEncoder.getInstance().quoteAsUTF8(value)
+						: value.getBytes(StandardCharsets.UTF_8));
+			}
+			buffer.write(literals[i + 1]);
+		}
+		byte[] rendered = Arrays.copyOf(buffer.bytes, buffer.length);
+		if (buffer.bytes.length > MAX_POOLED_SIZE) {
+			BUFFERS.remove();
+		}
+		return rendered;
+	}
+
+	private static JsonNode readBody(byte[] body) {
+		if (body == null || body.length == 0) {
+			return null;
+		}
+		try {
+			return BODY_READER.readTree(body);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+}
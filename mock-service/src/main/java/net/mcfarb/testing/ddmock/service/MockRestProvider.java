@@ -1,32 +1,57 @@
 package net.mcfarb.testing.ddmock.service;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 import org.springframework.beans.factory.BeanInitializationException;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import net.mcfarb.testing.ddmock.aspects.MockBuilderException;
+import net.mcfarb.testing.ddmock.model.MockIsolation;
 import net.mcfarb.testing.ddmock.model.MockObject;
+import net.mcfarb.testing.ddmock.model.MockResourceInfo;
+import net.mcfarb.testing.ddmock.model.MockResourceOperation;
 import net.mcfarb.testing.ddmock.model.MockRestGeneratorInfo;
 import net.mcfarb.testing.ddmock.model.MockRestInfo;
 import net.mcfarb.testing.ddmock.model.MockRestMethodInfo;
+import net.mcfarb.testing.ddmock.startup.MockLoadReport;
 
 @Slf4j
 public class MockRestProvider {
 
 	private List<MockRestMethodInfo> restMethods = new ArrayList<>();
+	private List<String> basePaths = new ArrayList<>();
 	private Map<String, Object> objectMap = new HashMap<>();
+	private Map<String, MockResourceStore> resources = new LinkedHashMap<>();
+	private Map<String, MockResponseTemplate> templates = new HashMap<>();
+	// objects copied for every caller of getResponseObject
+	private Set<String> copiedIds = new HashSet<>();
 
 	@Setter
 	JsonProcessor jsonProcessor;
 
+	@Setter
+	private RestMatchListener matchListener = RestMatchListener.NOOP;
+
 	private boolean initialized = false;
 
+	private MockLoadReport loadReport;
+
+	// instances $ref values resolved to, the graph itself is dropped after the load
+	private Set<Object> sharedObjects = Set.of();
+
 	public void initialize(MockRestGeneratorInfo mockRestGeneratorInfo) throws BeanInitializationException {
 		if (initialized) {
 			log.warn("MockRestProvider is already initialized. Skipping initialization.");
@@ -36,22 +61,35 @@ public class MockRestProvider {
 			throw new BeanInitializationException("MockRestGeneratorInfo cannot be null");
 		}
 
-		// Build objects from MockObject definitions
-		mockRestGeneratorInfo.getMockObjects().forEach(this::buildObject);
+		loadReport = mockRestGeneratorInfo.getLoadReport() != null ? mockRestGeneratorInfo.getLoadReport()
+				: new MockLoadReport("inline");
+
+		// Build objects from MockObject definitions, objects referenced with $ref first
+		MockObjectGraph graph = new MockObjectGraph(mockRestGeneratorInfo.getMockObjects(), jsonProcessor);
+		mockRestGeneratorInfo.getMockObjects().forEach(mockObject -> loadReport.buildObject(mockObject,
+				object -> buildObject(object, graph), objectMap));
+		graph.recordInterning(loadReport);
+		sharedObjects = graph.getSharedObjects();
 
 		// Collect all REST methods from all REST APIs
-		mockRestGeneratorInfo.getMockRestApis().forEach(this::collectRestMethods);
+		loadReport.compileRoutes(() -> mockRestGeneratorInfo.getMockRestApis().forEach(this::collectRestMethods));
+		loadReport.setRouteCount(restMethods.size());
+		loadReport.commit();
 
 		initialized = true;
 	}
 
-	private void buildObject(MockObject mockObject) {
+	private void buildObject(MockObject mockObject, MockObjectGraph graph) {
 		try {
 			if (mockObject.getFakeClass() != null) {
-				Object fake = jsonProcessor.buildObject(mockObject, mockObject.getFakeClass(),
-						mockObject.getGenericClass(), mockObject.getKeyClass(), mockObject.getValueClass(),
-						mockObject.getVersion());
+				Object fake = graph.build(mockObject);
 				objectMap.put(mockObject.getId(), fake);
+				if (mockObject.getIsolation() == MockIsolation.COPY) {
+					copiedIds.add(mockObject.getId());
+				}
+				if (mockObject.isTemplate()) {
+					templates.put(mockObject.getId(), compileTemplate(mockObject, fake));
+				}
 			} else {
 				throw new MockBuilderException(
 						"Class name must be specified when defining MockObjects. Mock Object with id %s has no associated class.",
@@ -62,20 +100,96 @@ public class MockRestProvider {
 		}
 	}
 
+	private MockResponseTemplate compileTemplate(MockObject mockObject, Object fake) {
+		try {
+			if (mockObject.getObjectValue() != null) {
+				// with references resolved, the built object is the template's text
+				Object value = mockObject.getObjectValue().findValue(MockObjectGraph.REF) != null ? fake
+						: mockObject.getObjectValue();
+				return MockResponseTemplate.compile(jsonProcessor.getObjectMapper().writeValueAsString(value), true);
+			}
+			if (mockObject.getStringValue() != null) {
+				return MockResponseTemplate.compile(mockObject.getStringValue(), false);
+			}
+			throw new IllegalArgumentException("it has no objectValue or stringValue");
+		} catch (IllegalArgumentException | JsonProcessingException e) {
+			throw new BeanInitializationException(
+					"Invalid template in MockObject " + mockObject.getId() + ": " + e.getMessage(), e);
+		}
+	}
+
 	private void collectRestMethods(MockRestInfo restInfo) {
 		String basePath = restInfo.getBasePath() != null ? restInfo.getBasePath() : "";
-		restInfo.getMethods().forEach(method -> {
-			// Combine base path with method path
-			String fullPath = combinePaths(basePath, method.getPath());
-			MockRestMethodInfo methodWithFullPath = new MockRestMethodInfo();
-			methodWithFullPath.setPath(fullPath);
-			methodWithFullPath.setHttpMethod(method.getHttpMethod());
-			methodWithFullPath.setReturnId(method.getReturnId());
-			methodWithFullPath.setStatusCode(method.getStatusCode());
-			methodWithFullPath.setHeaders(method.getHeaders());
-			methodWithFullPath.setQueryParameters(method.getQueryParameters());
-			restMethods.add(methodWithFullPath);
-		});
+		basePaths.add(basePath);
+		if (restInfo.getMethods() != null) {
+			restInfo.getMethods().forEach(method -> {
+				// Combine base path with method path
+				String fullPath = combinePaths(basePath, method.getPath());
+				MockRestMethodInfo methodWithFullPath = new MockRestMethodInfo();
+				methodWithFullPath.setPath(fullPath);
+				methodWithFullPath.setHttpMethod(method.getHttpMethod());
+				methodWithFullPath.setReturnId(method.getReturnId());
+				methodWithFullPath.setStatusCode(method.getStatusCode());
+				methodWithFullPath.setHeaders(method.getHeaders());
+				methodWithFullPath.setQueryParameters(method.getQueryParameters());
+				methodWithFullPath.setBodyPredicates(method.getBodyPredicates());
+				methodWithFullPath.setRequestHeaders(method.getRequestHeaders());
+				methodWithFullPath.setAuthorizationScheme(method.getAuthorizationScheme());
+				methodWithFullPath.setConsumes(method.getConsumes());
+				methodWithFullPath.setProduces(method.getProduces());
+				try {
+					methodWithFullPath.setBodyMatcher(MockBodyMatcher.compile(method.getBodyPredicates()));
+					methodWithFullPath.setRequestConditions(MockRequestConditions.compile(methodWithFullPath));
+				} catch (IllegalArgumentException e) {
+					throw new BeanInitializationException("Invalid match condition on " + method.getHttpMethod() + " "
+							+ fullPath + ": " + e.getMessage(), e);
+				}
+				restMethods.add(methodWithFullPath);
+			});
+		}
+		if (restInfo.getResource() != null) {
+			// added after the explicit methods so that those take precedence
+			collectResourceMethods(basePath, restInfo.getResource());
+		}
+	}
+
+	private void collectResourceMethods(String basePath, MockResourceInfo resourceInfo) {
+		String name = resourceInfo.getName() != null ? resourceInfo.getName()
+				: basePath.substring(basePath.lastIndexOf('/', basePath.length() - 2) + 1).replace("/", "");
+		if (name.isEmpty()) {
+			throw new BeanInitializationException("Resource on base path '" + basePath + "' needs a name");
+		}
+		if (resources.containsKey(name)) {
+			throw new BeanInitializationException("Resource " + name + " is declared more than once");
+		}
+		MockResourceStore store = new MockResourceStore(name, resourceInfo, seedRecords(resourceInfo),
+				jsonProcessor.getObjectMapper());
+		resources.put(name, store);
+		for (MockResourceOperation operation : MockResourceOperation.values()) {
+			MockRestMethodInfo method = new MockRestMethodInfo();
+			method.setPath(combinePaths(basePath, operation.getPath()));
+			method.setHttpMethod(operation.getHttpMethod());
+			method.setResourceOperation(operation);
+			method.setResourceStore(store);
+			restMethods.add(method);
+		}
+	}
+
+	private Collection<?> seedRecords(MockResourceInfo resourceInfo) {
+		if (resourceInfo.getSeedId() == null) {
+			return List.of();
+		}
+		Object seed = objectMap.get(resourceInfo.getSeedId());
+		if (seed instanceof Collection<?> records) {
+			return records;
+		}
+		if (seed instanceof JsonNode node && node.isArray()) {
+			List<JsonNode> records = new ArrayList<>();
+			node.forEach(records::add);
+			return records;
+		}
+		throw new BeanInitializationException(
+				"Resource seed " + resourceInfo.getSeedId() + " must be a MockObject holding a list of records");
 	}
 
 	private String combinePaths(String basePath, String path) {
@@ -92,20 +206,66 @@ public class MockRestProvider {
 	}
 
 	public MockRestMethodInfo findRestMethod(String path, String httpMethod, Map<String, String> queryParams) {
+		return findRestMethod(path, httpMethod, queryParams, null);
+	}
+
+	/**
+	 * Finds the route matching the request, including routes with body
+	 * predicates, which {@code body} (JSON, may be null) is checked against.
+	 */
+	public MockRestMethodInfo findRestMethod(String path, String httpMethod, Map<String, String> queryParams,
+			byte[] body) {
+		Map<String, List<String>> values = null;
+		if (queryParams != null) {
+			values = new HashMap<>();
+			for (Map.Entry<String, String> entry : queryParams.entrySet()) {
+				if (entry.getValue() != null) {
+					values.put(entry.getKey(), Collections.singletonList(entry.getValue()));
+				}
+			}
+		}
+		return findRestMethod(path, httpMethod, values, null, body);
+	}
+
+	/**
+	 * Finds the route matching the request, including routes with request
+	 * header conditions, which {@code headers} (first value of a header by
+	 * case-insensitive name, may be null) is checked against.
+	 *
+	 * When several routes match, the one requiring the most query parameters
+	 * wins, and among those the first declared. A required query parameter
+	 * value may be any of the values in {@code queryParams}.
+	 */
+	public MockRestMethodInfo findRestMethod(String path, String httpMethod, Map<String, List<String>> queryParams,
+			Function<String, String> headers, byte[] body) {
 		if (!initialized) {
 			throw new BeanInitializationException(
 					"MockRestProvider is not initialized. Please call initialize() before accessing methods.");
 		}
 
-		Optional<MockRestMethodInfo> method = restMethods.stream()
-				.filter(m -> matchesRequest(m, path, httpMethod, queryParams))
-				.findFirst();
+		int candidatesExamined = 0;
+		MockRestMethodInfo match = null;
+		for (MockRestMethodInfo method : restMethods) {
+			// only a route requiring more query parameters can replace a match
+			if (match != null && querySpecificity(method) <= querySpecificity(match)) {
+				continue;
+			}
+			candidatesExamined++;
+			if (matchesRequest(method, path, httpMethod, queryParams, headers, body)) {
+				match = method;
+			}
+		}
+
+		matchListener.onMatch(path, httpMethod, candidatesExamined, match);
+		return match;
+	}
 
-		return method.orElse(null);
+	private static int querySpecificity(MockRestMethodInfo method) {
+		return method.getQueryParameters() != null ? method.getQueryParameters().size() : 0;
 	}
 
 	private boolean matchesRequest(MockRestMethodInfo method, String path, String httpMethod,
-			Map<String, String> queryParams) {
+			Map<String, List<String>> queryParams, Function<String, String> headers, byte[] body) {
 		// Match path with wildcard support
 		if (!matchesPath(method.getPath(), path)) {
 			return false;
@@ -123,13 +283,23 @@ public class MockRestProvider {
 			}
 			// Check if all required query parameters match
 			for (Map.Entry<String, String> entry : method.getQueryParameters().entrySet()) {
-				String actualValue = queryParams.get(entry.getKey());
-				if (actualValue == null || !actualValue.equals(entry.getValue())) {
+				List<String> actualValues = queryParams.get(entry.getKey());
+				if (actualValues == null || !actualValues.contains(entry.getValue())) {
 					return false;
 				}
 			}
 		}
 
+		// Match request headers
+		if (method.getRequestConditions() != null && !method.getRequestConditions().matches(headers)) {
+			return false;
+		}
+
+		// Match the body last, as it is the most expensive check
+		if (method.getBodyMatcher() != null && !method.getBodyMatcher().matches(body)) {
+			return false;
+		}
+
 		return true;
 	}
 
@@ -199,17 +369,79 @@ public class MockRestProvider {
 		return false;
 	}
 
+	/**
+	 * The route's response object, a copy of it when the object has COPY
+	 * isolation.
+	 */
 	public Object getResponseObject(MockRestMethodInfo method) {
 		if (method == null || method.getReturnId() == null) {
 			return null;
 		}
-		return objectMap.get(method.getReturnId());
+		Object object = objectMap.get(method.getReturnId());
+		return copiedIds.contains(method.getReturnId()) ? MockObjectCopier.copy(object) : object;
 	}
 
 	public Map<String, Object> getObjectMap() {
 		return objectMap;
 	}
 
+	/**
+	 * Instances that {@code $ref} values resolved to, compared by identity.
+	 * They are part of several response objects, so a serializer can write
+	 * each of them once.
+	 */
+	public Set<Object> getSharedObjects() {
+		return sharedObjects;
+	}
+
+	/**
+	 * Template of the route's response object, or null when the object is not
+	 * templated.
+	 */
+	public MockResponseTemplate getResponseTemplate(MockRestMethodInfo method) {
+		if (method == null || method.getReturnId() == null) {
+			return null;
+		}
+		return templates.get(method.getReturnId());
+	}
+
+	/**
+	 * Templates of the objects declared with {@code template: true}, by object
+	 * id.
+	 */
+	public Map<String, MockResponseTemplate> getTemplates() {
+		return Collections.unmodifiableMap(templates);
+	}
+
+	/**
+	 * Configured routes in declaration order, with base paths already applied.
+	 */
+	public List<MockRestMethodInfo> getRestMethods() {
+		return Collections.unmodifiableList(restMethods);
+	}
+
+	/**
+	 * Stores of the declared resources by name, in declaration order.
+	 */
+	public Map<String, MockResourceStore> getResources() {
+		return Collections.unmodifiableMap(resources);
+	}
+
+	/**
+	 * Base path of every configured REST api, in declaration order.
+	 */
+	public List<String> getBasePaths() {
+		return Collections.unmodifiableList(basePaths);
+	}
+
+	/**
+	 * Startup timings for the configuration this provider was initialized with,
+	 * or null before initialization.
+	 */
+	public MockLoadReport getLoadReport() {
+		return loadReport;
+	}
+
 	/**
 	 * Extracts path parameters from an actual path based on a pattern.
 	 * Returns a map of parameter names to their values.
@@ -0,0 +1,210 @@
+package net.mcfarb.testing.ddmock.service;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+import org.springframework.core.ResolvableType;
+
+import net.mcfarb.testing.ddmock.aspects.MockBuilderException;
+import net.mcfarb.testing.ddmock.model.MockMethodInfo;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Turns the return objects of a stubbed method into what the method returns.
+ *
+ * Methods returning {@code Mono<T>}, {@code Flux<T>}, {@code CompletableFuture<T>}
+ * or {@code CompletionStage<T>} may return plain T objects, which are wrapped
+ * for every call. A Flux emits the elements of a List or array object one by
+ * one. Delays are scheduled with {@code Schedulers.parallel()} when the call
+ * is made, never by blocking, so they follow a {@code VirtualTimeScheduler}
+ * installed by {@code StepVerifier.withVirtualTime}. Errors are created for
+ * every call, so their stack traces point at the caller.
+ */
+final class MockReturnWrapper {
+
+	private enum Kind {
+		PLAIN, MONO, FLUX, FUTURE
+	}
+
+	private final Kind kind;
+	private final Class<?> elementType;
+	private final Type expected;
+	private final Duration delay;
+	private final Duration elementDelay;
+	private final Supplier<Throwable> error;
+
+	private MockReturnWrapper(Kind kind, Class<?> elementType, Type expected, Duration delay,
+			Duration elementDelay, Supplier<Throwable> error) {
+		this.kind = kind;
+		this.elementType = elementType;
+		this.expected = expected;
+		this.delay = delay;
+		this.elementDelay = elementDelay;
+		this.error = error;
+	}
+
+	/**
+	 * The wrapper of a method, checked against the delays and error its config
+	 * asks for.
+	 */
+	static MockReturnWrapper of(Method method, MockMethodInfo methodInfo, String beanName)
+			throws MockBuilderException {
+		Class<?> returnType = method.getReturnType();
+		Kind kind = returnType == Mono.class ? Kind.MONO
+				: returnType == Flux.class ? Kind.FLUX
+						: returnType == CompletableFuture.class || returnType == CompletionStage.class ? Kind.FUTURE
+								: Kind.PLAIN;
+		Duration delay = duration(methodInfo.getDelayMillis(), "delayMillis", method, beanName);
+		Duration elementDelay = duration(methodInfo.getElementDelayMillis(), "elementDelayMillis", method,
+				beanName);
+		if (kind == Kind.PLAIN && !delay.isZero()) {
+			throw new MockBuilderException(
+					"Method %s of service %s sets delayMillis, which only applies to Mono, Flux and CompletableFuture returns",
+					method.getName(), beanName);
+		}
+		if (kind != Kind.FLUX && !elementDelay.isZero()) {
+			throw new MockBuilderException(
+					"Method %s of service %s sets elementDelayMillis, which only applies to Flux returns",
+					method.getName(), beanName);
+		}
+		Supplier<Throwable> error = null;
+		if (methodInfo.getErrorClass() != null) {
+			if (kind != Kind.FLUX && (methodInfo.getReturnId() != null || methodInfo.getArgumentReturns() != null
+					&& !methodInfo.getArgumentReturns().isEmpty())) {
+				throw new MockBuilderException(
+						"Method %s of service %s sets both errorClass and return objects, only Flux returns emit objects before an error",
+						method.getName(), beanName);
+			}
+			if (kind == Kind.PLAIN && !unchecked(methodInfo.getErrorClass()) && Arrays.stream(method.getExceptionTypes())
+					.noneMatch(type -> type.isAssignableFrom(methodInfo.getErrorClass()))) {
+				throw new MockBuilderException("Method %s of service %s does not declare %s", method.getName(),
+						beanName, methodInfo.getErrorClass().getName());
+			}
+			error = error(methodInfo.getErrorClass(), methodInfo.getErrorMessage());
+		}
+		Class<?> elementType = kind == Kind.PLAIN ? returnType
+				: ResolvableType.forMethodReturnType(method).getGeneric(0).resolve(Object.class);
+		return new MockReturnWrapper(kind, elementType,
+				kind == Kind.PLAIN ? returnType : method.getGenericReturnType(), delay, elementDelay, error);
+	}
+
+	/**
+	 * Whether a return object fits the method, as is or once wrapped.
+	 */
+	boolean accepts(Object object) {
+		if (object == null) {
+			return false;
+		}
+		if (elementType.isInstance(object)) {
+			return true;
+		}
+		if (kind == Kind.FLUX && object instanceof Iterable<?> elements) {
+			for (Object element : elements) {
+				if (element != null && !elementType.isInstance(element)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		return kind == Kind.FLUX && object instanceof Object[] elements
+				&& elementType.isAssignableFrom(elements.getClass().getComponentType());
+	}
+
+	/**
+	 * The method's return type, for messages.
+	 */
+	Type expected() {
+		return expected;
+	}
+
+	boolean signalsError() {
+		return error != null;
+	}
+
+	/**
+	 * What one call returns: the object, wrapped when the method is reactive.
+	 * The object is null when there is only an error to signal.
+	 */
+	Object wrap(Object object) throws Throwable {
+		return switch (kind) {
+			case PLAIN -> {
+				if (error != null) {
+					throw error.get();
+				}
+				yield object;
+			}
+			case MONO -> mono(object);
+			case FUTURE -> mono(object).toFuture();
+			case FLUX -> flux(object);
+		};
+	}
+
+	private Mono<Object> mono(Object object) {
+		Mono<Object> mono = error != null ? Mono.error(error) : Mono.just(object);
+		return delay.isZero() ? mono : mono.delaySubscription(delay);
+	}
+
+	private Flux<Object> flux(Object object) {
+		Flux<Object> flux;
+		if (object == null) {
+			flux = Flux.empty();
+		} else if (!elementType.isInstance(object) && object instanceof Iterable<?> elements) {
+			flux = Flux.fromIterable(elements);
+		} else if (!elementType.isInstance(object) && object instanceof Object[] elements) {
+			flux = Flux.fromArray(elements);
+		} else {
+			flux = Flux.just(object);
+		}
+		if (!elementDelay.isZero()) {
+			flux = flux.delayElements(elementDelay);
+		}
+		if (error != null) {
+			flux = flux.concatWith(Flux.error(error));
+		}
+		return delay.isZero() ? flux : flux.delaySubscription(delay);
+	}
+
+	private static Duration duration(Long millis, String name, Method method, String beanName)
+			throws MockBuilderException {
+		if (millis == null) {
+			return Duration.ZERO;
+		}
+		if (millis < 0) {
+			throw new MockBuilderException("Method %s of service %s has a negative %s", method.getName(), beanName,
+					name);
+		}
+		return Duration.ofMillis(millis);
+	}
+
+	private static boolean unchecked(Class<? extends Throwable> type) {
+		return RuntimeException.class.isAssignableFrom(type) || Error.class.isAssignableFrom(type);
+	}
+
+	// a new error for every call, from the (String) constructor, or the no-arg one without a message
+	private static Supplier<Throwable> error(Class<? extends Throwable> type, String message)
+			throws MockBuilderException {
+		Constructor<? extends Throwable> constructor;
+		try {
+			constructor = message != null ? type.getConstructor(String.class) : type.getConstructor();
+		} catch (NoSuchMethodException e) {
+			throw new MockBuilderException("Error class %s has no public %s constructor", type.getName(),
+					message != null ? "(String)" : "no-arg");
+		}
+		Object[] arguments = message != null ? new Object[] { message } : new Object[0];
+		return () -> {
+			try {
+				return constructor.newInstance(arguments);
+			} catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+				throw new IllegalStateException("Could not create " + type.getName(), e);
+			}
+		};
+	}
+}
@@ -0,0 +1,500 @@
+package net.mcfarb.testing.ddmock.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.springframework.http.MediaType;
+
+import net.mcfarb.testing.ddmock.model.MockRestMethodInfo;
+
+/**
+ * Immutable routing structure over the REST routes of one or more mock
+ * configurations.
+ *
+ * Routes are compiled into a trie keyed by path segment, with literal segments
+ * in a hash map and {param} / * segments on a single wildcard child, and each
+ * terminal node indexes its routes by HTTP method. A lookup therefore costs one
+ * walk of the request path plus a check of the few routes sharing the same
+ * pattern and method, independent of how many routes are configured.
+ *
+ * Variants of a route that differ by query parameters are indexed by their
+ * first required parameter value, and variants that differ by request headers
+ * by their first {@link MockRequestConditions.Condition}, so only the variants
+ * whose value equals one of the request's are checked.
+ *
+ * Lookup results are identical to {@link MockRestProvider#findRestMethod}: when
+ * several routes match, the one requiring the most query parameters wins, and
+ * among those the one added first. Body predicates are checked last, only on
+ * routes that already match the path, method, query and headers.
+ *
+ * @param <T> owner of a route, e.g. the mock file it was loaded from
+ */
+public class MockRouteTable<T> {
+
+	private static final String WILDCARD = "*";
+
+	/**
+	 * A successful lookup.
+	 *
+	 * @param owner          owner the matched route was added with
+	 * @param method         the matched route, with its full path
+	 * @param pathParameters values of the {param} segments in the request path
+	 */
+	public record Match<T>(T owner, MockRestMethodInfo method, Map<String, String> pathParameters) {
+	}
+
+	// specificity is the number of required query parameters
+	private record Route<T>(T owner, MockRestMethodInfo method, int ordinal, int specificity, String[] segments) {
+
+		boolean precedes(Route<T> other) {
+			return specificity != other.specificity ? specificity > other.specificity : ordinal < other.ordinal;
+		}
+	}
+
+	// routes sharing a pattern and method, each list in precedence order
+	private static final class RouteGroup<T> {
+		private final List<Route<T>> routes = new ArrayList<>();
+		private final List<Route<T>> unconditioned = new ArrayList<>();
+		// query parameter name -> value -> routes requiring that as their first parameter
+		private final Map<String, Map<String, List<Route<T>>>> queryVariants = new LinkedHashMap<>();
+		// condition key -> condition value -> routes with that index condition
+		private final Map<String, Map<String, List<Route<T>>>> variants = new HashMap<>();
+
+		void add(Route<T> route) {
+			routes.add(route);
+			Map<String, String> queryParameters = route.method().getQueryParameters();
+			MockRequestConditions conditions = route.method().getRequestConditions();
+			if (route.specificity() > 0) {
+				Map.Entry<String, String> index = queryParameters.entrySet().iterator().next();
+				insert(queryVariants.computeIfAbsent(index.getKey(), k -> new HashMap<>())
+						.computeIfAbsent(index.getValue(), v -> new ArrayList<>()), route);
+			} else if (conditions != null) {
+				MockRequestConditions.Condition index = conditions.getIndexCondition();
+				insert(variants.computeIfAbsent(index.key(), k -> new HashMap<>())
+						.computeIfAbsent(index.value(), v -> new ArrayList<>()), route);
+			} else {
+				unconditioned.add(route);
+			}
+		}
+
+		// routes arrive in ordinal order, so only specificity moves one forward
+		private static <T> void insert(List<Route<T>> routes, Route<T> route) {
+			int position = routes.size();
+			while (position > 0 && route.precedes(routes.get(position - 1))) {
+				position--;
+			}
+			routes.add(position, route);
+		}
+	}
+
+	private static final class Node<T> {
+		private final Map<String, Node<T>> literals = new HashMap<>();
+		private Node<T> wildcard;
+		// routes ending at this node
+		private final Map<String, RouteGroup<T>> routesByMethod = new HashMap<>();
+		private final RouteGroup<T> anyMethodRoutes = new RouteGroup<>();
+		private T basePathOwner;
+	}
+
+	// one lookup's request values and statistics
+	private static final class Lookup {
+		// one of the two is set, read in place rather than copied
+		private final Map<String, String> singleQueryParams;
+		private final Map<String, List<String>> queryParams;
+		private final Function<String, String> headers;
+		private final byte[] body;
+		// owners whose routes may match, the others are skipped
+		private final Predicate<Object> owners;
+		private List<MediaType> acceptedTypes;
+		private int examined;
+
+		Lookup(Map<String, String> singleQueryParams, Map<String, List<String>> queryParams,
+				Function<String, String> headers, byte[] body, Predicate<Object> owners) {
+			this.singleQueryParams = singleQueryParams;
+			this.queryParams = queryParams;
+			this.headers = headers;
+			this.body = body;
+			this.owners = owners;
+		}
+
+		boolean hasQueryValue(String name, String value) {
+			if (queryParams != null) {
+				List<String> values = queryParams.get(name);
+				return values != null && values.contains(value);
+			}
+			String actual = singleQueryParams != null ? singleQueryParams.get(name) : null;
+			return actual != null && actual.equals(value);
+		}
+
+		List<MediaType> acceptedTypes() {
+			if (acceptedTypes == null) {
+				acceptedTypes = MockRequestConditions.acceptedTypes(headers);
+			}
+			return acceptedTypes;
+		}
+	}
+
+	private final Node<T> root;
+	private final int size;
+	private final boolean bodyPredicates;
+
+	private MockRouteTable(Node<T> root, int size, boolean bodyPredicates) {
+		this.root = root;
+		this.size = size;
+		this.bodyPredicates = bodyPredicates;
+	}
+
+	public static <T> Builder<T> builder() {
+		return new Builder<>();
+	}
+
+	/**
+	 * Number of routes in the table.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * True when a route the request could match has body predicates. Only then
+	 * does a caller need to read the request body before {@link #find}.
+	 */
+	public boolean hasBodyPredicates(String path, String httpMethod) {
+		if (!bodyPredicates || path == null) {
+			return false;
+		}
+		String method = httpMethod != null ? httpMethod.toUpperCase(Locale.ROOT) : null;
+		return hasBodyPredicates(root, path.split("/"), 0, method);
+	}
+
+	public Match<T> find(String path, String httpMethod, Map<String, String> queryParams) {
+		return find(path, httpMethod, queryParams, RestMatchListener.NOOP);
+	}
+
+	/**
+	 * Finds the route matching a request with single valued query parameters.
+	 */
+	public Match<T> find(String path, String httpMethod, Map<String, String> queryParams,
+			RestMatchListener listener) {
+		return find(path, httpMethod, new Lookup(queryParams, null, null, null, owner -> true), listener);
+	}
+
+	/**
+	 * Finds the most specific route matching the request: the one requiring the
+	 * most query parameters, and among those the one added first.
+	 *
+	 * @param queryParams every value of each query parameter, e.g. a
+	 *                 {@code MultiValueMap}, may be null; a route's required
+	 *                 value may be any of them
+	 * @param headers  first value of a request header by case-insensitive name,
+	 *                 for routes with request conditions, may be null
+	 * @param body     JSON request body for routes with body predicates, may be
+	 *                 null
+	 * @param listener told how many routes were evaluated, see
+	 *                 {@link RestMatchListener}
+	 * @return the match, or null when no route matches
+	 */
+	public Match<T> find(String path, String httpMethod, Map<String, List<String>> queryParams,
+			Function<String, String> headers, byte[] body, RestMatchListener listener) {
+		return find(path, httpMethod, new Lookup(null, queryParams, headers, body, owner -> true), listener);
+	}
+
+	/**
+	 * Finds the most specific route matching the request among the routes of
+	 * the owners {@code owners} accepts, e.g. to pass over owners that have
+	 * expired without rebuilding the table. Routes of other owners are skipped
+	 * as if they were not in the table.
+	 *
+	 * @see #find(String, String, Map, Function, byte[], RestMatchListener)
+	 */
+	@SuppressWarnings("unchecked")
+	public Match<T> find(String path, String httpMethod, Map<String, List<String>> queryParams,
+			Function<String, String> headers, byte[] body, Predicate<? super T> owners, RestMatchListener listener) {
+		return find(path, httpMethod, new Lookup(null, queryParams, headers, body, (Predicate<Object>) owners),
+				listener);
+	}
+
+	private Match<T> find(String path, String httpMethod, Lookup lookup, RestMatchListener listener) {
+		if (path == null) {
+			listener.onMatch(path, httpMethod, 0, null);
+			return null;
+		}
+		String[] segments = path.split("/");
+		String method = httpMethod != null ? httpMethod.toUpperCase(Locale.ROOT) : null;
+		Route<T> best = find(root, segments, 0, method, lookup, null);
+
+		listener.onMatch(path, httpMethod, lookup.examined, best != null ? best.method() : null);
+		if (best == null) {
+			return null;
+		}
+		return new Match<>(best.owner(), best.method(), pathParameters(best.segments(), segments));
+	}
+
+	/**
+	 * Owner of the longest base path that is a prefix of {@code path}, or null
+	 * when the path is outside every base path. Used to decide who answers
+	 * requests that match no route.
+	 */
+	public T findOwner(String path) {
+		if (path == null) {
+			return null;
+		}
+		String[] segments = path.split("/");
+		T owner = root.basePathOwner;
+		Node<T> node = root;
+		for (String segment : segments) {
+			Node<T> next = node.literals.get(segment);
+			node = next != null ? next : node.wildcard;
+			if (node == null) {
+				break;
+			}
+			if (node.basePathOwner != null) {
+				owner = node.basePathOwner;
+			}
+		}
+		return owner;
+	}
+
+	// depth-first over literal and wildcard children, keeping the match that precedes the others
+	private Route<T> find(Node<T> node, String[] segments, int depth, String method, Lookup lookup,
+			Route<T> best) {
+		if (depth == segments.length) {
+			if (method != null) {
+				best = first(node.routesByMethod.get(method), lookup, best);
+			}
+			return first(node.anyMethodRoutes, lookup, best);
+		}
+		Node<T> literal = node.literals.get(segments[depth]);
+		if (literal != null) {
+			best = find(literal, segments, depth + 1, method, lookup, best);
+		}
+		if (node.wildcard != null) {
+			best = find(node.wildcard, segments, depth + 1, method, lookup, best);
+		}
+		return best;
+	}
+
+	private boolean hasBodyPredicates(Node<T> node, String[] segments, int depth, String method) {
+		if (depth == segments.length) {
+			return (method != null && hasBodyPredicates(node.routesByMethod.get(method)))
+					|| hasBodyPredicates(node.anyMethodRoutes);
+		}
+		Node<T> literal = node.literals.get(segments[depth]);
+		return (literal != null && hasBodyPredicates(literal, segments, depth + 1, method))
+				|| (node.wildcard != null && hasBodyPredicates(node.wildcard, segments, depth + 1, method));
+	}
+
+	private static <T> boolean hasBodyPredicates(RouteGroup<T> group) {
+		if (group != null) {
+			for (Route<T> route : group.routes) {
+				if (route.method().getBodyMatcher() != null) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	// the query variants indexed under the request's values first, as they take precedence, then
+	// the routes without conditions and the header variants
+	private Route<T> first(RouteGroup<T> group, Lookup lookup, Route<T> best) {
+		if (group == null) {
+			return best;
+		}
+		for (Map.Entry<String, Map<String, List<Route<T>>>> variants : group.queryVariants.entrySet()) {
+			best = firstQueried(variants.getKey(), variants.getValue(), lookup, best);
+		}
+		best = first(group.unconditioned, lookup, best);
+		for (Map.Entry<String, Map<String, List<Route<T>>>> variants : group.variants.entrySet()) {
+			if (MockRequestConditions.PRODUCES.equals(variants.getKey())) {
+				best = firstProducing(variants.getValue(), lookup, best);
+			} else {
+				String value = MockRequestConditions.requestValue(variants.getKey(), lookup.headers);
+				if (value != null) {
+					best = first(variants.getValue().get(value), lookup, best);
+				}
+			}
+		}
+		return best;
+	}
+
+	private Route<T> firstQueried(String name, Map<String, List<Route<T>>> variants, Lookup lookup,
+			Route<T> best) {
+		if (lookup.queryParams != null) {
+			List<String> values = lookup.queryParams.get(name);
+			if (values != null) {
+				for (String value : values) {
+					best = first(variants.get(value), lookup, best);
+				}
+			}
+		} else if (lookup.singleQueryParams != null) {
+			String value = lookup.singleQueryParams.get(name);
+			if (value != null) {
+				best = first(variants.get(value), lookup, best);
+			}
+		}
+		return best;
+	}
+
+	private Route<T> firstProducing(Map<String, List<Route<T>>> variants, Lookup lookup, Route<T> best) {
+		List<MediaType> accepted = lookup.acceptedTypes();
+		if (accepted.stream().allMatch(range -> range.isConcrete() || range.getQualityValue() == 0)) {
+			for (MediaType range : accepted) {
+				if (range.getQualityValue() > 0) {
+					best = first(variants.get(MockRequestConditions.typeAndSubtype(range)), lookup, best);
+				}
+			}
+			return best;
+		}
+		// a wildcard range may allow any variant
+		for (List<Route<T>> routes : variants.values()) {
+			best = first(routes, lookup, best);
+		}
+		return best;
+	}
+
+	private Route<T> first(List<Route<T>> routes, Lookup lookup, Route<T> best) {
+		if (routes == null) {
+			return best;
+		}
+		for (Route<T> route : routes) {
+			if (best != null && !route.precedes(best)) {
+				return best;
+			}
+			if (!lookup.owners.test(route.owner())) {
+				continue;
+			}
+			lookup.examined++;
+			if (matchesQuery(route.method(), lookup) && matchesConditions(route.method(), lookup)
+					&& matchesBody(route.method(), lookup.body)) {
+				return route;
+			}
+		}
+		return best;
+	}
+
+	private static boolean matchesConditions(MockRestMethodInfo method, Lookup lookup) {
+		MockRequestConditions conditions = method.getRequestConditions();
+		return conditions == null || conditions.matches(lookup.headers,
+				conditions.getProduces() != null ? lookup.acceptedTypes() : List.of());
+	}
+
+	private static boolean matchesQuery(MockRestMethodInfo method, Lookup lookup) {
+		Map<String, String> required = method.getQueryParameters();
+		if (required == null) {
+			return true;
+		}
+		for (Map.Entry<String, String> entry : required.entrySet()) {
+			if (!lookup.hasQueryValue(entry.getKey(), entry.getValue())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean matchesBody(MockRestMethodInfo method, byte[] body) {
+		return method.getBodyMatcher() == null || method.getBodyMatcher().matches(body);
+	}
+
+	private static Map<String, String> pathParameters(String[] pattern, String[] actual) {
+		Map<String, String> params = null;
+		for (int i = 0; i < pattern.length; i++) {
+			String segment = pattern[i];
+			if (segment.startsWith("{") && segment.endsWith("}")) {
+				if (params == null) {
+					params = new HashMap<>();
+				}
+				params.put(segment.substring(1, segment.length() - 1), actual[i]);
+			}
+		}
+		return params != null ? params : Collections.emptyMap();
+	}
+
+	private static boolean isWildcard(String segment) {
+		return WILDCARD.equals(segment) || (segment.startsWith("{") && segment.endsWith("}"));
+	}
+
+	/**
+	 * Collects routes and base paths, then compiles them into a table. Routes
+	 * added earlier take precedence over later ones. A builder is single use,
+	 * discard it after {@link #build()}.
+	 */
+	public static class Builder<T> {
+
+		private final Node<T> root = new Node<>();
+		private int ordinal;
+		private boolean bodyPredicates;
+
+		/**
+		 * Adds a route. {@code method.getPath()} must be the full request path
+		 * pattern, as produced by {@link MockRestProvider#getRestMethods()}.
+		 */
+		public Builder<T> addRoute(T owner, MockRestMethodInfo method) {
+			if (method.getPath() == null) {
+				return this;
+			}
+			String[] segments = method.getPath().split("/");
+			Node<T> node = descend(segments);
+			Route<T> route = new Route<>(owner, method, ordinal++, specificity(method), segments);
+			bodyPredicates |= method.getBodyMatcher() != null;
+			if (method.getHttpMethod() == null) {
+				node.anyMethodRoutes.add(route);
+			} else {
+				node.routesByMethod.computeIfAbsent(method.getHttpMethod().toUpperCase(Locale.ROOT),
+						m -> new RouteGroup<>()).add(route);
+			}
+			return this;
+		}
+
+		/**
+		 * Marks {@code owner} as responsible for unmatched requests under
+		 * {@code basePath}. The first owner registered for a base path keeps it.
+		 */
+		public Builder<T> addBasePath(T owner, String basePath) {
+			Node<T> node = descend((basePath != null ? basePath : "").split("/"));
+			if (node.basePathOwner == null) {
+				node.basePathOwner = owner;
+			}
+			return this;
+		}
+
+		/**
+		 * Adds every route and base path of an initialized provider.
+		 */
+		public Builder<T> addProvider(T owner, MockRestProvider provider) {
+			provider.getBasePaths().forEach(basePath -> addBasePath(owner, basePath));
+			provider.getRestMethods().forEach(method -> addRoute(owner, method));
+			return this;
+		}
+
+		public MockRouteTable<T> build() {
+			return new MockRouteTable<>(root, ordinal, bodyPredicates);
+		}
+
+		private static int specificity(MockRestMethodInfo method) {
+			return method.getQueryParameters() != null ? method.getQueryParameters().size() : 0;
+		}
+
+		private Node<T> descend(String[] segments) {
+			Node<T> node = root;
+			for (String segment : segments) {
+				if (isWildcard(segment)) {
+					if (node.wildcard == null) {
+						node.wildcard = new Node<>();
+					}
+					node = node.wildcard;
+				} else {
+					node = node.literals.computeIfAbsent(segment, s -> new Node<>());
+				}
+			}
+			return node;
+		}
+	}
+}
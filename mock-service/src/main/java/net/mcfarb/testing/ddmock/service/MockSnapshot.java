@@ -0,0 +1,157 @@
+package net.mcfarb.testing.ddmock.service;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32C;
+
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import net.mcfarb.testing.ddmock.model.MockRestGeneratorInfo;
+
+/**
+ * Binary snapshot of a parsed mock file.
+ *
+ * A snapshot holds the {@link MockRestGeneratorInfo} of a mock file encoded
+ * as Smile, behind a header with a fingerprint of the model and the length
+ * and CRC32C of the JSON it was parsed from. Reading maps the file and decodes
+ * the binary form, which is much cheaper than tokenizing the JSON text. A
+ * snapshot whose header does not match the JSON is stale and not read, the
+ * JSON has to be parsed again. A snapshot only replaces the parse: the
+ * objectValues it holds are still bound, and the routes compiled, on load.
+ *
+ * The fingerprint covers the properties of every model class as the
+ * ObjectMapper mock files are read with sees them: their names and types. A
+ * snapshot written by a build whose model had other properties, or by a
+ * mapper that names them differently, is stale too, rather than read back
+ * without the properties it does not know.
+ */
+public final class MockSnapshot {
+
+	// "MKS" and the format version, bumped whenever the header or encoding changes
+	private static final int MAGIC = 0x4D4B5302;
+	private static final int HEADER_BYTES = Integer.BYTES + 3 * Long.BYTES;
+
+	private static final String MODEL_PACKAGE = MockRestGeneratorInfo.class.getPackageName();
+
+	private final ObjectMapper smileMapper;
+	private final long fingerprint;
+
+	/**
+	 * @param objectMapper ObjectMapper mock files are read with
+	 */
+	public MockSnapshot(ObjectMapper objectMapper) {
+		this.smileMapper = objectMapper.copyWith(new SmileFactory());
+		this.fingerprint = fingerprint(smileMapper);
+	}
+
+	/**
+	 * Reads the snapshot of a mock file.
+	 *
+	 * @param source content of the mock file
+	 * @return the parsed mock file, or null when there is no snapshot or it was
+	 *         written for other content
+	 * @throws IOException when the snapshot is unreadable
+	 */
+	public MockRestGeneratorInfo read(Path snapshot, byte[] source) throws IOException {
+		if (!Files.isRegularFile(snapshot)) {
+			return null;
+		}
+		try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+			if (channel.size() < HEADER_BYTES) {
+				return null;
+			}
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.getInt() != MAGIC || buffer.getLong() != fingerprint || buffer.getLong() != source.length
+					|| buffer.getLong() != checksum(source)) {
+				return null;
+			}
+			return smileMapper.readValue(new ByteBufferBackedInputStream(buffer), MockRestGeneratorInfo.class);
+		}
+	}
+
+	/**
+	 * Writes the snapshot of a mock file, replacing any previous one. The
+	 * snapshot is written next to its final location and moved in place, so a
+	 * concurrent reader sees either the old or the new snapshot.
+	 *
+	 * @param source content of the mock file
+	 * @param info   the mock file as parsed from {@code source}, before a
+	 *               provider is initialized with it
+	 */
+	public void write(Path snapshot, byte[] source, MockRestGeneratorInfo info) throws IOException {
+		Path directory = snapshot.toAbsolutePath().getParent();
+		Files.createDirectories(directory);
+		Path temp = Files.createTempFile(directory, snapshot.getFileName().toString(), ".tmp");
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+				out.writeInt(MAGIC);
+				out.writeLong(fingerprint);
+				out.writeLong(source.length);
+				out.writeLong(checksum(source));
+				smileMapper.writeValue((OutputStream) out, info);
+			}
+			Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	// CRC32C of the deserialized properties of the model classes reachable from MockRestGeneratorInfo
+	private static long fingerprint(ObjectMapper objectMapper) {
+		DeserializationConfig config = objectMapper.getDeserializationConfig();
+		StringBuilder model = new StringBuilder();
+		Deque<JavaType> pending = new ArrayDeque<>(List.of(config.constructType(MockRestGeneratorInfo.class)));
+		Set<Class<?>> seen = new HashSet<>();
+		while (!pending.isEmpty()) {
+			JavaType type = pending.pop();
+			if (type.isContainerType()) {
+				if (type.getKeyType() != null) {
+					pending.push(type.getKeyType());
+				}
+				pending.push(type.getContentType());
+				continue;
+			}
+			if (!type.getRawClass().getPackageName().equals(MODEL_PACKAGE) || type.isEnumType()
+					|| !seen.add(type.getRawClass())) {
+				continue;
+			}
+			model.append(type.getRawClass().getName()).append('{');
+			List<BeanPropertyDefinition> properties = new ArrayList<>(config.introspect(type).findProperties());
+			properties.sort(Comparator.comparing(BeanPropertyDefinition::getName));
+			for (BeanPropertyDefinition property : properties) {
+				JavaType propertyType = property.getPrimaryType();
+				model.append(property.getName()).append(':').append(propertyType.toCanonical()).append(';');
+				pending.push(propertyType);
+			}
+			model.append('}');
+		}
+		return checksum(model.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	static long checksum(byte[] source) {
+		CRC32C crc = new CRC32C();
+		crc.update(source);
+		return crc.getValue();
+	}
+}
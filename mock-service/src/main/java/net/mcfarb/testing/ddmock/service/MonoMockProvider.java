@@ -11,6 +11,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.URISyntaxException;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -31,6 +32,8 @@ import net.mcfarb.testing.ddmock.model.MockGeneratorInfo;
 import net.mcfarb.testing.ddmock.model.MockMethodInfo;
 import net.mcfarb.testing.ddmock.model.MockObject;
 import net.mcfarb.testing.ddmock.model.MockServiceInfo;
+import net.mcfarb.testing.ddmock.reactive.MockBeanRegistry;
+import net.mcfarb.testing.ddmock.startup.MockLoadReport;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -49,48 +52,89 @@ public class MonoMockProvider<T extends TestParent, S> implements MonoBeanProvid
     private MockGeneratorInfo mockGeneratorInfo;
     private boolean initialized = false;
 
+    private MockLoadReport loadReport;
+
     @Autowired
     private SpringBeanMonoProvider springBeanProvider;
 
     public void setSpringBeanMonoProvider(SpringBeanMonoProvider springBeanMonoProvider) {
         this.springBeanProvider = springBeanMonoProvider;
+        beans.clear();
     }
 
     private Flux<MockObject> mockObjects;
 
+    private final MockBeanRegistry<S> beans = new MockBeanRegistry<S>(
+            List.of(beanName -> Mono.justOrEmpty(serviceMap.get(beanName)), this::springBean));
+
     public void initialize(String mockGeneratorFile) throws IOException, URISyntaxException {
 
         this.mockGeneratorInfo = jsonProcessor.buildMockInfoObjectFromJson(mockGeneratorFile);
         if (this.mockGeneratorInfo == null) {
             throw new BeanInitializationException("MockGeneratorInfo is null. Please check the file path or content.");
         }
-        this.mockGeneratorInfo.getMockObjects().stream().forEach(buildObject);
-
+        this.loadReport = mockGeneratorInfo.getLoadReport() != null ? mockGeneratorInfo.getLoadReport()
+                : new MockLoadReport(mockGeneratorFile);
+        // the graph and its intern table only live for the load
+        MockObjectGraph graph = new MockObjectGraph(mockGeneratorInfo.getMockObjects(), jsonProcessor);
+        this.mockGeneratorInfo.getMockObjects().stream()
+                .forEach(mockObject -> loadReport.buildObject(mockObject,
+                        object -> buildObject(object, graph), objectMap));
+        graph.recordInterning(loadReport);
+
+        // objects are already built above, building them again here only doubled startup time
         mockObjects = Flux.fromIterable(mockGeneratorInfo.getMockObjects())
-                .doOnNext(buildObject)
                 .doOnComplete(() -> log.info("Mock objects built successfully"));
 
         mockObjects.doOnComplete(() -> {
             log.info("Mock objects built successfully");
             // Initialize the service map after building mock objects
-            mockGeneratorInfo.getMockServices().stream().forEach(buildMock);
+            loadReport.buildStubs(() -> mockGeneratorInfo.getMockServices().stream().forEach(buildMock));
+            loadReport.setServiceCount(mockGeneratorInfo.getMockServices().size());
         }).doOnComplete(() -> {
             log.info("Mock services built successfully");
+            loadReport.commit();
+            log.debug("Mock load report {}", loadReport.summary());
             initialized = true;
+            // names resolved before the mocks existed
+            beans.clear();
         }).subscribe();
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Startup timings for the configuration this provider was initialized with,
+     * or null before initialization.
+     */
+    public MockLoadReport getLoadReport() {
+        return loadReport;
+    }
+
+    /**
+     * The mock with this name, or else the Spring context's bean. Each name is
+     * resolved once, later calls replay the result, including an empty one.
+     */
     @Override
     public Mono<S> getBean(String beanName) {
-        return Mono.just((S) serviceMap.get(beanName))
-                .switchIfEmpty(Mono.defer(() -> {
-                    log.warn("Service {} not found in serviceMap, trying to retrieve from Spring context", beanName);
-                    return springBeanProvider.getBean(beanName);
-                }))
+        return beans.resolve(beanName)
                 .doOnError(e -> log.error("Error retrieving bean: {}", beanName, e));
     }
 
+    /**
+     * Resolves many beans at once, see {@link MockBeanRegistry#resolveAll}.
+     */
+    public Mono<Map<String, S>> getBeans(Collection<String> beanNames) {
+        return beans.resolveAll(beanNames);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Mono<S> springBean(String beanName) {
+        if (springBeanProvider == null) {
+            return Mono.empty();
+        }
+        log.warn("Service {} not found in serviceMap, trying to retrieve from Spring context", beanName);
+        return (Mono<S>) springBeanProvider.getBean(beanName);
+    }
+
     @SuppressWarnings("unchecked")
     private Mono<S> getBeanFromSpring(String beanName, Class S) {
         return Mono.just((S) springBeanProvider.getBeanProvider(S).getIfAvailable());
@@ -112,11 +156,13 @@ public class MonoMockProvider<T extends TestParent, S> implements MonoBeanProvid
             throw new BeanInitializationException("MockGeneratorInfo cannot be null");
         }
         // build objects from MockObject definitions
-        mockGeneratorInfo.getMockObjects().stream().forEach(buildObject);
+        MockObjectGraph graph = new MockObjectGraph(mockGeneratorInfo.getMockObjects(), jsonProcessor);
+        mockGeneratorInfo.getMockObjects().stream().forEach(mockObject -> buildObject(mockObject, graph));
         // build services from MockServiceInfo definitions
         mockGeneratorInfo.getMockServices().stream().forEach(buildMock);
 
         initialized = true;
+        beans.clear();
     }
 
     // create a consumer to build a mockGeneratorInfo object from a file name
@@ -126,13 +172,21 @@ public class MonoMockProvider<T extends TestParent, S> implements MonoBeanProvid
         return Mono.fromCallable(() -> jsonProcessor.buildMockInfoObjectFromJson(filename));
     }
 
-    // build objects from MockObject definitions
-    public Consumer<MockObject> buildObject = (mockObject) -> {
+    // build objects from MockObject definitions, without $ref values
+    public Consumer<MockObject> buildObject = (mockObject) -> buildObject(mockObject, null);
+
+    // the graph holds the objects of the config being loaded, so $ref values resolve between them
+    private void buildObject(MockObject mockObject, MockObjectGraph graph) {
         try {
             if (mockObject.getFakeClass() != null) {
                 Object fake = null;
-                fake = jsonProcessor.buildObject(mockObject, mockObject.getFakeClass(), mockObject.getGenericClass(),
-                        mockObject.getKeyClass(), mockObject.getValueClass(), mockObject.getVersion());
+                if (graph != null) {
+                    fake = graph.build(mockObject);
+                } else {
+                    fake = jsonProcessor.buildObject(mockObject, mockObject.getFakeClass(),
+                            mockObject.getGenericClass(), mockObject.getKeyClass(), mockObject.getValueClass(),
+                            mockObject.getVersion());
+                }
                 objectMap.put(mockObject.getId(), fake);
             } else {
                 throw new MockBuilderException(
@@ -142,10 +196,16 @@ public class MonoMockProvider<T extends TestParent, S> implements MonoBeanProvid
         } catch (MockBuilderException e) {
             throw new RuntimeException(e);
         }
-    };
+    }
 
     public BiConsumer<String, MockMethodInfo> mockMethods = (beanName, mockMethod) -> {
         try {
+            if (mockMethod.getArgumentReturns() != null && !mockMethod.getArgumentReturns().isEmpty()) {
+                // Mockito stubbing here matches any arguments, only MockPlan has argument tables
+                throw new MockBuilderException(
+                        "argumentReturns of method %s are not supported by %s, use MockProviderImpl.initialize",
+                        mockMethod.getMethodName(), "MonoMockProvider");
+            }
             S mockedService = serviceMap.get(beanName);
             Class<?>[] arguments = mockMethod.getMethodArguments();
             Method method = mockedService.getClass().getMethod(mockMethod.getMethodName(), arguments);
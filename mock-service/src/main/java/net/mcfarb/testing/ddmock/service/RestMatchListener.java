@@ -0,0 +1,25 @@
+package net.mcfarb.testing.ddmock.service;
+
+import net.mcfarb.testing.ddmock.model.MockRestMethodInfo;
+
+/**
+ * Callback invoked by {@link MockRestProvider} after every route lookup.
+ * Lets callers observe how much work routing did without the provider
+ * depending on any particular metrics library.
+ */
+@FunctionalInterface
+public interface RestMatchListener {
+
+	RestMatchListener NOOP = (path, httpMethod, candidatesExamined, match) -> {
+	};
+
+	/**
+	 * @param path               the request path that was looked up
+	 * @param httpMethod         the request HTTP method
+	 * @param candidatesExamined number of configured routes evaluated before the
+	 *                           lookup finished
+	 * @param match              the matched route, or null when nothing matched
+	 */
+	void onMatch(String path, String httpMethod, int candidatesExamined, MockRestMethodInfo match);
+
+}
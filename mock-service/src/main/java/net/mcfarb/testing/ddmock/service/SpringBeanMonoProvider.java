@@ -1,5 +1,7 @@
 package net.mcfarb.testing.ddmock.service;
 
+import java.util.List;
+
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +11,7 @@ import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
 
 import net.mcfarb.testing.TestParent;
+import net.mcfarb.testing.ddmock.reactive.MockBeanRegistry;
 import reactor.core.publisher.Mono;
 
 @Component
@@ -17,20 +20,31 @@ public class SpringBeanMonoProvider<S> implements MonoBeanProvider<TestParent, S
     @Autowired
     private ApplicationContext context;
 
+    private final MockBeanRegistry<S> beans = new MockBeanRegistry<S>(List.of(this::lookup));
+
     public SpringBeanMonoProvider() {
 
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * The context's bean with this name, empty when the context has none.
+     * Each name is looked up in the context once, later calls replay the
+     * result, so prototype beans are resolved once as well.
+     */
     @Override
     public Mono<S> getBean(String beanName) {
-        return Mono.just((S) context.getBean(beanName));
-
+        return beans.resolve(beanName);
     }
 
     @Override
     public void setApplicationContext(@NonNull ApplicationContext applicationContext) throws BeansException {
         this.context = applicationContext;
+        beans.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Mono<S> lookup(String beanName) {
+        return Mono.fromCallable(() -> context.containsBean(beanName) ? (S) context.getBean(beanName) : null);
     }
 
     <T> ObjectProvider<T> getBeanProvider(Class<T> requiredType) {
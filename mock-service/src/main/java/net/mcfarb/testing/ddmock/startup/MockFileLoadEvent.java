@@ -0,0 +1,51 @@
+package net.mcfarb.testing.ddmock.startup;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event committed once a mock file has been read, parsed and built.
+ */
+@Name("net.mcfarb.testing.ddmock.MockFileLoad")
+@Label("Mock File Load")
+@Category({ "Mock Service", "Startup" })
+@Description("Phase timings for loading one mock configuration file")
+class MockFileLoadEvent extends jdk.jfr.Event {
+
+	@Label("Source")
+	String source;
+
+	@Label("Read Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long readNanos;
+
+	@Label("Parse Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long parseNanos;
+
+	@Label("Object Build Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long buildNanos;
+
+	@Label("Route Compile Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long routeCompileNanos;
+
+	@Label("Stub Build Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long stubBuildNanos;
+
+	@Label("Source Size")
+	@DataAmount
+	long sourceBytes;
+
+	@Label("Object Count")
+	int objectCount;
+
+	@Label("Route Count")
+	int routeCount;
+}
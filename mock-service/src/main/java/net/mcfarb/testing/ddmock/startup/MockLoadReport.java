@@ -0,0 +1,171 @@
+package net.mcfarb.testing.ddmock.startup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.Getter;
+import lombok.Setter;
+import net.mcfarb.testing.ddmock.model.MockObject;
+
+/**
+ * Structured startup report for a single mock configuration file.
+ *
+ * {@link net.mcfarb.testing.ddmock.service.JsonProcessor} fills in the read and
+ * parse phases, the providers fill in object build, route compile and stub
+ * build. Every phase is also emitted as a JFR event so slow mock definitions
+ * show up in a flight recording of test container startup.
+ */
+@Getter
+public class MockLoadReport {
+
+	public static final int DEFAULT_TOP_N = 10;
+
+	private final String source;
+
+	@Setter
+	private long readNanos;
+	@Setter
+	private long parseNanos;
+	@Setter
+	private long sourceBytes;
+	// parsed from a binary snapshot instead of the JSON, see MockSnapshot
+	@Setter
+	private boolean fromSnapshot;
+
+	private long buildNanos;
+	private long routeCompileNanos;
+	private long stubBuildNanos;
+
+	@Setter
+	private int routeCount;
+	@Setter
+	private int serviceCount;
+
+	// values replaced by a canonical instance while building, see MockInternTable
+	@Setter
+	private long internedValues;
+	@Setter
+	private long internedBytes;
+
+	@Setter
+	private int topN = DEFAULT_TOP_N;
+
+	@JsonIgnore
+	private final List<ObjectLoadTiming> objectTimings = new ArrayList<>();
+
+	public MockLoadReport(String source) {
+		this.source = source;
+	}
+
+	/**
+	 * Builds a single MockObject with the supplied builder, timing it and
+	 * remembering the resulting object for the retained size estimate.
+	 */
+	public void buildObject(MockObject mockObject, Consumer<MockObject> builder, Map<String, ?> objectMap) {
+		MockObjectBuildEvent event = new MockObjectBuildEvent();
+		event.begin();
+		long start = System.nanoTime();
+		builder.accept(mockObject);
+		long elapsed = System.nanoTime() - start;
+		event.end();
+
+		String className = mockObject.getFakeClass() != null ? mockObject.getFakeClass().getName() : null;
+		if (event.shouldCommit()) {
+			event.source = source;
+			event.objectId = mockObject.getId();
+			event.className = className;
+			event.commit();
+		}
+		objectTimings.add(new ObjectLoadTiming(mockObject.getId(), className, elapsed,
+				objectMap.get(mockObject.getId())));
+		buildNanos += elapsed;
+	}
+
+	/**
+	 * Times the route compile phase.
+	 */
+	public void compileRoutes(Runnable compile) {
+		long start = System.nanoTime();
+		compile.run();
+		routeCompileNanos += System.nanoTime() - start;
+	}
+
+	/**
+	 * Times the Mockito stub build phase.
+	 */
+	public void buildStubs(Runnable build) {
+		long start = System.nanoTime();
+		build.run();
+		stubBuildNanos += System.nanoTime() - start;
+	}
+
+	/**
+	 * Emits the file level JFR event. Call once all phases have completed.
+	 */
+	public void commit() {
+		MockFileLoadEvent event = new MockFileLoadEvent();
+		if (event.isEnabled()) {
+			event.source = source;
+			event.readNanos = readNanos;
+			event.parseNanos = parseNanos;
+			event.buildNanos = buildNanos;
+			event.routeCompileNanos = routeCompileNanos;
+			event.stubBuildNanos = stubBuildNanos;
+			event.sourceBytes = sourceBytes;
+			event.objectCount = getObjectCount();
+			event.routeCount = routeCount;
+			event.commit();
+		}
+	}
+
+	public int getObjectCount() {
+		return objectTimings.size();
+	}
+
+	public long getTotalNanos() {
+		return readNanos + parseNanos + buildNanos + routeCompileNanos + stubBuildNanos;
+	}
+
+	/**
+	 * Estimated bytes retained by all objects built from this file, counting
+	 * instances shared between objects once.
+	 */
+	public long getRetainedBytes() {
+		return ObjectSizeEstimator.estimateAll(objectTimings.stream()
+				.map(ObjectLoadTiming::getBuiltObject)
+				.toList());
+	}
+
+	/**
+	 * The {@link #getTopN()} objects that took longest to build, slowest first.
+	 */
+	public List<ObjectLoadTiming> getSlowestObjects() {
+		return objectTimings.stream()
+				.sorted(Comparator.comparingLong(ObjectLoadTiming::getBuildNanos).reversed())
+				.limit(topN)
+				.toList();
+	}
+
+	/**
+	 * One line summary used in startup logs.
+	 */
+	public String summary() {
+		String summary = String.format(
+				"%s: %d objects, %d routes, read %.2fms, %s %.2fms, build %.2fms, routes %.2fms, stubs %.2fms",
+				source, getObjectCount(), routeCount, millis(readNanos), fromSnapshot ? "snapshot" : "parse",
+				millis(parseNanos), millis(buildNanos),
+				millis(routeCompileNanos), millis(stubBuildNanos));
+		return internedValues > 0
+				? summary + String.format(", interned %d values saving %d bytes", internedValues, internedBytes)
+				: summary;
+	}
+
+	private static double millis(long nanos) {
+		return nanos / 1_000_000.0;
+	}
+}
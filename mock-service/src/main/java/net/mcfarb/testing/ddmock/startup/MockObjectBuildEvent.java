@@ -0,0 +1,25 @@
+package net.mcfarb.testing.ddmock.startup;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event spanning the build of a single {@code MockObject}.
+ */
+@Name("net.mcfarb.testing.ddmock.MockObjectBuild")
+@Label("Mock Object Build")
+@Category({ "Mock Service", "Startup" })
+@Description("Time to bind one MockObject from its JSON definition")
+class MockObjectBuildEvent extends jdk.jfr.Event {
+
+	@Label("Source")
+	String source;
+
+	@Label("Object Id")
+	String objectId;
+
+	@Label("Class")
+	String className;
+}
@@ -0,0 +1,40 @@
+package net.mcfarb.testing.ddmock.startup;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.Getter;
+
+/**
+ * Build time and estimated retained size of a single {@code MockObject}.
+ */
+@Getter
+public class ObjectLoadTiming {
+
+	private final String id;
+	private final String className;
+	private final long buildNanos;
+
+	// the built object is kept so the size estimate can be computed on demand
+	@JsonIgnore
+	private final Object builtObject;
+
+	private long retainedBytes = -1;
+
+	public ObjectLoadTiming(String id, String className, long buildNanos, Object builtObject) {
+		this.id = id;
+		this.className = className;
+		this.buildNanos = buildNanos;
+		this.builtObject = builtObject;
+	}
+
+	public double getBuildMillis() {
+		return buildNanos / 1_000_000.0;
+	}
+
+	public synchronized long getRetainedBytes() {
+		if (retainedBytes < 0) {
+			retainedBytes = ObjectSizeEstimator.estimate(builtObject);
+		}
+		return retainedBytes;
+	}
+}
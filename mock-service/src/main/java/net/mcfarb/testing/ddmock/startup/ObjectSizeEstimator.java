@@ -0,0 +1,152 @@
+package net.mcfarb.testing.ddmock.startup;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import net.mcfarb.testing.ddmock.service.MockDataset;
+
+/**
+ * Rough retained size estimate for built mock objects.
+ *
+ * Assumes a 64-bit JVM with compressed oops (12 byte headers, 4 byte
+ * references, 8 byte alignment). JDK collections and value types are sized
+ * from their typical layout instead of reflecting into JDK internals, which the
+ * module system does not allow. Shared instances are counted once. The result
+ * is meant for comparing mock files with each other, not as an exact heap
+ * measurement.
+ */
+public final class ObjectSizeEstimator {
+
+	private static final int HEADER = 12;
+	private static final int REFERENCE = 4;
+	private static final int ARRAY_HEADER = 16;
+
+	private ObjectSizeEstimator() {
+	}
+
+	public static long estimate(Object root) {
+		return estimateAll(Collections.singletonList(root));
+	}
+
+	/**
+	 * Estimate for several roots together, so instances they share, e.g.
+	 * through {@code $ref}, are counted once.
+	 */
+	public static long estimateAll(Collection<?> roots) {
+		Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+		Deque<Object> pending = new ArrayDeque<>();
+		roots.forEach(root -> push(pending, root));
+		long total = 0;
+		while (!pending.isEmpty()) {
+			Object current = pending.pop();
+			if (!visited.add(current)) {
+				continue;
+			}
+			total += shallowSize(current, pending);
+		}
+		return total;
+	}
+
+	private static long shallowSize(Object object, Deque<Object> pending) {
+		Class<?> type = object.getClass();
+		if (object instanceof String s) {
+			// String object plus a Latin-1 backing array
+			return align(HEADER + 12) + align(ARRAY_HEADER + s.length());
+		}
+		if (object instanceof Number || object instanceof Boolean || object instanceof Character) {
+			return align(HEADER + 8);
+		}
+		if (object instanceof java.util.Date) {
+			return align(HEADER + 12);
+		}
+		if (type.isArray()) {
+			int length = Array.getLength(object);
+			Class<?> component = type.getComponentType();
+			if (component.isPrimitive()) {
+				return align(ARRAY_HEADER + (long) length * primitiveSize(component));
+			}
+			for (int i = 0; i < length; i++) {
+				push(pending, Array.get(object, i));
+			}
+			return align(ARRAY_HEADER + (long) length * REFERENCE);
+		}
+		if (object instanceof MockDataset) {
+			// records are generated on demand, iterating would create all of them
+			return align(HEADER + 40);
+		}
+		if (object instanceof Map<?, ?> map) {
+			map.forEach((k, v) -> {
+				push(pending, k);
+				push(pending, v);
+			});
+			// HashMap: object + table at 0.75 load factor + one node per entry
+			int table = Integer.highestOneBit(Math.max(1, (int) (map.size() / 0.75f)) * 2 - 1);
+			return align(HEADER + 36) + align(ARRAY_HEADER + (long) table * REFERENCE) + (long) map.size() * 32;
+		}
+		if (object instanceof Collection<?> collection) {
+			collection.forEach(element -> push(pending, element));
+			return align(HEADER + 12) + align(ARRAY_HEADER + (long) collection.size() * REFERENCE);
+		}
+		if (type.getName().startsWith("java.") || type.getName().startsWith("jdk.")) {
+			// opaque JDK type, count the object itself only
+			return align(HEADER + 8);
+		}
+		return reflectiveSize(object, type, pending);
+	}
+
+	private static long reflectiveSize(Object object, Class<?> type, Deque<Object> pending) {
+		long size = HEADER;
+		for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+			for (Field field : c.getDeclaredFields()) {
+				if (Modifier.isStatic(field.getModifiers())) {
+					continue;
+				}
+				Class<?> fieldType = field.getType();
+				if (fieldType.isPrimitive()) {
+					size += primitiveSize(fieldType);
+					continue;
+				}
+				size += REFERENCE;
+				try {
+					field.setAccessible(true);
+					push(pending, field.get(object));
+				} catch (RuntimeException | IllegalAccessException e) {
+					// inaccessible field, count the reference only
+				}
+			}
+		}
+		return align(size);
+	}
+
+	// ArrayDeque rejects nulls, and null references retain nothing
+	private static void push(Deque<Object> pending, Object value) {
+		if (value != null) {
+			pending.push(value);
+		}
+	}
+
+	private static int primitiveSize(Class<?> type) {
+		if (type == long.class || type == double.class) {
+			return 8;
+		}
+		if (type == int.class || type == float.class) {
+			return 4;
+		}
+		if (type == short.class || type == char.class) {
+			return 2;
+		}
+		return 1;
+	}
+
+	private static long align(long size) {
+		return (size + 7) & ~7L;
+	}
+}
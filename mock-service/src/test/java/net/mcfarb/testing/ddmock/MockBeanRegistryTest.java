@@ -0,0 +1,75 @@
+package net.mcfarb.testing.ddmock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import net.mcfarb.testing.ddmock.reactive.MockBeanRegistry;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+public class MockBeanRegistryTest {
+
+	private final AtomicInteger mockLookups = new AtomicInteger();
+	private final AtomicInteger contextLookups = new AtomicInteger();
+	private final AtomicInteger failures = new AtomicInteger(1);
+
+	private final MockBeanRegistry<String> registry = new MockBeanRegistry<>(List.of(
+			beanName -> Mono.fromCallable(() -> {
+				mockLookups.incrementAndGet();
+				return beanName.startsWith("mock") ? "mocked " + beanName : null;
+			}),
+			beanName -> Mono.fromCallable(() -> {
+				contextLookups.incrementAndGet();
+				if (beanName.equals("flaky") && failures.getAndDecrement() > 0) {
+					throw new IllegalStateException("context not ready");
+				}
+				return beanName.startsWith("spring") || beanName.equals("flaky") ? "spring " + beanName : null;
+			})));
+
+	@Test
+	public void testResolvesEachNameOnce() {
+		Mono<String> mock = registry.resolve("mockService");
+		// nothing is looked up before subscribing
+		assertEquals(0, mockLookups.get());
+
+		StepVerifier.create(mock).expectNext("mocked mockService").verifyComplete();
+		StepVerifier.create(registry.resolve("mockService")).expectNext("mocked mockService").verifyComplete();
+		StepVerifier.create(registry.resolve("springService")).expectNext("spring springService").verifyComplete();
+		StepVerifier.create(registry.resolve("springService")).expectNext("spring springService").verifyComplete();
+		assertEquals(2, mockLookups.get());
+		assertEquals(1, contextLookups.get());
+
+		// missing beans are remembered as well
+		StepVerifier.create(registry.resolve("missing")).verifyComplete();
+		StepVerifier.create(registry.resolve("missing")).verifyComplete();
+		assertEquals(3, mockLookups.get());
+		assertEquals(2, contextLookups.get());
+
+		registry.clear();
+		StepVerifier.create(registry.resolve("mockService")).expectNextCount(1).verifyComplete();
+		assertEquals(4, mockLookups.get());
+	}
+
+	@Test
+	public void testRetriesErrors() {
+		StepVerifier.create(registry.resolve("flaky")).expectErrorMessage("context not ready").verify();
+		StepVerifier.create(registry.resolve("flaky")).expectNext("spring flaky").verifyComplete();
+		StepVerifier.create(registry.resolve("flaky")).expectNext("spring flaky").verifyComplete();
+		assertEquals(2, contextLookups.get());
+	}
+
+	@Test
+	public void testResolvesBatches() {
+		StepVerifier.create(registry.resolveAll(List.of("mockA", "springB", "missing", "mockA")))
+				.expectNext(Map.of("mockA", "mocked mockA", "springB", "spring springB"))
+				.verifyComplete();
+		assertEquals(3, mockLookups.get());
+		StepVerifier.create(registry.resolve("springB")).expectNextCount(1).verifyComplete();
+		assertEquals(3, mockLookups.get());
+	}
+}
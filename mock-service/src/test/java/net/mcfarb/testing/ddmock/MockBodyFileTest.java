@@ -0,0 +1,89 @@
+package net.mcfarb.testing.ddmock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import net.mcfarb.testing.ddmock.aspects.MockBuilderException;
+import net.mcfarb.testing.ddmock.model.MockObject;
+import net.mcfarb.testing.ddmock.service.JsonProcessor;
+import net.mcfarb.testing.ddmock.service.MockBodyFile;
+
+public class MockBodyFileTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final JsonProcessor jsonProcessor = new JsonProcessor();
+
+	@TempDir
+	Path directory;
+
+	{
+		jsonProcessor.setObjectMapper(objectMapper);
+	}
+
+	@Test
+	public void testResolvesAgainstBaseDirectory() throws Exception {
+		Files.createDirectories(directory.resolve("exports"));
+		Path report = Files.writeString(directory.resolve("exports/report.csv"), "id,name\n1,Ann\n");
+		jsonProcessor.setBaseDirectory(directory);
+
+		MockBodyFile file = assertInstanceOf(MockBodyFile.class, build("exports/report.csv", Object.class));
+
+		assertEquals(report.toAbsolutePath(), file.getPath());
+		MockBodyFile.Version version = file.version();
+		assertEquals(14, version.size());
+		assertEquals(file.version().eTag(), version.eTag());
+
+		Files.writeString(report, "id,name\n1,Ann\n2,Bob\n");
+		Files.setLastModifiedTime(report, FileTime.from(Instant.parse("2030-01-01T00:00:00Z")));
+		assertEquals(Instant.parse("2030-01-01T00:00:00Z"), file.version().lastModified());
+		assertNotEquals(version.eTag(), file.version().eTag());
+	}
+
+	@Test
+	public void testInvalidBodyFiles() throws Exception {
+		Files.writeString(directory.resolve("report.csv"), "id");
+		jsonProcessor.setBaseDirectory(directory);
+
+		assertThrows(MockBuilderException.class, () -> build("missing.csv", Object.class));
+		assertThrows(MockBuilderException.class, () -> build(".", Object.class));
+		assertThrows(MockBuilderException.class, () -> build("report.csv", String.class));
+	}
+
+	@Test
+	public void testRejectsFilesOutsideBaseDirectory() throws Exception {
+		Path mocks = Files.createDirectories(directory.resolve("mocks"));
+		Path secret = Files.writeString(directory.resolve("secret.txt"), "secret");
+		Files.writeString(mocks.resolve("report.csv"), "id");
+		jsonProcessor.setBaseDirectory(mocks);
+
+		assertThrows(MockBuilderException.class, () -> build("../secret.txt", Object.class));
+		assertThrows(MockBuilderException.class, () -> build("files/../../secret.txt", Object.class));
+		assertThrows(MockBuilderException.class, () -> build(secret.toAbsolutePath().toString(), Object.class));
+		assertThrows(MockBuilderException.class,
+				() -> build(mocks.resolve("report.csv").toAbsolutePath().toString(), Object.class));
+		Files.createSymbolicLink(mocks.resolve("link.txt"), secret);
+		assertThrows(MockBuilderException.class, () -> build("link.txt", Object.class));
+		// ".." that stays inside is fine
+		assertInstanceOf(MockBodyFile.class, build("files/../report.csv", Object.class));
+	}
+
+	private Object build(String bodyFile, Class<?> fakeClass) throws MockBuilderException {
+		MockObject object = new MockObject();
+		object.setId("report");
+		object.setFakeClass(fakeClass);
+		object.setBodyFile(bodyFile);
+		return jsonProcessor.buildObject(object, fakeClass, null, null, null, null);
+	}
+}
@@ -0,0 +1,165 @@
+package net.mcfarb.testing.ddmock;
+
+import static net.mcfarb.testing.ddmock.MockRestConfigs.provider;
+import static net.mcfarb.testing.ddmock.MockRestConfigs.route;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.BeanInitializationException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import net.mcfarb.testing.ddmock.model.MockBodyPredicate;
+import net.mcfarb.testing.ddmock.model.MockRestMethodInfo;
+import net.mcfarb.testing.ddmock.service.MockBodyMatcher;
+import net.mcfarb.testing.ddmock.service.MockRestProvider;
+import net.mcfarb.testing.ddmock.service.MockRouteTable;
+import net.mcfarb.testing.ddmock.service.RestMatchListener;
+
+public class MockBodyMatcherTest {
+
+	private static final String ORDER = """
+			{"customer": {"id": 7, "tier": "gold", "note": null},
+			 "items": [{"sku": "A-1", "qty": 2}, {"sku": "B-22", "qty": 1.0}],
+			 "content-type": "order"}
+			""";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	public void testEquality() {
+		assertTrue(matches(ORDER, equalTo("$.customer.tier", "\"gold\"")));
+		assertFalse(matches(ORDER, equalTo("$.customer.tier", "\"silver\"")));
+		// numbers compare by value, strings and numbers never equal
+		assertTrue(matches(ORDER, equalTo("$.items[1].qty", "1")));
+		assertFalse(matches(ORDER, equalTo("$.customer.id", "\"7\"")));
+		assertTrue(matches(ORDER, equalTo("$.items[0]", "{\"qty\": 2.0, \"sku\": \"A-1\"}")));
+		assertTrue(matches(ORDER, equalTo("$['content-type']", "\"order\"")));
+		assertTrue(matches(ORDER, equalTo("$.customer.note", "null")));
+		assertFalse(matches(ORDER, equalTo("$.customer.missing", "null")));
+	}
+
+	@Test
+	public void testRegexAndPresence() {
+		assertTrue(matches(ORDER, regex("$.items[1].sku", "B-\\d+")));
+		assertFalse(matches(ORDER, regex("$.items[1].sku", "B")));
+		assertTrue(matches(ORDER, regex("$.customer.id", "[0-9]")));
+		assertFalse(matches(ORDER, regex("$.customer", ".*")));
+		assertFalse(matches(ORDER, regex("$.customer.note", ".*")));
+
+		assertTrue(matches(ORDER, present("$.customer.note", true)));
+		assertTrue(matches(ORDER, present("$.items", true)));
+		assertTrue(matches(ORDER, present("$.items[2]", false)));
+		assertFalse(matches(ORDER, present("$.items[1].sku", false)));
+		assertTrue(matches(ORDER, present("$.customer.tier.code", false)));
+	}
+
+	@Test
+	public void testAllPredicatesMustHold() {
+		MockBodyMatcher matcher = MockBodyMatcher.compile(List.of(equalTo("$.customer.tier", "\"gold\""),
+				regex("$.items[0].sku", "A-.*"), present("$.coupon", false)));
+
+		assertTrue(matcher.matches(bytes(ORDER)));
+		assertFalse(matcher.matches(bytes("{\"customer\": {\"tier\": \"gold\"}, \"coupon\": \"X\"}")));
+		assertFalse(matcher.matches(bytes("{\"customer\": {\"tier\": \"gold\"}}")));
+	}
+
+	@Test
+	public void testMissingOrMalformedBody() {
+		MockBodyMatcher tier = MockBodyMatcher.compile(List.of(equalTo("$.tier", "\"gold\"")));
+		MockBodyMatcher noTier = MockBodyMatcher.compile(List.of(present("$.tier", false)));
+
+		assertFalse(tier.matches(null));
+		assertFalse(tier.matches(new byte[0]));
+		assertFalse(tier.matches(bytes("[1, 2]")));
+		assertFalse(tier.matches(bytes("{\"other\": {")));
+		assertTrue(noTier.matches(null));
+		assertTrue(noTier.matches(bytes("\"just a string\"")));
+
+		// parsing stops once every predicate is decided, before the broken tail
+		assertTrue(tier.matches(bytes("{\"tier\": \"gold\", \"rest\": [")));
+		assertFalse(tier.matches(bytes("{\"tier\": \"silver\", \"rest\": [")));
+	}
+
+	@Test
+	public void testInvalidPredicates() {
+		assertNull(MockBodyMatcher.compile(List.of()));
+		assertThrows(IllegalArgumentException.class, () -> MockBodyMatcher.compile(List.of(present("tier", true))));
+		assertThrows(IllegalArgumentException.class, () -> MockBodyMatcher.compile(List.of(present("$.a[*]", true))));
+		assertThrows(IllegalArgumentException.class, () -> MockBodyMatcher.compile(List.of(present("$..a", true))));
+		assertThrows(IllegalArgumentException.class, () -> MockBodyMatcher.compile(List.of(regex("$.a", "("))));
+
+		MockBodyPredicate both = regex("$.a", "x");
+		both.setPresent(true);
+		assertThrows(IllegalArgumentException.class, () -> MockBodyMatcher.compile(List.of(both)));
+
+		MockRestMethodInfo method = new MockRestMethodInfo();
+		method.setPath("/orders");
+		method.setHttpMethod("POST");
+		method.setBodyPredicates(List.of(new MockBodyPredicate()));
+		assertThrows(BeanInitializationException.class, () -> provider(method));
+	}
+
+	@Test
+	public void testRoutesCheckBodiesAfterPathAndMethod() {
+		MockRestMethodInfo gold = route("/orders", "POST", "gold");
+		gold.setBodyPredicates(List.of(equalTo("$.customer.tier", "\"gold\"")));
+		MockRestMethodInfo any = route("/orders", "POST", "any");
+		MockRestProvider provider = provider(gold, any);
+		MockRouteTable<String> table = MockRouteTable.<String>builder().addProvider("orders", provider).build();
+
+		assertTrue(table.hasBodyPredicates("/orders", "POST"));
+		assertFalse(table.hasBodyPredicates("/orders", "GET"));
+		assertFalse(table.hasBodyPredicates("/customers", "POST"));
+
+		for (String body : List.of(ORDER, "{\"customer\": {\"tier\": \"silver\"}}")) {
+			MockRestMethodInfo expected = provider.findRestMethod("/orders", "POST", Map.of(), bytes(body));
+			assertEquals(expected,
+					table.find("/orders", "POST", Map.of(), null, bytes(body), RestMatchListener.NOOP).method());
+		}
+		assertEquals("gold",
+				table.find("/orders", "POST", null, null, bytes(ORDER), RestMatchListener.NOOP).method().getReturnId());
+		assertEquals("any", table.find("/orders", "POST", null).method().getReturnId());
+	}
+
+	private boolean matches(String body, MockBodyPredicate predicate) {
+		return MockBodyMatcher.compile(List.of(predicate)).matches(bytes(body));
+	}
+
+	private MockBodyPredicate equalTo(String path, String json) {
+		MockBodyPredicate predicate = new MockBodyPredicate();
+		predicate.setPath(path);
+		try {
+			predicate.setEqualTo(objectMapper.readTree(json));
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+		return predicate;
+	}
+
+	private static MockBodyPredicate regex(String path, String regex) {
+		MockBodyPredicate predicate = new MockBodyPredicate();
+		predicate.setPath(path);
+		predicate.setMatches(regex);
+		return predicate;
+	}
+
+	private static MockBodyPredicate present(String path, boolean present) {
+		MockBodyPredicate predicate = new MockBodyPredicate();
+		predicate.setPath(path);
+		predicate.setPresent(present);
+		return predicate;
+	}
+
+	private static byte[] bytes(String body) {
+		return body.getBytes(StandardCharsets.UTF_8);
+	}
+}
@@ -22,6 +22,7 @@ import net.mcfarb.testing.ddmock.sample.SampleData;
 import net.mcfarb.testing.ddmock.sample.SampleService;
 import net.mcfarb.testing.ddmock.service.JsonProcessor;
 import net.mcfarb.testing.ddmock.service.MockProviderImpl;
+import net.mcfarb.testing.ddmock.startup.MockLoadReport;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -98,4 +99,18 @@ public class MockBuilderTest implements TestParent {
         assertTrue(mockGeneratorInfo.getMockServices().size() > 0);
     }
 
+    @Test
+    public void testLoadReport() throws Exception {
+        MockGeneratorInfo mockInfo = jsonProcessor
+                .buildMockInfoObjectFromJson("mockdata/" + this.getClass().getSimpleName());
+
+        mockProvider.initialize(mockInfo);
+
+        MockLoadReport report = mockProvider.getLoadReport();
+        assertEquals(mockInfo.getMockObjects().size(), report.getObjectCount());
+        assertEquals(mockInfo.getMockServices().size(), report.getServiceCount());
+        assertTrue(report.getStubBuildNanos() > 0);
+        assertTrue(report.getRetainedBytes() > 0);
+    }
+
 }
\ No newline at end of file
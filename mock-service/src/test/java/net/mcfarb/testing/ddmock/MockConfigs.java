@@ -0,0 +1,69 @@
+package net.mcfarb.testing.ddmock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import net.mcfarb.testing.ddmock.model.MockGeneratorInfo;
+import net.mcfarb.testing.ddmock.model.MockMethodInfo;
+import net.mcfarb.testing.ddmock.model.MockObject;
+import net.mcfarb.testing.ddmock.model.MockServiceInfo;
+
+/**
+ * Builds mock configs in code, for tests that vary them per test method
+ * rather than loading a file from mockdata.
+ */
+final class MockConfigs {
+
+	private static final ObjectMapper JSON = new ObjectMapper();
+
+	private MockConfigs() {
+	}
+
+	static MockGeneratorInfo config(List<MockObject> objects, MockServiceInfo<?>... services) {
+		MockGeneratorInfo config = new MockGeneratorInfo();
+		config.setMockObjects(new ArrayList<>(objects));
+		config.setMockServices(new ArrayList<>(List.of(services)));
+		return config;
+	}
+
+	static <T> MockServiceInfo<T> service(Class<T> serviceClass, MockMethodInfo... methods) {
+		MockServiceInfo<T> service = new MockServiceInfo<>();
+		service.setServiceClass(serviceClass);
+		service.setMethods(List.of(methods));
+		return service;
+	}
+
+	static MockMethodInfo method(String name, String returnId, Class<?>... arguments) {
+		MockMethodInfo method = new MockMethodInfo();
+		method.setMethodName(name);
+		method.setReturnId(returnId);
+		method.setMethodArguments(arguments);
+		return method;
+	}
+
+	static MockObject object(String id, Class<?> fakeClass, Class<?> genericClass, JsonNode body) {
+		MockObject object = new MockObject();
+		object.setId(id);
+		object.setFakeClass(fakeClass);
+		object.setGenericClass(genericClass);
+		object.setBody(body);
+		return object;
+	}
+
+	static MockObject object(String id, Class<?> fakeClass, Class<?> genericClass, String json)
+			throws JsonProcessingException {
+		return object(id, fakeClass, genericClass, JSON.readTree(json));
+	}
+
+	static MockObject string(String id, String value) {
+		MockObject object = new MockObject();
+		object.setId(id);
+		object.setFakeClass(String.class);
+		object.setStringValue(value);
+		return object;
+	}
+}
@@ -0,0 +1,151 @@
+package net.mcfarb.testing.ddmock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import net.mcfarb.testing.ddmock.aspects.MockBuilderException;
+import net.mcfarb.testing.ddmock.model.MockObject;
+import net.mcfarb.testing.ddmock.service.JsonProcessor;
+import net.mcfarb.testing.ddmock.service.MockDataset;
+import net.mcfarb.testing.ddmock.startup.ObjectSizeEstimator;
+
+public class MockDatasetTest {
+
+	private static final String CUSTOMERS = """
+			{ "id": "customers", "class": "java.util.List",
+			  "dataset": { "count": 1000000, "seed": 42, "fields": {
+			    "id": { "type": "sequence" },
+			    "email": { "type": "text", "pattern": "customer{index}@example.com" },
+			    "code": { "type": "text", "length": 20 },
+			    "age": { "type": "integer", "min": 18, "max": 90 },
+			    "balance": { "type": "decimal", "min": -50, "max": 50, "scale": 2 },
+			    "active": { "type": "boolean" },
+			    "tier": { "type": "oneOf", "values": ["gold", "silver", 3] },
+			    "key": { "type": "uuid" },
+			    "joined": { "type": "date", "from": "2020-01-01", "to": "2020-12-31" }
+			  } } }
+			""";
+
+	public record Customer(long id, String email, int age) {
+	}
+
+	private final ObjectMapper objectMapper = new ObjectMapper()
+			.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+	private final JsonProcessor jsonProcessor = new JsonProcessor();
+
+	{
+		jsonProcessor.setObjectMapper(objectMapper);
+	}
+
+	@Test
+	public void testGeneratesRecordsOnDemand() throws Exception {
+		MockDataset customers = build(CUSTOMERS, null);
+
+		assertEquals(1_000_000, customers.size());
+		// the size estimate does not generate the records
+		assertTrue(ObjectSizeEstimator.estimate(customers) < 1024);
+
+		Map<?, ?> customer = (Map<?, ?>) customers.get(999_999);
+		assertEquals(List.of("id", "email", "code", "age", "balance", "active", "tier", "key", "joined"),
+				List.copyOf(customer.keySet()));
+		assertEquals(1_000_000L, customer.get("id"));
+		assertEquals("customer999999@example.com", customer.get("email"));
+		assertTrue(((String) customer.get("code")).matches("[a-z]{20}"));
+		UUID key = UUID.fromString((String) customer.get("key"));
+		assertEquals(4, key.version());
+		for (Object record : customers.subList(0, 1000)) {
+			Map<?, ?> values = (Map<?, ?>) record;
+			long age = (Long) values.get("age");
+			assertTrue(age >= 18 && age <= 90, values.toString());
+			BigDecimal balance = (BigDecimal) values.get("balance");
+			assertTrue(balance.abs().compareTo(BigDecimal.valueOf(50)) <= 0 && balance.scale() == 2);
+			assertTrue(List.of("gold", "silver", 3).contains(values.get("tier")));
+			LocalDate joined = LocalDate.parse((String) values.get("joined"));
+			assertEquals(2020, joined.getYear());
+		}
+	}
+
+	@Test
+	public void testDeterministic() throws Exception {
+		MockDataset customers = build(CUSTOMERS, null);
+		MockDataset again = build(CUSTOMERS, null);
+		MockDataset reseeded = build(CUSTOMERS.replace("\"seed\": 42", "\"seed\": 43"), null);
+		MockDataset fewerFields = build(CUSTOMERS.replace("\"code\": { \"type\": \"text\", \"length\": 20 },", ""),
+				null);
+
+		assertEquals(customers.get(123_456), again.get(123_456));
+		assertEquals(customers.get(7), customers.get(7));
+		assertNotEquals(customers.get(7), customers.get(8));
+		assertNotEquals(((Map<?, ?>) customers.get(7)).get("key"), ((Map<?, ?>) reseeded.get(7)).get("key"));
+		// removing a field leaves the values of the others unchanged
+		assertEquals(((Map<?, ?>) customers.get(7)).get("key"), ((Map<?, ?>) fewerFields.get(7)).get("key"));
+	}
+
+	@Test
+	public void testItemsByIndex() throws Exception {
+		MockDataset customers = build(CUSTOMERS, null);
+
+		assertEquals("index", customers.getIndexParameter());
+		assertEquals(customers.get(10), customers.item("10"));
+		assertNull(customers.item("1000000"));
+		assertNull(customers.item("-1"));
+		assertNull(customers.item("ten"));
+		assertThrows(IndexOutOfBoundsException.class, () -> customers.get(1_000_000));
+	}
+
+	@Test
+	public void testRecordClass() throws Exception {
+		MockDataset customers = build(CUSTOMERS, Customer.class);
+
+		Customer customer = assertInstanceOf(Customer.class, customers.get(4));
+		assertEquals(5, customer.id());
+		assertEquals("customer4@example.com", customer.email());
+	}
+
+	@Test
+	public void testInvalidDatasets() {
+		assertThrows(MockBuilderException.class, () -> build(CUSTOMERS.replace("\"uuid\"", "\"guid\""), null));
+		assertThrows(MockBuilderException.class, () -> build(CUSTOMERS.replace("\"max\": 90", "\"max\": 9"), null));
+		assertThrows(MockBuilderException.class, () -> build(CUSTOMERS.replace("\"min\": 18", "\"min\": 18.5"), null));
+		assertThrows(MockBuilderException.class,
+				() -> build(CUSTOMERS.replace("\"2020-12-31\"", "\"12/31/2020\""), null));
+		assertThrows(MockBuilderException.class,
+				() -> build(CUSTOMERS.replace("java.util.List", "java.util.Map"), null));
+		// a span of 2^64 values does not fit the long the generator draws from
+		assertThrows(MockBuilderException.class, () -> build(CUSTOMERS.replace("\"min\": 18, \"max\": 90",
+				"\"min\": " + Long.MIN_VALUE + ", \"max\": " + Long.MAX_VALUE), null));
+	}
+
+	@Test
+	public void testComparedByConfiguration() throws Exception {
+		MockDataset customers = build(CUSTOMERS, null);
+
+		assertEquals(customers, build(CUSTOMERS, null));
+		assertEquals(customers.hashCode(), build(CUSTOMERS, null).hashCode());
+		assertNotEquals(customers, build(CUSTOMERS.replace("\"seed\": 42", "\"seed\": 43"), null));
+		assertNotEquals(customers, build(CUSTOMERS, Customer.class));
+		assertEquals("MockDataset[count=1000000, seed=42, fields=[id, email, code, age, balance, active, tier, key,"
+				+ " joined]]", customers.toString());
+		assertEquals(1, Map.of(customers, "customers").size());
+	}
+
+	private MockDataset build(String json, Class<?> recordClass) throws Exception {
+		MockObject object = objectMapper.readValue(json, MockObject.class);
+		return (MockDataset) jsonProcessor.buildObject(object, object.getFakeClass(), recordClass, null, null, null);
+	}
+}
@@ -0,0 +1,91 @@
+package net.mcfarb.testing.ddmock;
+
+import static net.mcfarb.testing.ddmock.MockConfigs.object;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import net.mcfarb.testing.ddmock.model.MockGeneratorInfo;
+import net.mcfarb.testing.ddmock.sample.SampleData;
+import net.mcfarb.testing.ddmock.service.JsonProcessor;
+import net.mcfarb.testing.ddmock.service.MockInternTable;
+import net.mcfarb.testing.ddmock.service.MockPlan;
+import net.mcfarb.testing.ddmock.startup.MockLoadReport;
+
+public class MockInternTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	public void testInternsRepeatedValues() throws Exception {
+		MockPlan plan = MockPlan.compile(config(), jsonProcessor(1024));
+		Map<String, Object> objects = plan.getObjects();
+
+		SampleData first = (SampleData) objects.get("first");
+		SampleData second = (SampleData) objects.get("second");
+		assertSame(first.getData1(), second.getData1());
+		assertSame(first.getData2(), second.getData2());
+		List<?> list = (List<?>) objects.get("list");
+		assertSame(first.getData1(), ((SampleData) list.get(0)).getData1());
+		// untyped values are interned as well
+		Map<?, ?> untyped = (Map<?, ?>) objects.get("untyped");
+		assertSame(first.getData1(), untyped.get("status"));
+		assertSame(untyped.get("count"), untyped.get("total"));
+		assertSame(first.getData1(), ((List<?>) untyped.get("history")).get(0));
+
+		MockLoadReport report = plan.getLoadReport();
+		assertEquals(7, report.getInternedValues());
+		assertTrue(report.getInternedBytes() > 0);
+		assertTrue(report.summary().contains("interned 7 values"), report.summary());
+		assertTrue(report.getRetainedBytes() < MockPlan.compile(config(), jsonProcessor(0)).getLoadReport()
+				.getRetainedBytes());
+	}
+
+	@Test
+	public void testBoundsTable() {
+		MockInternTable table = new MockInternTable(1);
+		String status = new String("active");
+		String other = new String("inactive");
+
+		assertSame(status, table.intern(status));
+		assertSame(status, table.intern(new String("active")));
+		// the table is full, later values are kept as they are
+		assertSame(other, table.intern(other));
+		assertNotSame(other, table.intern(new String("inactive")));
+		// mutable values are never shared
+		Date date = new Date(0);
+		table.intern(date);
+		assertNotSame(date, table.intern(new Date(0)));
+		assertEquals(1, table.size());
+		assertEquals(1, table.getHits());
+
+		assertThrows(IllegalArgumentException.class, () -> new MockInternTable(0));
+	}
+
+	private JsonProcessor jsonProcessor(int internCapacity) {
+		JsonProcessor jsonProcessor = new JsonProcessor();
+		jsonProcessor.setObjectMapper(objectMapper);
+		jsonProcessor.setInternCapacity(internCapacity);
+		return jsonProcessor;
+	}
+
+	private static MockGeneratorInfo config() throws Exception {
+		return MockConfigs.config(List.of(
+				object("first", SampleData.class, null, "{\"data1\": \"active\", \"data2\": 100000}"),
+				object("second", SampleData.class, null, "{\"data1\": \"active\", \"data2\": 100000}"),
+				object("list", List.class, SampleData.class, "[{\"data1\": \"active\"}, {\"data1\": \"closed\"}]"),
+				object("untyped", Map.class, null,
+						"{\"status\": \"active\", \"count\": 100000, \"total\": 100000,"
+								+ " \"history\": [\"active\", \"closed\"]}")));
+	}
+}
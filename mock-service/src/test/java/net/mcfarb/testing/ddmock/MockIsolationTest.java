@@ -0,0 +1,248 @@
+package net.mcfarb.testing.ddmock;
+
+import static net.mcfarb.testing.ddmock.MockConfigs.method;
+import static net.mcfarb.testing.ddmock.MockConfigs.object;
+import static net.mcfarb.testing.ddmock.MockConfigs.service;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import net.mcfarb.testing.TestParent;
+import net.mcfarb.testing.ddmock.aspects.MockBuilderException;
+import net.mcfarb.testing.ddmock.model.MockDatasetInfo;
+import net.mcfarb.testing.ddmock.model.MockGeneratorInfo;
+import net.mcfarb.testing.ddmock.model.MockIsolation;
+import net.mcfarb.testing.ddmock.model.MockObject;
+import net.mcfarb.testing.ddmock.sample.SampleData;
+import net.mcfarb.testing.ddmock.service.JsonProcessor;
+import net.mcfarb.testing.ddmock.service.MockObjectCopier;
+import net.mcfarb.testing.ddmock.service.MockProviderImpl;
+import net.mcfarb.testing.ddmock.service.MockReadOnlyView;
+
+public class MockIsolationTest {
+
+	static class Node {
+		String name;
+		int[] weights;
+		Node parent;
+		List<Node> children = new ArrayList<>();
+	}
+
+	record Point(int x, List<String> labels) {
+	}
+
+	record Link(String name, List<Object> next) {
+	}
+
+	public static class Inventory {
+		public LinkedList<String> names;
+		public CopyOnWriteArrayList<Node> nodes;
+		public ConcurrentHashMap<String, Date> dates;
+		public Vector<Integer> counts;
+		public TreeSet<String> tags;
+	}
+
+	static class NoDefaultConstructor {
+		final String name;
+
+		NoDefaultConstructor(String name) {
+			this.name = name;
+		}
+	}
+
+	public interface CatalogService {
+		SampleData getItem(Long id);
+
+		List<SampleData> getItems();
+	}
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final JsonProcessor jsonProcessor = new JsonProcessor();
+
+	{
+		jsonProcessor.setObjectMapper(objectMapper);
+	}
+
+	@Test
+	public void testCopiesGraphs() {
+		Node root = new Node();
+		root.name = "root";
+		root.weights = new int[] { 1, 2 };
+		Node child = new Node();
+		child.parent = root;
+		root.children.add(child);
+		root.children.add(child);
+
+		Node copy = MockObjectCopier.copy(root);
+
+		assertNotSame(root, copy);
+		assertSame(root.name, copy.name);
+		assertNotSame(root.weights, copy.weights);
+		assertArrayEquals(root.weights, copy.weights);
+		assertNotSame(child, copy.children.get(0));
+		// shared references and cycles are kept
+		assertSame(copy.children.get(0), copy.children.get(1));
+		assertSame(copy, copy.children.get(0).parent);
+
+		Point point = new Point(3, new ArrayList<>(List.of("a")));
+		Point pointCopy = MockObjectCopier.copy(point);
+		assertEquals(point, pointCopy);
+		assertNotSame(point.labels(), pointCopy.labels());
+
+		Map<String, Date> dates = new TreeMap<>(Map.of("start", new Date(0)));
+		Map<String, Date> datesCopy = MockObjectCopier.copy(dates);
+		assertEquals(TreeMap.class, datesCopy.getClass());
+		assertNotSame(dates.get("start"), datesCopy.get("start"));
+
+		assertThrows(IllegalArgumentException.class, () -> MockObjectCopier.copy(new NoDefaultConstructor("x")));
+	}
+
+	@Test
+	public void testCopiesSharedValuesOnce() {
+		Point point = new Point(1, new ArrayList<>(List.of("a")));
+		Date date = new Date(0);
+		int[] weights = { 1 };
+		List<Object> values = new ArrayList<>(List.of(point, point, date, date, weights, weights));
+
+		List<Object> copy = MockObjectCopier.copy(values);
+
+		assertNotSame(point, copy.get(0));
+		assertSame(copy.get(0), copy.get(1));
+		assertNotSame(date, copy.get(2));
+		assertSame(copy.get(2), copy.get(3));
+		assertNotSame(weights, copy.get(4));
+		assertSame(copy.get(4), copy.get(5));
+
+		// a record exists only once its components are copied, so a cycle back to it cannot be copied
+		Link link = new Link("a", new ArrayList<>());
+		link.next().add(link);
+		assertThrows(IllegalArgumentException.class, () -> MockObjectCopier.copy(link));
+	}
+
+	@Test
+	public void testCopiesCollectionsIntoTheirOwnClass() throws Exception {
+		Inventory inventory = new Inventory();
+		inventory.names = new LinkedList<>(List.of("a", "b"));
+		inventory.nodes = new CopyOnWriteArrayList<>(List.of(new Node()));
+		inventory.dates = new ConcurrentHashMap<>(Map.of("start", new Date(0)));
+		inventory.counts = new Vector<>(List.of(1, 2));
+		inventory.tags = new TreeSet<>(Comparator.reverseOrder());
+		inventory.tags.addAll(List.of("a", "b"));
+
+		Inventory copy = MockObjectCopier.copy(inventory);
+
+		assertEquals(inventory.names, copy.names);
+		assertNotSame(inventory.nodes.get(0), copy.nodes.get(0));
+		assertNotSame(inventory.dates.get("start"), copy.dates.get("start"));
+		assertEquals(inventory.counts, copy.counts);
+		assertNotSame(inventory.counts, copy.counts);
+		assertEquals(List.of("b", "a"), new ArrayList<>(copy.tags));
+
+		MockObject object = object("inventory", Inventory.class, null,
+				"{\"names\": [\"a\"], \"counts\": [1], \"dates\": {\"start\": 0}}");
+		object.setIsolation(MockIsolation.COPY);
+		assertEquals(List.of("a"), ((Inventory) build(object)).names);
+
+		// unmodifiable collections have no constructor to copy into
+		assertThrows(IllegalArgumentException.class, () -> MockObjectCopier.copy(new Point(1, List.of("a"))));
+	}
+
+	@Test
+	public void testReadOnlyViews() {
+		SampleData data = sampleData();
+		List<SampleData> view = MockReadOnlyView.of(new ArrayList<>(List.of(data)));
+
+		SampleData item = view.get(0);
+		assertEquals(data, item);
+		assertEquals("Mock Data", item.getData1());
+		assertThrows(UnsupportedOperationException.class, () -> item.setData1("changed"));
+		assertThrows(UnsupportedOperationException.class, () -> view.add(data));
+		// dates are copied for every read
+		item.getData3().setTime(1);
+		assertEquals(new Date(1000), item.getData3());
+		// the original stays writable
+		data.setData1("changed");
+		assertEquals("Mock Data", item.getData1());
+
+		assertThrows(IllegalArgumentException.class, () -> MockReadOnlyView.of(new int[] { 1 }));
+	}
+
+	@Test
+	public void testProvidersIsolateObjects() throws Exception {
+		MockGeneratorInfo config = config();
+		MockProviderImpl<TestParent, Object> provider = new MockProviderImpl<>();
+		provider.setJsonProcessor(jsonProcessor);
+		provider.initialize(config);
+		CatalogService catalog = (CatalogService) provider.getBean("catalogService");
+
+		SampleData copy = catalog.getItem(1L);
+		copy.setData1("changed");
+		assertEquals("Mock Data", catalog.getItem(1L).getData1());
+		assertNotSame(catalog.getItem(1L), catalog.getItem(1L));
+
+		List<SampleData> items = catalog.getItems();
+		assertSame(items, catalog.getItems());
+		assertThrows(UnsupportedOperationException.class, () -> items.get(0).setData2(1L));
+		assertThrows(UnsupportedOperationException.class, () -> items.clear());
+	}
+
+	@Test
+	public void testRejectsObjectsThatCannotBeIsolated() throws Exception {
+		MockObject node = object("node", ObjectNode.class, null, objectMapper.createObjectNode().put("name", "Rex"));
+		node.setIsolation(MockIsolation.READ_ONLY);
+
+		assertThrows(MockBuilderException.class, () -> build(node));
+
+		node.setIsolation(MockIsolation.COPY);
+		assertEquals(objectMapper.createObjectNode().put("name", "Rex"), build(node));
+
+		MockObject generated = new MockObject();
+		generated.setId("generated");
+		generated.setFakeClass(List.class);
+		generated.setDataset(new MockDatasetInfo());
+		generated.setIsolation(MockIsolation.COPY);
+		assertThrows(MockBuilderException.class, () -> build(generated));
+	}
+
+	private Object build(MockObject mockObject) throws MockBuilderException {
+		return jsonProcessor.buildObject(mockObject, mockObject.getFakeClass(), null, null, null, null);
+	}
+
+	private MockGeneratorInfo config() {
+		MockObject item = object("item", SampleData.class, null, objectMapper.valueToTree(sampleData()));
+		item.setIsolation(MockIsolation.COPY);
+		MockObject items = object("items", List.class, SampleData.class,
+				objectMapper.valueToTree(List.of(sampleData())));
+		items.setIsolation(MockIsolation.READ_ONLY);
+
+		return MockConfigs.config(List.of(item, items), service(CatalogService.class,
+				method("getItem", "item", Long.class), method("getItems", "items")));
+	}
+
+	private static SampleData sampleData() {
+		SampleData data = new SampleData();
+		data.setData1("Mock Data");
+		data.setData2(55L);
+		data.setData3(new Date(1000));
+		return data;
+	}
+}
@@ -0,0 +1,189 @@
+package net.mcfarb.testing.ddmock;
+
+import static net.mcfarb.testing.ddmock.MockConfigs.method;
+import static net.mcfarb.testing.ddmock.MockConfigs.object;
+import static net.mcfarb.testing.ddmock.MockConfigs.string;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.BeanInitializationException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import net.mcfarb.testing.TestParent;
+import net.mcfarb.testing.ddmock.aspects.MockBuilderException;
+import net.mcfarb.testing.ddmock.model.MockArgumentReturn;
+import net.mcfarb.testing.ddmock.model.MockGeneratorInfo;
+import net.mcfarb.testing.ddmock.model.MockMethodInfo;
+import net.mcfarb.testing.ddmock.model.MockObject;
+import net.mcfarb.testing.ddmock.sample.SampleArgClass;
+import net.mcfarb.testing.ddmock.sample.SampleData;
+import net.mcfarb.testing.ddmock.sample.SampleService;
+import net.mcfarb.testing.ddmock.service.JsonProcessor;
+import net.mcfarb.testing.ddmock.service.MockPlan;
+import net.mcfarb.testing.ddmock.service.MockProviderImpl;
+
+public class MockPlanTest {
+
+	private static final ObjectMapper JSON = new ObjectMapper();
+
+	private final JsonProcessor jsonProcessor = new JsonProcessor();
+
+	{
+		jsonProcessor.setObjectMapper(new ObjectMapper().setDateFormat(new SimpleDateFormat("MM/dd/yyyy, HH:mm:ss")));
+	}
+
+	@Test
+	public void testProvidersShareObjectsNotMocks() throws Exception {
+		MockPlan plan = MockPlan.compile(config(method("getSomeOtherDataNoArgs", "first,second")), jsonProcessor);
+
+		SampleService one = service(plan);
+		SampleService two = service(plan);
+
+		assertNotSame(one, two);
+		assertEquals("first", one.getSomeOtherDataNoArgs());
+		assertEquals("second", one.getSomeOtherDataNoArgs());
+		assertEquals("second", one.getSomeOtherDataNoArgs());
+		// calls are counted per mock
+		assertEquals("first", two.getSomeOtherDataNoArgs());
+		Mockito.verify(one, Mockito.times(3)).getSomeOtherDataNoArgs();
+		Mockito.verify(two, Mockito.times(1)).getSomeOtherDataNoArgs();
+		// methods that are not stubbed answer Mockito's defaults
+		assertNull(one.getSomeData(null, null, null));
+		assertTrue(one.getAListOfLongs(List.of()).isEmpty());
+		assertSame(plan.getObjects().get("first"), "first");
+	}
+
+	@Test
+	public void testReportsEveryProblem() {
+		MockGeneratorInfo config = config(
+				method("getSomeOtherDataNoArgs", "missing"),
+				method("getAListOfObjects", "first", Integer.class),
+				method("noSuchMethod", "first"),
+				method("getSomeData", "broken", SampleArgClass.class, String.class, Long.class));
+		MockObject broken = new MockObject();
+		broken.setId("broken");
+		config.getMockObjects().add(broken);
+
+		MockBuilderException e = assertThrows(MockBuilderException.class,
+				() -> MockPlan.compile(config, jsonProcessor));
+
+		// the broken object is reported once, not again by the method returning it
+		assertEquals(4, e.getSuppressed().length);
+		assertTrue(e.getMessage().contains("Object with name missing Not Found"));
+		assertTrue(e.getMessage().contains("Class of type java.lang.String expecting interface java.util.List"));
+		assertTrue(e.getMessage().contains("noSuchMethod"));
+		assertTrue(e.getMessage().contains("Mock Object with id broken has no associated class"));
+
+		MockProviderImpl<TestParent, Object> provider = new MockProviderImpl<>();
+		provider.setJsonProcessor(jsonProcessor);
+		BeanInitializationException wrapped = assertThrows(BeanInitializationException.class,
+				() -> provider.initialize(config));
+		assertEquals(4, wrapped.getCause().getSuppressed().length);
+	}
+
+	@Test
+	public void testCachesPlansPerFile() throws Exception {
+		MockPlan plan = MockPlan.cached("mockdata/MockBuilderTest", jsonProcessor);
+
+		assertSame(plan, MockPlan.cached("mockdata/MockBuilderTest", jsonProcessor));
+		// another processor may build the file differently, e.g. parse another date format
+		JsonProcessor otherProcessor = new JsonProcessor();
+		otherProcessor.setObjectMapper(jsonProcessor.getObjectMapper());
+		assertNotSame(plan, MockPlan.cached("mockdata/MockBuilderTest", otherProcessor));
+		MockProviderImpl<TestParent, Object> provider = new MockProviderImpl<>();
+		provider.initialize(plan);
+		SampleService sampleService = (SampleService) provider.getBean("sampleService");
+		assertEquals("This is from the mock", sampleService.getSomeOtherDataNoArgs());
+		assertSame(plan.getLoadReport(), provider.getLoadReport());
+	}
+
+	@Test
+	public void testReturnsByArguments() throws Exception {
+		MockMethodInfo getSomeData = method("getSomeData", "other", SampleArgClass.class, String.class, Long.class);
+		getSomeData.setArgumentReturns(List.of(
+				row("alice,bob", "{\"argData\": \"x\", \"now\": 0}", "\"a\"", "1"),
+				row("bob", "null", "\"b\"", "2")));
+		MockMethodInfo getAListOfLongs = method("getAListOfLongs", null, List.class);
+		getAListOfLongs.setArgumentReturns(List.of(row("longs", "[1, 2]")));
+		MockGeneratorInfo config = config(getSomeData, getAListOfLongs);
+		for (String name : List.of("alice", "bob", "other")) {
+			config.getMockObjects().add(object(name, SampleData.class, null, "{\"data1\": \"" + name + "\"}"));
+		}
+		MockObject longs = object("longs", List.class, null, "[3, 5]");
+		longs.setGenericClass(Long.class);
+		config.getMockObjects().add(longs);
+
+		SampleService service = service(MockPlan.compile(config, jsonProcessor));
+
+		// beans without equals match by value
+		SampleArgClass arg = new SampleArgClass();
+		arg.setArgData("x");
+		arg.setNow(new Date(0));
+		assertEquals("alice", service.getSomeData(arg, "a", 1L).getData1());
+		assertEquals("bob", service.getSomeData(arg, "a", 1L).getData1());
+		assertEquals("bob", service.getSomeData(null, "b", 2L).getData1());
+		// each row keeps its own order
+		assertEquals("bob", service.getSomeData(arg, "a", 1L).getData1());
+		assertEquals("other", service.getSomeData(arg, "a", 2L).getData1());
+		assertEquals("other", service.getSomeData(new SampleArgClass(), "a", 1L).getData1());
+		assertEquals(List.of(3L, 5L), service.getAListOfLongs(List.of(1L, 2L)));
+		// without a returnId other arguments get Mockito's defaults
+		assertTrue(service.getAListOfLongs(List.of(2L, 1L)).isEmpty());
+	}
+
+	@Test
+	public void testReportsArgumentProblems() throws Exception {
+		MockMethodInfo getSomeData = method("getSomeData", "data", SampleArgClass.class, String.class, Long.class);
+		getSomeData.setArgumentReturns(List.of(
+				row("data", "\"a\""),
+				row("data", "null", "\"a\"", "1"),
+				row("data", "null", "\"a\"", "1.0"),
+				row("data", "null", "\"a\"", "\"one\"")));
+		MockGeneratorInfo config = config(getSomeData);
+		config.getMockObjects().add(object("data", SampleData.class, null, "{}"));
+
+		MockBuilderException e = assertThrows(MockBuilderException.class,
+				() -> MockPlan.compile(config, jsonProcessor));
+
+		assertEquals(3, e.getSuppressed().length);
+		assertTrue(e.getMessage().contains("have 1 values, expecting 3"));
+		// 1.0 is converted to the same Long as 1
+		assertTrue(e.getMessage().contains("are listed twice"));
+		assertTrue(e.getMessage().contains("do not match its parameter types"));
+	}
+
+	private SampleService service(MockPlan plan) {
+		MockProviderImpl<TestParent, Object> provider = new MockProviderImpl<>();
+		provider.initialize(plan);
+		return (SampleService) provider.getBean("sampleService");
+	}
+
+	private static MockGeneratorInfo config(MockMethodInfo... methods) {
+		return MockConfigs.config(List.of(string("first", "first"), string("second", "second")),
+				MockConfigs.service(SampleService.class, methods));
+	}
+
+	private static MockArgumentReturn row(String returnId, String... arguments) throws Exception {
+		MockArgumentReturn row = new MockArgumentReturn();
+		row.setReturnId(returnId);
+		List<JsonNode> values = new ArrayList<>();
+		for (String argument : arguments) {
+			values.add(JSON.readTree(argument));
+		}
+		row.setArguments(values);
+		return row;
+	}
+}
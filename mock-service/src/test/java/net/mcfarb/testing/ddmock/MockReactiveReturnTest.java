@@ -0,0 +1,145 @@
+package net.mcfarb.testing.ddmock;
+
+import static net.mcfarb.testing.ddmock.MockConfigs.method;
+import static net.mcfarb.testing.ddmock.MockConfigs.object;
+import static net.mcfarb.testing.ddmock.MockConfigs.service;
+import static net.mcfarb.testing.ddmock.MockConfigs.string;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import net.mcfarb.testing.TestParent;
+import net.mcfarb.testing.ddmock.aspects.MockBuilderException;
+import net.mcfarb.testing.ddmock.model.MockGeneratorInfo;
+import net.mcfarb.testing.ddmock.model.MockMethodInfo;
+import net.mcfarb.testing.ddmock.model.MockObject;
+import net.mcfarb.testing.ddmock.sample.SampleData;
+import net.mcfarb.testing.ddmock.service.JsonProcessor;
+import net.mcfarb.testing.ddmock.service.MockPlan;
+import net.mcfarb.testing.ddmock.service.MockProviderImpl;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+public class MockReactiveReturnTest {
+
+	public interface ReactiveCatalog {
+		Mono<SampleData> getItem(Long id);
+
+		Flux<SampleData> getItems();
+
+		CompletableFuture<SampleData> loadItem(Long id);
+
+		Mono<SampleData> failItem();
+
+		Flux<SampleData> streamItems();
+
+		SampleData readItem() throws IOException;
+	}
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final JsonProcessor jsonProcessor = new JsonProcessor();
+
+	{
+		jsonProcessor.setObjectMapper(objectMapper);
+	}
+
+	@Test
+	public void testWrapsObjectsWithDelays() throws Exception {
+		MockMethodInfo getItem = method("getItem", "item", Long.class);
+		getItem.setDelayMillis(1000L);
+		MockMethodInfo getItems = method("getItems", "items");
+		getItems.setElementDelayMillis(100L);
+		ReactiveCatalog catalog = catalog(getItem, getItems, method("loadItem", "item", Long.class));
+
+		StepVerifier.withVirtualTime(() -> catalog.getItem(1L))
+				.expectSubscription()
+				.expectNoEvent(Duration.ofMillis(1000))
+				.assertNext(item -> assertEquals("item", item.getData1()))
+				.verifyComplete();
+		StepVerifier.withVirtualTime(catalog::getItems)
+				.expectSubscription()
+				.expectNoEvent(Duration.ofMillis(100))
+				.assertNext(item -> assertEquals("item0", item.getData1()))
+				.expectNoEvent(Duration.ofMillis(100))
+				.expectNextCount(1)
+				.thenAwait(Duration.ofMillis(100))
+				.assertNext(item -> assertEquals("item2", item.getData1()))
+				.verifyComplete();
+		assertEquals("item", catalog.loadItem(1L).get().getData1());
+	}
+
+	@Test
+	public void testSignalsErrors() throws Exception {
+		MockMethodInfo failItem = method("failItem", null);
+		failItem.setErrorClass(IllegalStateException.class);
+		failItem.setErrorMessage("catalog down");
+		MockMethodInfo streamItems = method("streamItems", "items");
+		streamItems.setErrorClass(IllegalStateException.class);
+		MockMethodInfo readItem = method("readItem", null);
+		readItem.setErrorClass(IOException.class);
+		readItem.setErrorMessage("disk full");
+		ReactiveCatalog catalog = catalog(failItem, streamItems, readItem);
+
+		StepVerifier.create(catalog.failItem())
+				.expectErrorMessage("catalog down")
+				.verify();
+		StepVerifier.create(catalog.streamItems())
+				.expectNextCount(3)
+				.expectError(IllegalStateException.class)
+				.verify();
+		assertEquals("disk full", assertThrows(IOException.class, catalog::readItem).getMessage());
+	}
+
+	@Test
+	public void testReportsWrappingProblems() throws Exception {
+		MockMethodInfo readItem = method("readItem", "item");
+		readItem.setDelayMillis(10L);
+		MockMethodInfo getItem = method("getItem", "item", Long.class);
+		getItem.setErrorClass(IllegalStateException.class);
+		MockMethodInfo getItems = method("getItems", "items");
+		getItems.setErrorClass(UncheckedIOException.class);
+		MockGeneratorInfo config = config(readItem, getItem, getItems, method("loadItem", "name", Long.class));
+
+		MockBuilderException e = assertThrows(MockBuilderException.class,
+				() -> MockPlan.compile(config, jsonProcessor));
+
+		assertEquals(4, e.getSuppressed().length);
+		assertTrue(e.getMessage().contains("readItem of service reactiveCatalog sets delayMillis"));
+		assertTrue(e.getMessage().contains("getItem of service reactiveCatalog sets both errorClass and return objects"));
+		assertTrue(e.getMessage().contains("UncheckedIOException has no public no-arg constructor"));
+		assertTrue(e.getMessage().contains("Class of type java.lang.String expecting "
+				+ "java.util.concurrent.CompletableFuture<" + SampleData.class.getName() + ">"));
+	}
+
+	private ReactiveCatalog catalog(MockMethodInfo... methods) {
+		MockProviderImpl<TestParent, Object> provider = new MockProviderImpl<>();
+		provider.setJsonProcessor(jsonProcessor);
+		provider.initialize(config(methods));
+		return (ReactiveCatalog) provider.getBean("reactiveCatalog");
+	}
+
+	private MockGeneratorInfo config(MockMethodInfo... methods) {
+		MockObject item = object("item", SampleData.class, null, objectMapper.valueToTree(sampleData("item")));
+		MockObject items = object("items", List.class, SampleData.class,
+				objectMapper.valueToTree(List.of(sampleData("item0"), sampleData("item1"), sampleData("item2"))));
+		return MockConfigs.config(List.of(item, items, string("name", "item")),
+				service(ReactiveCatalog.class, methods));
+	}
+
+	private static SampleData sampleData(String data1) {
+		SampleData data = new SampleData();
+		data.setData1(data1);
+		return data;
+	}
+}
@@ -0,0 +1,95 @@
+package net.mcfarb.testing.ddmock;
+
+import static net.mcfarb.testing.ddmock.MockConfigs.object;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import net.mcfarb.testing.ddmock.aspects.MockBuilderException;
+import net.mcfarb.testing.ddmock.model.MockGeneratorInfo;
+import net.mcfarb.testing.ddmock.model.MockObject;
+import net.mcfarb.testing.ddmock.sample.SampleData;
+import net.mcfarb.testing.ddmock.service.JsonProcessor;
+import net.mcfarb.testing.ddmock.service.MockPlan;
+
+public class MockReferenceTest {
+
+	public static class Order {
+		public String id;
+		public SampleData item;
+		public List<SampleData> related;
+	}
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final JsonProcessor jsonProcessor = new JsonProcessor();
+
+	{
+		jsonProcessor.setObjectMapper(objectMapper);
+	}
+
+	@Test
+	public void testSharesReferencedObjects() throws Exception {
+		// referring objects come first, their targets are built on demand
+		MockGeneratorInfo config = config(
+				object("order", Order.class, null,
+						"{\"id\": \"o1\", \"item\": {\"$ref\": \"item\"}, \"related\": {\"$ref\": \"items\"}}"),
+				object("second", SampleData.class, null, "{\"$ref\": \"items#/1\"}"),
+				object("items", List.class, SampleData.class,
+						"[{\"$ref\": \"item\"}, {\"data1\": \"other\", \"data2\": 2}]"),
+				object("item", SampleData.class, null, "{\"data1\": \"shared\", \"data2\": 1}"),
+				object("untyped", Map.class, null, "{\"a\": {\"b\": [{\"$ref\": \"item\"}]}}"),
+				object("tree", JsonNode.class, null, "{\"item\": {\"$ref\": \"item\"}, \"n\": 1}"));
+
+		MockPlan plan = MockPlan.compile(config, jsonProcessor);
+		Map<String, Object> objects = plan.getObjects();
+
+		SampleData item = (SampleData) objects.get("item");
+		assertEquals("shared", item.getData1());
+		Order order = (Order) objects.get("order");
+		assertEquals("o1", order.id);
+		assertSame(item, order.item);
+		assertSame(objects.get("items"), order.related);
+		assertSame(item, order.related.get(0));
+		assertSame(order.related.get(1), objects.get("second"));
+		assertSame(item, ((List<?>) ((Map<?, ?>) ((Map<?, ?>) objects.get("untyped")).get("a")).get("b")).get(0));
+		// a tree holds nodes, so the item is converted once and the node shared
+		JsonNode tree = (JsonNode) objects.get("tree");
+		assertEquals("shared", tree.get("item").get("data1").asText());
+		assertEquals(1, tree.get("n").asInt());
+	}
+
+	@Test
+	public void testReportsReferenceProblems() throws Exception {
+		MockGeneratorInfo config = config(
+				object("a", Order.class, null, "{\"item\": {\"$ref\": \"b\"}}"),
+				object("b", SampleData.class, null, "{\"$ref\": \"a#/item\"}"),
+				object("missing", Order.class, null, "{\"item\": {\"$ref\": \"nothing\"}}"),
+				object("badPointer", SampleData.class, null, "{\"$ref\": \"ok#/data9\"}"),
+				object("ok", SampleData.class, null, "{\"data1\": \"ok\"}"));
+
+		MockBuilderException e = assertThrows(MockBuilderException.class,
+				() -> MockPlan.compile(config, jsonProcessor));
+
+		assertTrue(e.getMessage().contains("Cyclic $ref: a -> b -> a"), e.getMessage());
+		assertTrue(e.getMessage().contains("$ref nothing: no mock object with id nothing"), e.getMessage());
+		assertTrue(e.getMessage().contains("$ref ok#/data9: nothing at /data9"), e.getMessage());
+
+		// references need the other objects of the config
+		MockObject single = object("single", Order.class, null, "{\"item\": {\"$ref\": \"ok\"}}");
+		assertThrows(MockBuilderException.class, () -> jsonProcessor.buildObject(single, Order.class, null, null,
+				null, null));
+	}
+
+	private static MockGeneratorInfo config(MockObject... objects) {
+		return MockConfigs.config(List.of(objects));
+	}
+}
@@ -0,0 +1,125 @@
+package net.mcfarb.testing.ddmock;
+
+import static net.mcfarb.testing.ddmock.MockRestConfigs.provider;
+import static net.mcfarb.testing.ddmock.MockRestConfigs.route;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.BeanInitializationException;
+
+import net.mcfarb.testing.ddmock.model.MockRestMethodInfo;
+import net.mcfarb.testing.ddmock.service.MockRestProvider;
+import net.mcfarb.testing.ddmock.service.MockRouteTable;
+import net.mcfarb.testing.ddmock.service.MockRouteTable.Match;
+import net.mcfarb.testing.ddmock.service.RestMatchListener;
+
+public class MockRequestConditionsTest {
+
+	private MockRestProvider provider;
+	private MockRouteTable<String> table;
+
+	@BeforeEach
+	public void setup() {
+		List<MockRestMethodInfo> methods = new ArrayList<>();
+		for (int version = 1; version <= 10; version++) {
+			MockRestMethodInfo method = route("/docs", "GET", "v" + version);
+			method.setRequestHeaders(Map.of("X-Api-Version", String.valueOf(version)));
+			methods.add(method);
+		}
+		MockRestMethodInfo bearer = route("/docs", "GET", "bearer");
+		bearer.setAuthorizationScheme("Bearer");
+		MockRestMethodInfo xml = route("/docs", "GET", "xml");
+		xml.setProduces("application/xml");
+		MockRestMethodInfo json = route("/docs", "GET", "json");
+		json.setProduces("application/json");
+		MockRestMethodInfo form = route("/docs", "GET", "form");
+		form.setConsumes("application/x-www-form-urlencoded");
+		MockRestMethodInfo fallback = route("/docs", "GET", "fallback");
+		methods.addAll(List.of(bearer, xml, json, form, fallback));
+
+		provider = provider(methods.toArray(MockRestMethodInfo[]::new));
+		table = MockRouteTable.<String>builder().addProvider("docs", provider).build();
+	}
+
+	@Test
+	public void testVariantsByHeader() {
+		assertEquals("v7", find(Map.of("x-api-version", "7")));
+		assertEquals("bearer", find(Map.of("Authorization", "bearer abc.def")));
+		// without an Accept header the earlier produces variants match first
+		assertEquals("xml", find(Map.of("Content-Type", "application/x-www-form-urlencoded")));
+		assertEquals("form", find(Map.of("Content-Type", "application/x-www-form-urlencoded; charset=UTF-8",
+				"Accept", "text/plain")));
+		assertEquals("fallback", find(Map.of("X-Api-Version", "11", "Accept", "text/plain")));
+		assertEquals("fallback", find(Map.of("Authorization", "Basic Zm9vOmJhcg==", "Accept", "text/csv")));
+	}
+
+	@Test
+	public void testContentNegotiation() {
+		// declaration order decides among the variants the client accepts
+		assertEquals("xml", find(Map.of()));
+		assertEquals("xml", find(Map.of("Accept", "*/*")));
+		assertEquals("xml", find(Map.of("Accept", "application/*")));
+		assertEquals("json", find(Map.of("Accept", "application/json")));
+		assertEquals("json", find(Map.of("Accept", "text/html, application/json;q=0.5")));
+		assertEquals("json", find(Map.of("Accept", "application/xml;q=0, */*")));
+		assertEquals("fallback", find(Map.of("Accept", "text/html")));
+	}
+
+	@Test
+	public void testLooksUpVariantsByHash() {
+		List<Integer> examined = new ArrayList<>();
+		table.find("/docs", "GET", null, headers(Map.of("X-Api-Version", "7", "Accept", "application/json")), null,
+				(path, method, candidates, match) -> examined.add(candidates));
+
+		// the unconditioned fallback and the v7 variant, not the other versions
+		assertEquals(List.of(2), examined);
+	}
+
+	@Test
+	public void testTableMatchesProvider() {
+		List<Map<String, String>> requests = List.of(Map.of(), Map.of("X-Api-Version", "3"),
+				Map.of("X-Api-Version", "3", "Accept", "text/plain"), Map.of("Authorization", "Bearer x"),
+				Map.of("Accept", "application/json"), Map.of("Accept", "text/*"),
+				Map.of("Content-Type", "application/x-www-form-urlencoded", "Accept", "text/plain"));
+		for (Map<String, String> request : requests) {
+			Match<String> match = table.find("/docs", "GET", null, headers(request), null, RestMatchListener.NOOP);
+			assertSame(provider.findRestMethod("/docs", "GET", null, headers(request), null), match.method(),
+					request.toString());
+		}
+		// without headers only produces variants and unconditioned routes apply
+		assertEquals("xml", table.find("/docs", "GET", null).method().getReturnId());
+		assertNull(table.find("/docs", "POST", null));
+	}
+
+	@Test
+	public void testInvalidMediaTypes() {
+		MockRestMethodInfo wildcard = route("/docs", "GET", "wildcard");
+		wildcard.setProduces("application/*");
+		assertThrows(BeanInitializationException.class, () -> provider(wildcard));
+
+		MockRestMethodInfo invalid = route("/docs", "GET", "invalid");
+		invalid.setConsumes("json");
+		assertThrows(BeanInitializationException.class, () -> provider(invalid));
+	}
+
+	private String find(Map<String, String> request) {
+		Match<String> match = table.find("/docs", "GET", null, headers(request), null, RestMatchListener.NOOP);
+		return match != null ? match.method().getReturnId() : null;
+	}
+
+	private static Function<String, String> headers(Map<String, String> headers) {
+		Map<String, String> byName = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		byName.putAll(headers);
+		return byName::get;
+	}
+}
@@ -0,0 +1,214 @@
+package net.mcfarb.testing.ddmock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import net.mcfarb.testing.ddmock.model.MockResourceOperation;
+import net.mcfarb.testing.ddmock.model.MockRestMethodInfo;
+import net.mcfarb.testing.ddmock.service.JsonProcessor;
+import net.mcfarb.testing.ddmock.service.MockResourceStore;
+import net.mcfarb.testing.ddmock.service.MockRestProvider;
+
+public class MockResourceStoreTest {
+
+	private ObjectMapper objectMapper = new ObjectMapper();
+	private JsonProcessor jsonProcessor = new JsonProcessor();
+	private MockRestProvider mockRestProvider = new MockRestProvider();
+	private MockResourceStore users;
+
+	@BeforeEach
+	public void setup() throws Exception {
+		objectMapper.setPropertyNamingStrategy(PropertyNamingStrategies.LOWER_CAMEL_CASE)
+				.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+		jsonProcessor.setObjectMapper(objectMapper);
+		mockRestProvider.setJsonProcessor(jsonProcessor);
+		mockRestProvider.initialize(
+				jsonProcessor.buildMockRestInfoObjectFromJson("mockdata/" + this.getClass().getSimpleName()));
+		users = mockRestProvider.getResources().get("users");
+	}
+
+	@Test
+	public void testGeneratesRoutesAfterExplicitMethods() {
+		assertEquals(Set.of("users"), mockRestProvider.getResources().keySet());
+		assertEquals(1 + MockResourceOperation.values().length, mockRestProvider.getRestMethods().size());
+
+		MockRestMethodInfo me = mockRestProvider.findRestMethod("/api/v1/users/me", "GET", null);
+		assertEquals("me", me.getReturnId());
+		assertNull(me.getResourceOperation());
+
+		MockRestMethodInfo get = mockRestProvider.findRestMethod("/api/v1/users/2", "GET", null);
+		assertEquals(MockResourceOperation.GET, get.getResourceOperation());
+		assertSame(users, get.getResourceStore());
+		assertEquals(MockResourceOperation.LIST,
+				mockRestProvider.findRestMethod("/api/v1/users", "GET", null).getResourceOperation());
+		assertEquals(MockResourceOperation.UPDATE,
+				mockRestProvider.findRestMethod("/api/v1/users/2", "PATCH", null).getResourceOperation());
+	}
+
+	@Test
+	public void testCrud() {
+		assertEquals(3, users.size());
+		assertEquals("Bob", users.get("2").get("name").asText());
+
+		ObjectNode created = users.create(json("{\"name\":\"Dag\",\"role\":\"user\"}"));
+		assertEquals(4, created.get("id").asLong());
+		assertNull(users.create(json("{\"id\":4,\"name\":\"Eve\"}")));
+
+		ObjectNode updated = users.update("4", json("{\"role\":\"admin\",\"id\":99}"));
+		assertEquals("Dag", updated.get("name").asText());
+		assertEquals("admin", updated.get("role").asText());
+		assertEquals(4, updated.get("id").asLong());
+		// stored records are replaced, never changed in place
+		assertEquals("user", created.get("role").asText());
+
+		ObjectNode replaced = users.replace("4", json("{\"name\":\"Dagny\"}"));
+		assertEquals(4, replaced.get("id").asLong());
+		assertFalse(replaced.has("role"));
+		assertNull(users.replace("40", json("{}")));
+
+		assertTrue(users.delete("4"));
+		assertFalse(users.delete("4"));
+		assertNull(users.get("4"));
+		assertThrows(IllegalArgumentException.class, () -> users.create(json("[1]")));
+	}
+
+	@Test
+	public void testListFilters() {
+		assertEquals(List.of("Ann", "Bob", "Cid"), names(users.list(Map.of())));
+		assertEquals(List.of("Bob", "Cid"), names(users.list(Map.of("role", "user"))));
+		assertEquals(List.of("Cid"), names(users.list(Map.of("role", "user", "address.city", "Oslo"))));
+		// not indexed, compared record by record
+		assertEquals(List.of("Bob"), names(users.list(Map.of("name", "Bob"))));
+		assertEquals(List.of(), names(users.list(Map.of("role", "guest"))));
+
+		users.update("2", json("{\"role\":\"admin\"}"));
+		users.delete("3");
+		assertEquals(List.of(), names(users.list(Map.of("role", "user"))));
+		assertEquals(List.of("Ann", "Bob"), names(users.list(Map.of("role", "admin"))));
+	}
+
+	@Test
+	public void testSnapshotAndReset() {
+		users.create(json("{\"name\":\"Dag\",\"role\":\"user\"}"));
+		users.snapshot("four");
+		users.delete("1");
+		users.update("2", json("{\"role\":\"admin\"}"));
+
+		assertTrue(users.restore("four"));
+		assertEquals(List.of("Ann", "Bob", "Cid", "Dag"), names(users.list(null)));
+		assertEquals(List.of("Bob", "Cid", "Dag"), names(users.list(Map.of("role", "user"))));
+		assertFalse(users.restore("missing"));
+
+		users.reset();
+		assertEquals(List.of("Ann", "Bob", "Cid"), names(users.list(null)));
+		assertEquals(4, users.create(json("{\"name\":\"Dag\"}")).get("id").asLong());
+	}
+
+	@Test
+	public void testConcurrentWrites() throws Exception {
+		int threads = 8;
+		int perThread = 500;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<List<String>>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				futures.add(executor.submit(() -> {
+					List<String> ids = new ArrayList<>();
+					for (int i = 0; i < perThread; i++) {
+						String id = users.create(json("{\"role\":\"user\"}")).get("id").asText();
+						users.update(id, json("{\"role\":\"bulk\"}"));
+						ids.add(id);
+					}
+					return ids;
+				}));
+			}
+			Set<String> ids = new HashSet<>();
+			for (Future<List<String>> future : futures) {
+				ids.addAll(future.get());
+			}
+			assertEquals(threads * perThread, ids.size());
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(3 + threads * perThread, users.size());
+		assertEquals(threads * perThread, users.list(Map.of("role", "bulk")).size());
+		assertEquals(2, users.list(Map.of("role", "user")).size());
+	}
+
+	@Test
+	public void testQueryIgnoresUnknownParameters() {
+		assertEquals(List.of("Bob", "Cid"), names(users.query(Map.of("role", List.of("user"), "page", List.of("1")))));
+		assertEquals(List.of("Ann", "Bob", "Cid"), names(users.query(Map.of("_", List.of("1712345678")))));
+		// repeated parameters match any of their values
+		assertEquals(List.of("Ann", "Cid"), names(users.query(Map.of("name", List.of("Ann", "Cid")))));
+		assertEquals(List.of("Ann", "Bob", "Cid"), names(users.query(Map.of("role", List.of("admin", "user")))));
+		assertEquals(List.of(), names(users.query(Map.of("role", List.of("guest")))));
+		assertEquals(List.of("Ann", "Bob", "Cid"), names(users.query(null)));
+	}
+
+	@Test
+	public void testConcurrentWritesSharingIndexedValues() throws Exception {
+		int threads = 4;
+		int writes = 5000;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Integer>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				futures.add(executor.submit(() -> {
+					// every thread moves its own record between two values the others move theirs to
+					String id = users.create(json("{\"role\":\"blue\"}")).get("id").asText();
+					int missing = 0;
+					for (int i = 0; i < writes; i++) {
+						String role = i % 2 == 0 ? "green" : "blue";
+						users.update(id, json("{\"role\":\"" + role + "\"}"));
+						if (users.list(Map.of("role", role)).stream().noneMatch(record -> record.get("id").asText()
+								.equals(id))) {
+							missing++;
+						}
+					}
+					return missing;
+				}));
+			}
+			for (Future<Integer> future : futures) {
+				assertEquals(0, future.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(threads, users.list(Map.of("role", "blue")).size());
+	}
+
+	private JsonNode json(String content) {
+		try {
+			return objectMapper.readTree(content);
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static List<String> names(List<ObjectNode> records) {
+		return records.stream().map(record -> record.path("name").asText()).toList();
+	}
+}
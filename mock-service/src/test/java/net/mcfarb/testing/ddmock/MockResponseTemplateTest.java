@@ -0,0 +1,137 @@
+package net.mcfarb.testing.ddmock;
+
+import static net.mcfarb.testing.ddmock.MockRestConfigs.route;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.BeanInitializationException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import net.mcfarb.testing.ddmock.model.MockObject;
+import net.mcfarb.testing.ddmock.model.MockRestMethodInfo;
+import net.mcfarb.testing.ddmock.service.MockResponseTemplate;
+import net.mcfarb.testing.ddmock.service.MockRestProvider;
+
+public class MockResponseTemplateTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	public void testRendersRequestValues() throws Exception {
+		MockResponseTemplate template = MockResponseTemplate.compile("""
+				{"id": "{{path.id}}", "page": "{{ query.page }}", "name": "{{body.name}}",
+				 "sku": "{{body.items.1.sku}}", "customer": "{{body.customer}}", "missing": "x{{query.none}}x"}
+				""", true);
+
+		assertTrue(template.readsBody());
+		JsonNode rendered = render(template, Map.of("id", "42"), Map.of("page", List.of("2", "3")),
+				"{\"name\": \"Ann \\\"A\\\"\", \"items\": [{\"sku\": \"a\"}, {\"sku\": \"b\"}], \"customer\": {\"id\": 7}}");
+
+		assertEquals("42", rendered.get("id").asText());
+		assertEquals("2", rendered.get("page").asText());
+		// values are escaped as JSON string content
+		assertEquals("Ann \"A\"", rendered.get("name").asText());
+		assertEquals("b", rendered.get("sku").asText());
+		assertEquals("{\"id\":7}", rendered.get("customer").asText());
+		assertEquals("xx", rendered.get("missing").asText());
+	}
+
+	@Test
+	public void testNowAndSequence() throws Exception {
+		MockResponseTemplate template = MockResponseTemplate.compile(
+				"{\"seq\": \"{{seq}}\", \"again\": \"{{seq}}\", \"at\": \"{{now}}\"}", true);
+
+		assertFalse(template.readsBody());
+		JsonNode first = render(template, Map.of(), null, null);
+		JsonNode second = render(template, Map.of(), null, null);
+		assertEquals("1", first.get("seq").asText());
+		assertEquals("1", first.get("again").asText());
+		assertEquals("2", second.get("seq").asText());
+		Instant.parse(first.get("at").asText());
+	}
+
+	@Test
+	public void testPlainText() {
+		MockResponseTemplate template = MockResponseTemplate.compile("order \"{{path.id}}\" of {{body.name}}", false);
+
+		assertEquals("order \"7\" of ünïcode", new String(template.render(Map.of("id", "7"), null,
+				"{\"name\": \"ünïcode\"}".getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8));
+		assertEquals("order \"\" of ", new String(template.render(null, null, "not json".getBytes()),
+				StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testLargeRenders() {
+		String large = "x".repeat(300 * 1024);
+		MockResponseTemplate template = MockResponseTemplate.compile("{{path.id}}" + large + "{{path.id}}", false);
+
+		assertEquals("1" + large + "1", new String(template.render(Map.of("id", "1"), null, null),
+				StandardCharsets.UTF_8));
+		assertEquals("2" + large + "2", new String(template.render(Map.of("id", "2"), null, null),
+				StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testInvalidTemplates() {
+		assertThrows(IllegalArgumentException.class, () -> MockResponseTemplate.compile("{{path.id", false));
+		assertThrows(IllegalArgumentException.class, () -> MockResponseTemplate.compile("{{user.id}}", false));
+		assertThrows(IllegalArgumentException.class, () -> MockResponseTemplate.compile("{{path.}}", false));
+
+		MockObject invalid = templated("{\"id\": \"{{header.id}}\"}");
+		assertThrows(BeanInitializationException.class, () -> provider(invalid));
+	}
+
+	@Test
+	public void testProviderCompilesTemplatedObjects() throws Exception {
+		MockObject user = templated("{\"id\": \"{{path.id}}\", \"name\": \"User {{path.id}}\"}");
+		MockRestProvider provider = provider(user);
+		MockRestMethodInfo method = provider.findRestMethod("/users/42", "GET", null);
+
+		MockResponseTemplate template = provider.getResponseTemplate(method);
+		JsonNode rendered = render(template, Map.of("id", "42"), null, null);
+		assertEquals("User 42", rendered.get("name").asText());
+		// the object itself still holds the placeholders
+		assertEquals("{{path.id}}", ((Map<?, ?>) provider.getResponseObject(method)).get("id"));
+
+		user.setTemplate(false);
+		assertNull(provider(user).getResponseTemplate(method));
+	}
+
+	private JsonNode render(MockResponseTemplate template, Map<String, String> pathParameters,
+			Map<String, List<String>> queryParams, String body) throws Exception {
+		byte[] rendered = template.render(pathParameters, queryParams,
+				body != null ? body.getBytes(StandardCharsets.UTF_8) : null);
+		return objectMapper.readTree(rendered);
+	}
+
+	private MockObject templated(String json) {
+		MockObject object = new MockObject();
+		object.setId("user");
+		object.setFakeClass(Map.class);
+		object.setKeyClass(String.class);
+		object.setValueClass(String.class);
+		object.setVersion("2.0");
+		object.setTemplate(true);
+		try {
+			object.setBody(objectMapper.readTree(json));
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+		return object;
+	}
+
+	private static MockRestProvider provider(MockObject object) {
+		return MockRestConfigs.provider(List.of(object), route("/users/{id}", "GET", object.getId()));
+	}
+}
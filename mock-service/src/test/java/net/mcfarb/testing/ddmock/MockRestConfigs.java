@@ -0,0 +1,52 @@
+package net.mcfarb.testing.ddmock;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import net.mcfarb.testing.ddmock.model.MockObject;
+import net.mcfarb.testing.ddmock.model.MockRestGeneratorInfo;
+import net.mcfarb.testing.ddmock.model.MockRestInfo;
+import net.mcfarb.testing.ddmock.model.MockRestMethodInfo;
+import net.mcfarb.testing.ddmock.service.JsonProcessor;
+import net.mcfarb.testing.ddmock.service.MockRestProvider;
+
+/**
+ * Builds REST mock configs in code, the counterpart of {@link MockConfigs}
+ * for {@link MockRestProvider}.
+ */
+final class MockRestConfigs {
+
+	private MockRestConfigs() {
+	}
+
+	static MockRestMethodInfo route(String path, String httpMethod, String returnId) {
+		MockRestMethodInfo method = new MockRestMethodInfo();
+		method.setPath(path);
+		method.setHttpMethod(httpMethod);
+		method.setReturnId(returnId);
+		return method;
+	}
+
+	static MockRestProvider provider(MockRestMethodInfo... methods) {
+		return provider(List.of(), methods);
+	}
+
+	/**
+	 * An initialized provider serving the methods from one API without a base
+	 * path.
+	 */
+	static MockRestProvider provider(List<MockObject> objects, MockRestMethodInfo... methods) {
+		MockRestInfo api = new MockRestInfo();
+		api.setMethods(List.of(methods));
+		MockRestGeneratorInfo info = new MockRestGeneratorInfo();
+		info.setMockRestApis(List.of(api));
+		info.setMockObjects(objects);
+		JsonProcessor jsonProcessor = new JsonProcessor();
+		jsonProcessor.setObjectMapper(new ObjectMapper());
+		MockRestProvider provider = new MockRestProvider();
+		provider.setJsonProcessor(jsonProcessor);
+		provider.initialize(info);
+		return provider;
+	}
+}
@@ -7,6 +7,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,6 +24,8 @@ import net.mcfarb.testing.ddmock.model.MockRestMethodInfo;
 import net.mcfarb.testing.ddmock.sample.SampleData;
 import net.mcfarb.testing.ddmock.service.JsonProcessor;
 import net.mcfarb.testing.ddmock.service.MockRestProvider;
+import net.mcfarb.testing.ddmock.startup.MockLoadReport;
+import net.mcfarb.testing.ddmock.startup.ObjectLoadTiming;
 
 public class MockRestProviderTest {
 
@@ -166,4 +169,44 @@ public class MockRestProviderTest {
 		assertEquals(1, pathParams.size());
 		assertEquals("123", pathParams.get("userId"));
 	}
+
+	@Test
+	public void testMatchListenerReportsCandidatesExamined() throws Exception {
+		MockRestGeneratorInfo mockRestInfo = jsonProcessor
+				.buildMockRestInfoObjectFromJson("mockdata/" + this.getClass().getSimpleName());
+
+		List<Integer> examined = new ArrayList<>();
+		mockRestProvider.setMatchListener((path, method, candidates, match) -> examined.add(candidates));
+		mockRestProvider.initialize(mockRestInfo);
+
+		// third configured route
+		assertNotNull(mockRestProvider.findRestMethod("/api/v1/products/abc123", "GET", null));
+		// no match scans every route
+		assertNull(mockRestProvider.findRestMethod("/api/v1/notfound", "GET", null));
+
+		assertEquals(List.of(3, 3), examined);
+	}
+
+	@Test
+	public void testLoadReport() throws Exception {
+		MockRestGeneratorInfo mockRestInfo = jsonProcessor
+				.buildMockRestInfoObjectFromJson("mockdata/" + this.getClass().getSimpleName());
+
+		mockRestProvider.initialize(mockRestInfo);
+
+		MockLoadReport report = mockRestProvider.getLoadReport();
+		assertNotNull(report);
+		assertEquals("mockdata/MockRestProviderTest", report.getSource());
+		assertEquals(3, report.getObjectCount());
+		assertEquals(3, report.getRouteCount());
+		assertTrue(report.getSourceBytes() > 0);
+		assertTrue(report.getReadNanos() > 0);
+		assertTrue(report.getParseNanos() > 0);
+		assertTrue(report.getRetainedBytes() > 0);
+
+		report.setTopN(2);
+		List<ObjectLoadTiming> slowest = report.getSlowestObjects();
+		assertEquals(2, slowest.size());
+		assertTrue(slowest.get(0).getBuildNanos() >= slowest.get(1).getBuildNanos());
+	}
 }
@@ -0,0 +1,205 @@
+package net.mcfarb.testing.ddmock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+
+import net.mcfarb.testing.ddmock.model.MockRestGeneratorInfo;
+import net.mcfarb.testing.ddmock.model.MockRestInfo;
+import net.mcfarb.testing.ddmock.model.MockRestMethodInfo;
+import net.mcfarb.testing.ddmock.service.JsonProcessor;
+import net.mcfarb.testing.ddmock.service.MockRestProvider;
+import net.mcfarb.testing.ddmock.service.MockRouteTable;
+import net.mcfarb.testing.ddmock.service.MockRouteTable.Match;
+import net.mcfarb.testing.ddmock.service.RestMatchListener;
+
+public class MockRouteTableTest {
+
+	private JsonProcessor jsonProcessor = new JsonProcessor();
+
+	@BeforeEach
+	public void setup() {
+		ObjectMapper objectMapper = new ObjectMapper();
+		objectMapper.setPropertyNamingStrategy(PropertyNamingStrategies.LOWER_CAMEL_CASE)
+				.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+		jsonProcessor.setObjectMapper(objectMapper);
+	}
+
+	@Test
+	public void testMatchesLikeProvider() throws Exception {
+		MockRestProvider provider = new MockRestProvider();
+		provider.setJsonProcessor(jsonProcessor);
+		provider.initialize(jsonProcessor.buildMockRestInfoObjectFromJson("mockdata/MockRestProviderTest"));
+		MockRouteTable<String> table = MockRouteTable.<String>builder().addProvider("rest", provider).build();
+
+		assertEquals(provider.getRestMethods().size(), table.size());
+		List<String[]> requests = List.of(
+				new String[] { "/api/v1/users/123", "GET" },
+				new String[] { "/api/v1/users", "GET" },
+				new String[] { "/api/v1/products/abc", "GET" },
+				new String[] { "/api/v1/products/abc", "DELETE" },
+				new String[] { "/api/v1/products", "GET" },
+				new String[] { "/api/v1/unknown", "GET" });
+		for (String[] request : requests) {
+			for (Map<String, String> query : List.of(Map.<String, String>of(), Map.of("active", "true"))) {
+				Match<String> match = table.find(request[0], request[1], query);
+				MockRestMethodInfo expected = provider.findRestMethod(request[0], request[1], query);
+				assertSame(expected, match != null ? match.method() : null, request[1] + " " + request[0]);
+			}
+		}
+
+		Match<String> match = table.find("/api/v1/users/123", "get", null);
+		assertEquals("rest", match.owner());
+		assertEquals(Map.of("userId", "123"), match.pathParameters());
+	}
+
+	@Test
+	public void testFirstAddedRouteWins() {
+		MockRestMethodInfo wildcard = route("/api/items/{id}", "GET");
+		MockRestMethodInfo literal = route("/api/items/special", "GET");
+		MockRestMethodInfo anyMethod = route("/api/items/special", null);
+		MockRouteTable<String> table = MockRouteTable.<String>builder()
+				.addRoute("a", wildcard)
+				.addRoute("b", literal)
+				.addRoute("b", anyMethod)
+				.build();
+
+		// the wildcard route was declared first, so it shadows the literal one
+		assertSame(wildcard, table.find("/api/items/special", "GET", null).method());
+		assertSame(anyMethod, table.find("/api/items/special", "POST", null).method());
+		assertNull(table.find("/api/items/special/more", "GET", null));
+	}
+
+	@Test
+	public void testSkipsRejectedOwners() {
+		MockRestMethodInfo older = route("/api/items/{id}", "GET");
+		MockRestMethodInfo newer = route("/api/items/{id}", "GET");
+		MockRouteTable<String> table = MockRouteTable.<String>builder()
+				.addRoute("newer", newer)
+				.addRoute("older", older)
+				.build();
+
+		assertSame(newer, table.find("/api/items/1", "GET", null, null, null, owner -> true,
+				RestMatchListener.NOOP).method());
+		assertSame(older, table.find("/api/items/1", "GET", null, null, null, owner -> !owner.equals("newer"),
+				RestMatchListener.NOOP).method());
+		assertNull(table.find("/api/items/1", "GET", null, null, null, owner -> false, RestMatchListener.NOOP));
+	}
+
+	@Test
+	public void testCandidatesExamined() {
+		MockRestMethodInfo active = route("/api/items", "GET");
+		active.setQueryParameters(Map.of("status", "active"));
+		MockRestMethodInfo all = route("/api/items", "GET");
+		MockRouteTable<String> table = MockRouteTable.<String>builder()
+				.addRoute("a", active)
+				.addRoute("a", all)
+				.addRoute("a", route("/api/other", "GET"))
+				.build();
+
+		List<Integer> candidates = new ArrayList<>();
+		table.find("/api/items", "GET", null, (path, method, examined, match) -> candidates.add(examined));
+		table.find("/api/items", "GET", Map.of("status", "active"),
+				(path, method, examined, match) -> candidates.add(examined));
+		table.find("/api/nothing", "GET", null, (path, method, examined, match) -> candidates.add(examined));
+
+		// only routes sharing the request's pattern and method are evaluated, and of those only
+		// the query variants indexed under the request's values
+		assertEquals(List.of(1, 1, 0), candidates);
+	}
+
+	@Test
+	public void testMostSpecificQueryVariantWins() {
+		MockRestMethodInfo all = route("/api/users", "GET");
+		List<MockRestMethodInfo> routes = new ArrayList<>(List.of(all));
+		for (int i = 0; i < 20; i++) {
+			MockRestMethodInfo role = route("/api/users", "GET");
+			role.setQueryParameters(Map.of("role", "role" + i));
+			routes.add(role);
+		}
+		MockRestMethodInfo activePage = route("/api/users", "GET");
+		activePage.setQueryParameters(new LinkedHashMap<>(Map.of("status", "active")));
+		activePage.getQueryParameters().put("page", "2");
+		routes.add(activePage);
+		MockRouteTable.Builder<String> builder = MockRouteTable.builder();
+		routes.forEach(route -> builder.addRoute("users", route));
+		MockRouteTable<String> table = builder.build();
+
+		List<Integer> candidates = new ArrayList<>();
+		RestMatchListener listener = (path, method, examined, match) -> candidates.add(examined);
+		assertSame(routes.get(8), find(table, "role=role7", listener));
+		// every value of a repeated parameter is looked up, the first declared variant wins
+		assertSame(routes.get(3), find(table, "role=role9&role=role2", listener));
+		assertSame(activePage, find(table, "role=role1&page=2&status=active", listener));
+		assertSame(all, find(table, "status=active&page=3", listener));
+		assertEquals(List.of(1, 2, 2, 2), candidates);
+
+		MockRestProvider provider = new MockRestProvider();
+		provider.setJsonProcessor(jsonProcessor);
+		MockRestInfo api = new MockRestInfo();
+		api.setMethods(routes);
+		MockRestGeneratorInfo info = new MockRestGeneratorInfo();
+		info.setMockRestApis(List.of(api));
+		info.setMockObjects(List.of());
+		provider.initialize(info);
+		for (String query : List.of("", "role=role7", "role=role9&role=role2", "role=role1&page=2&status=active",
+				"page=2&status=active&status=inactive", "status=inactive&page=2")) {
+			assertSame(provider.findRestMethod("/api/users", "GET", query(query), null, null).getQueryParameters(),
+					find(table, query, RestMatchListener.NOOP).getQueryParameters(), query);
+		}
+		// single valued parameters find the same route
+		assertSame(activePage, table.find("/api/users", "GET", Map.of("status", "active", "page", "2")).method());
+	}
+
+	@Test
+	public void testFindOwnerUsesLongestBasePath() {
+		MockRouteTable<String> table = MockRouteTable.<String>builder()
+				.addBasePath("api", "/api")
+				.addBasePath("user", "/api/user")
+				.addBasePath("tenant", "/t/{tenant}/orders")
+				.build();
+
+		assertEquals("user", table.findOwner("/api/user/1/unmocked"));
+		assertEquals("api", table.findOwner("/api/product"));
+		assertEquals("tenant", table.findOwner("/t/acme/orders/5"));
+		assertNull(table.findOwner("/t/acme"));
+		assertNull(table.findOwner("/other"));
+	}
+
+	private static MockRestMethodInfo find(MockRouteTable<String> table, String query, RestMatchListener listener) {
+		return table.find("/api/users", "GET", query(query), null, null, listener).method();
+	}
+
+	private static MultiValueMap<String, String> query(String query) {
+		MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+		for (String param : query.split("&")) {
+			if (!param.isEmpty()) {
+				String[] pair = param.split("=");
+				params.add(pair[0], pair[1]);
+			}
+		}
+		return params;
+	}
+
+	private static MockRestMethodInfo route(String path, String httpMethod) {
+		MockRestMethodInfo method = new MockRestMethodInfo();
+		method.setPath(path);
+		method.setHttpMethod(httpMethod);
+		method.setReturnId(path);
+		return method;
+	}
+}
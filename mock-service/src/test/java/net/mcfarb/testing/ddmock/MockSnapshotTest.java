@@ -0,0 +1,149 @@
+package net.mcfarb.testing.ddmock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+
+import net.mcfarb.testing.ddmock.model.MockIsolation;
+import net.mcfarb.testing.ddmock.model.MockObject;
+import net.mcfarb.testing.ddmock.model.MockRestGeneratorInfo;
+import net.mcfarb.testing.ddmock.sample.SampleData;
+import net.mcfarb.testing.ddmock.service.JsonProcessor;
+import net.mcfarb.testing.ddmock.service.MockRestProvider;
+import net.mcfarb.testing.ddmock.service.MockSnapshot;
+
+public class MockSnapshotTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper()
+			.setPropertyNamingStrategy(PropertyNamingStrategies.LOWER_CAMEL_CASE)
+			.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+	private final JsonProcessor jsonProcessor = new JsonProcessor();
+
+	@TempDir
+	Path directory;
+
+	{
+		jsonProcessor.setObjectMapper(objectMapper);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "MockRestProviderTest", "MockResourceStoreTest" })
+	public void testSnapshotMatchesJson(String name) throws Exception {
+		byte[] json = resource(name);
+		Path snapshot = directory.resolve(name + ".snapshot");
+
+		MockRestGeneratorInfo parsed = load(json, snapshot);
+		assertFalse(parsed.getLoadReport().isFromSnapshot());
+		assertTrue(Files.isRegularFile(snapshot));
+
+		MockRestGeneratorInfo restored = load(json, snapshot);
+		assertTrue(restored.getLoadReport().isFromSnapshot());
+		assertTrue(restored.getLoadReport().summary().contains("snapshot"));
+		assertEquals(objectMapper.valueToTree(parsed), objectMapper.valueToTree(restored));
+	}
+
+	@Test
+	public void testProviderFromSnapshot() throws Exception {
+		byte[] json = resource("MockRestProviderTest");
+		Path snapshot = directory.resolve("rest.snapshot");
+		load(json, snapshot);
+
+		MockRestProvider provider = new MockRestProvider();
+		provider.setJsonProcessor(jsonProcessor);
+		provider.initialize(load(json, snapshot));
+
+		SampleData user = (SampleData) provider.getResponseObject(provider.findRestMethod("/api/v1/users/1", "GET",
+				null));
+		assertEquals("John Doe", user.getData1());
+	}
+
+	@Test
+	public void testStaleSnapshotIsReplaced() throws Exception {
+		byte[] json = resource("MockRestProviderTest");
+		byte[] changed = new String(json, StandardCharsets.UTF_8).replace("John Doe", "Jane Doe")
+				.getBytes(StandardCharsets.UTF_8);
+		Path snapshot = directory.resolve("rest.snapshot");
+		MockSnapshot reader = new MockSnapshot(objectMapper);
+		load(json, snapshot);
+
+		assertNull(reader.read(snapshot, changed));
+		MockRestGeneratorInfo reparsed = load(changed, snapshot);
+		assertFalse(reparsed.getLoadReport().isFromSnapshot());
+		assertEquals("Jane Doe", reparsed.getMockObjectById("user1").getObjectValue().get("data1").asText());
+
+		// the snapshot now matches the changed file
+		assertNull(reader.read(snapshot, json));
+		assertNotNull(reader.read(snapshot, changed));
+		try (var files = Files.list(directory)) {
+			assertEquals(1, files.count());
+		}
+	}
+
+	@Test
+	public void testSnapshotOfOtherModelIsStale() throws Exception {
+		byte[] json = resource("MockRestProviderTest");
+		Path snapshot = directory.resolve("rest.snapshot");
+		// a build whose MockObject did not have bodyFile and isolation yet
+		ObjectMapper olderModel = objectMapper.copy().addMixIn(MockObject.class, OlderMockObject.class);
+		new MockSnapshot(olderModel).write(snapshot, json, jsonProcessor.buildMockRestInfoObjectFromStream("test",
+				new ByteArrayInputStream(json), null));
+
+		assertNotNull(new MockSnapshot(olderModel).read(snapshot, json));
+		assertNull(new MockSnapshot(objectMapper).read(snapshot, json));
+		assertFalse(load(json, snapshot).getLoadReport().isFromSnapshot());
+		assertTrue(load(json, snapshot).getLoadReport().isFromSnapshot());
+	}
+
+	abstract static class OlderMockObject {
+		@JsonIgnore
+		String bodyFile;
+		@JsonIgnore
+		MockIsolation isolation;
+	}
+
+	@Test
+	public void testUnreadableSnapshotFallsBackToJson() throws Exception {
+		byte[] json = resource("MockRestProviderTest");
+		Path snapshot = directory.resolve("rest.snapshot");
+		load(json, snapshot);
+		byte[] written = Files.readAllBytes(snapshot);
+		Files.write(snapshot, Arrays.copyOf(written, written.length / 2));
+
+		MockRestGeneratorInfo info = load(json, snapshot);
+		assertFalse(info.getLoadReport().isFromSnapshot());
+		assertEquals(1, info.getMockRestApis().size());
+		assertTrue(load(json, snapshot).getLoadReport().isFromSnapshot());
+
+		Files.write(snapshot, new byte[] { 1, 2, 3 });
+		assertFalse(load(json, snapshot).getLoadReport().isFromSnapshot());
+	}
+
+	private MockRestGeneratorInfo load(byte[] json, Path snapshot) throws Exception {
+		return jsonProcessor.buildMockRestInfoObjectFromStream("test", new ByteArrayInputStream(json), snapshot);
+	}
+
+	private byte[] resource(String name) throws Exception {
+		try (InputStream stream = getClass().getClassLoader().getResourceAsStream("mockdata/" + name + ".json")) {
+			return stream.readAllBytes();
+		}
+	}
+}
@@ -136,6 +136,19 @@ public class MonoMockBuilderTest<S> implements TestParent {
 
     }
 
+    @Test
+    public void testFallsBackToSpringBeans() {
+        StepVerifier.create(mockProvider.getBean("springBeanMonoProvider"))
+                .expectNext(springBeanMonoProvider)
+                .verifyComplete();
+        // unknown names complete empty instead of failing on a null
+        StepVerifier.create(mockProvider.getBean("noSuchBean"))
+                .verifyComplete();
+        StepVerifier.create(mockProvider.getBeans(List.of("sampleService", "noSuchBean")))
+                .consumeNextWith(beans -> assertEquals(List.of("sampleService"), List.copyOf(beans.keySet())))
+                .verifyComplete();
+    }
+
     @Test
     public void testBuildMockInfoObjectFromJson() throws Exception {
         MockGeneratorInfo mockGeneratorInfo = jsonProcessor